@@ -2,7 +2,10 @@ package com.microservices.businessservice.client;
 
 import com.microservices.businessservice.dto.CategoriaDTO;
 import com.microservices.businessservice.dto.InventarioDTO;
+import com.microservices.businessservice.dto.PaginaCursorDTO;
+import com.microservices.businessservice.dto.PedidoRequest;
 import com.microservices.businessservice.dto.ProductoDTO;
+import com.microservices.businessservice.dto.SnapshotInventarioDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
@@ -30,6 +33,9 @@ public interface DataServiceClient {
     @GetMapping("/data/productos/{id}")
     ProductoDTO obtenerProductoPorId(@PathVariable("id") Long id);
 
+    @GetMapping("/data/productos")
+    List<ProductoDTO> obtenerProductosPorIds(@RequestParam("ids") List<Long> ids);
+
     @PostMapping("/data/productos")
     ProductoDTO crearProducto(@RequestBody ProductoDTO producto,
                              @RequestParam(required = false) Integer cantidadInicial,
@@ -60,6 +66,9 @@ public interface DataServiceClient {
     @GetMapping("/data/productos/valor-inventario")
     List<Map<String, Object>> obtenerValorInventarioPorProducto();
 
+    @GetMapping("/data/productos/valor-inventario")
+    List<Map<String, Object>> obtenerTopValorInventario(@RequestParam("top") int top);
+
     @PutMapping("/data/productos/{id}/reactivar")
     ProductoDTO reactivarProducto(@PathVariable("id") Long id);
 
@@ -121,6 +130,9 @@ public interface DataServiceClient {
     InventarioDTO decrementarStock(@PathVariable("productoId") Long productoId,
                                   @RequestParam("decremento") Integer decremento);
 
+    @PostMapping("/data/inventario/reservas")
+    List<Map<String, Object>> reservarStock(@RequestBody PedidoRequest pedido);
+
     @GetMapping("/data/inventario/stock-bajo")
     List<InventarioDTO> obtenerInventariosConStockBajo();
 
@@ -136,6 +148,9 @@ public interface DataServiceClient {
     @GetMapping("/data/inventario/valor-total")
     BigDecimal obtenerValorTotalInventario();
 
+    @GetMapping("/data/inventario/snapshot")
+    SnapshotInventarioDTO obtenerSnapshotInventario();
+
     @GetMapping("/data/inventario/categoria/{categoriaNombre}")
     List<InventarioDTO> obtenerInventarioPorCategoria(@PathVariable("categoriaNombre") String categoriaNombre);
 
@@ -145,6 +160,95 @@ public interface DataServiceClient {
     @GetMapping("/data/inventario/actualizados")
     List<InventarioDTO> obtenerInventariosActualizadosRecientes(@RequestParam("dias") int dias);
 
+    // ========== ENDPOINTS PAGINADOS POR CURSOR ==========
+
+    @GetMapping("/data/productos")
+    PaginaCursorDTO<ProductoDTO> obtenerProductosPaginados(
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam("limite") int limite);
+
+    @GetMapping("/data/productos/categoria/{nombre}")
+    PaginaCursorDTO<ProductoDTO> obtenerProductosPorCategoriaPaginados(
+        @PathVariable("nombre") String categoriaNombre,
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam("limite") int limite);
+
+    @GetMapping("/data/productos/buscar")
+    PaginaCursorDTO<ProductoDTO> buscarProductosPaginados(
+        @RequestParam("texto") String texto,
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam("limite") int limite);
+
+    @GetMapping("/data/productos/precio")
+    PaginaCursorDTO<ProductoDTO> buscarProductosPorPrecioPaginados(
+        @RequestParam("min") BigDecimal min,
+        @RequestParam("max") BigDecimal max,
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam("limite") int limite);
+
+    @GetMapping("/data/productos/stock-bajo")
+    PaginaCursorDTO<ProductoDTO> obtenerProductosConStockBajoPaginados(
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam("limite") int limite);
+
+    @GetMapping("/data/productos/sin-stock")
+    PaginaCursorDTO<ProductoDTO> obtenerProductosSinStockPaginados(
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam("limite") int limite);
+
+    @GetMapping("/data/categorias")
+    PaginaCursorDTO<CategoriaDTO> obtenerCategoriasPaginadas(
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam("limite") int limite);
+
+    @GetMapping("/data/categorias/buscar")
+    PaginaCursorDTO<CategoriaDTO> buscarCategoriasPaginadas(
+        @RequestParam("texto") String texto,
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam("limite") int limite);
+
+    @GetMapping("/data/categorias/con-productos")
+    PaginaCursorDTO<CategoriaDTO> obtenerCategoriasConProductosPaginadas(
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam("limite") int limite);
+
+    @GetMapping("/data/inventario")
+    PaginaCursorDTO<InventarioDTO> obtenerInventarioPaginado(
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam("limite") int limite);
+
+    @GetMapping("/data/inventario/stock-bajo")
+    PaginaCursorDTO<InventarioDTO> obtenerInventariosConStockBajoPaginados(
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam("limite") int limite);
+
+    @GetMapping("/data/inventario/stock-critico")
+    PaginaCursorDTO<InventarioDTO> obtenerInventariosConStockCriticoPaginados(
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam("limite") int limite);
+
+    @GetMapping("/data/inventario/sin-stock")
+    PaginaCursorDTO<InventarioDTO> obtenerInventariosSinStockPaginados(
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam("limite") int limite);
+
+    @GetMapping("/data/inventario/categoria/{categoriaNombre}")
+    PaginaCursorDTO<InventarioDTO> obtenerInventarioPorCategoriaPaginado(
+        @PathVariable("categoriaNombre") String categoriaNombre,
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam("limite") int limite);
+
+    @GetMapping("/data/inventario/reabastecimiento")
+    PaginaCursorDTO<InventarioDTO> obtenerInventariosParaReabastecimientoPaginados(
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam("limite") int limite);
+
+    @GetMapping("/data/inventario/actualizados")
+    PaginaCursorDTO<InventarioDTO> obtenerInventariosActualizadosRecientesPaginados(
+        @RequestParam("dias") int dias,
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam("limite") int limite);
+
     // ========== HEALTH CHECK ==========
 
     @GetMapping("/data/health")
@@ -2,7 +2,10 @@ package com.microservices.businessservice.client;
 
 import com.microservices.businessservice.dto.CategoriaDTO;
 import com.microservices.businessservice.dto.InventarioDTO;
+import com.microservices.businessservice.dto.PaginaCursorDTO;
+import com.microservices.businessservice.dto.PedidoRequest;
 import com.microservices.businessservice.dto.ProductoDTO;
+import com.microservices.businessservice.dto.SnapshotInventarioDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -24,7 +27,27 @@ public class DataServiceClientFallback implements DataServiceClient {
 
     private static final Logger logger = LoggerFactory.getLogger(DataServiceClientFallback.class);
 
+    /** Marca el hilo que recibió una respuesta de fallback, para no guardarla en caché */
+    private static final ThreadLocal<Boolean> RESPUESTA_DEGRADADA = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Indica si la última llamada del hilo actual se resolvió con el fallback y limpia la marca
+     */
+    public static boolean consumirRespuestaDegradada() {
+        boolean degradada = RESPUESTA_DEGRADADA.get();
+        RESPUESTA_DEGRADADA.remove();
+        return degradada;
+    }
+
+    /**
+     * Marca el hilo actual como receptor de una respuesta de fallback (p. ej. compartida por otro hilo)
+     */
+    public static void marcarRespuestaDegradada() {
+        RESPUESTA_DEGRADADA.set(true);
+    }
+
     private void logFallback(String metodo) {
+        RESPUESTA_DEGRADADA.set(true);
         logger.warn("FALLBACK: Ejecutando fallback para {} - Data service no disponible", metodo);
     }
 
@@ -42,6 +65,12 @@ public class DataServiceClientFallback implements DataServiceClient {
         return null;
     }
 
+    @Override
+    public List<ProductoDTO> obtenerProductosPorIds(List<Long> ids) {
+        logFallback("obtenerProductosPorIds");
+        return Collections.emptyList();
+    }
+
     @Override
     public ProductoDTO crearProducto(ProductoDTO producto, Integer cantidadInicial, Integer stockMinimo) {
         logFallback("crearProducto");
@@ -95,6 +124,12 @@ public class DataServiceClientFallback implements DataServiceClient {
         return Collections.emptyList();
     }
 
+    @Override
+    public List<Map<String, Object>> obtenerTopValorInventario(int top) {
+        logFallback("obtenerTopValorInventario");
+        return Collections.emptyList();
+    }
+
     @Override
     public ProductoDTO reactivarProducto(Long id) {
         logFallback("reactivarProducto");
@@ -206,6 +241,12 @@ public class DataServiceClientFallback implements DataServiceClient {
         return null;
     }
 
+    @Override
+    public List<Map<String, Object>> reservarStock(PedidoRequest pedido) {
+        logFallback("reservarStock");
+        return null;
+    }
+
     @Override
     public List<InventarioDTO> obtenerInventariosConStockBajo() {
         logFallback("obtenerInventariosConStockBajo");
@@ -242,6 +283,14 @@ public class DataServiceClientFallback implements DataServiceClient {
         return BigDecimal.ZERO;
     }
 
+    @Override
+    public SnapshotInventarioDTO obtenerSnapshotInventario() {
+        logFallback("obtenerSnapshotInventario");
+        SnapshotInventarioDTO snapshot = new SnapshotInventarioDTO();
+        snapshot.setServicioDisponible(false);
+        return snapshot;
+    }
+
     @Override
     public List<InventarioDTO> obtenerInventarioPorCategoria(String categoriaNombre) {
         logFallback("obtenerInventarioPorCategoria");
@@ -260,6 +309,104 @@ public class DataServiceClientFallback implements DataServiceClient {
         return Collections.emptyList();
     }
 
+    // ========== ENDPOINTS PAGINADOS POR CURSOR ==========
+
+    @Override
+    public PaginaCursorDTO<ProductoDTO> obtenerProductosPaginados(Long cursor, int limite) {
+        logFallback("obtenerProductosPaginados");
+        return PaginaCursorDTO.vacia(limite);
+    }
+
+    @Override
+    public PaginaCursorDTO<ProductoDTO> obtenerProductosPorCategoriaPaginados(String categoriaNombre, Long cursor, int limite) {
+        logFallback("obtenerProductosPorCategoriaPaginados");
+        return PaginaCursorDTO.vacia(limite);
+    }
+
+    @Override
+    public PaginaCursorDTO<ProductoDTO> buscarProductosPaginados(String texto, Long cursor, int limite) {
+        logFallback("buscarProductosPaginados");
+        return PaginaCursorDTO.vacia(limite);
+    }
+
+    @Override
+    public PaginaCursorDTO<ProductoDTO> buscarProductosPorPrecioPaginados(BigDecimal min, BigDecimal max, Long cursor, int limite) {
+        logFallback("buscarProductosPorPrecioPaginados");
+        return PaginaCursorDTO.vacia(limite);
+    }
+
+    @Override
+    public PaginaCursorDTO<ProductoDTO> obtenerProductosConStockBajoPaginados(Long cursor, int limite) {
+        logFallback("obtenerProductosConStockBajoPaginados");
+        return PaginaCursorDTO.vacia(limite);
+    }
+
+    @Override
+    public PaginaCursorDTO<ProductoDTO> obtenerProductosSinStockPaginados(Long cursor, int limite) {
+        logFallback("obtenerProductosSinStockPaginados");
+        return PaginaCursorDTO.vacia(limite);
+    }
+
+    @Override
+    public PaginaCursorDTO<CategoriaDTO> obtenerCategoriasPaginadas(Long cursor, int limite) {
+        logFallback("obtenerCategoriasPaginadas");
+        return PaginaCursorDTO.vacia(limite);
+    }
+
+    @Override
+    public PaginaCursorDTO<CategoriaDTO> buscarCategoriasPaginadas(String texto, Long cursor, int limite) {
+        logFallback("buscarCategoriasPaginadas");
+        return PaginaCursorDTO.vacia(limite);
+    }
+
+    @Override
+    public PaginaCursorDTO<CategoriaDTO> obtenerCategoriasConProductosPaginadas(Long cursor, int limite) {
+        logFallback("obtenerCategoriasConProductosPaginadas");
+        return PaginaCursorDTO.vacia(limite);
+    }
+
+    @Override
+    public PaginaCursorDTO<InventarioDTO> obtenerInventarioPaginado(Long cursor, int limite) {
+        logFallback("obtenerInventarioPaginado");
+        return PaginaCursorDTO.vacia(limite);
+    }
+
+    @Override
+    public PaginaCursorDTO<InventarioDTO> obtenerInventariosConStockBajoPaginados(Long cursor, int limite) {
+        logFallback("obtenerInventariosConStockBajoPaginados");
+        return PaginaCursorDTO.vacia(limite);
+    }
+
+    @Override
+    public PaginaCursorDTO<InventarioDTO> obtenerInventariosConStockCriticoPaginados(Long cursor, int limite) {
+        logFallback("obtenerInventariosConStockCriticoPaginados");
+        return PaginaCursorDTO.vacia(limite);
+    }
+
+    @Override
+    public PaginaCursorDTO<InventarioDTO> obtenerInventariosSinStockPaginados(Long cursor, int limite) {
+        logFallback("obtenerInventariosSinStockPaginados");
+        return PaginaCursorDTO.vacia(limite);
+    }
+
+    @Override
+    public PaginaCursorDTO<InventarioDTO> obtenerInventarioPorCategoriaPaginado(String categoriaNombre, Long cursor, int limite) {
+        logFallback("obtenerInventarioPorCategoriaPaginado");
+        return PaginaCursorDTO.vacia(limite);
+    }
+
+    @Override
+    public PaginaCursorDTO<InventarioDTO> obtenerInventariosParaReabastecimientoPaginados(Long cursor, int limite) {
+        logFallback("obtenerInventariosParaReabastecimientoPaginados");
+        return PaginaCursorDTO.vacia(limite);
+    }
+
+    @Override
+    public PaginaCursorDTO<InventarioDTO> obtenerInventariosActualizadosRecientesPaginados(int dias, Long cursor, int limite) {
+        logFallback("obtenerInventariosActualizadosRecientesPaginados");
+        return PaginaCursorDTO.vacia(limite);
+    }
+
     @Override
     public Map<String, Object> healthCheck() {
         logFallback("healthCheck");
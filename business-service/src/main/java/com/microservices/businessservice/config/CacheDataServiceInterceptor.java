@@ -0,0 +1,338 @@
+package com.microservices.businessservice.config;
+
+import com.microservices.businessservice.client.DataServiceClient;
+import com.microservices.businessservice.client.DataServiceClientFallback;
+import com.microservices.businessservice.dto.InventarioDTO;
+import com.microservices.businessservice.dto.ItemPedidoDTO;
+import com.microservices.businessservice.dto.PedidoRequest;
+import com.microservices.businessservice.dto.ProductoDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Caché de respuestas delante de las lecturas de DataServiceClient
+ *
+ * Las lecturas (métodos @GetMapping) se guardan por método y argumentos durante un TTL, en un
+ * mapa acotado que desaloja la entrada usada hace más tiempo al superar el máximo. Las escrituras
+ * hechas por el mismo cliente invalidan, al terminar (con o sin error), los listados y agregados
+ * y las entradas por producto de los productos que tocan; si no se puede saber cuáles (categorías,
+ * inventario por ID) se vacía la caché. Los cambios hechos por otras instancias o directamente
+ * en data-service se ven al vencer el TTL.
+ *
+ * Las búsquedas por lote de productos (obtenerProductosPorIds) se resuelven con las mismas
+ * entradas por producto que obtenerProductoPorId: solo se piden a data-service los IDs que no
+ * están en caché y cada producto recibido se guarda bajo su propia clave.
+ *
+ * Las respuestas de fallback no se guardan, y una lectura que empezó antes de una escritura
+ * tampoco. Los resultados se comparten entre llamadas: quien los recibe no debe modificarlos
+ * más allá de recalcular sus campos derivados.
+ *
+ * @author Agustin Benavidez
+ */
+public class CacheDataServiceInterceptor implements MethodInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheDataServiceInterceptor.class);
+
+    /** Lecturas cuyas entradas dependen de un único producto (primer argumento) */
+    private static final Set<String> LECTURAS_POR_PRODUCTO = Set.of("obtenerProductoPorId", "obtenerInventarioPorProducto");
+
+    /** Lectura por producto cuyas entradas se comparten con la búsqueda por lote */
+    private static final String LECTURA_PRODUCTO = "obtenerProductoPorId";
+
+    /** Búsqueda por lote de productos (primer argumento: lista de IDs) */
+    private static final String LECTURA_LOTE_PRODUCTOS = "obtenerProductosPorIds";
+
+    /** Lecturas que no se guardan */
+    private static final Set<String> LECTURAS_SIN_CACHE = Set.of("healthCheck");
+
+    private final long ttlNanos;
+    private final int maximoEntradas;
+    private final Supplier<Metricas> metricas;
+    private final Map<Method, Boolean> lecturas = new ConcurrentHashMap<>();
+
+    // Entradas en orden de acceso y generación de escrituras (protegidas por el monitor)
+    private final LinkedHashMap<Clave, Entrada> entradas;
+    private long generacion;
+
+    private record Clave(String metodo, List<Object> argumentos) {
+    }
+
+    private record Entrada(Object valor, long venceEnNanos, Long productoId) {
+    }
+
+    public CacheDataServiceInterceptor(Supplier<MeterRegistry> meterRegistry, long ttlMs, int maximoEntradas) {
+        this.ttlNanos = ttlMs * 1_000_000;
+        this.maximoEntradas = maximoEntradas;
+        this.metricas = SingletonSupplier.of(() -> new Metricas(meterRegistry.get(), this));
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Clave, Entrada> masAntigua) {
+                if (size() > CacheDataServiceInterceptor.this.maximoEntradas) {
+                    metricas.get().desalojosTamanio.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocacion) throws Throwable {
+        Method metodo = invocacion.getMethod();
+        if (!DataServiceClient.class.equals(metodo.getDeclaringClass())) {
+            return invocacion.proceed();
+        }
+        if (lecturas.computeIfAbsent(metodo, CacheDataServiceInterceptor::esLectura)) {
+            return leer(invocacion);
+        }
+        try {
+            return invocacion.proceed();
+        } finally {
+            invalidar(metodo.getName(), invocacion.getArguments());
+        }
+    }
+
+    /**
+     * Cantidad de entradas guardadas (incluye las vencidas que todavía no se consultaron)
+     */
+    public synchronized int tamanio() {
+        return entradas.size();
+    }
+
+    /**
+     * Vacía la caché
+     */
+    public synchronized void limpiar() {
+        generacion++;
+        entradas.clear();
+    }
+
+    // ========== LECTURA ==========
+
+    private Object leer(MethodInvocation invocacion) throws Throwable {
+        String nombre = invocacion.getMethod().getName();
+        if (LECTURA_LOTE_PRODUCTOS.equals(nombre) && invocacion instanceof ProxyMethodInvocation proxy) {
+            return leerLote(proxy);
+        }
+        Object[] argumentos = invocacion.getArguments();
+        Clave clave = new Clave(nombre, Arrays.asList(argumentos.clone()));
+        Metricas metricas = this.metricas.get();
+
+        long generacionLectura;
+        synchronized (this) {
+            Object guardado = vigente(clave, metricas);
+            if (guardado != null) {
+                metricas.aciertos.increment();
+                return guardado;
+            }
+            generacionLectura = generacion;
+        }
+        metricas.fallos.increment();
+
+        DataServiceClientFallback.consumirRespuestaDegradada();
+        Object valor = invocacion.proceed();
+        if (valor == null || DataServiceClientFallback.consumirRespuestaDegradada()) {
+            return valor;
+        }
+        Long productoId = LECTURAS_POR_PRODUCTO.contains(nombre) ? (Long) argumentos[0] : null;
+        synchronized (this) {
+            // Una escritura durante la lectura pudo dejar el valor desactualizado
+            if (generacion == generacionLectura) {
+                entradas.put(clave, new Entrada(valor, System.nanoTime() + ttlNanos, productoId));
+            }
+        }
+        return valor;
+    }
+
+    /**
+     * Resuelve un lote de productos con las entradas por producto y pide a data-service solo
+     * los que faltan (el orden de la respuesta no está garantizado, igual que en data-service)
+     */
+    @SuppressWarnings("unchecked")
+    private Object leerLote(ProxyMethodInvocation invocacion) throws Throwable {
+        List<Long> ids = (List<Long>) invocacion.getArguments()[0];
+        if (ids == null) {
+            return invocacion.proceed();
+        }
+        Metricas metricas = this.metricas.get();
+
+        List<ProductoDTO> productos = new ArrayList<>(ids.size());
+        List<Long> faltantes = new ArrayList<>();
+        long generacionLectura;
+        synchronized (this) {
+            for (Long id : new LinkedHashSet<>(ids)) {
+                Object guardado = vigente(new Clave(LECTURA_PRODUCTO, List.of(id)), metricas);
+                if (guardado != null) {
+                    productos.add((ProductoDTO) guardado);
+                } else {
+                    faltantes.add(id);
+                }
+            }
+            generacionLectura = generacion;
+        }
+        metricas.aciertos.increment(productos.size());
+        if (faltantes.isEmpty()) {
+            return productos;
+        }
+        metricas.fallos.increment(faltantes.size());
+
+        DataServiceClientFallback.consumirRespuestaDegradada();
+        List<ProductoDTO> leidos = (List<ProductoDTO>) invocacion.invocableClone(new Object[]{faltantes}).proceed();
+        if (leidos == null) {
+            return productos;
+        }
+        if (!DataServiceClientFallback.consumirRespuestaDegradada()) {
+            long venceEnNanos = System.nanoTime() + ttlNanos;
+            synchronized (this) {
+                // Una escritura durante la lectura pudo dejar los valores desactualizados
+                if (generacion == generacionLectura) {
+                    for (ProductoDTO producto : leidos) {
+                        if (producto != null && producto.getId() != null) {
+                            entradas.put(new Clave(LECTURA_PRODUCTO, List.of(producto.getId())),
+                                    new Entrada(producto, venceEnNanos, producto.getId()));
+                        }
+                    }
+                }
+            }
+        }
+        productos.addAll(leidos);
+        return productos;
+    }
+
+    /**
+     * Valor guardado para la clave si no venció (null si no hay); se llama con el monitor tomado
+     */
+    private Object vigente(Clave clave, Metricas metricas) {
+        Entrada entrada = entradas.get(clave);
+        if (entrada == null) {
+            return null;
+        }
+        if (entrada.venceEnNanos() - System.nanoTime() > 0) {
+            return entrada.valor();
+        }
+        entradas.remove(clave);
+        metricas.desalojosExpiracion.increment();
+        return null;
+    }
+
+    /**
+     * Métodos de lectura: los @GetMapping salvo los que no se guardan
+     */
+    static boolean esLectura(Method metodo) {
+        return AnnotatedElementUtils.hasAnnotation(metodo, GetMapping.class)
+                && !LECTURAS_SIN_CACHE.contains(metodo.getName());
+    }
+
+    // ========== INVALIDACIÓN ==========
+
+    private void invalidar(String metodo, Object[] argumentos) {
+        Optional<Set<Long>> productos = productosAfectados(metodo, argumentos);
+        int invalidadas;
+        synchronized (this) {
+            generacion++;
+            int antes = entradas.size();
+            if (productos.isEmpty()) {
+                entradas.clear();
+            } else {
+                entradas.values().removeIf(entrada ->
+                        entrada.productoId() == null || productos.get().contains(entrada.productoId()));
+            }
+            invalidadas = antes - entradas.size();
+        }
+        metricas.get().invalidaciones.increment(invalidadas);
+        logger.debug("Caché de data-service: {} invalidó {} entradas (productos: {})", metodo, invalidadas,
+                productos.map(Object::toString).orElse("todos"));
+    }
+
+    /**
+     * Productos cuyas entradas invalida una escritura, o vacío si puede afectar a cualquiera
+     */
+    static Optional<Set<Long>> productosAfectados(String metodo, Object[] argumentos) {
+        return switch (metodo) {
+            case "crearProducto", "crearCategoria" -> Optional.of(Set.of());
+            case "actualizarProducto", "eliminarProducto", "reactivarProducto",
+                 "actualizarStock", "incrementarStock", "decrementarStock" ->
+                    Optional.of(Set.of((Long) argumentos[0]));
+            case "crearInventario" -> Optional.ofNullable((InventarioDTO) argumentos[0])
+                    .map(InventarioDTO::getProductoId)
+                    .map(Set::of);
+            case "reservarStock" -> Optional.ofNullable((PedidoRequest) argumentos[0])
+                    .map(PedidoRequest::getItems)
+                    .map(items -> items.stream()
+                            .map(ItemPedidoDTO::getProductoId)
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toUnmodifiableSet()));
+            default -> Optional.empty();
+        };
+    }
+
+    // ========== MÉTRICAS ==========
+
+    /**
+     * Medidores de la caché, creados en la primera invocación para no adelantar el MeterRegistry
+     */
+    private static final class Metricas {
+
+        private final Counter aciertos;
+        private final Counter fallos;
+        private final Counter desalojosTamanio;
+        private final Counter desalojosExpiracion;
+        private final Counter invalidaciones;
+
+        private Metricas(MeterRegistry registry, CacheDataServiceInterceptor cache) {
+            this.aciertos = Counter.builder("business.cache.data-service.consultas")
+                    .description("Lecturas de data-service según se resolvieron en caché o no")
+                    .tag("resultado", "acierto")
+                    .register(registry);
+            this.fallos = Counter.builder("business.cache.data-service.consultas")
+                    .description("Lecturas de data-service según se resolvieron en caché o no")
+                    .tag("resultado", "fallo")
+                    .register(registry);
+            this.desalojosTamanio = Counter.builder("business.cache.data-service.desalojos")
+                    .description("Entradas desalojadas de la caché de data-service")
+                    .tag("causa", "tamanio")
+                    .register(registry);
+            this.desalojosExpiracion = Counter.builder("business.cache.data-service.desalojos")
+                    .description("Entradas desalojadas de la caché de data-service")
+                    .tag("causa", "expiracion")
+                    .register(registry);
+            this.invalidaciones = Counter.builder("business.cache.data-service.invalidaciones")
+                    .description("Entradas invalidadas por escrituras a data-service")
+                    .register(registry);
+            Gauge.builder("business.cache.data-service.entradas", cache, CacheDataServiceInterceptor::tamanio)
+                    .description("Entradas guardadas en la caché de data-service")
+                    .register(registry);
+            Gauge.builder("business.cache.data-service.tasa.aciertos", this, Metricas::tasaAciertos)
+                    .description("Proporción de lecturas de data-service resueltas en caché")
+                    .register(registry);
+        }
+
+        private double tasaAciertos() {
+            double total = aciertos.count() + fallos.count();
+            return total > 0 ? aciertos.count() / total : 0.0;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.microservices.businessservice.config;
+
+import com.microservices.businessservice.client.DataServiceClient;
+import com.microservices.businessservice.client.DataServiceClientFallback;
+import com.microservices.businessservice.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Coalescencia (single-flight) de lecturas idénticas y simultáneas de DataServiceClient
+ *
+ * La primera llamada a un método de lectura con ciertos argumentos va a data-service; las que
+ * llegan con los mismos argumentos mientras está en curso esperan su resultado (o su error) en
+ * lugar de repetirla. Al terminar la llamada se libera la clave: no guarda nada, eso lo hace la
+ * caché de respuestas que va por delante. Cada escritura hecha por el cliente libera todas las
+ * claves, así una lectura posterior no recibe un resultado anterior a la escritura.
+ *
+ * @author Agustin Benavidez
+ */
+public class CoalescenciaDataServiceInterceptor implements MethodInterceptor {
+
+    private final Supplier<Metricas> metricas;
+    private final Map<Method, Boolean> lecturas = new ConcurrentHashMap<>();
+    private final Map<Clave, CompletableFuture<Resultado>> enCurso = new ConcurrentHashMap<>();
+
+    private record Clave(String metodo, List<Object> argumentos) {
+    }
+
+    /** Resultado de la llamada compartida; degradada si lo resolvió el fallback */
+    private record Resultado(Object valor, boolean degradada) {
+    }
+
+    public CoalescenciaDataServiceInterceptor(Supplier<MeterRegistry> meterRegistry) {
+        this.metricas = SingletonSupplier.of(() -> new Metricas(meterRegistry.get(), this));
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocacion) throws Throwable {
+        Method metodo = invocacion.getMethod();
+        if (!DataServiceClient.class.equals(metodo.getDeclaringClass())) {
+            return invocacion.proceed();
+        }
+        if (!lecturas.computeIfAbsent(metodo, CacheDataServiceInterceptor::esLectura)) {
+            try {
+                return invocacion.proceed();
+            } finally {
+                // Quien lea después de la escritura no debe sumarse a una lectura anterior a ella
+                enCurso.clear();
+            }
+        }
+
+        Clave clave = new Clave(metodo.getName(), Arrays.asList(invocacion.getArguments().clone()));
+        CompletableFuture<Resultado> propia = new CompletableFuture<>();
+        CompletableFuture<Resultado> existente = enCurso.putIfAbsent(clave, propia);
+        if (existente != null) {
+            metricas.get().compartidas.increment();
+            return esperar(existente, metodo.getName());
+        }
+
+        metricas.get().propias.increment();
+        try {
+            DataServiceClientFallback.consumirRespuestaDegradada();
+            Object valor = invocacion.proceed();
+            boolean degradada = DataServiceClientFallback.consumirRespuestaDegradada();
+            if (degradada) {
+                // Se conserva la marca para la caché de respuestas de este mismo hilo
+                DataServiceClientFallback.marcarRespuestaDegradada();
+            }
+            propia.complete(new Resultado(valor, degradada));
+            return valor;
+        } catch (Throwable e) {
+            propia.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, propia);
+        }
+    }
+
+    /**
+     * Cantidad de lecturas distintas en curso
+     */
+    public int lecturasEnCurso() {
+        return enCurso.size();
+    }
+
+    private static Object esperar(CompletableFuture<Resultado> llamada, String metodo) throws Throwable {
+        try {
+            Resultado resultado = llamada.get();
+            if (resultado.degradada()) {
+                DataServiceClientFallback.marcarRespuestaDegradada();
+            }
+            return resultado.valor();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("data-service", metodo, e);
+        }
+    }
+
+    /**
+     * Medidores de la coalescencia, creados en la primera invocación para no adelantar el MeterRegistry
+     */
+    private static final class Metricas {
+
+        private final Counter propias;
+        private final Counter compartidas;
+
+        private Metricas(MeterRegistry registry, CoalescenciaDataServiceInterceptor coalescencia) {
+            this.propias = Counter.builder("business.coalescencia.data-service.lecturas")
+                    .description("Lecturas de data-service según hicieron la llamada o compartieron una en curso")
+                    .tag("origen", "propia")
+                    .register(registry);
+            this.compartidas = Counter.builder("business.coalescencia.data-service.lecturas")
+                    .description("Lecturas de data-service según hicieron la llamada o compartieron una en curso")
+                    .tag("origen", "compartida")
+                    .register(registry);
+            Gauge.builder("business.coalescencia.data-service.en.curso", coalescencia,
+                            CoalescenciaDataServiceInterceptor::lecturasEnCurso)
+                    .description("Lecturas distintas de data-service en curso")
+                    .register(registry);
+        }
+    }
+}
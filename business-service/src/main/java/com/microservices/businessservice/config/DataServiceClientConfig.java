@@ -0,0 +1,54 @@
+package com.microservices.businessservice.config;
+
+import com.microservices.businessservice.client.DataServiceClient;
+import com.microservices.businessservice.client.DataServiceClientFallback;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Interceptores delante del cliente Feign de data-service: caché de respuestas
+ * (CacheDataServiceInterceptor) y, detrás de ella, coalescencia de lecturas simultáneas
+ * (CoalescenciaDataServiceInterceptor)
+ *
+ * @author Agustin Benavidez
+ */
+@Configuration(proxyBeanMethods = false)
+public class DataServiceClientConfig {
+
+    /**
+     * Envuelve el cliente Feign (no el fallback) en un proxy con los interceptores habilitados
+     * (estático y con el MeterRegistry diferido para no adelantar su creación)
+     */
+    @Bean
+    public static BeanPostProcessor dataServiceClientPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${business.cache.habilitada:true}") boolean cacheHabilitada,
+            @Value("${business.cache.ttl-ms:5000}") long ttlMs,
+            @Value("${business.cache.maximo-entradas:1000}") int maximoEntradas,
+            @Value("${business.coalescencia.habilitada:true}") boolean coalescenciaHabilitada) {
+        SingletonSupplier<MeterRegistry> registry = SingletonSupplier.of(meterRegistry::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ((cacheHabilitada || coalescenciaHabilitada)
+                        && bean instanceof DataServiceClient && !(bean instanceof DataServiceClientFallback)) {
+                    ProxyFactory proxyFactory = new ProxyFactory(bean);
+                    if (cacheHabilitada) {
+                        proxyFactory.addAdvice(new CacheDataServiceInterceptor(registry, ttlMs, maximoEntradas));
+                    }
+                    if (coalescenciaHabilitada) {
+                        proxyFactory.addAdvice(new CoalescenciaDataServiceInterceptor(registry));
+                    }
+                    return proxyFactory.getProxy(DataServiceClient.class.getClassLoader());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -48,6 +48,15 @@ public class BusinessController {
         return ResponseEntity.ok(productos);
     }
 
+    @GetMapping(value = "/productos", params = "limite")
+    public ResponseEntity<PaginaCursorDTO<ProductoDTO>> obtenerProductosPaginados(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam int limite) {
+        logger.info("GET /api/productos?cursor={}&limite={} - Obteniendo página de productos", cursor, limite);
+        PaginaCursorDTO<ProductoDTO> pagina = productoBusinessService.obtenerProductosPaginados(cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
     @GetMapping("/productos/{id}")
     public ResponseEntity<ProductoDTO> obtenerProductoPorId(@PathVariable Long id) {
         logger.info("GET /api/productos/{} - Obteniendo producto por ID", id);
@@ -179,6 +188,15 @@ public class BusinessController {
         return ResponseEntity.ok(resumen);
     }
 
+    // ========== ENDPOINTS DE PEDIDOS ==========
+
+    @PostMapping("/pedidos/checkout")
+    public ResponseEntity<Map<String, Object>> confirmarPedido(@Valid @RequestBody PedidoRequest pedido) {
+        logger.info("POST /api/pedidos/checkout - Confirmando pedido con {} ítems", pedido.getItems().size());
+        Map<String, Object> resultado = productoBusinessService.confirmarPedido(pedido);
+        return ResponseEntity.status(HttpStatus.CREATED).body(resultado);
+    }
+
     // ========== ENDPOINTS DE VALIDACIÓN Y UTILIDAD ==========
 
     @PostMapping("/productos/validar")
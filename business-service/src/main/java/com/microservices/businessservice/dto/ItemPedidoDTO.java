@@ -0,0 +1,54 @@
+package com.microservices.businessservice.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO para un ítem de pedido: producto y cantidad solicitada
+ *
+ * @author Agustin Benavidez
+ */
+public class ItemPedidoDTO {
+
+    @NotNull(message = "El ID del producto es obligatorio")
+    private Long productoId;
+
+    @NotNull(message = "La cantidad es obligatoria")
+    @Min(value = 1, message = "La cantidad debe ser mayor a cero")
+    private Integer cantidad;
+
+    // Constructor por defecto
+    public ItemPedidoDTO() {
+    }
+
+    // Constructor completo
+    public ItemPedidoDTO(Long productoId, Integer cantidad) {
+        this.productoId = productoId;
+        this.cantidad = cantidad;
+    }
+
+    // Getters y Setters
+    public Long getProductoId() {
+        return productoId;
+    }
+
+    public void setProductoId(Long productoId) {
+        this.productoId = productoId;
+    }
+
+    public Integer getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(Integer cantidad) {
+        this.cantidad = cantidad;
+    }
+
+    @Override
+    public String toString() {
+        return "ItemPedidoDTO{" +
+                "productoId=" + productoId +
+                ", cantidad=" + cantidad +
+                '}';
+    }
+}
@@ -0,0 +1,79 @@
+package com.microservices.businessservice.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO para páginas paginadas por cursor recibidas desde data-service
+ *
+ * @author Agustin Benavidez
+ */
+public class PaginaCursorDTO<T> {
+
+    private List<T> contenido = new ArrayList<>();
+    private Long siguienteCursor;
+    private int limite;
+    private boolean hayMas;
+
+    // Constructor por defecto
+    public PaginaCursorDTO() {
+    }
+
+    // Constructor completo
+    public PaginaCursorDTO(List<T> contenido, Long siguienteCursor, int limite, boolean hayMas) {
+        this.contenido = contenido;
+        this.siguienteCursor = siguienteCursor;
+        this.limite = limite;
+        this.hayMas = hayMas;
+    }
+
+    /**
+     * Crea una página vacía sin páginas siguientes
+     */
+    public static <T> PaginaCursorDTO<T> vacia(int limite) {
+        return new PaginaCursorDTO<>(new ArrayList<>(), null, limite, false);
+    }
+
+    // Getters y Setters
+    public List<T> getContenido() {
+        return contenido;
+    }
+
+    public void setContenido(List<T> contenido) {
+        this.contenido = contenido;
+    }
+
+    public Long getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public void setSiguienteCursor(Long siguienteCursor) {
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public void setLimite(int limite) {
+        this.limite = limite;
+    }
+
+    public boolean isHayMas() {
+        return hayMas;
+    }
+
+    public void setHayMas(boolean hayMas) {
+        this.hayMas = hayMas;
+    }
+
+    @Override
+    public String toString() {
+        return "PaginaCursorDTO{" +
+                "elementos=" + (contenido != null ? contenido.size() : 0) +
+                ", siguienteCursor=" + siguienteCursor +
+                ", limite=" + limite +
+                ", hayMas=" + hayMas +
+                '}';
+    }
+}
@@ -0,0 +1,45 @@
+package com.microservices.businessservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO para requests de checkout de pedidos
+ * Se envía tal cual a data-service como reserva de stock
+ *
+ * @author Agustin Benavidez
+ */
+public class PedidoRequest {
+
+    @NotEmpty(message = "El pedido debe tener al menos un ítem")
+    @Valid
+    private List<ItemPedidoDTO> items = new ArrayList<>();
+
+    // Constructor por defecto
+    public PedidoRequest() {
+    }
+
+    // Constructor completo
+    public PedidoRequest(List<ItemPedidoDTO> items) {
+        this.items = items;
+    }
+
+    // Getters y Setters
+    public List<ItemPedidoDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ItemPedidoDTO> items) {
+        this.items = items;
+    }
+
+    @Override
+    public String toString() {
+        return "PedidoRequest{" +
+                "items=" + items +
+                '}';
+    }
+}
@@ -0,0 +1,167 @@
+package com.microservices.businessservice.dto;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DTO con el resumen del inventario que data-service calcula en una única consulta
+ * (conteos y valor por estado de stock, porcentajes de alerta, totales y promedios)
+ *
+ * @author Agustin Benavidez
+ */
+public class SnapshotInventarioDTO {
+
+    private long totalProductos;
+    private long cantidadTotalItems;
+    private double cantidadPromedio;
+    private long productosConStockBajo;
+    private long productosConStockCritico;
+    private long productosSinStock;
+    private double porcentajeStockBajo;
+    private double porcentajeStockCritico;
+    private double porcentajeSinStock;
+    private BigDecimal valorTotalInventario = BigDecimal.ZERO;
+    private BigDecimal valorPromedioProducto = BigDecimal.ZERO;
+    private Map<String, Long> productosPorEstado = new LinkedHashMap<>();
+    private Map<String, BigDecimal> valorPorEstado = new LinkedHashMap<>();
+    private boolean servicioDisponible = true;
+
+    // Constructor por defecto
+    public SnapshotInventarioDTO() {
+    }
+
+    // Getters y Setters
+    public long getTotalProductos() {
+        return totalProductos;
+    }
+
+    public void setTotalProductos(long totalProductos) {
+        this.totalProductos = totalProductos;
+    }
+
+    public long getCantidadTotalItems() {
+        return cantidadTotalItems;
+    }
+
+    public void setCantidadTotalItems(long cantidadTotalItems) {
+        this.cantidadTotalItems = cantidadTotalItems;
+    }
+
+    public double getCantidadPromedio() {
+        return cantidadPromedio;
+    }
+
+    public void setCantidadPromedio(double cantidadPromedio) {
+        this.cantidadPromedio = cantidadPromedio;
+    }
+
+    public long getProductosConStockBajo() {
+        return productosConStockBajo;
+    }
+
+    public void setProductosConStockBajo(long productosConStockBajo) {
+        this.productosConStockBajo = productosConStockBajo;
+    }
+
+    public long getProductosConStockCritico() {
+        return productosConStockCritico;
+    }
+
+    public void setProductosConStockCritico(long productosConStockCritico) {
+        this.productosConStockCritico = productosConStockCritico;
+    }
+
+    public long getProductosSinStock() {
+        return productosSinStock;
+    }
+
+    public void setProductosSinStock(long productosSinStock) {
+        this.productosSinStock = productosSinStock;
+    }
+
+    public double getPorcentajeStockBajo() {
+        return porcentajeStockBajo;
+    }
+
+    public void setPorcentajeStockBajo(double porcentajeStockBajo) {
+        this.porcentajeStockBajo = porcentajeStockBajo;
+    }
+
+    public double getPorcentajeStockCritico() {
+        return porcentajeStockCritico;
+    }
+
+    public void setPorcentajeStockCritico(double porcentajeStockCritico) {
+        this.porcentajeStockCritico = porcentajeStockCritico;
+    }
+
+    public double getPorcentajeSinStock() {
+        return porcentajeSinStock;
+    }
+
+    public void setPorcentajeSinStock(double porcentajeSinStock) {
+        this.porcentajeSinStock = porcentajeSinStock;
+    }
+
+    public BigDecimal getValorTotalInventario() {
+        return valorTotalInventario;
+    }
+
+    public void setValorTotalInventario(BigDecimal valorTotalInventario) {
+        this.valorTotalInventario = valorTotalInventario;
+    }
+
+    public BigDecimal getValorPromedioProducto() {
+        return valorPromedioProducto;
+    }
+
+    public void setValorPromedioProducto(BigDecimal valorPromedioProducto) {
+        this.valorPromedioProducto = valorPromedioProducto;
+    }
+
+    public Map<String, Long> getProductosPorEstado() {
+        return productosPorEstado;
+    }
+
+    public void setProductosPorEstado(Map<String, Long> productosPorEstado) {
+        this.productosPorEstado = productosPorEstado;
+    }
+
+    public Map<String, BigDecimal> getValorPorEstado() {
+        return valorPorEstado;
+    }
+
+    public void setValorPorEstado(Map<String, BigDecimal> valorPorEstado) {
+        this.valorPorEstado = valorPorEstado;
+    }
+
+    public boolean isServicioDisponible() {
+        return servicioDisponible;
+    }
+
+    public void setServicioDisponible(boolean servicioDisponible) {
+        this.servicioDisponible = servicioDisponible;
+    }
+
+    /**
+     * Estadísticas generales con el mismo formato que /data/inventario/estadisticas
+     */
+    public Map<String, Object> estadisticasGenerales() {
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("totalProductos", totalProductos);
+        estadisticas.put("cantidadTotalItems", cantidadTotalItems);
+        estadisticas.put("cantidadPromedio", cantidadPromedio);
+        estadisticas.put("productosConStockBajo", productosConStockBajo);
+        return estadisticas;
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotInventarioDTO{" +
+                "totalProductos=" + totalProductos +
+                ", productosPorEstado=" + productosPorEstado +
+                ", valorTotalInventario=" + valorTotalInventario +
+                '}';
+    }
+}
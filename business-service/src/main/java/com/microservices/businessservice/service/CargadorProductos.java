@@ -0,0 +1,153 @@
+package com.microservices.businessservice.service;
+
+import com.microservices.businessservice.client.DataServiceClient;
+import com.microservices.businessservice.dto.ProductoDTO;
+import com.microservices.businessservice.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agrupa las búsquedas individuales de productos por ID en lotes (al estilo DataLoader)
+ *
+ * Los IDs pedidos dentro de una ventana corta se juntan, sin repetir, y se resuelven con una
+ * única llamada a {@code GET /data/productos?ids=...}. El lote sale al vencer la ventana o al
+ * llegar al máximo, lo que ocurra primero. Los IDs que data-service no devuelve se resuelven con
+ * null y un error de la llamada se propaga a todos los pedidos del lote.
+ *
+ * @author Agustin Benavidez
+ */
+@Component
+public class CargadorProductos {
+
+    private static final Logger logger = LoggerFactory.getLogger(CargadorProductos.class);
+
+    private final DataServiceClient dataServiceClient;
+    private final boolean habilitado;
+    private final long ventanaMs;
+    private final int maximoLote;
+    private final DistributionSummary tamanioLote;
+
+    private final ScheduledExecutorService planificador = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("cargador-productos").daemon().factory());
+    private final ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Lote que todavía acepta IDs (protegido por el monitor)
+    private Map<Long, CompletableFuture<ProductoDTO>> pendiente;
+
+    public CargadorProductos(DataServiceClient dataServiceClient,
+                             MeterRegistry meterRegistry,
+                             @Value("${business.cargador-productos.habilitado:true}") boolean habilitado,
+                             @Value("${business.cargador-productos.ventana-ms:2}") long ventanaMs,
+                             @Value("${business.cargador-productos.maximo-lote:100}") int maximoLote) {
+        if (ventanaMs < 0 || maximoLote <= 0) {
+            throw new IllegalArgumentException("La ventana no puede ser negativa y el máximo del lote debe ser mayor a cero");
+        }
+        this.dataServiceClient = dataServiceClient;
+        this.habilitado = habilitado;
+        this.ventanaMs = ventanaMs;
+        this.maximoLote = maximoLote;
+        this.tamanioLote = DistributionSummary.builder("business.cargador.productos.lote")
+                .description("Productos distintos pedidos a data-service en cada lote")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void detener() {
+        planificador.shutdownNow();
+        ejecutor.shutdownNow();
+    }
+
+    /**
+     * Obtiene un producto por ID esperando a que se resuelva su lote (null si no existe)
+     */
+    public ProductoDTO obtener(Long id) {
+        if (!habilitado) {
+            return dataServiceClient.obtenerProductoPorId(id);
+        }
+        try {
+            return cargar(id).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new ServiceUnavailableException("data-service", "obtenerProductosPorIds", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("data-service", "obtenerProductosPorIds", e);
+        }
+    }
+
+    /**
+     * Suma el ID al lote en curso y devuelve el resultado diferido (null si no existe)
+     */
+    public CompletableFuture<ProductoDTO> cargar(Long id) {
+        if (!habilitado) {
+            return CompletableFuture.supplyAsync(() -> dataServiceClient.obtenerProductoPorId(id), ejecutor);
+        }
+        Map<Long, CompletableFuture<ProductoDTO>> completo = null;
+        CompletableFuture<ProductoDTO> producto;
+        synchronized (this) {
+            if (pendiente == null) {
+                Map<Long, CompletableFuture<ProductoDTO>> nuevo = new LinkedHashMap<>();
+                pendiente = nuevo;
+                planificador.schedule(() -> despacharAlVencer(nuevo), ventanaMs, TimeUnit.MILLISECONDS);
+            }
+            producto = pendiente.computeIfAbsent(id, clave -> new CompletableFuture<>());
+            if (pendiente.size() >= maximoLote) {
+                completo = pendiente;
+                pendiente = null;
+            }
+        }
+        if (completo != null) {
+            despachar(completo);
+        }
+        return producto;
+    }
+
+    private void despacharAlVencer(Map<Long, CompletableFuture<ProductoDTO>> lote) {
+        synchronized (this) {
+            // Si ya salió por llegar al máximo no queda nada que hacer
+            if (pendiente != lote) {
+                return;
+            }
+            pendiente = null;
+        }
+        despachar(lote);
+    }
+
+    private void despachar(Map<Long, CompletableFuture<ProductoDTO>> lote) {
+        ejecutor.execute(() -> resolver(lote));
+    }
+
+    private void resolver(Map<Long, CompletableFuture<ProductoDTO>> lote) {
+        List<Long> ids = new ArrayList<>(lote.keySet());
+        tamanioLote.record(ids.size());
+        logger.debug("Obteniendo lote de {} productos de data-service", ids.size());
+        try {
+            Map<Long, ProductoDTO> porId = new HashMap<>();
+            for (ProductoDTO producto : dataServiceClient.obtenerProductosPorIds(ids)) {
+                porId.put(producto.getId(), producto);
+            }
+            lote.forEach((id, producto) -> producto.complete(porId.get(id)));
+        } catch (Throwable e) {
+            lote.values().forEach(producto -> producto.completeExceptionally(e));
+        }
+    }
+}
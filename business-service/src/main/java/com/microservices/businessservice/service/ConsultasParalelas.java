@@ -0,0 +1,130 @@
+package com.microservices.businessservice.service;
+
+import com.microservices.businessservice.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta en paralelo, en hilos virtuales, consultas independientes a data-service
+ *
+ * Cada lote tiene un plazo común: la latencia total es la de la consulta más lenta y no la
+ * suma de todas. Si una consulta falla o se vence el plazo, las pendientes se cancelan
+ * (interrumpiendo su hilo) y se propaga el error original, de modo que quien llama puede
+ * seguir manejando FeignException como con las llamadas secuenciales.
+ *
+ * @author Agustin Benavidez
+ */
+@Component
+public class ConsultasParalelas {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsultasParalelas.class);
+
+    private final ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration plazo;
+
+    public ConsultasParalelas(@Value("${business.reportes.plazo-ms:10000}") long plazoMs) {
+        this.plazo = Duration.ofMillis(plazoMs);
+    }
+
+    @PreDestroy
+    void detener() {
+        ejecutor.shutdownNow();
+    }
+
+    /**
+     * Inicia un lote de consultas para la operación indicada
+     */
+    public Lote lote(String operacion) {
+        return new Lote(operacion);
+    }
+
+    /**
+     * Conjunto de consultas lanzadas juntas y esperadas con un único plazo
+     */
+    public final class Lote {
+
+        private final String operacion;
+        private final List<Future<?>> tareas = new ArrayList<>();
+        private final List<CompletableFuture<?>> resultados = new ArrayList<>();
+        private final CompletableFuture<Void> primerFallo = new CompletableFuture<>();
+
+        private Lote(String operacion) {
+            this.operacion = operacion;
+        }
+
+        /**
+         * Lanza una consulta; su resultado se obtiene después de {@link #esperar()}
+         */
+        public <T> Supplier<T> lanzar(Callable<T> consulta) {
+            CompletableFuture<T> resultado = new CompletableFuture<>();
+            tareas.add(ejecutor.submit(() -> {
+                try {
+                    resultado.complete(consulta.call());
+                } catch (Throwable e) {
+                    resultado.completeExceptionally(e);
+                    primerFallo.completeExceptionally(e);
+                }
+            }));
+            resultados.add(resultado);
+            return resultado::join;
+        }
+
+        /**
+         * Espera todas las consultas hasta el plazo; ante el primer fallo cancela las demás
+         */
+        public void esperar() {
+            CompletableFuture<Void> todas = CompletableFuture.allOf(resultados.toArray(CompletableFuture[]::new));
+            try {
+                CompletableFuture.anyOf(todas, primerFallo).get(plazo.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                cancelarPendientes();
+                Throwable causa = e.getCause();
+                if (causa instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new ServiceUnavailableException("data-service", operacion, causa);
+            } catch (TimeoutException e) {
+                cancelarPendientes();
+                logger.error("Plazo de {} ms vencido en {}", plazo.toMillis(), operacion);
+                throw new ServiceUnavailableException("Plazo de " + plazo.toMillis() + " ms vencido consultando data-service",
+                        "data-service", operacion);
+            } catch (InterruptedException e) {
+                cancelarPendientes();
+                Thread.currentThread().interrupt();
+                throw new ServiceUnavailableException("data-service", operacion, e);
+            } catch (CancellationException e) {
+                cancelarPendientes();
+                throw new ServiceUnavailableException("data-service", operacion, e);
+            }
+        }
+
+        private void cancelarPendientes() {
+            int canceladas = 0;
+            for (Future<?> tarea : tareas) {
+                if (tarea.cancel(true)) {
+                    canceladas++;
+                }
+            }
+            if (canceladas > 0) {
+                logger.debug("{}: {} consultas pendientes canceladas", operacion, canceladas);
+            }
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.microservices.businessservice.service;
 
 import com.microservices.businessservice.client.DataServiceClient;
+import com.microservices.businessservice.dto.ItemPedidoDTO;
+import com.microservices.businessservice.dto.PaginaCursorDTO;
+import com.microservices.businessservice.dto.PedidoRequest;
 import com.microservices.businessservice.dto.ProductoDTO;
 import com.microservices.businessservice.dto.ProductoRequest;
 import com.microservices.businessservice.exception.BusinessException;
 import com.microservices.businessservice.exception.ServiceUnavailableException;
 import com.microservices.businessservice.exception.ValidationException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import feign.FeignException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,7 +19,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -27,11 +35,18 @@ public class ProductoBusinessService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductoBusinessService.class);
 
+    /** Código con el que data-service marca los 400 por stock insuficiente */
+    private static final String STOCK_INSUFICIENTE = "STOCK_INSUFICIENTE";
+
+    private static final ObjectMapper LECTOR_JSON = new ObjectMapper();
+
     private final DataServiceClient dataServiceClient;
+    private final CargadorProductos cargadorProductos;
 
     @Autowired
-    public ProductoBusinessService(DataServiceClient dataServiceClient) {
+    public ProductoBusinessService(DataServiceClient dataServiceClient, CargadorProductos cargadorProductos) {
         this.dataServiceClient = dataServiceClient;
+        this.cargadorProductos = cargadorProductos;
     }
 
     /**
@@ -55,6 +70,30 @@ public class ProductoBusinessService {
         }
     }
 
+    /**
+     * Obtiene una página de productos paginada por cursor
+     */
+    public PaginaCursorDTO<ProductoDTO> obtenerProductosPaginados(Long cursor, int limite) {
+        logger.info("Obteniendo página de productos desde cursor: {} (límite {})", cursor, limite);
+        
+        if (limite <= 0) {
+            throw new ValidationException("El límite de la página debe ser mayor a cero");
+        }
+        
+        try {
+            PaginaCursorDTO<ProductoDTO> pagina = dataServiceClient.obtenerProductosPaginados(cursor, limite);
+            pagina.getContenido().forEach(this::enriquecerProducto);
+            
+            logger.info("Se obtuvieron {} productos, siguiente cursor: {}", 
+                       pagina.getContenido().size(), pagina.getSiguienteCursor());
+            return pagina;
+            
+        } catch (FeignException e) {
+            logger.error("Error al comunicarse con data-service: {}", e.getMessage());
+            throw new ServiceUnavailableException("data-service", "obtenerProductosPaginados", e);
+        }
+    }
+
     /**
      * Obtiene un producto por ID con validaciones de negocio
      */
@@ -64,7 +103,8 @@ public class ProductoBusinessService {
         validarId(id);
         
         try {
-            ProductoDTO producto = dataServiceClient.obtenerProductoPorId(id);
+            // Se agrupa con las búsquedas simultáneas de otros productos en una sola llamada
+            ProductoDTO producto = cargadorProductos.obtener(id);
             
             if (producto == null) {
                 throw new BusinessException("PRODUCTO_NO_ENCONTRADO", 
@@ -285,8 +325,68 @@ public class ProductoBusinessService {
         }
     }
 
+    /**
+     * Confirma un pedido reservando el stock de todos sus ítems en una sola operación
+     * Si algún producto no tiene stock suficiente no se descuenta ninguno
+     */
+    public Map<String, Object> confirmarPedido(PedidoRequest pedido) {
+        logger.info("Confirmando pedido: {}", pedido);
+
+        validarPedido(pedido);
+
+        try {
+            List<Map<String, Object>> reservados = dataServiceClient.reservarStock(pedido);
+
+            if (reservados == null) {
+                throw new ServiceUnavailableException("data-service", "reservarStock");
+            }
+
+            int totalUnidades = pedido.getItems().stream().mapToInt(ItemPedidoDTO::getCantidad).sum();
+
+            Map<String, Object> resultado = new LinkedHashMap<>();
+            resultado.put("estado", "CONFIRMADO");
+            resultado.put("items", reservados);
+            resultado.put("totalUnidades", totalUnidades);
+            resultado.put("fechaConfirmacion", LocalDateTime.now());
+
+            logger.info("Pedido confirmado con {} unidades", totalUnidades);
+            return resultado;
+
+        } catch (FeignException.BadRequest e) {
+            JsonNode error = cuerpoDeError(e);
+            if (STOCK_INSUFICIENTE.equals(error.path("errorCode").asText(null))) {
+                throw new BusinessException(STOCK_INSUFICIENTE,
+                    "Stock insuficiente para completar el pedido; no se reservó ningún ítem");
+            }
+            logger.warn("data-service rechazó el pedido: {}", e.contentUTF8());
+            throw new BusinessException("PEDIDO_RECHAZADO",
+                "El servicio de datos rechazó el pedido: " + error.path("message").asText("sin detalle"));
+        } catch (FeignException.NotFound e) {
+            throw new BusinessException("PRODUCTO_NO_ENCONTRADO",
+                "Alguno de los productos del pedido no tiene inventario registrado");
+        } catch (FeignException e) {
+            logger.error("Error al reservar stock del pedido: {}", e.getMessage());
+            throw new ServiceUnavailableException("data-service", "reservarStock", e);
+        }
+    }
+
     // ========== MÉTODOS PRIVADOS DE VALIDACIÓN Y UTILIDAD ==========
 
+    /**
+     * Lee el cuerpo JSON de un error de data-service (nodo vacío si no hay o no es JSON)
+     */
+    private static JsonNode cuerpoDeError(FeignException e) {
+        String cuerpo = e.contentUTF8();
+        if (cuerpo == null || cuerpo.isBlank()) {
+            return LECTOR_JSON.createObjectNode();
+        }
+        try {
+            return LECTOR_JSON.readTree(cuerpo);
+        } catch (JsonProcessingException ex) {
+            return LECTOR_JSON.createObjectNode();
+        }
+    }
+
     private void validarId(Long id) {
         if (id == null || id <= 0) {
             throw new ValidationException("El ID debe ser un número positivo");
@@ -323,6 +423,27 @@ public class ProductoBusinessService {
         }
     }
 
+    private void validarPedido(PedidoRequest pedido) {
+        if (pedido == null || pedido.getItems() == null || pedido.getItems().isEmpty()) {
+            throw new ValidationException("El pedido debe tener al menos un ítem");
+        }
+
+        Map<String, String> errores = new HashMap<>();
+        for (int i = 0; i < pedido.getItems().size(); i++) {
+            ItemPedidoDTO item = pedido.getItems().get(i);
+            if (item.getProductoId() == null || item.getProductoId() <= 0) {
+                errores.put("items[" + i + "].productoId", "El ID del producto debe ser un número positivo");
+            }
+            if (item.getCantidad() == null || item.getCantidad() <= 0) {
+                errores.put("items[" + i + "].cantidad", "La cantidad debe ser mayor a cero");
+            }
+        }
+
+        if (!errores.isEmpty()) {
+            throw new ValidationException("Errores de validación en el pedido", errores);
+        }
+    }
+
     private void validarRangoPrecios(BigDecimal precioMin, BigDecimal precioMax) {
         if (precioMin == null || precioMax == null) {
             throw new ValidationException("Los precios mínimo y máximo son obligatorios");
@@ -10,14 +10,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Servicio de negocio para la generación de reportes
+ *
+ * Las consultas independientes de cada reporte se lanzan en paralelo (ver {@link ConsultasParalelas}).
+ * Conteos, porcentajes y valores del inventario llegan resumidos en el snapshot de data-service,
+ * sin descargar los inventarios.
  * 
  * @author Agustin Benavidez
  */
@@ -26,11 +30,15 @@ public class ReporteBusinessService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReporteBusinessService.class);
 
+    private static final int TOP_PRODUCTOS_MAS_VALIOSOS = 10;
+
     private final DataServiceClient dataServiceClient;
+    private final ConsultasParalelas consultasParalelas;
 
     @Autowired
-    public ReporteBusinessService(DataServiceClient dataServiceClient) {
+    public ReporteBusinessService(DataServiceClient dataServiceClient, ConsultasParalelas consultasParalelas) {
         this.dataServiceClient = dataServiceClient;
+        this.consultasParalelas = consultasParalelas;
     }
 
     /**
@@ -43,42 +51,32 @@ public class ReporteBusinessService {
             ReporteDTO reporte = new ReporteDTO("ESTADO_INVENTARIO", "Estado General del Inventario");
             reporte.setDescripcion("Reporte completo del estado actual del inventario");
             
-            // Obtener datos básicos
-            Map<String, Object> estadisticas = dataServiceClient.obtenerEstadisticasInventario();
-            List<InventarioDTO> inventarios = dataServiceClient.obtenerTodoElInventario();
-            List<InventarioDTO> stockBajo = dataServiceClient.obtenerInventariosConStockBajo();
-            List<InventarioDTO> stockCritico = dataServiceClient.obtenerInventariosConStockCritico();
-            List<InventarioDTO> sinStock = dataServiceClient.obtenerInventariosSinStock();
-            
-            // Calcular métricas
-            reporte.setTotalProductos(inventarios.size());
-            reporte.setProductosConStockBajo(stockBajo.size());
-            reporte.setProductosConStockCritico(stockCritico.size());
-            reporte.setProductosSinStock(sinStock.size());
-            
-            // Calcular valor total
-            BigDecimal valorTotal = dataServiceClient.obtenerValorTotalInventario();
-            reporte.setValorTotalInventario(valorTotal);
-            
-            // Calcular valor promedio
-            if (!inventarios.isEmpty() && valorTotal.compareTo(BigDecimal.ZERO) > 0) {
-                BigDecimal valorPromedio = valorTotal.divide(BigDecimal.valueOf(inventarios.size()), 2, RoundingMode.HALF_UP);
-                reporte.setValorPromedioProducto(valorPromedio);
+            // Un único resumen calculado en data-service reemplaza las descargas del inventario
+            // completo y de los listados de alertas
+            SnapshotInventarioDTO snapshot = dataServiceClient.obtenerSnapshotInventario();
+            
+            // Métricas
+            reporte.setTotalProductos(Math.toIntExact(snapshot.getTotalProductos()));
+            reporte.setProductosConStockBajo(Math.toIntExact(snapshot.getProductosConStockBajo()));
+            reporte.setProductosConStockCritico(Math.toIntExact(snapshot.getProductosConStockCritico()));
+            reporte.setProductosSinStock(Math.toIntExact(snapshot.getProductosSinStock()));
+            reporte.setValorTotalInventario(snapshot.getValorTotalInventario());
+            if (snapshot.getTotalProductos() > 0) {
+                reporte.setValorPromedioProducto(snapshot.getValorPromedioProducto());
             }
             
-            // Agregar listas detalladas
-            reporte.setInventarios(inventarios);
-            
             // Datos adicionales
             Map<String, Object> datos = new HashMap<>();
-            datos.put("estadisticasGenerales", estadisticas);
-            datos.put("porcentajeStockBajo", calcularPorcentaje(stockBajo.size(), inventarios.size()));
-            datos.put("porcentajeStockCritico", calcularPorcentaje(stockCritico.size(), inventarios.size()));
-            datos.put("porcentajeSinStock", calcularPorcentaje(sinStock.size(), inventarios.size()));
+            datos.put("estadisticasGenerales", snapshot.estadisticasGenerales());
+            datos.put("porcentajeStockBajo", snapshot.getPorcentajeStockBajo());
+            datos.put("porcentajeStockCritico", snapshot.getPorcentajeStockCritico());
+            datos.put("porcentajeSinStock", snapshot.getPorcentajeSinStock());
+            datos.put("productosPorEstado", snapshot.getProductosPorEstado());
+            datos.put("valorPorEstado", snapshot.getValorPorEstado());
             reporte.setDatos(datos);
             
             logger.info("Reporte de inventario generado: {} productos, valor total: {}", 
-                       inventarios.size(), valorTotal);
+                       snapshot.getTotalProductos(), snapshot.getValorTotalInventario());
             
             return reporte;
             
@@ -98,9 +96,14 @@ public class ReporteBusinessService {
             ReporteDTO reporte = new ReporteDTO("PRODUCTOS_POR_CATEGORIA", "Productos por Categoría");
             reporte.setDescripcion("Distribución de productos por categoría con estadísticas");
             
-            // Obtener datos
-            List<CategoriaDTO> categorias = dataServiceClient.obtenerTodasLasCategorias();
-            List<Map<String, Object>> estadisticasCategorias = dataServiceClient.obtenerEstadisticasCategorias();
+            // Obtener datos (en paralelo)
+            ConsultasParalelas.Lote lote = consultasParalelas.lote("generarReporteProductosPorCategoria");
+            Supplier<List<CategoriaDTO>> categoriasFuturas = lote.lanzar(dataServiceClient::obtenerTodasLasCategorias);
+            Supplier<List<Map<String, Object>>> estadisticasFuturas = lote.lanzar(dataServiceClient::obtenerEstadisticasCategorias);
+            lote.esperar();
+
+            List<CategoriaDTO> categorias = categoriasFuturas.get();
+            List<Map<String, Object>> estadisticasCategorias = estadisticasFuturas.get();
             
             // Procesar estadísticas por categoría
             Map<String, Integer> productosPorCategoria = new HashMap<>();
@@ -155,11 +158,18 @@ public class ReporteBusinessService {
             ReporteDTO reporte = new ReporteDTO("ALERTAS_STOCK", "Alertas de Stock");
             reporte.setDescripcion("Productos que requieren atención por niveles de stock");
             
-            // Obtener datos de alertas
-            List<InventarioDTO> stockBajo = dataServiceClient.obtenerInventariosConStockBajo();
-            List<InventarioDTO> stockCritico = dataServiceClient.obtenerInventariosConStockCritico();
-            List<InventarioDTO> sinStock = dataServiceClient.obtenerInventariosSinStock();
-            List<InventarioDTO> reabastecimiento = dataServiceClient.obtenerInventariosParaReabastecimiento();
+            // Obtener datos de alertas (en paralelo)
+            ConsultasParalelas.Lote lote = consultasParalelas.lote("generarReporteAlertasStock");
+            Supplier<List<InventarioDTO>> stockBajoFuturo = lote.lanzar(dataServiceClient::obtenerInventariosConStockBajo);
+            Supplier<List<InventarioDTO>> stockCriticoFuturo = lote.lanzar(dataServiceClient::obtenerInventariosConStockCritico);
+            Supplier<List<InventarioDTO>> sinStockFuturo = lote.lanzar(dataServiceClient::obtenerInventariosSinStock);
+            Supplier<List<InventarioDTO>> reabastecimientoFuturo = lote.lanzar(dataServiceClient::obtenerInventariosParaReabastecimiento);
+            lote.esperar();
+
+            List<InventarioDTO> stockBajo = stockBajoFuturo.get();
+            List<InventarioDTO> stockCritico = stockCriticoFuturo.get();
+            List<InventarioDTO> sinStock = sinStockFuturo.get();
+            List<InventarioDTO> reabastecimiento = reabastecimientoFuturo.get();
             
             // Clasificar por nivel de urgencia
             Map<String, List<InventarioDTO>> alertasPorNivel = new HashMap<>();
@@ -210,30 +220,31 @@ public class ReporteBusinessService {
             ReporteDTO reporte = new ReporteDTO("FINANCIERO", "Reporte Financiero");
             reporte.setDescripcion("Análisis financiero del inventario y productos");
             
-            // Obtener datos financieros
-            BigDecimal valorTotal = dataServiceClient.obtenerValorTotalInventario();
-            List<Map<String, Object>> valorPorProducto = dataServiceClient.obtenerValorInventarioPorProducto();
-            List<CategoriaDTO> categorias = dataServiceClient.obtenerTodasLasCategorias();
+            // Obtener datos financieros (en paralelo); los productos más valiosos llegan
+            // ya ordenados y acotados desde data-service
+            ConsultasParalelas.Lote lote = consultasParalelas.lote("generarReporteFinanciero");
+            Supplier<SnapshotInventarioDTO> snapshotFuturo = lote.lanzar(dataServiceClient::obtenerSnapshotInventario);
+            Supplier<List<Map<String, Object>>> topProductosFuturos =
+                    lote.lanzar(() -> dataServiceClient.obtenerTopValorInventario(TOP_PRODUCTOS_MAS_VALIOSOS));
+            Supplier<Map<String, BigDecimal>> valorPorCategoriaFuturo = lote.lanzar(this::calcularValorPorCategoria);
+            lote.esperar();
+
+            SnapshotInventarioDTO snapshot = snapshotFuturo.get();
+            BigDecimal valorTotal = snapshot.getValorTotalInventario();
+            List<Map<String, Object>> topProductos = topProductosFuturos.get();
             
             // Procesar datos financieros
             reporte.setValorTotalInventario(valorTotal);
             
-            // Encontrar productos más valiosos
-            List<Map<String, Object>> topProductos = valorPorProducto.stream()
-                    .sorted((a, b) -> ((BigDecimal) b.get("valorTotal")).compareTo((BigDecimal) a.get("valorTotal")))
-                    .limit(10)
-                    .collect(Collectors.toList());
-            
             // Calcular distribución de valor por categoría
-            Map<String, BigDecimal> valorPorCategoria = calcularValorPorCategoria();
+            Map<String, BigDecimal> valorPorCategoria = valorPorCategoriaFuturo.get();
             reporte.setValorPorCategoria(valorPorCategoria);
             
             // Datos adicionales
             Map<String, Object> datos = new HashMap<>();
             datos.put("topProductosMasValiosos", topProductos);
             datos.put("distribucuionValor", valorPorCategoria);
-            datos.put("valorPromedioPorProducto", 
-                     valorTotal.divide(BigDecimal.valueOf(valorPorProducto.size()), 2, RoundingMode.HALF_UP));
+            datos.put("valorPromedioPorProducto", snapshot.getValorPromedioProducto());
             reporte.setDatos(datos);
             
             logger.info("Reporte financiero generado: valor total {}", valorTotal);
@@ -248,11 +259,6 @@ public class ReporteBusinessService {
 
     // ========== MÉTODOS PRIVADOS DE UTILIDAD ==========
 
-    private double calcularPorcentaje(int parte, int total) {
-        if (total == 0) return 0.0;
-        return ((double) parte / total) * 100.0;
-    }
-
     private String encontrarCategoriaMasProductos(Map<String, Integer> productosPorCategoria) {
         return productosPorCategoria.entrySet().stream()
                 .max(Map.Entry.comparingByValue())
@@ -0,0 +1,187 @@
+package com.microservices.businessservice.config;
+
+import com.microservices.businessservice.client.DataServiceClient;
+import com.microservices.businessservice.client.DataServiceClientFallback;
+import com.microservices.businessservice.dto.ItemPedidoDTO;
+import com.microservices.businessservice.dto.PedidoRequest;
+import com.microservices.businessservice.dto.ProductoDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests de la caché de respuestas delante de DataServiceClient
+ *
+ * @author Agustin Benavidez
+ */
+class CacheDataServiceInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DataServiceClient dataServiceClient;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dataServiceClient = mock(DataServiceClient.class);
+        when(dataServiceClient.obtenerTodosLosProductos()).thenReturn(List.of(new ProductoDTO()));
+        when(dataServiceClient.obtenerProductoPorId(anyLong())).thenAnswer(invocacion -> new ProductoDTO());
+    }
+
+    @Test
+    void cuandoSeRepiteUnaLectura_entoncesSeResuelveEnCache() {
+        DataServiceClient conCache = conCache(60000, 100);
+
+        List<ProductoDTO> primera = conCache.obtenerTodosLosProductos();
+        List<ProductoDTO> segunda = conCache.obtenerTodosLosProductos();
+
+        assertSame(primera, segunda);
+        verify(dataServiceClient, times(1)).obtenerTodosLosProductos();
+        assertEquals(1.0, consultas("acierto"));
+        assertEquals(1.0, consultas("fallo"));
+        assertEquals(0.5, meterRegistry.get("business.cache.data-service.tasa.aciertos").gauge().value());
+    }
+
+    @Test
+    void cuandoSeModificaElStock_entoncesSeInvalidanLosListadosYElProductoAfectado() {
+        DataServiceClient conCache = conCache(60000, 100);
+        conCache.obtenerTodosLosProductos();
+        conCache.obtenerProductoPorId(1L);
+        conCache.obtenerProductoPorId(2L);
+
+        conCache.decrementarStock(1L, 3);
+        conCache.obtenerTodosLosProductos();
+        conCache.obtenerProductoPorId(1L);
+        conCache.obtenerProductoPorId(2L);
+
+        verify(dataServiceClient, times(2)).obtenerTodosLosProductos();
+        verify(dataServiceClient, times(2)).obtenerProductoPorId(1L);
+        verify(dataServiceClient, times(1)).obtenerProductoPorId(2L);
+        assertEquals(2.0, meterRegistry.get("business.cache.data-service.invalidaciones").counter().count());
+    }
+
+    @Test
+    void cuandoSeReservaStock_entoncesSeInvalidanLosProductosDelPedido() {
+        DataServiceClient conCache = conCache(60000, 100);
+        conCache.obtenerProductoPorId(1L);
+        conCache.obtenerProductoPorId(2L);
+
+        conCache.reservarStock(new PedidoRequest(List.of(new ItemPedidoDTO(2L, 1))));
+        conCache.obtenerProductoPorId(1L);
+        conCache.obtenerProductoPorId(2L);
+
+        verify(dataServiceClient, times(1)).obtenerProductoPorId(1L);
+        verify(dataServiceClient, times(2)).obtenerProductoPorId(2L);
+    }
+
+    @Test
+    void cuandoSeSuperaElMaximo_entoncesSeDesalojaLaEntradaMenosUsada() {
+        DataServiceClient conCache = conCache(60000, 2);
+        conCache.obtenerProductoPorId(1L);
+        conCache.obtenerProductoPorId(2L);
+        conCache.obtenerProductoPorId(1L);
+
+        conCache.obtenerProductoPorId(3L);
+        conCache.obtenerProductoPorId(1L);
+        conCache.obtenerProductoPorId(2L);
+
+        verify(dataServiceClient, times(1)).obtenerProductoPorId(1L);
+        verify(dataServiceClient, times(2)).obtenerProductoPorId(2L);
+        assertEquals(2.0, desalojos("tamanio"));
+    }
+
+    @Test
+    void cuandoVenceElTtl_entoncesSeVuelveAConsultar() throws Exception {
+        DataServiceClient conCache = conCache(50, 100);
+        conCache.obtenerTodosLosProductos();
+
+        Thread.sleep(100);
+        conCache.obtenerTodosLosProductos();
+
+        verify(dataServiceClient, times(2)).obtenerTodosLosProductos();
+        assertEquals(1.0, desalojos("expiracion"));
+    }
+
+    @Test
+    void cuandoRespondeElFallback_entoncesNoSeGuardaEnCache() {
+        DataServiceClientFallback fallback = new DataServiceClientFallback();
+        when(dataServiceClient.obtenerTodosLosProductos()).thenAnswer(invocacion -> fallback.obtenerTodosLosProductos());
+        DataServiceClient conCache = conCache(60000, 100);
+
+        conCache.obtenerTodosLosProductos();
+        conCache.obtenerTodosLosProductos();
+
+        verify(dataServiceClient, times(2)).obtenerTodosLosProductos();
+    }
+
+    @Test
+    void cuandoSePideUnLote_entoncesSoloSeConsultanLosProductosQueNoEstanEnCache() {
+        when(dataServiceClient.obtenerProductosPorIds(anyList())).thenAnswer(invocacion -> {
+            List<Long> ids = invocacion.getArgument(0);
+            return ids.stream().map(CacheDataServiceInterceptorTest::producto).toList();
+        });
+        when(dataServiceClient.obtenerProductoPorId(anyLong()))
+                .thenAnswer(invocacion -> producto(invocacion.getArgument(0)));
+        DataServiceClient conCache = conCache(60000, 100);
+        conCache.obtenerProductoPorId(1L);
+
+        List<ProductoDTO> lote = conCache.obtenerProductosPorIds(List.of(1L, 2L));
+        conCache.obtenerProductoPorId(2L);
+        List<ProductoDTO> repetido = conCache.obtenerProductosPorIds(List.of(2L, 1L));
+
+        assertEquals(Set.of(1L, 2L), ids(lote));
+        assertEquals(Set.of(1L, 2L), ids(repetido));
+        verify(dataServiceClient, times(1)).obtenerProductosPorIds(List.of(2L));
+        verify(dataServiceClient, times(1)).obtenerProductosPorIds(anyList());
+        verify(dataServiceClient, never()).obtenerProductoPorId(2L);
+    }
+
+    @Test
+    void cuandoSeModificaUnProductoDelLote_entoncesSoloEseSeVuelveAConsultar() {
+        when(dataServiceClient.obtenerProductosPorIds(anyList())).thenAnswer(invocacion -> {
+            List<Long> ids = invocacion.getArgument(0);
+            return ids.stream().map(CacheDataServiceInterceptorTest::producto).toList();
+        });
+        DataServiceClient conCache = conCache(60000, 100);
+        conCache.obtenerProductosPorIds(List.of(1L, 2L));
+
+        conCache.decrementarStock(2L, 1);
+        conCache.obtenerProductosPorIds(List.of(1L, 2L));
+
+        verify(dataServiceClient, times(1)).obtenerProductosPorIds(List.of(1L, 2L));
+        verify(dataServiceClient, times(1)).obtenerProductosPorIds(List.of(2L));
+    }
+
+    private static ProductoDTO producto(Long id) {
+        ProductoDTO producto = new ProductoDTO();
+        producto.setId(id);
+        return producto;
+    }
+
+    private static Set<Long> ids(List<ProductoDTO> productos) {
+        return productos.stream().map(ProductoDTO::getId).collect(Collectors.toSet());
+    }
+
+    private DataServiceClient conCache(long ttlMs, int maximoEntradas) {
+        ProxyFactory proxyFactory = new ProxyFactory(dataServiceClient);
+        proxyFactory.addAdvice(new CacheDataServiceInterceptor(() -> meterRegistry, ttlMs, maximoEntradas));
+        return (DataServiceClient) proxyFactory.getProxy();
+    }
+
+    private double consultas(String resultado) {
+        return meterRegistry.get("business.cache.data-service.consultas").tag("resultado", resultado).counter().count();
+    }
+
+    private double desalojos(String causa) {
+        return meterRegistry.get("business.cache.data-service.desalojos").tag("causa", causa).counter().count();
+    }
+}
@@ -0,0 +1,143 @@
+package com.microservices.businessservice.config;
+
+import com.microservices.businessservice.client.DataServiceClient;
+import com.microservices.businessservice.dto.ProductoDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests de la coalescencia de lecturas simultáneas de DataServiceClient
+ *
+ * @author Agustin Benavidez
+ */
+class CoalescenciaDataServiceInterceptorTest {
+
+    private static final int LLAMADAS = 10;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DataServiceClient dataServiceClient;
+    private DataServiceClient coalescente;
+    private ExecutorService ejecutor;
+
+    private final CountDownLatch iniciada = new CountDownLatch(1);
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dataServiceClient = mock(DataServiceClient.class);
+        ProxyFactory proxyFactory = new ProxyFactory(dataServiceClient);
+        proxyFactory.addAdvice(new CoalescenciaDataServiceInterceptor(() -> meterRegistry));
+        coalescente = (DataServiceClient) proxyFactory.getProxy();
+        ejecutor = Executors.newFixedThreadPool(LLAMADAS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ejecutor.shutdownNow();
+    }
+
+    @Test
+    void cuandoLlegaLaMismaLecturaEnSimultaneo_entoncesSeHaceUnaSolaLlamada() throws Exception {
+        List<ProductoDTO> productos = List.of(new ProductoDTO());
+        when(dataServiceClient.obtenerTodosLosProductos()).thenAnswer(invocacion -> {
+            iniciada.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return productos;
+        });
+
+        List<Future<List<ProductoDTO>>> resultados = lanzar(coalescente::obtenerTodosLosProductos);
+        esperarCompartidas(LLAMADAS - 1);
+        liberar.countDown();
+
+        for (Future<List<ProductoDTO>> resultado : resultados) {
+            assertSame(productos, resultado.get(5, TimeUnit.SECONDS));
+        }
+        verify(dataServiceClient, times(1)).obtenerTodosLosProductos();
+        assertEquals(1.0, lecturas("propia"));
+    }
+
+    @Test
+    void cuandoLaLlamadaCompartidaFalla_entoncesTodosRecibenElError() throws Exception {
+        when(dataServiceClient.obtenerValorTotalInventario()).thenAnswer(invocacion -> {
+            iniciada.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("data-service caído");
+        });
+
+        List<Future<BigDecimal>> resultados = lanzar(coalescente::obtenerValorTotalInventario);
+        esperarCompartidas(LLAMADAS - 1);
+        liberar.countDown();
+
+        for (Future<BigDecimal> resultado : resultados) {
+            ExecutionException error = assertThrows(ExecutionException.class, () -> resultado.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, error.getCause());
+        }
+        verify(dataServiceClient, times(1)).obtenerValorTotalInventario();
+
+        // Terminada la llamada, la siguiente lectura vuelve a data-service
+        assertThrows(IllegalStateException.class, coalescente::obtenerValorTotalInventario);
+        verify(dataServiceClient, times(2)).obtenerValorTotalInventario();
+    }
+
+    @Test
+    void cuandoHayUnaEscrituraDuranteLaLectura_entoncesLasLecturasPosterioresNoSeSuman() throws Exception {
+        when(dataServiceClient.obtenerTodosLosProductos()).thenAnswer(invocacion -> {
+            iniciada.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        Future<List<ProductoDTO>> anterior = ejecutor.submit(coalescente::obtenerTodosLosProductos);
+        assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+
+        coalescente.decrementarStock(1L, 2);
+        Future<List<ProductoDTO>> posterior = ejecutor.submit(coalescente::obtenerTodosLosProductos);
+        verify(dataServiceClient, timeout(2000).times(2)).obtenerTodosLosProductos();
+        liberar.countDown();
+
+        anterior.get(5, TimeUnit.SECONDS);
+        posterior.get(5, TimeUnit.SECONDS);
+        assertEquals(0.0, lecturas("compartida"));
+    }
+
+    private <T> List<Future<T>> lanzar(Callable<T> lectura) throws InterruptedException {
+        List<Future<T>> resultados = new ArrayList<>();
+        resultados.add(ejecutor.submit(lectura));
+        assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < LLAMADAS; i++) {
+            resultados.add(ejecutor.submit(lectura));
+        }
+        return resultados;
+    }
+
+    private void esperarCompartidas(int esperadas) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (lecturas("compartida") < esperadas && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertEquals(esperadas, lecturas("compartida"));
+    }
+
+    private double lecturas(String origen) {
+        return meterRegistry.find("business.coalescencia.data-service.lecturas").tag("origen", origen)
+                .counters().stream().mapToDouble(Counter::count).sum();
+    }
+}
@@ -0,0 +1,105 @@
+package com.microservices.businessservice.service;
+
+import com.microservices.businessservice.client.DataServiceClient;
+import com.microservices.businessservice.dto.ProductoDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del agrupamiento en lotes de las búsquedas de productos por ID
+ *
+ * @author Agustin Benavidez
+ */
+class CargadorProductosTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DataServiceClient dataServiceClient;
+    private CargadorProductos cargador;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dataServiceClient = mock(DataServiceClient.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (cargador != null) {
+            cargador.detener();
+        }
+    }
+
+    @Test
+    void cuandoSePidenVariosProductosDentroDeLaVentana_entoncesSeHaceUnaSolaLlamada() throws Exception {
+        when(dataServiceClient.obtenerProductosPorIds(anyList())).thenReturn(List.of(producto(1L), producto(2L)));
+        cargador = new CargadorProductos(dataServiceClient, meterRegistry, true, 50, 100);
+
+        CompletableFuture<ProductoDTO> primero = cargador.cargar(1L);
+        CompletableFuture<ProductoDTO> segundo = cargador.cargar(2L);
+        CompletableFuture<ProductoDTO> repetido = cargador.cargar(1L);
+        CompletableFuture<ProductoDTO> inexistente = cargador.cargar(3L);
+
+        assertEquals(1L, primero.get(5, TimeUnit.SECONDS).getId());
+        assertEquals(2L, segundo.get(5, TimeUnit.SECONDS).getId());
+        assertSame(primero.get(), repetido.get(5, TimeUnit.SECONDS));
+        assertNull(inexistente.get(5, TimeUnit.SECONDS));
+        verify(dataServiceClient, times(1)).obtenerProductosPorIds(List.of(1L, 2L, 3L));
+        verify(dataServiceClient, never()).obtenerProductoPorId(any());
+        assertEquals(3.0, meterRegistry.get("business.cargador.productos.lote").summary().max());
+    }
+
+    @Test
+    void cuandoSeLlegaAlMaximoDelLote_entoncesSaleSinEsperarLaVentana() throws Exception {
+        when(dataServiceClient.obtenerProductosPorIds(anyList())).thenAnswer(invocacion ->
+                invocacion.<List<Long>>getArgument(0).stream().map(CargadorProductosTest::producto).toList());
+        cargador = new CargadorProductos(dataServiceClient, meterRegistry, true, 60000, 2);
+
+        CompletableFuture<ProductoDTO> primero = cargador.cargar(1L);
+        CompletableFuture<ProductoDTO> segundo = cargador.cargar(2L);
+        CompletableFuture<ProductoDTO> tercero = cargador.cargar(3L);
+
+        assertEquals(1L, primero.get(5, TimeUnit.SECONDS).getId());
+        assertEquals(2L, segundo.get(5, TimeUnit.SECONDS).getId());
+        verify(dataServiceClient, times(1)).obtenerProductosPorIds(List.of(1L, 2L));
+        assertFalse(tercero.isDone());
+    }
+
+    @Test
+    void cuandoLaLlamadaDelLoteFalla_entoncesTodosLosPedidosRecibenElError() {
+        when(dataServiceClient.obtenerProductosPorIds(anyList())).thenThrow(new IllegalStateException("data-service caído"));
+        cargador = new CargadorProductos(dataServiceClient, meterRegistry, true, 10, 100);
+
+        CompletableFuture<ProductoDTO> primero = cargador.cargar(1L);
+        CompletableFuture<ProductoDTO> segundo = cargador.cargar(2L);
+
+        for (CompletableFuture<ProductoDTO> pedido : List.of(primero, segundo)) {
+            ExecutionException error = assertThrows(ExecutionException.class, () -> pedido.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, error.getCause());
+        }
+        assertThrows(IllegalStateException.class, () -> cargador.obtener(1L));
+    }
+
+    @Test
+    void cuandoEstaDeshabilitado_entoncesCadaProductoSePideAparte() {
+        when(dataServiceClient.obtenerProductoPorId(1L)).thenReturn(producto(1L));
+        cargador = new CargadorProductos(dataServiceClient, meterRegistry, false, 10, 100);
+
+        assertEquals(1L, cargador.obtener(1L).getId());
+        verify(dataServiceClient, never()).obtenerProductosPorIds(anyList());
+    }
+
+    private static ProductoDTO producto(Long id) {
+        return new ProductoDTO(id, "Producto " + id, "Descripción", BigDecimal.TEN, "Categoría", 5, false);
+    }
+}
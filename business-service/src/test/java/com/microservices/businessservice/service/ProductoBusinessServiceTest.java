@@ -1,10 +1,15 @@
 package com.microservices.businessservice.service;
 
 import com.microservices.businessservice.client.DataServiceClient;
+import com.microservices.businessservice.dto.ItemPedidoDTO;
+import com.microservices.businessservice.dto.PaginaCursorDTO;
+import com.microservices.businessservice.dto.PedidoRequest;
 import com.microservices.businessservice.dto.ProductoDTO;
 import com.microservices.businessservice.dto.ProductoRequest;
+import com.microservices.businessservice.exception.BusinessException;
 import com.microservices.businessservice.exception.ValidationException;
 import feign.FeignException;
+import feign.Request;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,8 +18,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -31,6 +39,9 @@ class ProductoBusinessServiceTest {
     @Mock
     private DataServiceClient dataServiceClient;
 
+    @Mock
+    private CargadorProductos cargadorProductos;
+
     @InjectMocks
     private ProductoBusinessService productoBusinessService;
 
@@ -64,11 +75,29 @@ class ProductoBusinessServiceTest {
         verify(dataServiceClient).obtenerTodosLosProductos();
     }
 
+    @Test
+    void cuandoObtenerProductosPaginados_entoncesRetornaPaginaEnriquecida() {
+        // Arrange
+        PaginaCursorDTO<ProductoDTO> paginaEsperada =
+            new PaginaCursorDTO<>(new ArrayList<>(List.of(productoEjemplo)), 1L, 1, true);
+        when(dataServiceClient.obtenerProductosPaginados(null, 1)).thenReturn(paginaEsperada);
+
+        // Act
+        PaginaCursorDTO<ProductoDTO> resultado = productoBusinessService.obtenerProductosPaginados(null, 1);
+
+        // Assert
+        assertEquals(1, resultado.getContenido().size());
+        assertEquals(1L, resultado.getSiguienteCursor());
+        assertTrue(resultado.isHayMas());
+        assertNotNull(resultado.getContenido().get(0).getEstadoStock());
+        verify(dataServiceClient).obtenerProductosPaginados(null, 1);
+    }
+
     @Test
     void cuandoObtenerProductoPorId_conIdValido_entoncesRetornaProductoEnriquecido() {
         // Arrange
         Long id = 1L;
-        when(dataServiceClient.obtenerProductoPorId(id)).thenReturn(productoEjemplo);
+        when(cargadorProductos.obtener(id)).thenReturn(productoEjemplo);
 
         // Act
         ProductoDTO resultado = productoBusinessService.obtenerProductoPorId(id);
@@ -77,7 +106,7 @@ class ProductoBusinessServiceTest {
         assertNotNull(resultado);
         assertEquals("Producto Test", resultado.getNombre());
         assertNotNull(resultado.getValorInventario());
-        verify(dataServiceClient).obtenerProductoPorId(id);
+        verify(cargadorProductos).obtener(id);
     }
 
     @Test
@@ -90,7 +119,20 @@ class ProductoBusinessServiceTest {
             productoBusinessService.obtenerProductoPorId(idInvalido);
         });
 
-        verify(dataServiceClient, never()).obtenerProductoPorId(any());
+        verify(cargadorProductos, never()).obtener(any());
+    }
+
+    @Test
+    void cuandoObtenerProductoPorId_yElLoteNoLoIncluye_entoncesLanzaBusinessException() {
+        // Arrange
+        when(cargadorProductos.obtener(99L)).thenReturn(null);
+
+        // Act & Assert
+        BusinessException error = assertThrows(BusinessException.class, () -> {
+            productoBusinessService.obtenerProductoPorId(99L);
+        });
+
+        assertEquals("PRODUCTO_NO_ENCONTRADO", error.getErrorCode());
     }
 
     @Test
@@ -207,4 +249,76 @@ class ProductoBusinessServiceTest {
 
         verify(dataServiceClient).obtenerTodosLosProductos();
     }
+
+    @Test
+    void cuandoConfirmarPedido_entoncesReservaTodosLosItemsEnUnaLlamada() {
+        // Arrange
+        PedidoRequest pedido = new PedidoRequest(Arrays.asList(
+            new ItemPedidoDTO(1L, 2), new ItemPedidoDTO(2L, 3)));
+        List<Map<String, Object>> reservados = Arrays.asList(
+            Map.of("productoId", 1L, "cantidadReservada", 2, "stockRestante", 8),
+            Map.of("productoId", 2L, "cantidadReservada", 3, "stockRestante", 0));
+        when(dataServiceClient.reservarStock(pedido)).thenReturn(reservados);
+
+        // Act
+        Map<String, Object> resultado = productoBusinessService.confirmarPedido(pedido);
+
+        // Assert
+        assertEquals("CONFIRMADO", resultado.get("estado"));
+        assertEquals(5, resultado.get("totalUnidades"));
+        assertEquals(reservados, resultado.get("items"));
+        verify(dataServiceClient).reservarStock(pedido);
+        verify(dataServiceClient, never()).decrementarStock(anyLong(), anyInt());
+    }
+
+    @Test
+    void cuandoConfirmarPedido_sinStock_entoncesLanzaBusinessException() {
+        // Arrange
+        PedidoRequest pedido = new PedidoRequest(Arrays.asList(new ItemPedidoDTO(1L, 50)));
+        when(dataServiceClient.reservarStock(pedido)).thenThrow(errorDeReserva(
+            "{\"status\":400,\"error\":\"Stock insuficiente\",\"errorCode\":\"STOCK_INSUFICIENTE\",\"productoId\":1}"));
+
+        // Act & Assert
+        BusinessException excepcion = assertThrows(BusinessException.class, () -> {
+            productoBusinessService.confirmarPedido(pedido);
+        });
+
+        assertEquals("STOCK_INSUFICIENTE", excepcion.getErrorCode());
+    }
+
+    @Test
+    void cuandoConfirmarPedido_yDataServiceRechazaPorOtroMotivo_entoncesNoLoReportaComoFaltaDeStock() {
+        // Arrange
+        PedidoRequest pedido = new PedidoRequest(Arrays.asList(new ItemPedidoDTO(1L, 5)));
+        when(dataServiceClient.reservarStock(pedido)).thenThrow(errorDeReserva(
+            "{\"status\":400,\"error\":\"Argumento inválido\",\"message\":\"Producto repetido en la reserva\"}"));
+
+        // Act & Assert
+        BusinessException excepcion = assertThrows(BusinessException.class, () -> {
+            productoBusinessService.confirmarPedido(pedido);
+        });
+
+        assertEquals("PEDIDO_RECHAZADO", excepcion.getErrorCode());
+        assertTrue(excepcion.getMessage().contains("Producto repetido en la reserva"));
+    }
+
+    @Test
+    void cuandoConfirmarPedido_conCantidadInvalida_entoncesLanzaValidationException() {
+        // Arrange
+        PedidoRequest pedido = new PedidoRequest(Arrays.asList(new ItemPedidoDTO(1L, 0)));
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> {
+            productoBusinessService.confirmarPedido(pedido);
+        });
+
+        verify(dataServiceClient, never()).reservarStock(any());
+    }
+
+    private static FeignException.BadRequest errorDeReserva(String cuerpo) {
+        Request request = Request.create(Request.HttpMethod.POST, "/data/inventario/reservas",
+            Map.of(), null, StandardCharsets.UTF_8, null);
+        return new FeignException.BadRequest("400 Bad Request", request,
+            cuerpo.getBytes(StandardCharsets.UTF_8), Map.of());
+    }
 }
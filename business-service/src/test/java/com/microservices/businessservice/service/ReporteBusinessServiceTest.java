@@ -0,0 +1,154 @@
+package com.microservices.businessservice.service;
+
+import com.microservices.businessservice.client.DataServiceClient;
+import com.microservices.businessservice.dto.ReporteDTO;
+import com.microservices.businessservice.dto.SnapshotInventarioDTO;
+import com.microservices.businessservice.exception.ServiceUnavailableException;
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ReporteBusinessService
+ *
+ * @author Agustin Benavidez
+ */
+@ExtendWith(MockitoExtension.class)
+class ReporteBusinessServiceTest {
+
+    @Mock
+    private DataServiceClient dataServiceClient;
+
+    private ReporteBusinessService reporteBusinessService;
+
+    @BeforeEach
+    void setUp() {
+        reporteBusinessService = new ReporteBusinessService(dataServiceClient, new ConsultasParalelas(2000));
+    }
+
+    @Test
+    void cuandoGenerarReporteFinanciero_entoncesPideSoloLosProductosMasValiosos() {
+        // Arrange
+        List<Map<String, Object>> top = List.of(
+                Map.of("productoId", 2, "valorTotal", 500),
+                Map.of("productoId", 1, "valorTotal", 300));
+        when(dataServiceClient.obtenerSnapshotInventario()).thenReturn(snapshot(4, 1, 0, 0, "1000.00", "250.00"));
+        when(dataServiceClient.obtenerTopValorInventario(anyInt())).thenReturn(top);
+
+        // Act
+        ReporteDTO reporte = reporteBusinessService.generarReporteFinanciero();
+
+        // Assert
+        assertEquals(top, reporte.getDatos().get("topProductosMasValiosos"));
+        assertEquals(new BigDecimal("250.00"), reporte.getDatos().get("valorPromedioPorProducto"));
+        verify(dataServiceClient).obtenerTopValorInventario(10);
+        verify(dataServiceClient, never()).obtenerValorInventarioPorProducto();
+    }
+
+    @Test
+    void cuandoGenerarReporteInventario_entoncesUsaSoloElSnapshot() {
+        // Arrange
+        when(dataServiceClient.obtenerSnapshotInventario()).thenReturn(snapshot(2, 1, 0, 0, "100.00", "50.00"));
+
+        // Act
+        ReporteDTO reporte = reporteBusinessService.generarReporteEstadoInventario();
+
+        // Assert: no se descargan el inventario ni los listados de alertas
+        assertEquals(2, reporte.getTotalProductos());
+        assertEquals(1, reporte.getProductosConStockBajo());
+        assertEquals(new BigDecimal("50.00"), reporte.getValorPromedioProducto());
+        assertEquals(50.0, reporte.getDatos().get("porcentajeStockBajo"));
+        verify(dataServiceClient).obtenerSnapshotInventario();
+        verifyNoMoreInteractions(dataServiceClient);
+    }
+
+    @Test
+    void cuandoGenerarReporteFinanciero_entoncesLasConsultasSeHacenEnParalelo() {
+        // Arrange: cada consulta tarda 300 ms
+        when(dataServiceClient.obtenerSnapshotInventario()).thenAnswer(demorada(snapshot(2, 0, 0, 0, "100.00", "50.00")));
+        when(dataServiceClient.obtenerTopValorInventario(anyInt())).thenAnswer(demorada(List.of()));
+        when(dataServiceClient.obtenerEstadisticasCategorias()).thenAnswer(demorada(List.of()));
+
+        // Act
+        long inicio = System.nanoTime();
+        ReporteDTO reporte = reporteBusinessService.generarReporteFinanciero();
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        // Assert: tres consultas secuenciales tardarían al menos 900 ms
+        assertEquals(new BigDecimal("100.00"), reporte.getValorTotalInventario());
+        assertTrue(duracionMs < 800, "duración: " + duracionMs + " ms");
+    }
+
+    @Test
+    void cuandoUnaConsultaFalla_entoncesSeCancelanLasPendientes() throws Exception {
+        // Arrange
+        CountDownLatch iniciada = new CountDownLatch(1);
+        AtomicBoolean interrumpida = new AtomicBoolean();
+        when(dataServiceClient.obtenerInventariosConStockBajo()).thenAnswer(invocacion -> {
+            iniciada.countDown();
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrumpida.set(true);
+            }
+            return List.of();
+        });
+        when(dataServiceClient.obtenerInventariosConStockCritico()).thenAnswer(invocacion -> {
+            iniciada.await(1, TimeUnit.SECONDS);
+            throw new FeignException.InternalServerError("error", Request.create(Request.HttpMethod.GET,
+                    "/data/inventario/stock-critico", Map.of(), null, StandardCharsets.UTF_8, null), null, Map.of());
+        });
+        lenient().when(dataServiceClient.obtenerInventariosSinStock()).thenReturn(List.of());
+        lenient().when(dataServiceClient.obtenerInventariosParaReabastecimiento()).thenReturn(List.of());
+
+        // Act
+        long inicio = System.nanoTime();
+        ServiceUnavailableException error = assertThrows(ServiceUnavailableException.class,
+                () -> reporteBusinessService.generarReporteAlertasStock());
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        // Assert
+        assertInstanceOf(FeignException.class, error.getCause());
+        assertTrue(duracionMs < 2000, "duración: " + duracionMs + " ms");
+        verify(dataServiceClient, timeout(1000)).obtenerInventariosConStockBajo();
+        Thread.sleep(100);
+        assertTrue(interrumpida.get());
+    }
+
+    private static SnapshotInventarioDTO snapshot(long total, long bajo, long critico, long sinStock,
+                                                  String valorTotal, String valorPromedio) {
+        SnapshotInventarioDTO snapshot = new SnapshotInventarioDTO();
+        snapshot.setTotalProductos(total);
+        snapshot.setProductosConStockBajo(bajo);
+        snapshot.setProductosConStockCritico(critico);
+        snapshot.setProductosSinStock(sinStock);
+        snapshot.setPorcentajeStockBajo(total > 0 ? bajo * 100.0 / total : 0.0);
+        snapshot.setValorTotalInventario(new BigDecimal(valorTotal));
+        snapshot.setValorPromedioProducto(new BigDecimal(valorPromedio));
+        return snapshot;
+    }
+
+    private static <T> Answer<T> demorada(T resultado) {
+        return invocacion -> {
+            Thread.sleep(300);
+            return resultado;
+        };
+    }
+}
@@ -2,6 +2,7 @@ package com.microservices.dataservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Microservicio de Datos para Sistema de Gestión de Productos
@@ -14,6 +15,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @since 2024
  */
 @SpringBootApplication
+@EnableScheduling
 public class DataServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,75 @@
+package com.microservices.dataservice.busqueda;
+
+import com.microservices.dataservice.repository.ProductoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Construye el índice de búsqueda de productos al iniciar la aplicación y lo recarga
+ * periódicamente (data.indice-busqueda.reconstruccion-ms)
+ *
+ * Recorre los productos activos por lotes (keyset sobre el ID) para no
+ * materializar el catálogo completo en memoria, y publica el resultado de una vez:
+ * mientras se lee, las búsquedas siguen respondiendo con el índice anterior (o con la
+ * base, si todavía no hubo una carga completa). La recarga periódica incorpora los
+ * cambios que no pasaron por esta instancia, como en el índice de precios.
+ *
+ * @author Agustin Benavidez
+ */
+@Component
+public class CargadorIndiceBusqueda {
+
+    private static final Logger logger = LoggerFactory.getLogger(CargadorIndiceBusqueda.class);
+
+    private static final int TAMANIO_LOTE = 1000;
+
+    private final ProductoRepository productoRepository;
+    private final IndiceBusquedaProductos indiceBusqueda;
+
+    @Autowired
+    public CargadorIndiceBusqueda(ProductoRepository productoRepository,
+                                  IndiceBusquedaProductos indiceBusqueda) {
+        this.productoRepository = productoRepository;
+        this.indiceBusqueda = indiceBusqueda;
+    }
+
+    /**
+     * Reconstruye el índice completo desde la base de datos
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${data.indice-busqueda.reconstruccion-ms:300000}",
+               fixedDelayString = "${data.indice-busqueda.reconstruccion-ms:300000}")
+    public synchronized void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        indiceBusqueda.iniciarCarga();
+
+        IndiceBusquedaProductos.Carga carga = new IndiceBusquedaProductos.Carga();
+        try {
+            long cursor = 0L;
+            List<Object[]> lote;
+            do {
+                lote = productoRepository.findTextoIndexablePaginado(cursor, Limit.of(TAMANIO_LOTE));
+                for (Object[] fila : lote) {
+                    carga.agregar((Long) fila[0], (String) fila[1], (String) fila[2]);
+                    cursor = (Long) fila[0];
+                }
+            } while (lote.size() == TAMANIO_LOTE);
+        } catch (RuntimeException e) {
+            indiceBusqueda.cancelarCarga();
+            logger.error("No se pudo construir el índice de búsqueda: {}", e.getMessage());
+            return;
+        }
+        indiceBusqueda.reemplazar(carga);
+
+        logger.info("Índice de búsqueda construido con {} productos en {} ms",
+                indiceBusqueda.tamanio(), System.currentTimeMillis() - inicio);
+    }
+}
@@ -0,0 +1,76 @@
+package com.microservices.dataservice.busqueda;
+
+import com.microservices.dataservice.repository.ProductoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Construye el índice de precios de productos al iniciar la aplicación y lo recarga
+ * periódicamente (data.indice-precios.reconstruccion-ms)
+ *
+ * Recorre los productos activos por lotes (keyset sobre el ID), igual que la carga
+ * del índice de búsqueda, y publica el resultado de una vez: mientras se lee, las
+ * consultas siguen respondiendo con el índice anterior (o con la base, si todavía no hubo
+ * una carga completa). La recarga periódica incorpora los cambios que no pasaron por esta
+ * instancia, como los de otras réplicas del servicio.
+ *
+ * @author Agustin Benavidez
+ */
+@Component
+public class CargadorIndicePrecios {
+
+    private static final Logger logger = LoggerFactory.getLogger(CargadorIndicePrecios.class);
+
+    private static final int TAMANIO_LOTE = 1000;
+
+    private final ProductoRepository productoRepository;
+    private final IndicePreciosProductos indicePrecios;
+
+    @Autowired
+    public CargadorIndicePrecios(ProductoRepository productoRepository,
+                                 IndicePreciosProductos indicePrecios) {
+        this.productoRepository = productoRepository;
+        this.indicePrecios = indicePrecios;
+    }
+
+    /**
+     * Reconstruye el índice completo desde la base de datos
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${data.indice-precios.reconstruccion-ms:300000}",
+               fixedDelayString = "${data.indice-precios.reconstruccion-ms:300000}")
+    public synchronized void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        indicePrecios.iniciarCarga();
+
+        IndicePreciosProductos.Carga carga = new IndicePreciosProductos.Carga();
+        try {
+            long cursor = 0L;
+            List<Object[]> lote;
+            do {
+                lote = productoRepository.findPrecioIndexablePaginado(cursor, Limit.of(TAMANIO_LOTE));
+                for (Object[] fila : lote) {
+                    carga.agregar((Long) fila[0], (BigDecimal) fila[1], (Long) fila[2]);
+                    cursor = (Long) fila[0];
+                }
+            } while (lote.size() == TAMANIO_LOTE);
+        } catch (RuntimeException e) {
+            indicePrecios.cancelarCarga();
+            logger.error("No se pudo construir el índice de precios: {}", e.getMessage());
+            return;
+        }
+        indicePrecios.reemplazar(carga);
+
+        logger.info("Índice de precios construido con {} productos en {} ms",
+                indicePrecios.tamanio(), System.currentTimeMillis() - inicio);
+    }
+}
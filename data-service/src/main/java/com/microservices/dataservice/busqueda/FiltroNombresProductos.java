@@ -0,0 +1,294 @@
+package com.microservices.dataservice.busqueda;
+
+import com.microservices.dataservice.entity.Producto;
+import com.microservices.dataservice.repository.ProductoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Filtro de Bloom sobre los nombres normalizados de todos los productos (activos o no)
+ *
+ * Antes de consultar la base por un nombre repetido se prueba el filtro: si responde que
+ * el nombre no está, es seguro (un filtro de Bloom no da falsos negativos) y se evita la
+ * consulta; solo los posibles aciertos van a la base. Los nombres se agregan al escribirse,
+ * antes del commit, por lo que una transacción revertida solo deja un falso positivo.
+ *
+ * No admite bajas: renombres y eliminaciones dejan bits de más hasta la siguiente
+ * reconstrucción periódica, que además redimensiona el filtro según la cantidad de productos.
+ * Ante una carrera entre la reconstrucción y una alta todavía no confirmada, el índice único
+ * de nombre_normalizado sigue rechazando el duplicado.
+ *
+ * @author Agustin Benavidez
+ */
+@Component
+public class FiltroNombresProductos {
+
+    private static final Logger logger = LoggerFactory.getLogger(FiltroNombresProductos.class);
+
+    private static final int TAMANIO_LOTE = 1000;
+
+    private final ProductoRepository productoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final int capacidadMinima;
+    private final double tasaFalsosPositivos;
+
+    private final Counter descartados;
+    private final Counter posibles;
+    private final Counter falsosPositivos;
+
+    /** Filtro vigente; null hasta la primera construcción (se consulta siempre la base) */
+    private volatile Filtro actual;
+    /** Filtro en construcción: las altas concurrentes se agregan también a él */
+    private volatile Filtro enConstruccion;
+
+    @Autowired
+    public FiltroNombresProductos(ProductoRepository productoRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${data.filtro-nombres.habilitado:true}") boolean habilitado,
+                                  @Value("${data.filtro-nombres.capacidad-minima:100000}") int capacidadMinima,
+                                  @Value("${data.filtro-nombres.tasa-falsos-positivos:0.01}") double tasaFalsosPositivos) {
+        this.productoRepository = productoRepository;
+        this.habilitado = habilitado;
+        this.capacidadMinima = capacidadMinima;
+        this.tasaFalsosPositivos = tasaFalsosPositivos;
+
+        // Se lee de la primaria: una réplica atrasada dejaría nombres afuera
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Gauge.builder("data.filtro.nombres.memoria", this,
+                        filtro -> filtro.actual != null ? filtro.actual.bytes() : 0)
+                .description("Memoria ocupada por el arreglo de bits del filtro de nombres")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("data.filtro.nombres.elementos", this,
+                        filtro -> filtro.actual != null ? filtro.actual.elementos() : 0)
+                .description("Nombres agregados al filtro desde su última construcción")
+                .register(meterRegistry);
+        Gauge.builder("data.filtro.nombres.falsos.positivos.estimados", this,
+                        filtro -> filtro.actual != null ? filtro.actual.tasaEstimada() : 0)
+                .description("Probabilidad teórica de falso positivo con la ocupación actual")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("data.filtro.nombres.consultas")
+                .description("Verificaciones de nombre según la respuesta del filtro")
+                .tag("resultado", "descartado")
+                .register(meterRegistry);
+        this.posibles = Counter.builder("data.filtro.nombres.consultas")
+                .description("Verificaciones de nombre según la respuesta del filtro")
+                .tag("resultado", "posible")
+                .register(meterRegistry);
+        this.falsosPositivos = Counter.builder("data.filtro.nombres.falsos.positivos")
+                .description("Posibles aciertos del filtro que la base no confirmó")
+                .register(meterRegistry);
+    }
+
+    // ========== CONSULTA ==========
+
+    /**
+     * Indica si el nombre puede estar en uso (false es definitivo)
+     */
+    public boolean puedeExistir(String nombre) {
+        Filtro filtro = actual;
+        if (!habilitado || filtro == null) {
+            return true;
+        }
+        boolean posible = filtro.contiene(Producto.normalizarNombre(nombre));
+        (posible ? posibles : descartados).increment();
+        return posible;
+    }
+
+    /**
+     * Verifica un nombre consultando la base solo si el filtro no lo descarta
+     */
+    public boolean existe(String nombre, BooleanSupplier consultarBase) {
+        if (!puedeExistir(nombre)) {
+            return false;
+        }
+        boolean existe = consultarBase.getAsBoolean();
+        if (!existe && habilitado && actual != null) {
+            falsosPositivos.increment();
+        }
+        return existe;
+    }
+
+    /**
+     * Registra posibles aciertos que la base descartó (verificaciones por lote)
+     */
+    public void registrarFalsosPositivos(int cantidad) {
+        if (habilitado && actual != null && cantidad > 0) {
+            falsosPositivos.increment(cantidad);
+        }
+    }
+
+    // ========== ESCRITURA ==========
+
+    /**
+     * Agrega un nombre en uso (se llama al crear o renombrar, dentro de la transacción)
+     */
+    public void agregar(String nombre) {
+        if (!habilitado) {
+            return;
+        }
+        String normalizado = Producto.normalizarNombre(nombre);
+        Filtro filtro = actual;
+        if (filtro != null) {
+            filtro.agregar(normalizado);
+        }
+        Filtro nuevo = enConstruccion;
+        if (nuevo != null) {
+            nuevo.agregar(normalizado);
+        }
+    }
+
+    /**
+     * Construye el filtro al iniciar
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        reconstruir();
+    }
+
+    /**
+     * Reconstruye el filtro desde la base: descarta nombres que ya no existen y lo
+     * redimensiona para mantener la tasa de falsos positivos configurada
+     */
+    @Scheduled(initialDelayString = "${data.filtro-nombres.reconstruccion-ms:3600000}",
+               fixedDelayString = "${data.filtro-nombres.reconstruccion-ms:3600000}")
+    public synchronized void reconstruir() {
+        if (!habilitado) {
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        try {
+            long cantidad = transactionTemplate.execute(estado -> productoRepository.count());
+            Filtro nuevo = new Filtro(Math.max(capacidadMinima, cantidad * 2), tasaFalsosPositivos);
+            enConstruccion = nuevo;
+
+            transactionTemplate.executeWithoutResult(estado -> {
+                long cursor = 0L;
+                List<Object[]> lote;
+                do {
+                    lote = productoRepository.findNombresNormalizadosPaginado(cursor, Limit.of(TAMANIO_LOTE));
+                    for (Object[] fila : lote) {
+                        nuevo.agregar((String) fila[1]);
+                        cursor = (Long) fila[0];
+                    }
+                } while (lote.size() == TAMANIO_LOTE);
+            });
+
+            actual = nuevo;
+            logger.info("Filtro de nombres construido con {} nombres ({} KB, {} funciones hash) en {} ms",
+                    nuevo.elementos(), nuevo.bytes() / 1024, nuevo.funciones,
+                    System.currentTimeMillis() - inicio);
+        } catch (RuntimeException e) {
+            // Se conserva el filtro anterior, que sigue sin falsos negativos
+            logger.error("No se pudo reconstruir el filtro de nombres: {}", e.getMessage());
+        } finally {
+            enConstruccion = null;
+        }
+    }
+
+    // ========== FILTRO ==========
+
+    /**
+     * Arreglo de bits con k funciones hash derivadas de un hash de 64 bits (doble hashing)
+     */
+    static final class Filtro {
+
+        private final AtomicLongArray bits;
+        private final long cantidadBits;
+        private final int funciones;
+        private final LongAdder elementos = new LongAdder();
+
+        Filtro(long capacidad, double tasaFalsosPositivos) {
+            // m = -n ln(p) / ln(2)^2 ; k = (m / n) ln(2)
+            long m = (long) Math.ceil(-capacidad * Math.log(tasaFalsosPositivos) / (Math.log(2) * Math.log(2)));
+            int palabras = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (m + 63) / 64));
+            this.bits = new AtomicLongArray(palabras);
+            this.cantidadBits = (long) palabras * 64;
+            this.funciones = Math.max(1, (int) Math.round((double) cantidadBits / capacidad * Math.log(2)));
+        }
+
+        void agregar(String valor) {
+            long hash = hash(valor);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= funciones; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, cantidadBits);
+                int palabra = (int) (bit >>> 6);
+                long mascara = 1L << bit;
+                long anterior;
+                do {
+                    anterior = bits.get(palabra);
+                } while ((anterior & mascara) == 0 && !bits.compareAndSet(palabra, anterior, anterior | mascara));
+            }
+            elementos.increment();
+        }
+
+        boolean contiene(String valor) {
+            long hash = hash(valor);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= funciones; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, cantidadBits);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long elementos() {
+            return elementos.sum();
+        }
+
+        long bytes() {
+            return (long) bits.length() * Long.BYTES;
+        }
+
+        /**
+         * (1 - e^(-k n / m))^k
+         */
+        double tasaEstimada() {
+            return Math.pow(1 - Math.exp(-funciones * (double) elementos() / cantidadBits), funciones);
+        }
+
+        /**
+         * FNV-1a de 64 bits sobre UTF-8 con el mezclado final de MurmurHash3
+         */
+        private static long hash(String valor) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package com.microservices.dataservice.busqueda;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria sobre el nombre y la descripción de los productos activos
+ *
+ * Cada término se indexa con los productos que lo contienen, y cada trigrama con los
+ * términos del vocabulario donde aparece. Así una búsqueda por subcadena resuelve primero
+ * los términos candidatos por trigramas y luego une sus listas de productos, sin recorrer
+ * el catálogo completo.
+ *
+ * La carga completa se arma aparte y se publica con un reemplazo atómico; los cambios
+ * recibidos mientras tanto se aplican encima, igual que en el índice de precios.
+ *
+ * @author Agustin Benavidez
+ */
+@Component
+public class IndiceBusquedaProductos {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceBusquedaProductos.class);
+
+    private static final int LONGITUD_NGRAMA = 3;
+    private static final int CAMPO_NOMBRE = 1;
+    private static final int CAMPO_DESCRIPCION = 2;
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{Alnum}]+");
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}");
+
+    private static final Comparator<Resultado> POR_RELEVANCIA =
+            Comparator.comparingInt(Resultado::puntaje).reversed().thenComparing(Resultado::productoId);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Contenido contenido = new Contenido();
+
+    /**
+     * Último cambio de cada producto recibido durante una carga completa (null = eliminado);
+     * el mapa es null si no hay carga en curso. Protegido por el lock.
+     */
+    private Map<Long, Map<String, Integer>> cambiosDuranteCarga;
+
+    private volatile boolean cargado;
+
+    /**
+     * Resultado de búsqueda con su puntaje de relevancia
+     */
+    public record Resultado(Long productoId, int puntaje) {
+    }
+
+    /**
+     * Productos leídos para una carga completa; se indexan fuera del lock del índice
+     */
+    public static final class Carga {
+
+        private final Contenido contenido = new Contenido();
+
+        public void agregar(Long productoId, String nombre, String descripcion) {
+            contenido.indexar(productoId, campos(nombre, descripcion));
+        }
+
+        public int tamanio() {
+            return contenido.terminosPorProducto.size();
+        }
+    }
+
+    /**
+     * Indexa (o reindexa) un producto
+     */
+    public void indexar(Long productoId, String nombre, String descripcion) {
+        Map<String, Integer> campos = campos(nombre, descripcion);
+        lock.writeLock().lock();
+        try {
+            contenido.indexar(productoId, campos);
+            if (cambiosDuranteCarga != null) {
+                cambiosDuranteCarga.put(productoId, campos);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un producto del índice
+     */
+    public void eliminar(Long productoId) {
+        lock.writeLock().lock();
+        try {
+            contenido.eliminar(productoId);
+            if (cambiosDuranteCarga != null) {
+                cambiosDuranteCarga.put(productoId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Empieza a anotar los cambios; se llama antes de leer la carga completa
+     */
+    public void iniciarCarga() {
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteCarga = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Descarta una carga que no se pudo completar; el índice actual queda como estaba
+     */
+    public void cancelarCarga() {
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteCarga = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza el contenido por la carga completa
+     *
+     * Los cambios anotados desde iniciarCarga() pudieron ser más nuevos que lo leído y
+     * se aplican encima antes de publicar.
+     */
+    public void reemplazar(Carga carga) {
+        lock.writeLock().lock();
+        try {
+            contenido = carga.contenido;
+            if (cambiosDuranteCarga != null) {
+                cambiosDuranteCarga.forEach((productoId, campos) -> {
+                    if (campos != null) {
+                        contenido.indexar(productoId, campos);
+                    } else {
+                        contenido.eliminar(productoId);
+                    }
+                });
+                cambiosDuranteCarga = null;
+            }
+            cargado = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si el índice tiene una carga completa (las búsquedas pueden resolverse en memoria)
+     */
+    public boolean isCargado() {
+        return cargado;
+    }
+
+    /**
+     * Busca productos que contengan todos los términos del texto (como subcadena),
+     * ordenados por relevancia descendente y luego por ID
+     */
+    public List<Resultado> buscar(String texto) {
+        return buscar(texto, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Igual que buscar(texto), pero devuelve solo los primeros resultados
+     *
+     * Con más coincidencias que el límite se conservan las mejores en un heap acotado,
+     * sin ordenar el resto: O(M log límite) en lugar de O(M log M).
+     */
+    public List<Resultado> buscar(String texto, int limite) {
+        Set<String> consulta = tokenizar(texto);
+        if (consulta.isEmpty() || limite <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> acumulado = null;
+            for (String terminoConsulta : consulta) {
+                Map<Long, Integer> puntajes = puntuarTermino(terminoConsulta);
+                if (acumulado == null) {
+                    acumulado = puntajes;
+                } else {
+                    // Intersección: el producto debe contener todos los términos
+                    Map<Long, Integer> interseccion = new HashMap<>();
+                    Map<Long, Integer> menor = acumulado.size() <= puntajes.size() ? acumulado : puntajes;
+                    Map<Long, Integer> mayor = menor == acumulado ? puntajes : acumulado;
+                    for (Map.Entry<Long, Integer> entrada : menor.entrySet()) {
+                        Integer otro = mayor.get(entrada.getKey());
+                        if (otro != null) {
+                            interseccion.put(entrada.getKey(), entrada.getValue() + otro);
+                        }
+                    }
+                    acumulado = interseccion;
+                }
+                if (acumulado.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            if (acumulado.size() <= limite) {
+                List<Resultado> resultados = new ArrayList<>(acumulado.size());
+                acumulado.forEach((id, puntaje) -> resultados.add(new Resultado(id, puntaje)));
+                resultados.sort(POR_RELEVANCIA);
+                return resultados;
+            }
+
+            // La cabeza del heap es el peor de los conservados
+            PriorityQueue<Resultado> mejores = new PriorityQueue<>(limite + 1, POR_RELEVANCIA.reversed());
+            acumulado.forEach((id, puntaje) -> {
+                Resultado resultado = new Resultado(id, puntaje);
+                if (mejores.size() < limite) {
+                    mejores.add(resultado);
+                } else if (POR_RELEVANCIA.compare(resultado, mejores.peek()) < 0) {
+                    mejores.poll();
+                    mejores.add(resultado);
+                }
+            });
+            List<Resultado> resultados = new ArrayList<>(mejores);
+            resultados.sort(POR_RELEVANCIA);
+            return resultados;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de productos indexados
+     */
+    public int tamanio() {
+        lock.readLock().lock();
+        try {
+            return contenido.terminosPorProducto.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    /**
+     * Devuelve el mejor puntaje de cada producto para un término de la consulta
+     */
+    private Map<Long, Integer> puntuarTermino(String terminoConsulta) {
+        Map<Long, Integer> puntajes = new HashMap<>();
+        for (String termino : terminosCandidatos(terminoConsulta)) {
+            int coincidencia = termino.equals(terminoConsulta) ? 3
+                    : termino.startsWith(terminoConsulta) ? 2 : 1;
+            contenido.productosPorTermino.get(termino).forEach((id, campos) -> {
+                int peso = (campos & CAMPO_NOMBRE) != 0 ? coincidencia * 2 : coincidencia;
+                puntajes.merge(id, peso, Math::max);
+            });
+        }
+        return puntajes;
+    }
+
+    /**
+     * Términos del vocabulario que contienen al término de la consulta
+     */
+    private List<String> terminosCandidatos(String terminoConsulta) {
+        List<String> candidatos = new ArrayList<>();
+        if (terminoConsulta.length() < LONGITUD_NGRAMA) {
+            // Términos muy cortos: se recorre el vocabulario, no el catálogo
+            for (String termino : contenido.productosPorTermino.keySet()) {
+                if (termino.contains(terminoConsulta)) {
+                    candidatos.add(termino);
+                }
+            }
+            return candidatos;
+        }
+
+        List<Set<String>> conjuntos = new ArrayList<>();
+        for (String trigrama : trigramas(terminoConsulta)) {
+            Set<String> vocabulario = contenido.terminosPorTrigrama.get(trigrama);
+            if (vocabulario == null) {
+                return candidatos;
+            }
+            conjuntos.add(vocabulario);
+        }
+        // Se recorre el conjunto más chico y se descarta lo que falte en otro antes de comparar la subcadena
+        conjuntos.sort(Comparator.comparingInt(Set::size));
+        for (String termino : conjuntos.get(0)) {
+            if (enTodos(termino, conjuntos) && termino.contains(terminoConsulta)) {
+                candidatos.add(termino);
+            }
+        }
+        return candidatos;
+    }
+
+    private static boolean enTodos(String termino, List<Set<String>> conjuntos) {
+        for (int i = 1; i < conjuntos.size(); i++) {
+            if (!conjuntos.get(i).contains(termino)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Campos (nombre y/o descripción) donde aparece cada término del producto
+     */
+    private static Map<String, Integer> campos(String nombre, String descripcion) {
+        Map<String, Integer> campos = new HashMap<>();
+        for (String termino : tokenizar(nombre)) {
+            campos.merge(termino, CAMPO_NOMBRE, (a, b) -> a | b);
+        }
+        for (String termino : tokenizar(descripcion)) {
+            campos.merge(termino, CAMPO_DESCRIPCION, (a, b) -> a | b);
+        }
+        return campos;
+    }
+
+    static Set<String> tokenizar(String texto) {
+        Set<String> terminos = new LinkedHashSet<>();
+        if (texto == null || texto.isBlank()) {
+            return terminos;
+        }
+        String normalizado = MARCAS_DIACRITICAS
+                .matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String termino : SEPARADORES.split(normalizado)) {
+            if (!termino.isEmpty()) {
+                terminos.add(termino);
+            }
+        }
+        return terminos;
+    }
+
+    private static Set<String> trigramas(String termino) {
+        Set<String> resultado = new HashSet<>();
+        for (int i = 0; i + LONGITUD_NGRAMA <= termino.length(); i++) {
+            resultado.add(termino.substring(i, i + LONGITUD_NGRAMA));
+        }
+        return resultado;
+    }
+
+    /**
+     * Estructuras del índice; las del índice publicado se acceden bajo su lock
+     */
+    private static final class Contenido {
+
+        // término -> (productoId -> campos donde aparece)
+        private final Map<String, Map<Long, Integer>> productosPorTermino = new HashMap<>();
+        // trigrama -> términos del vocabulario que lo contienen
+        private final Map<String, Set<String>> terminosPorTrigrama = new HashMap<>();
+        // productoId -> términos indexados (para poder desindexar)
+        private final Map<Long, Set<String>> terminosPorProducto = new HashMap<>();
+
+        void indexar(Long productoId, Map<String, Integer> campos) {
+            eliminar(productoId);
+            for (Map.Entry<String, Integer> entrada : campos.entrySet()) {
+                String termino = entrada.getKey();
+                Map<Long, Integer> productos = productosPorTermino.get(termino);
+                if (productos == null) {
+                    productos = new HashMap<>();
+                    productosPorTermino.put(termino, productos);
+                    for (String trigrama : trigramas(termino)) {
+                        terminosPorTrigrama.computeIfAbsent(trigrama, t -> new HashSet<>()).add(termino);
+                    }
+                }
+                productos.put(productoId, entrada.getValue());
+            }
+            terminosPorProducto.put(productoId, campos.keySet());
+        }
+
+        void eliminar(Long productoId) {
+            Set<String> terminos = terminosPorProducto.remove(productoId);
+            if (terminos == null) {
+                return;
+            }
+            for (String termino : terminos) {
+                Map<Long, Integer> productos = productosPorTermino.get(termino);
+                if (productos == null) {
+                    continue;
+                }
+                productos.remove(productoId);
+                if (productos.isEmpty()) {
+                    productosPorTermino.remove(termino);
+                    for (String trigrama : trigramas(termino)) {
+                        Set<String> vocabulario = terminosPorTrigrama.get(trigrama);
+                        if (vocabulario != null) {
+                            vocabulario.remove(termino);
+                            if (vocabulario.isEmpty()) {
+                                terminosPorTrigrama.remove(trigrama);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.microservices.dataservice.busqueda;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice en memoria de los productos activos ordenados por precio
+ *
+ * Guarda el precio en centavos y el ID en arreglos primitivos paralelos, ordenados por
+ * (precio, ID): uno global y uno por categoría. Los rangos se resuelven con dos búsquedas
+ * binarias y las páginas se copian directamente del tramo, sin ordenar ni recorrer el catálogo.
+ *
+ * La carga completa se arma aparte (un solo ordenamiento) y se publica con un reemplazo
+ * atómico; los cambios que llegan mientras tanto se anotan y se vuelven a aplicar sobre el
+ * índice nuevo antes de publicarlo.
+ *
+ * @author Agustin Benavidez
+ */
+@Component
+public class IndicePreciosProductos {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final Comparator<Fila> ORDEN_PRECIO =
+            Comparator.comparingLong(Fila::centavos).thenComparingLong(Fila::id);
+
+    private ArregloPrecios global = new ArregloPrecios(ArregloPrecios.CAPACIDAD_INICIAL);
+    private Map<Long, ArregloPrecios> porCategoria = new HashMap<>();
+    // productoId -> {centavos, categoriaId} (para poder desindexar)
+    private Map<Long, long[]> entradas = new HashMap<>();
+
+    /**
+     * Último cambio de cada producto recibido durante una carga completa (null = eliminado);
+     * el mapa es null si no hay carga en curso. Protegido por el lock.
+     */
+    private Map<Long, long[]> cambiosDuranteCarga;
+
+    /** Si ya se publicó una carga completa; antes de eso las consultas van a la base */
+    private volatile boolean cargado;
+
+    /**
+     * Página de IDs en orden de precio
+     * @param productoIds IDs de la página
+     * @param hayMas si quedan resultados después de la página
+     */
+    public record Pagina(List<Long> productoIds, boolean hayMas) {
+    }
+
+    /**
+     * Productos leídos para una carga completa; se ordenan una sola vez al reemplazar
+     */
+    public static final class Carga {
+
+        private final List<Fila> filas = new ArrayList<>();
+
+        public void agregar(Long productoId, BigDecimal precio, Long categoriaId) {
+            filas.add(new Fila(centavos(precio), productoId, categoriaId));
+        }
+
+        public int tamanio() {
+            return filas.size();
+        }
+    }
+
+    private record Fila(long centavos, long id, long categoriaId) {
+    }
+
+    /**
+     * Indexa (o reindexa) un producto con su precio y categoría actuales
+     */
+    public void indexar(Long productoId, BigDecimal precio, Long categoriaId) {
+        long[] entrada = {centavos(precio), categoriaId};
+        lock.writeLock().lock();
+        try {
+            indexarSinBloqueo(productoId, entrada);
+            if (cambiosDuranteCarga != null) {
+                cambiosDuranteCarga.put(productoId, entrada);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un producto del índice
+     */
+    public void eliminar(Long productoId) {
+        lock.writeLock().lock();
+        try {
+            eliminarSinBloqueo(productoId);
+            if (cambiosDuranteCarga != null) {
+                cambiosDuranteCarga.put(productoId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Empieza a anotar los cambios; se llama antes de leer la carga completa
+     */
+    public void iniciarCarga() {
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteCarga = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Descarta una carga que no se pudo completar; el índice actual queda como estaba
+     */
+    public void cancelarCarga() {
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteCarga = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza el contenido por la carga completa
+     *
+     * Los arreglos nuevos se arman fuera del lock a partir de las filas ordenadas; los
+     * cambios anotados desde iniciarCarga() pudieron ser más nuevos que lo leído y se
+     * aplican encima antes de publicar.
+     */
+    public void reemplazar(Carga carga) {
+        Fila[] filas = carga.filas.toArray(new Fila[0]);
+        Arrays.sort(filas, ORDEN_PRECIO);
+
+        ArregloPrecios nuevoGlobal = new ArregloPrecios(filas.length);
+        Map<Long, ArregloPrecios> nuevasCategorias = new HashMap<>();
+        Map<Long, long[]> nuevasEntradas = new HashMap<>(filas.length * 4 / 3 + 1);
+        for (Fila fila : filas) {
+            nuevoGlobal.agregarAlFinal(fila.centavos(), fila.id());
+            nuevasCategorias.computeIfAbsent(fila.categoriaId(), c -> new ArregloPrecios(ArregloPrecios.CAPACIDAD_INICIAL))
+                    .agregarAlFinal(fila.centavos(), fila.id());
+            nuevasEntradas.put(fila.id(), new long[]{fila.centavos(), fila.categoriaId()});
+        }
+
+        lock.writeLock().lock();
+        try {
+            global = nuevoGlobal;
+            porCategoria = nuevasCategorias;
+            entradas = nuevasEntradas;
+            if (cambiosDuranteCarga != null) {
+                cambiosDuranteCarga.forEach((productoId, entrada) -> {
+                    if (entrada != null) {
+                        indexarSinBloqueo(productoId, entrada);
+                    } else {
+                        eliminarSinBloqueo(productoId);
+                    }
+                });
+                cambiosDuranteCarga = null;
+            }
+            cargado = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si el índice tiene una carga completa (las consultas pueden resolverse en memoria)
+     */
+    public boolean isCargado() {
+        return cargado;
+    }
+
+    /**
+     * Productos con precio entre los límites (inclusive; null = sin límite) en orden de precio
+     * @param desde posición dentro del resultado a partir de la cual devolver
+     */
+    public Pagina buscarPorRango(BigDecimal precioMin, BigDecimal precioMax, boolean descendente,
+                                 int desde, int limite) {
+        long minimo = precioMin != null ? centavosHaciaArriba(precioMin) : Long.MIN_VALUE;
+        long maximo = precioMax != null ? centavosHaciaAbajo(precioMax) : Long.MAX_VALUE;
+        lock.readLock().lock();
+        try {
+            return global.pagina(minimo, maximo, descendente, desde, limite);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Los k productos más baratos de una categoría
+     */
+    public List<Long> buscarMasBaratos(Long categoriaId, int k) {
+        lock.readLock().lock();
+        try {
+            ArregloPrecios arreglo = porCategoria.get(categoriaId);
+            if (arreglo == null) {
+                return List.of();
+            }
+            return arreglo.pagina(Long.MIN_VALUE, Long.MAX_VALUE, false, 0, k).productoIds();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de productos indexados
+     */
+    public int tamanio() {
+        lock.readLock().lock();
+        try {
+            return entradas.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private void indexarSinBloqueo(Long productoId, long[] entrada) {
+        eliminarSinBloqueo(productoId);
+        global.insertar(entrada[0], productoId);
+        porCategoria.computeIfAbsent(entrada[1], c -> new ArregloPrecios(ArregloPrecios.CAPACIDAD_INICIAL))
+                .insertar(entrada[0], productoId);
+        entradas.put(productoId, entrada);
+    }
+
+    private void eliminarSinBloqueo(Long productoId) {
+        long[] entrada = entradas.remove(productoId);
+        if (entrada == null) {
+            return;
+        }
+        global.eliminar(entrada[0], productoId);
+        ArregloPrecios categoria = porCategoria.get(entrada[1]);
+        if (categoria != null) {
+            categoria.eliminar(entrada[0], productoId);
+            if (categoria.tamanio == 0) {
+                porCategoria.remove(entrada[1]);
+            }
+        }
+    }
+
+    private static long centavos(BigDecimal precio) {
+        return precio.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static long centavosHaciaArriba(BigDecimal precio) {
+        return precio.movePointRight(2).setScale(0, RoundingMode.CEILING).longValueExact();
+    }
+
+    private static long centavosHaciaAbajo(BigDecimal precio) {
+        return precio.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValueExact();
+    }
+
+    /**
+     * Pares (centavos, ID) ordenados en dos arreglos primitivos paralelos
+     */
+    private static final class ArregloPrecios {
+
+        static final int CAPACIDAD_INICIAL = 16;
+
+        private long[] centavos;
+        private long[] ids;
+        private int tamanio;
+
+        ArregloPrecios(int capacidad) {
+            centavos = new long[Math.max(capacidad, CAPACIDAD_INICIAL)];
+            ids = new long[centavos.length];
+        }
+
+        void insertar(long precio, long id) {
+            int posicion = buscar(precio, id);
+            if (posicion >= 0) {
+                return;
+            }
+            posicion = -posicion - 1;
+            asegurarCapacidad();
+            System.arraycopy(centavos, posicion, centavos, posicion + 1, tamanio - posicion);
+            System.arraycopy(ids, posicion, ids, posicion + 1, tamanio - posicion);
+            centavos[posicion] = precio;
+            ids[posicion] = id;
+            tamanio++;
+        }
+
+        void eliminar(long precio, long id) {
+            int posicion = buscar(precio, id);
+            if (posicion < 0) {
+                return;
+            }
+            System.arraycopy(centavos, posicion + 1, centavos, posicion, tamanio - posicion - 1);
+            System.arraycopy(ids, posicion + 1, ids, posicion, tamanio - posicion - 1);
+            tamanio--;
+        }
+
+        /**
+         * Agrega un par mayor que todos los existentes (carga a partir de filas ya ordenadas)
+         */
+        void agregarAlFinal(long precio, long id) {
+            asegurarCapacidad();
+            centavos[tamanio] = precio;
+            ids[tamanio] = id;
+            tamanio++;
+        }
+
+        private void asegurarCapacidad() {
+            if (tamanio == centavos.length) {
+                centavos = Arrays.copyOf(centavos, tamanio * 2);
+                ids = Arrays.copyOf(ids, tamanio * 2);
+            }
+        }
+
+        /**
+         * Página del tramo [minimo, maximo] en centavos, contando posiciones en el orden pedido
+         */
+        Pagina pagina(long minimo, long maximo, boolean descendente, int desde, int limite) {
+            int inicio = primeraPosicionDesde(minimo);
+            int fin = maximo == Long.MAX_VALUE ? tamanio : primeraPosicionDesde(maximo + 1);
+            int cantidad = Math.max(0, fin - inicio);
+            if (desde >= cantidad) {
+                return new Pagina(List.of(), false);
+            }
+
+            int hasta = (int) Math.min((long) desde + limite, cantidad);
+            List<Long> productoIds = new ArrayList<>(hasta - desde);
+            for (int i = desde; i < hasta; i++) {
+                productoIds.add(ids[descendente ? fin - 1 - i : inicio + i]);
+            }
+            return new Pagina(productoIds, hasta < cantidad);
+        }
+
+        /**
+         * Posición del par, o (-(punto de inserción) - 1) si no está
+         */
+        private int buscar(long precio, long id) {
+            int bajo = 0;
+            int alto = tamanio - 1;
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+                int comparacion = centavos[medio] != precio
+                        ? Long.compare(centavos[medio], precio)
+                        : Long.compare(ids[medio], id);
+                if (comparacion < 0) {
+                    bajo = medio + 1;
+                } else if (comparacion > 0) {
+                    alto = medio - 1;
+                } else {
+                    return medio;
+                }
+            }
+            return -(bajo + 1);
+        }
+
+        /**
+         * Primera posición con precio mayor o igual al indicado
+         */
+        private int primeraPosicionDesde(long precio) {
+            int bajo = 0;
+            int alto = tamanio;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (centavos[medio] < precio) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.microservices.dataservice.config;
+
+import com.microservices.dataservice.entity.Categoria;
+import com.microservices.dataservice.entity.Inventario;
+import com.microservices.dataservice.entity.Producto;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Deja las secuencias de IDs por encima de las filas existentes al iniciar
+ *
+ * Producto, Inventario y Categoria pasaron de IDENTITY a secuencias con asignación de a 50.
+ * Con ddl-auto: update, una base existente recibe secuencias nuevas que empiezan en 1 y
+ * chocarían con los IDs ya usados. Antes de atender pedidos (después de actualizar el
+ * esquema) cada secuencia se adelanta para que el próximo bloque empiece después del máximo
+ * ID de su tabla; nunca se retrocede. PostgreSQL y H2 usan secuencias nativas; en MySQL
+ * Hibernate las emula con una tabla de una fila (next_val).
+ *
+ * @author Agustin Benavidez
+ */
+@Component
+public class AlineadorSecuencias {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlineadorSecuencias.class);
+
+    /** Entidades cuyos IDs venían de columnas IDENTITY */
+    private static final List<Class<?>> ENTIDADES = List.of(Categoria.class, Producto.class, Inventario.class);
+
+    private final JdbcTemplate primaria;
+
+    /**
+     * Recibe el EntityManagerFactory solo para ejecutarse después de la actualización del esquema
+     */
+    public AlineadorSecuencias(HikariDataSource dataSourcePrimaria, EntityManagerFactory entityManagerFactory) {
+        this.primaria = new JdbcTemplate(dataSourcePrimaria);
+    }
+
+    /**
+     * Adelanta las secuencias que quedaron por debajo de los IDs existentes
+     */
+    @PostConstruct
+    public void alinear() {
+        String motor = primaria.execute((ConnectionCallback<String>) conexion ->
+                conexion.getMetaData().getDatabaseProductName());
+        for (Class<?> entidad : ENTIDADES) {
+            SequenceGenerator generador = generador(entidad);
+            String tabla = entidad.getAnnotation(Table.class).name();
+            long maximoId = primaria.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + tabla, Long.class);
+            // El optimizador pooled toma como bloque los allocationSize IDs que terminan en el valor leído
+            long minimoSiguiente = maximoId + generador.allocationSize();
+            if (adelantar(motor, generador.sequenceName(), generador.allocationSize(), minimoSiguiente)) {
+                logger.info("Secuencia {} adelantada a {} (máximo ID en {}: {})",
+                        generador.sequenceName(), minimoSiguiente, tabla, maximoId);
+            }
+        }
+    }
+
+    /**
+     * Lleva la secuencia al valor indicado si el próximo que devolvería es menor
+     */
+    private boolean adelantar(String motor, String secuencia, int incremento, long minimoSiguiente) {
+        switch (motor) {
+            case "PostgreSQL" -> {
+                Long siguiente = primaria.queryForObject("SELECT CASE WHEN is_called THEN last_value + "
+                        + incremento + " ELSE last_value END FROM " + secuencia, Long.class);
+                if (siguiente >= minimoSiguiente) {
+                    return false;
+                }
+                primaria.queryForObject("SELECT setval(CAST(? AS regclass), ?, false)", Long.class,
+                        secuencia, minimoSiguiente);
+                return true;
+            }
+            case "MySQL" -> {
+                return primaria.update("UPDATE " + secuencia + " SET next_val = ? WHERE next_val < ?",
+                        minimoSiguiente, minimoSiguiente) > 0;
+            }
+            case "H2" -> {
+                Long siguiente = primaria.queryForObject(
+                        "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?",
+                        Long.class, secuencia.toUpperCase());
+                if (siguiente >= minimoSiguiente) {
+                    return false;
+                }
+                primaria.execute("ALTER SEQUENCE " + secuencia + " RESTART WITH " + minimoSiguiente);
+                return true;
+            }
+            default -> {
+                logger.warn("Motor {} sin alineación de secuencias: verificar que {} supere los IDs existentes",
+                        motor, secuencia);
+                return false;
+            }
+        }
+    }
+
+    private static SequenceGenerator generador(Class<?> entidad) {
+        try {
+            return entidad.getDeclaredField("id").getAnnotation(SequenceGenerator.class);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("La entidad " + entidad.getSimpleName() + " no tiene campo id", e);
+        }
+    }
+}
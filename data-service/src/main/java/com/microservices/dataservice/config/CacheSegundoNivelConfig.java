@@ -0,0 +1,36 @@
+package com.microservices.dataservice.config;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import javax.cache.CacheManager;
+import java.io.IOException;
+
+/**
+ * Configuración del proveedor de la caché de segundo nivel de Hibernate
+ *
+ * El CacheManager de Ehcache se crea con un proveedor propio del contexto (y no con el
+ * registro global de JCache), de modo que cada contexto de Spring tenga sus regiones
+ * aisladas y el cierre de uno no invalide la caché de otro.
+ *
+ * @author Agustin Benavidez
+ */
+@Configuration
+public class CacheSegundoNivelConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerSegundoNivel(
+            @Value("${data.cache.configuracion:classpath:ehcache.xml}") Resource configuracion) throws IOException {
+        return new EhcacheCachingProvider().getCacheManager(configuracion.getURI(), getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelCustomizer(CacheManager cacheManagerSegundoNivel) {
+        return propiedades -> propiedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerSegundoNivel);
+    }
+}
@@ -0,0 +1,149 @@
+package com.microservices.dataservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource de solo lectura que reparte las conexiones entre las réplicas disponibles
+ *
+ * Alterna entre las réplicas cuyo retraso está dentro del máximo tolerado y, si no hay
+ * ninguna disponible (o la elegida rechaza la conexión), entrega una conexión de la
+ * primaria. Cada conexión entregada se cuenta por ruta en data.datasource.conexiones.
+ *
+ * @author Agustin Benavidez
+ */
+public class EnrutadorReplicas extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnrutadorReplicas.class);
+
+    public static final String RUTA_PRIMARIA = "primaria";
+
+    private final DataSource primaria;
+    private final List<Replica> replicas;
+    private final AtomicInteger turno = new AtomicInteger();
+    private final Counter lecturasEnPrimaria;
+
+    /**
+     * Réplica con su pool, su estado de disponibilidad y el último retraso medido
+     */
+    public static final class Replica {
+
+        private final String nombre;
+        private final HikariDataSource dataSource;
+        private final Counter conexiones;
+        private volatile boolean disponible;
+        private volatile long lagMs = -1;
+
+        Replica(String nombre, HikariDataSource dataSource, MeterRegistry registry) {
+            this.nombre = nombre;
+            this.dataSource = dataSource;
+            this.conexiones = contador(registry, nombre);
+            Gauge.builder("data.replicas.lag", this, r -> r.lagMs)
+                    .description("Retraso medido de la réplica en milisegundos (-1 si no está disponible)")
+                    .baseUnit("milliseconds")
+                    .tag("replica", nombre)
+                    .register(registry);
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public HikariDataSource getDataSource() {
+            return dataSource;
+        }
+
+        public boolean isDisponible() {
+            return disponible;
+        }
+
+        public long getLagMs() {
+            return lagMs;
+        }
+    }
+
+    public EnrutadorReplicas(DataSource primaria, List<HikariDataSource> pools, MeterRegistry registry) {
+        MeterRegistry metricas = registry != null ? registry : new SimpleMeterRegistry();
+        this.primaria = primaria;
+        this.replicas = pools.stream()
+                .map(pool -> new Replica(pool.getPoolName(), pool, metricas))
+                .toList();
+        this.lecturasEnPrimaria = contador(metricas, RUTA_PRIMARIA);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int total = replicas.size();
+        int inicio = Math.floorMod(turno.getAndIncrement(), Math.max(total, 1));
+        for (int i = 0; i < total; i++) {
+            Replica replica = replicas.get((inicio + i) % total);
+            if (!replica.disponible) {
+                continue;
+            }
+            try {
+                Connection conexion = replica.dataSource.getConnection();
+                replica.conexiones.increment();
+                return conexion;
+            } catch (SQLException e) {
+                logger.warn("Réplica {} no disponible, se excluye hasta la próxima verificación: {}",
+                        replica.nombre, e.getMessage());
+                marcarNoDisponible(replica);
+            }
+        }
+        lecturasEnPrimaria.increment();
+        return primaria.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Las réplicas usan las credenciales configuradas");
+    }
+
+    /**
+     * Registra el retraso medido de una réplica y actualiza su disponibilidad
+     */
+    void registrarLag(Replica replica, long lagMs, long lagMaximoMs) {
+        boolean disponible = lagMs <= lagMaximoMs;
+        if (disponible != replica.disponible) {
+            logger.info("Réplica {} {} (retraso: {} ms)", replica.nombre,
+                    disponible ? "habilitada para lecturas" : "excluida por retraso", lagMs);
+        }
+        replica.lagMs = lagMs;
+        replica.disponible = disponible;
+    }
+
+    void marcarNoDisponible(Replica replica) {
+        replica.lagMs = -1;
+        replica.disponible = false;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private static Counter contador(MeterRegistry registry, String ruta) {
+        return Counter.builder("data.datasource.conexiones")
+                .description("Conexiones de solo lectura entregadas por ruta")
+                .tag("ruta", ruta)
+                .register(registry);
+    }
+}
@@ -0,0 +1,88 @@
+package com.microservices.dataservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enrutamiento de lecturas a réplicas (data.replicas.habilitado=true)
+ *
+ * El DataSource principal es un LazyConnectionDataSourceProxy: la conexión física se
+ * obtiene recién en la primera sentencia, cuando la transacción ya marcó la conexión
+ * como de solo lectura. Las transacciones readOnly usan el EnrutadorReplicas y el resto
+ * la primaria. Cada pool (primaria y réplicas) publica sus métricas hikaricp.* con su nombre.
+ *
+ * @author Agustin Benavidez
+ */
+@Configuration
+@ConditionalOnProperty(name = "data.replicas.habilitado", havingValue = "true")
+@EnableConfigurationProperties(PropiedadesReplicas.class)
+public class EnrutamientoDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimaria(DataSourceProperties propiedades,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource primaria = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primaria.setPoolName(EnrutadorReplicas.RUTA_PRIMARIA);
+        registrarMetricas(primaria, meterRegistry.getIfAvailable());
+        return primaria;
+    }
+
+    @Bean
+    public EnrutadorReplicas enrutadorReplicas(HikariDataSource dataSourcePrimaria,
+                                               PropiedadesReplicas propiedades,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int i = 0; i < propiedades.getFuentes().size(); i++) {
+            PropiedadesReplicas.Fuente fuente = propiedades.getFuentes().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(fuente.getNombre() != null ? fuente.getNombre() : "replica-" + (i + 1));
+            pool.setJdbcUrl(fuente.getUrl());
+            pool.setUsername(fuente.getUsername());
+            pool.setPassword(fuente.getPassword());
+            pool.setMaximumPoolSize(fuente.getMaximoPool());
+            pool.setReadOnly(true);
+            // No bloquear el arranque si una réplica todavía no responde
+            pool.setInitializationFailTimeout(-1);
+            registrarMetricas(pool, registry);
+            pools.add(pool);
+        }
+        return new EnrutadorReplicas(dataSourcePrimaria, pools, registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource dataSourcePrimaria, EnrutadorReplicas enrutadorReplicas) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(dataSourcePrimaria);
+        proxy.setReadOnlyDataSource(enrutadorReplicas);
+        return proxy;
+    }
+
+    @Bean
+    public MonitorReplicas monitorReplicas(HikariDataSource dataSourcePrimaria,
+                                           EnrutadorReplicas enrutadorReplicas,
+                                           PropiedadesReplicas propiedades) {
+        return new MonitorReplicas(dataSourcePrimaria, enrutadorReplicas, propiedades.getLagMaximoMs());
+    }
+
+    private static void registrarMetricas(HikariDataSource pool, MeterRegistry registry) {
+        if (registry != null) {
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+    }
+}
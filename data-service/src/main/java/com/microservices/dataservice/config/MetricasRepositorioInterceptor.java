@@ -0,0 +1,127 @@
+package com.microservices.dataservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.BaseStream;
+
+/**
+ * Interceptor de los métodos de un repository: filas devueltas y consultas lentas
+ *
+ * La latencia por método ya la registra Spring Boot (spring.data.repository.invocations);
+ * este interceptor agrega el tamaño del resultado (data.repositorio.filas) y, cuando una
+ * invocación supera el umbral configurado, registra la consulta con sus parámetros y la
+ * cuenta en data.repositorio.consultas.lentas.
+ *
+ * @author Agustin Benavidez
+ */
+public class MetricasRepositorioInterceptor implements MethodInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricasRepositorioInterceptor.class);
+
+    private static final int LARGO_MAXIMO_PARAMETROS = 300;
+
+    private final String repositorio;
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final long umbralLentaMs;
+    private final Map<Method, DistributionSummary> filasPorMetodo = new ConcurrentHashMap<>();
+    private final Map<Method, Counter> lentasPorMetodo = new ConcurrentHashMap<>();
+
+    public MetricasRepositorioInterceptor(String repositorio, Supplier<MeterRegistry> meterRegistry, long umbralLentaMs) {
+        this.repositorio = repositorio;
+        this.meterRegistry = meterRegistry;
+        this.umbralLentaMs = umbralLentaMs;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocacion) throws Throwable {
+        long inicio = System.nanoTime();
+        Object resultado = invocacion.proceed();
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        Method metodo = invocacion.getMethod();
+        Integer filas = contarFilas(metodo, resultado);
+        if (filas != null) {
+            filasPorMetodo.computeIfAbsent(metodo, this::crearResumenFilas).record(filas);
+        }
+        if (duracionMs >= umbralLentaMs) {
+            lentasPorMetodo.computeIfAbsent(metodo, this::crearContadorLentas).increment();
+            logger.warn("Consulta lenta {}.{} ({} ms, {} filas): {} | parámetros: {}",
+                    repositorio, metodo.getName(), duracionMs, filas, consulta(metodo),
+                    parametros(invocacion.getArguments()));
+        }
+        return resultado;
+    }
+
+    /**
+     * Cantidad de filas del resultado, o null si el método no devuelve filas
+     * (conteos, existencias, modificaciones o streams que se consumen después)
+     */
+    static Integer contarFilas(Method metodo, Object resultado) {
+        Class<?> tipo = metodo.getReturnType();
+        if (tipo.isPrimitive() || Number.class.isAssignableFrom(tipo) || Boolean.class.equals(tipo)
+                || BaseStream.class.isAssignableFrom(tipo)) {
+            return null;
+        }
+        if (resultado == null) {
+            return 0;
+        }
+        if (resultado instanceof Collection<?> coleccion) {
+            return coleccion.size();
+        }
+        if (resultado instanceof Slice<?> pagina) {
+            return pagina.getNumberOfElements();
+        }
+        if (resultado instanceof Optional<?> opcional) {
+            return opcional.isPresent() ? 1 : 0;
+        }
+        if (resultado.getClass().isArray()) {
+            return java.lang.reflect.Array.getLength(resultado);
+        }
+        return 1;
+    }
+
+    private static String consulta(Method metodo) {
+        Query query = AnnotatedElementUtils.findMergedAnnotation(metodo, Query.class);
+        return query != null ? query.value() : "(consulta derivada de " + metodo.getName() + ")";
+    }
+
+    private static String parametros(Object[] argumentos) {
+        String texto = Arrays.deepToString(argumentos);
+        return texto.length() > LARGO_MAXIMO_PARAMETROS
+                ? texto.substring(0, LARGO_MAXIMO_PARAMETROS) + "..."
+                : texto;
+    }
+
+    private DistributionSummary crearResumenFilas(Method metodo) {
+        return DistributionSummary.builder("data.repositorio.filas")
+                .description("Filas devueltas por invocación de un método de repository")
+                .baseUnit("rows")
+                .tag("repository", repositorio)
+                .tag("method", metodo.getName())
+                .register(meterRegistry.get());
+    }
+
+    private Counter crearContadorLentas(Method metodo) {
+        return Counter.builder("data.repositorio.consultas.lentas")
+                .description("Invocaciones de un método de repository que superaron el umbral de consulta lenta")
+                .tag("repository", repositorio)
+                .tag("method", metodo.getName())
+                .register(meterRegistry.get());
+    }
+}
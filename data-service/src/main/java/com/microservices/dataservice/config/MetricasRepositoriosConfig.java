@@ -0,0 +1,43 @@
+package com.microservices.dataservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Instrumentación de todos los repositories con MetricasRepositorioInterceptor
+ *
+ * @author Agustin Benavidez
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricasRepositoriosConfig {
+
+    /**
+     * Agrega el interceptor a cada repository al crear su proxy
+     * (estático y con el MeterRegistry diferido para no adelantar su creación)
+     */
+    @Bean
+    public static BeanPostProcessor metricasRepositoriosPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${data.repositorios.consulta-lenta-ms:500}") long umbralLentaMs) {
+        SingletonSupplier<MeterRegistry> registry = SingletonSupplier.of(meterRegistry::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, informacion) ->
+                                    proxyFactory.addAdvice(new MetricasRepositorioInterceptor(
+                                            informacion.getRepositoryInterface().getSimpleName(),
+                                            registry, umbralLentaMs))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package com.microservices.dataservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Mide el retraso de las réplicas con un latido escrito en la primaria
+ *
+ * Periódicamente guarda la hora actual en la tabla replicacion_latido de la primaria y
+ * la lee en cada réplica: la diferencia con la hora actual es el retraso de replicación.
+ * No depende de vistas propias de cada motor, por lo que funciona igual en MySQL,
+ * PostgreSQL y H2.
+ *
+ * @author Agustin Benavidez
+ */
+public class MonitorReplicas {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonitorReplicas.class);
+
+    private final JdbcTemplate primaria;
+    private final EnrutadorReplicas enrutador;
+    private final long lagMaximoMs;
+
+    public MonitorReplicas(DataSource primaria, EnrutadorReplicas enrutador, long lagMaximoMs) {
+        this.primaria = new JdbcTemplate(primaria);
+        this.enrutador = enrutador;
+        this.lagMaximoMs = lagMaximoMs;
+        this.primaria.execute("CREATE TABLE IF NOT EXISTS replicacion_latido (id INT PRIMARY KEY, marca BIGINT NOT NULL)");
+    }
+
+    /**
+     * Publica el latido y reevalúa las réplicas
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${data.replicas.intervalo-verificacion-ms:1000}",
+               fixedDelayString = "${data.replicas.intervalo-verificacion-ms:1000}")
+    public void verificar() {
+        try {
+            publicarLatido();
+        } catch (DataAccessException e) {
+            logger.warn("No se pudo publicar el latido de replicación: {}", e.getMessage());
+        }
+        evaluarReplicas();
+    }
+
+    /**
+     * Escribe la hora actual en la primaria
+     */
+    public void publicarLatido() {
+        long ahora = System.currentTimeMillis();
+        if (primaria.update("UPDATE replicacion_latido SET marca = ? WHERE id = 1", ahora) == 0) {
+            primaria.update("INSERT INTO replicacion_latido (id, marca) VALUES (1, ?)", ahora);
+        }
+    }
+
+    /**
+     * Lee el último latido replicado en cada réplica y actualiza su disponibilidad
+     */
+    public void evaluarReplicas() {
+        for (EnrutadorReplicas.Replica replica : enrutador.getReplicas()) {
+            try {
+                Long marca = new JdbcTemplate(replica.getDataSource())
+                        .queryForObject("SELECT marca FROM replicacion_latido WHERE id = 1", Long.class);
+                enrutador.registrarLag(replica, Math.max(0, System.currentTimeMillis() - marca), lagMaximoMs);
+            } catch (DataAccessException e) {
+                if (replica.isDisponible()) {
+                    logger.warn("Réplica {} excluida: no se pudo leer el latido ({})", replica.getNombre(), e.getMessage());
+                }
+                enrutador.marcarNoDisponible(replica);
+            }
+        }
+    }
+}
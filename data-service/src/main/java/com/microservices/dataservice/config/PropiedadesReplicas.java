@@ -0,0 +1,112 @@
+package com.microservices.dataservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Propiedades de las réplicas de lectura (prefijo data.replicas)
+ *
+ * @author Agustin Benavidez
+ */
+@ConfigurationProperties(prefix = "data.replicas")
+public class PropiedadesReplicas {
+
+    /** Habilita el enrutamiento de transacciones de solo lectura a las réplicas */
+    private boolean habilitado = false;
+
+    /** Retraso máximo tolerado antes de dejar de leer de una réplica */
+    private long lagMaximoMs = 5000;
+
+    /** Frecuencia con la que se publica el latido en la primaria y se mide el retraso */
+    private long intervaloVerificacionMs = 1000;
+
+    private List<Fuente> fuentes = new ArrayList<>();
+
+    /**
+     * Conexión a una réplica
+     */
+    public static class Fuente {
+
+        private String nombre;
+        private String url;
+        private String username;
+        private String password;
+        private int maximoPool = 10;
+
+        // Getters y Setters
+        public String getNombre() {
+            return nombre;
+        }
+
+        public void setNombre(String nombre) {
+            this.nombre = nombre;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximoPool() {
+            return maximoPool;
+        }
+
+        public void setMaximoPool(int maximoPool) {
+            this.maximoPool = maximoPool;
+        }
+    }
+
+    // Getters y Setters
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public long getLagMaximoMs() {
+        return lagMaximoMs;
+    }
+
+    public void setLagMaximoMs(long lagMaximoMs) {
+        this.lagMaximoMs = lagMaximoMs;
+    }
+
+    public long getIntervaloVerificacionMs() {
+        return intervaloVerificacionMs;
+    }
+
+    public void setIntervaloVerificacionMs(long intervaloVerificacionMs) {
+        this.intervaloVerificacionMs = intervaloVerificacionMs;
+    }
+
+    public List<Fuente> getFuentes() {
+        return fuentes;
+    }
+
+    public void setFuentes(List<Fuente> fuentes) {
+        this.fuentes = fuentes;
+    }
+}
@@ -1,23 +1,40 @@
 package com.microservices.dataservice.controller;
 
+import com.microservices.dataservice.dto.ImportacionProductosRequest;
+import com.microservices.dataservice.dto.PaginaCursor;
+import com.microservices.dataservice.dto.ProductoResumen;
+import com.microservices.dataservice.dto.ReservaRequest;
+import com.microservices.dataservice.dto.SnapshotInventario;
+import com.microservices.dataservice.entity.Cambio;
 import com.microservices.dataservice.entity.Categoria;
 import com.microservices.dataservice.entity.Inventario;
+import com.microservices.dataservice.entity.MovimientoStock;
 import com.microservices.dataservice.entity.Producto;
+import com.microservices.dataservice.lectura.ModeloLecturaCatalogo;
+import com.microservices.dataservice.service.AgrupadorMovimientosStock;
 import com.microservices.dataservice.service.CategoriaService;
+import com.microservices.dataservice.service.ExportacionInventarioService;
+import com.microservices.dataservice.service.ImportacionProductosService;
 import com.microservices.dataservice.service.InventarioService;
+import com.microservices.dataservice.service.LibroStock;
 import com.microservices.dataservice.service.ProductoService;
+import com.microservices.dataservice.service.RegistroCambios;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador REST para el microservicio de datos
@@ -35,22 +52,57 @@ public class DataController {
     private final ProductoService productoService;
     private final CategoriaService categoriaService;
     private final InventarioService inventarioService;
+    private final ExportacionInventarioService exportacionInventarioService;
+    private final AgrupadorMovimientosStock agrupadorMovimientosStock;
+    private final ImportacionProductosService importacionProductosService;
+    private final RegistroCambios registroCambios;
+    private final LibroStock libroStock;
+    private final ModeloLecturaCatalogo modeloLectura;
 
     @Autowired
     public DataController(ProductoService productoService,
                          CategoriaService categoriaService,
-                         InventarioService inventarioService) {
+                         InventarioService inventarioService,
+                         ExportacionInventarioService exportacionInventarioService,
+                         AgrupadorMovimientosStock agrupadorMovimientosStock,
+                         ImportacionProductosService importacionProductosService,
+                         RegistroCambios registroCambios,
+                         LibroStock libroStock,
+                         ModeloLecturaCatalogo modeloLectura) {
         this.productoService = productoService;
         this.categoriaService = categoriaService;
         this.inventarioService = inventarioService;
+        this.exportacionInventarioService = exportacionInventarioService;
+        this.agrupadorMovimientosStock = agrupadorMovimientosStock;
+        this.importacionProductosService = importacionProductosService;
+        this.registroCambios = registroCambios;
+        this.libroStock = libroStock;
+        this.modeloLectura = modeloLectura;
     }
 
     // ========== ENDPOINTS DE PRODUCTOS ==========
 
     @GetMapping("/productos")
-    public ResponseEntity<List<Producto>> obtenerTodosLosProductos() {
+    public ResponseEntity<List<ProductoResumen>> obtenerTodosLosProductos() {
         logger.info("GET /data/productos - Obteniendo todos los productos");
-        List<Producto> productos = productoService.obtenerTodos();
+        List<ProductoResumen> productos = modeloLectura.activos()
+                .orElseGet(productoService::obtenerResumenTodos);
+        return ResponseEntity.ok(productos);
+    }
+
+    @GetMapping(value = "/productos", params = {"limite", "!ids"})
+    public ResponseEntity<PaginaCursor<ProductoResumen>> obtenerProductosPaginados(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam Integer limite) {
+        logger.info("GET /data/productos?cursor={}&limite={} - Obteniendo página de productos", cursor, limite);
+        PaginaCursor<ProductoResumen> pagina = productoService.obtenerTodosPaginado(cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
+    @GetMapping(value = "/productos", params = "ids")
+    public ResponseEntity<List<ProductoResumen>> obtenerProductosPorIds(@RequestParam List<Long> ids) {
+        logger.info("GET /data/productos?ids=... - Obteniendo {} productos por ID", ids.size());
+        List<ProductoResumen> productos = productoService.buscarResumenPorIds(ids);
         return ResponseEntity.ok(productos);
     }
 
@@ -70,6 +122,13 @@ public class DataController {
         return ResponseEntity.status(HttpStatus.CREATED).body(productoCreado);
     }
 
+    @PostMapping("/productos/bulk")
+    public ResponseEntity<Map<String, Object>> importarProductos(@Valid @RequestBody ImportacionProductosRequest request) {
+        logger.info("POST /data/productos/bulk - Importando {} productos", request.getProductos().size());
+        Map<String, Object> resumen = importacionProductosService.importar(request.getProductos());
+        return ResponseEntity.status(HttpStatus.CREATED).body(resumen);
+    }
+
     @PutMapping("/productos/{id}")
     public ResponseEntity<Producto> actualizarProducto(@PathVariable Long id,
                                                       @Valid @RequestBody Producto producto) {
@@ -86,42 +145,111 @@ public class DataController {
     }
 
     @GetMapping("/productos/categoria/{nombre}")
-    public ResponseEntity<List<Producto>> obtenerProductosPorCategoria(@PathVariable String nombre) {
+    public ResponseEntity<List<ProductoResumen>> obtenerProductosPorCategoria(@PathVariable String nombre) {
         logger.info("GET /data/productos/categoria/{} - Obteniendo productos por categoría", nombre);
-        List<Producto> productos = productoService.buscarPorCategoria(nombre);
+        List<ProductoResumen> productos = modeloLectura.porCategoria(nombre)
+                .orElseGet(() -> productoService.buscarResumenPorCategoria(nombre));
         return ResponseEntity.ok(productos);
     }
 
+    @GetMapping(value = "/productos/categoria/{nombre}", params = "limite")
+    public ResponseEntity<PaginaCursor<ProductoResumen>> obtenerProductosPorCategoriaPaginados(
+            @PathVariable String nombre,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam Integer limite) {
+        logger.info("GET /data/productos/categoria/{}?cursor={}&limite={} - Obteniendo página de productos por categoría", nombre, cursor, limite);
+        PaginaCursor<ProductoResumen> pagina = productoService.buscarPorCategoriaPaginado(nombre, cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
     @GetMapping("/productos/buscar")
-    public ResponseEntity<List<Producto>> buscarProductos(@RequestParam String texto) {
+    public ResponseEntity<List<ProductoResumen>> buscarProductos(@RequestParam String texto) {
         logger.info("GET /data/productos/buscar?texto={} - Buscando productos", texto);
-        List<Producto> productos = productoService.buscarPorTexto(texto);
+        List<ProductoResumen> productos = productoService.buscarResumenPorTexto(texto);
         return ResponseEntity.ok(productos);
     }
 
+    @GetMapping(value = "/productos/buscar", params = "limite")
+    public ResponseEntity<PaginaCursor<ProductoResumen>> buscarProductosPaginados(
+            @RequestParam String texto,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam Integer limite) {
+        logger.info("GET /data/productos/buscar?texto={}&cursor={}&limite={} - Buscando página de productos", texto, cursor, limite);
+        PaginaCursor<ProductoResumen> pagina = productoService.buscarPorTextoPaginado(texto, cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
     @GetMapping("/productos/precio")
-    public ResponseEntity<List<Producto>> buscarProductosPorPrecio(
+    public ResponseEntity<List<ProductoResumen>> buscarProductosPorPrecio(
             @RequestParam BigDecimal min,
             @RequestParam BigDecimal max) {
         logger.info("GET /data/productos/precio?min={}&max={} - Buscando productos por rango de precio", min, max);
-        List<Producto> productos = productoService.buscarPorRangoPrecios(min, max);
+        List<ProductoResumen> productos = modeloLectura.porRangoPrecio(min, max)
+                .orElseGet(() -> productoService.buscarResumenPorRangoPrecios(min, max));
         return ResponseEntity.ok(productos);
     }
 
+    @GetMapping(value = "/productos/precio", params = "limite")
+    public ResponseEntity<PaginaCursor<ProductoResumen>> buscarProductosPorPrecioPaginados(
+            @RequestParam BigDecimal min,
+            @RequestParam BigDecimal max,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam Integer limite) {
+        logger.info("GET /data/productos/precio?min={}&max={}&cursor={}&limite={} - Buscando página de productos por rango de precio", min, max, cursor, limite);
+        PaginaCursor<ProductoResumen> pagina = productoService.buscarPorRangoPreciosPaginado(min, max, cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
+    @GetMapping("/productos/por-precio")
+    public ResponseEntity<PaginaCursor<ProductoResumen>> obtenerProductosOrdenadosPorPrecio(
+            @RequestParam(required = false) BigDecimal min,
+            @RequestParam(required = false) BigDecimal max,
+            @RequestParam(defaultValue = "asc") String orden,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite) {
+        logger.info("GET /data/productos/por-precio?min={}&max={}&orden={}&cursor={}&limite={} - Obteniendo productos ordenados por precio", min, max, orden, cursor, limite);
+        if (!"asc".equalsIgnoreCase(orden) && !"desc".equalsIgnoreCase(orden)) {
+            throw new IllegalArgumentException("orden debe ser 'asc' o 'desc'");
+        }
+        PaginaCursor<ProductoResumen> pagina = productoService.buscarPorPrecioOrdenado(min, max,
+                "desc".equalsIgnoreCase(orden), cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
     @GetMapping("/productos/stock-bajo")
-    public ResponseEntity<List<Producto>> obtenerProductosConStockBajo() {
+    public ResponseEntity<List<ProductoResumen>> obtenerProductosConStockBajo() {
         logger.info("GET /data/productos/stock-bajo - Obteniendo productos con stock bajo");
-        List<Producto> productos = productoService.obtenerProductosConStockBajo();
+        List<ProductoResumen> productos = modeloLectura.stockBajo()
+                .orElseGet(productoService::obtenerResumenConStockBajo);
         return ResponseEntity.ok(productos);
     }
 
+    @GetMapping(value = "/productos/stock-bajo", params = "limite")
+    public ResponseEntity<PaginaCursor<ProductoResumen>> obtenerProductosConStockBajoPaginados(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam Integer limite) {
+        logger.info("GET /data/productos/stock-bajo?cursor={}&limite={} - Obteniendo página de productos con stock bajo", cursor, limite);
+        PaginaCursor<ProductoResumen> pagina = productoService.obtenerProductosConStockBajoPaginado(cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
     @GetMapping("/productos/sin-stock")
-    public ResponseEntity<List<Producto>> obtenerProductosSinStock() {
+    public ResponseEntity<List<ProductoResumen>> obtenerProductosSinStock() {
         logger.info("GET /data/productos/sin-stock - Obteniendo productos sin stock");
-        List<Producto> productos = productoService.obtenerProductosSinStock();
+        List<ProductoResumen> productos = modeloLectura.sinStock()
+                .orElseGet(productoService::obtenerResumenSinStock);
         return ResponseEntity.ok(productos);
     }
 
+    @GetMapping(value = "/productos/sin-stock", params = "limite")
+    public ResponseEntity<PaginaCursor<ProductoResumen>> obtenerProductosSinStockPaginados(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam Integer limite) {
+        logger.info("GET /data/productos/sin-stock?cursor={}&limite={} - Obteniendo página de productos sin stock", cursor, limite);
+        PaginaCursor<ProductoResumen> pagina = productoService.obtenerProductosSinStockPaginado(cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
     @GetMapping("/productos/valor-inventario")
     public ResponseEntity<List<Map<String, Object>>> obtenerValorInventarioPorProducto() {
         logger.info("GET /data/productos/valor-inventario - Obteniendo valor de inventario por producto");
@@ -129,6 +257,13 @@ public class DataController {
         return ResponseEntity.ok(valores);
     }
 
+    @GetMapping(value = "/productos/valor-inventario", params = "top")
+    public ResponseEntity<List<Map<String, Object>>> obtenerTopValorInventario(@RequestParam int top) {
+        logger.info("GET /data/productos/valor-inventario?top={} - Obteniendo productos de mayor valor de inventario", top);
+        List<Map<String, Object>> valores = productoService.obtenerValorInventarioPorProducto(top);
+        return ResponseEntity.ok(valores);
+    }
+
     @PutMapping("/productos/{id}/reactivar")
     public ResponseEntity<Producto> reactivarProducto(@PathVariable Long id) {
         logger.info("PUT /data/productos/{}/reactivar - Reactivando producto", id);
@@ -145,6 +280,15 @@ public class DataController {
         return ResponseEntity.ok(categorias);
     }
 
+    @GetMapping(value = "/categorias", params = "limite")
+    public ResponseEntity<PaginaCursor<Categoria>> obtenerCategoriasPaginadas(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam Integer limite) {
+        logger.info("GET /data/categorias?cursor={}&limite={} - Obteniendo página de categorías", cursor, limite);
+        PaginaCursor<Categoria> pagina = categoriaService.obtenerTodasPaginado(cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
     @GetMapping("/categorias/{id}")
     public ResponseEntity<Categoria> obtenerCategoriaPorId(@PathVariable Long id) {
         logger.info("GET /data/categorias/{} - Obteniendo categoría por ID", id);
@@ -152,6 +296,15 @@ public class DataController {
         return ResponseEntity.ok(categoria);
     }
 
+    @GetMapping("/categorias/{id}/productos/mas-baratos")
+    public ResponseEntity<List<ProductoResumen>> obtenerProductosMasBaratosDeCategoria(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int k) {
+        logger.info("GET /data/categorias/{}/productos/mas-baratos?k={} - Obteniendo productos más baratos de la categoría", id, k);
+        List<ProductoResumen> productos = productoService.obtenerMasBaratosDeCategoria(id, k);
+        return ResponseEntity.ok(productos);
+    }
+
     @GetMapping("/categorias/nombre/{nombre}")
     public ResponseEntity<Categoria> obtenerCategoriaPorNombre(@PathVariable String nombre) {
         logger.info("GET /data/categorias/nombre/{} - Obteniendo categoría por nombre", nombre);
@@ -188,6 +341,16 @@ public class DataController {
         return ResponseEntity.ok(categorias);
     }
 
+    @GetMapping(value = "/categorias/buscar", params = "limite")
+    public ResponseEntity<PaginaCursor<Categoria>> buscarCategoriasPaginadas(
+            @RequestParam String texto,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam Integer limite) {
+        logger.info("GET /data/categorias/buscar?texto={}&cursor={}&limite={} - Buscando página de categorías", texto, cursor, limite);
+        PaginaCursor<Categoria> pagina = categoriaService.buscarPorTextoPaginado(texto, cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
     @GetMapping("/categorias/con-productos")
     public ResponseEntity<List<Categoria>> obtenerCategoriasConProductos() {
         logger.info("GET /data/categorias/con-productos - Obteniendo categorías con productos");
@@ -195,6 +358,15 @@ public class DataController {
         return ResponseEntity.ok(categorias);
     }
 
+    @GetMapping(value = "/categorias/con-productos", params = "limite")
+    public ResponseEntity<PaginaCursor<Categoria>> obtenerCategoriasConProductosPaginadas(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam Integer limite) {
+        logger.info("GET /data/categorias/con-productos?cursor={}&limite={} - Obteniendo página de categorías con productos", cursor, limite);
+        PaginaCursor<Categoria> pagina = categoriaService.obtenerCategoriasConProductosPaginado(cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
     @GetMapping("/categorias/estadisticas")
     public ResponseEntity<List<Map<String, Object>>> obtenerEstadisticasCategorias() {
         logger.info("GET /data/categorias/estadisticas - Obteniendo estadísticas de categorías");
@@ -211,6 +383,24 @@ public class DataController {
         return ResponseEntity.ok(inventarios);
     }
 
+    @GetMapping(value = "/inventario", params = "limite")
+    public ResponseEntity<PaginaCursor<Inventario>> obtenerInventarioPaginado(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam Integer limite) {
+        logger.info("GET /data/inventario?cursor={}&limite={} - Obteniendo página de inventario", cursor, limite);
+        PaginaCursor<Inventario> pagina = inventarioService.obtenerTodosPaginado(cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
+    @GetMapping(value = "/inventario/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarInventario() {
+        logger.info("GET /data/inventario/export - Exportando inventario en formato NDJSON");
+        StreamingResponseBody cuerpo = salida -> exportacionInventarioService.exportarInventario(salida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(cuerpo);
+    }
+
     @GetMapping("/inventario/{id}")
     public ResponseEntity<Inventario> obtenerInventarioPorId(@PathVariable Long id) {
         logger.info("GET /data/inventario/{} - Obteniendo inventario por ID", id);
@@ -249,20 +439,68 @@ public class DataController {
         return ResponseEntity.ok(inventario);
     }
 
+    // Con data.inventario.agrupacion.habilitada=true los movimientos se confirman por lotes;
+    // la respuesta es el mismo inventario, con la cantidad que dejó cada llamada
+
     @PutMapping("/inventario/producto/{productoId}/incrementar")
-    public ResponseEntity<Inventario> incrementarStock(@PathVariable Long productoId,
-                                                      @RequestParam Integer incremento) {
+    public CompletableFuture<ResponseEntity<Inventario>> incrementarStock(@PathVariable Long productoId,
+                                                                 @RequestParam Integer incremento) {
         logger.info("PUT /data/inventario/producto/{}/incrementar - Incrementando stock en: {}", productoId, incremento);
+        if (agrupadorMovimientosStock.isHabilitado()) {
+            return agrupadorMovimientosStock.incrementar(productoId, incremento)
+                    .thenApply(ResponseEntity::ok);
+        }
         Inventario inventario = inventarioService.incrementarStock(productoId, incremento);
-        return ResponseEntity.ok(inventario);
+        return CompletableFuture.completedFuture(ResponseEntity.ok(inventario));
     }
 
     @PutMapping("/inventario/producto/{productoId}/decrementar")
-    public ResponseEntity<Inventario> decrementarStock(@PathVariable Long productoId,
-                                                      @RequestParam Integer decremento) {
+    public CompletableFuture<ResponseEntity<Inventario>> decrementarStock(@PathVariable Long productoId,
+                                                                 @RequestParam Integer decremento) {
         logger.info("PUT /data/inventario/producto/{}/decrementar - Decrementando stock en: {}", productoId, decremento);
+        if (agrupadorMovimientosStock.isHabilitado()) {
+            return agrupadorMovimientosStock.decrementar(productoId, decremento)
+                    .thenApply(ResponseEntity::ok);
+        }
         Inventario inventario = inventarioService.decrementarStock(productoId, decremento);
-        return ResponseEntity.ok(inventario);
+        return CompletableFuture.completedFuture(ResponseEntity.ok(inventario));
+    }
+
+    @PostMapping("/inventario/reservas")
+    public ResponseEntity<List<Map<String, Object>>> reservarStock(@Valid @RequestBody ReservaRequest reserva) {
+        logger.info("POST /data/inventario/reservas - Reservando stock para {} ítems", reserva.getItems().size());
+        List<Map<String, Object>> reservados = inventarioService.reservarStock(reserva.getItems());
+        return ResponseEntity.ok(reservados);
+    }
+
+    // ========== LIBRO DE STOCK ==========
+
+    @GetMapping("/inventario/producto/{productoId}/movimientos")
+    public ResponseEntity<PaginaCursor<MovimientoStock>> obtenerMovimientosStock(
+            @PathVariable Long productoId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite) {
+        logger.info("GET /data/inventario/producto/{}/movimientos?cursor={}&limite={} - Obteniendo movimientos de stock",
+                   productoId, cursor, limite);
+        PaginaCursor<MovimientoStock> pagina = libroStock.obtenerMovimientos(productoId, cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
+    @GetMapping("/inventario/producto/{productoId}/historico")
+    public ResponseEntity<Map<String, Object>> obtenerStockHistorico(
+            @PathVariable Long productoId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fecha) {
+        logger.info("GET /data/inventario/producto/{}/historico?fecha={} - Reconstruyendo stock", productoId, fecha);
+        int cantidad = libroStock.reconstruirStock(productoId, fecha);
+        return ResponseEntity.ok(Map.of("productoId", productoId, "fecha", fecha, "cantidad", cantidad));
+    }
+
+    @GetMapping("/inventario/historico")
+    public ResponseEntity<Map<Long, Integer>> obtenerStockHistoricoCompleto(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fecha) {
+        logger.info("GET /data/inventario/historico?fecha={} - Reconstruyendo stock de todos los productos", fecha);
+        Map<Long, Integer> stock = libroStock.reconstruirStock(fecha);
+        return ResponseEntity.ok(stock);
     }
 
     @GetMapping("/inventario/stock-bajo")
@@ -272,6 +510,15 @@ public class DataController {
         return ResponseEntity.ok(inventarios);
     }
 
+    @GetMapping(value = "/inventario/stock-bajo", params = "limite")
+    public ResponseEntity<PaginaCursor<Inventario>> obtenerInventariosConStockBajoPaginados(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam Integer limite) {
+        logger.info("GET /data/inventario/stock-bajo?cursor={}&limite={} - Obteniendo página de inventarios con stock bajo", cursor, limite);
+        PaginaCursor<Inventario> pagina = inventarioService.obtenerInventariosConStockBajoPaginado(cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
     @GetMapping("/inventario/stock-critico")
     public ResponseEntity<List<Inventario>> obtenerInventariosConStockCritico() {
         logger.info("GET /data/inventario/stock-critico - Obteniendo inventarios con stock crítico");
@@ -279,6 +526,15 @@ public class DataController {
         return ResponseEntity.ok(inventarios);
     }
 
+    @GetMapping(value = "/inventario/stock-critico", params = "limite")
+    public ResponseEntity<PaginaCursor<Inventario>> obtenerInventariosConStockCriticoPaginados(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam Integer limite) {
+        logger.info("GET /data/inventario/stock-critico?cursor={}&limite={} - Obteniendo página de inventarios con stock crítico", cursor, limite);
+        PaginaCursor<Inventario> pagina = inventarioService.obtenerInventariosConStockCriticoPaginado(cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
     @GetMapping("/inventario/sin-stock")
     public ResponseEntity<List<Inventario>> obtenerInventariosSinStock() {
         logger.info("GET /data/inventario/sin-stock - Obteniendo inventarios sin stock");
@@ -286,6 +542,15 @@ public class DataController {
         return ResponseEntity.ok(inventarios);
     }
 
+    @GetMapping(value = "/inventario/sin-stock", params = "limite")
+    public ResponseEntity<PaginaCursor<Inventario>> obtenerInventariosSinStockPaginados(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam Integer limite) {
+        logger.info("GET /data/inventario/sin-stock?cursor={}&limite={} - Obteniendo página de inventarios sin stock", cursor, limite);
+        PaginaCursor<Inventario> pagina = inventarioService.obtenerInventariosSinStockPaginado(cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
     @GetMapping("/inventario/estadisticas")
     public ResponseEntity<Map<String, Object>> obtenerEstadisticasInventario() {
         logger.info("GET /data/inventario/estadisticas - Obteniendo estadísticas del inventario");
@@ -300,6 +565,13 @@ public class DataController {
         return ResponseEntity.ok(valorTotal);
     }
 
+    @GetMapping("/inventario/snapshot")
+    public ResponseEntity<SnapshotInventario> obtenerSnapshotInventario() {
+        logger.info("GET /data/inventario/snapshot - Obteniendo resumen del inventario");
+        SnapshotInventario snapshot = inventarioService.obtenerSnapshotInventario();
+        return ResponseEntity.ok(snapshot);
+    }
+
     @GetMapping("/inventario/categoria/{categoriaNombre}")
     public ResponseEntity<List<Inventario>> obtenerInventarioPorCategoria(@PathVariable String categoriaNombre) {
         logger.info("GET /data/inventario/categoria/{} - Obteniendo inventario por categoría", categoriaNombre);
@@ -307,6 +579,16 @@ public class DataController {
         return ResponseEntity.ok(inventarios);
     }
 
+    @GetMapping(value = "/inventario/categoria/{categoriaNombre}", params = "limite")
+    public ResponseEntity<PaginaCursor<Inventario>> obtenerInventarioPorCategoriaPaginado(
+            @PathVariable String categoriaNombre,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam Integer limite) {
+        logger.info("GET /data/inventario/categoria/{}?cursor={}&limite={} - Obteniendo página de inventario por categoría", categoriaNombre, cursor, limite);
+        PaginaCursor<Inventario> pagina = inventarioService.buscarPorCategoriaPaginado(categoriaNombre, cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
     @GetMapping("/inventario/reabastecimiento")
     public ResponseEntity<List<Inventario>> obtenerInventariosParaReabastecimiento() {
         logger.info("GET /data/inventario/reabastecimiento - Obteniendo inventarios para reabastecimiento");
@@ -314,6 +596,15 @@ public class DataController {
         return ResponseEntity.ok(inventarios);
     }
 
+    @GetMapping(value = "/inventario/reabastecimiento", params = "limite")
+    public ResponseEntity<PaginaCursor<Inventario>> obtenerInventariosParaReabastecimientoPaginados(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam Integer limite) {
+        logger.info("GET /data/inventario/reabastecimiento?cursor={}&limite={} - Obteniendo página de inventarios para reabastecimiento", cursor, limite);
+        PaginaCursor<Inventario> pagina = inventarioService.obtenerInventariosParaReabastecimientoPaginado(cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
     @GetMapping("/inventario/actualizados")
     public ResponseEntity<List<Inventario>> obtenerInventariosActualizadosRecientes(@RequestParam int dias) {
         logger.info("GET /data/inventario/actualizados?dias={} - Obteniendo inventarios actualizados", dias);
@@ -322,6 +613,29 @@ public class DataController {
         return ResponseEntity.ok(inventarios);
     }
 
+    @GetMapping(value = "/inventario/actualizados", params = "limite")
+    public ResponseEntity<PaginaCursor<Inventario>> obtenerInventariosActualizadosRecientesPaginados(
+            @RequestParam int dias,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam Integer limite) {
+        logger.info("GET /data/inventario/actualizados?dias={}&cursor={}&limite={} - Obteniendo página de inventarios actualizados",
+                   dias, cursor, limite);
+        LocalDateTime fecha = LocalDateTime.now().minusDays(dias);
+        PaginaCursor<Inventario> pagina = inventarioService.obtenerInventariosActualizadosDesdePaginado(fecha, cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
+    // ========== ENDPOINT DE REGISTRO DE CAMBIOS ==========
+
+    @GetMapping("/cambios")
+    public ResponseEntity<PaginaCursor<Cambio>> obtenerCambios(
+            @RequestParam(required = false) Long desde,
+            @RequestParam(required = false) Integer limite) {
+        logger.info("GET /data/cambios?desde={}&limite={} - Obteniendo cambios", desde, limite);
+        PaginaCursor<Cambio> pagina = registroCambios.obtenerCambios(desde, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
     // ========== ENDPOINT DE HEALTH CHECK ==========
 
     @GetMapping("/health")
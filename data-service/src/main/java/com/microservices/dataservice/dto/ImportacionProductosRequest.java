@@ -0,0 +1,41 @@
+package com.microservices.dataservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request para crear muchos productos (con su inventario) en una sola operación
+ *
+ * @author Agustin Benavidez
+ */
+public class ImportacionProductosRequest {
+
+    public static final int MAXIMO_PRODUCTOS = 10000;
+
+    @NotEmpty(message = "La importación debe tener al menos un producto")
+    @Size(max = MAXIMO_PRODUCTOS, message = "La importación no puede superar " + MAXIMO_PRODUCTOS + " productos")
+    @Valid
+    private List<ProductoImportacion> productos = new ArrayList<>();
+
+    // Constructor por defecto
+    public ImportacionProductosRequest() {
+    }
+
+    // Constructor con parámetros
+    public ImportacionProductosRequest(List<ProductoImportacion> productos) {
+        this.productos = productos;
+    }
+
+    // Getters y Setters
+    public List<ProductoImportacion> getProductos() {
+        return productos;
+    }
+
+    public void setProductos(List<ProductoImportacion> productos) {
+        this.productos = productos;
+    }
+}
@@ -0,0 +1,46 @@
+package com.microservices.dataservice.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Ítem de una reserva de stock: producto y cantidad a descontar
+ *
+ * @author Agustin Benavidez
+ */
+public class ItemReserva {
+
+    @NotNull(message = "El ID del producto es obligatorio")
+    private Long productoId;
+
+    @NotNull(message = "La cantidad es obligatoria")
+    @Min(value = 1, message = "La cantidad debe ser mayor a cero")
+    private Integer cantidad;
+
+    // Constructor por defecto
+    public ItemReserva() {
+    }
+
+    // Constructor con parámetros
+    public ItemReserva(Long productoId, Integer cantidad) {
+        this.productoId = productoId;
+        this.cantidad = cantidad;
+    }
+
+    // Getters y Setters
+    public Long getProductoId() {
+        return productoId;
+    }
+
+    public void setProductoId(Long productoId) {
+        this.productoId = productoId;
+    }
+
+    public Integer getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(Integer cantidad) {
+        this.cantidad = cantidad;
+    }
+}
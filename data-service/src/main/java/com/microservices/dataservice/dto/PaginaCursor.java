@@ -0,0 +1,98 @@
+package com.microservices.dataservice.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados paginada por cursor (keyset sobre el ID)
+ *
+ * El cursor es el último ID entregado; la página siguiente se obtiene
+ * enviándolo como parámetro y contiene solo filas con ID mayor.
+ *
+ * @author Agustin Benavidez
+ */
+public class PaginaCursor<T> {
+
+    public static final int LIMITE_POR_DEFECTO = 50;
+    public static final int LIMITE_MAXIMO = 500;
+
+    private List<T> contenido;
+    private Long siguienteCursor;
+    private int limite;
+    private boolean hayMas;
+
+    // Constructor por defecto
+    public PaginaCursor() {
+    }
+
+    // Constructor con parámetros
+    public PaginaCursor(List<T> contenido, Long siguienteCursor, int limite, boolean hayMas) {
+        this.contenido = contenido;
+        this.siguienteCursor = siguienteCursor;
+        this.limite = limite;
+        this.hayMas = hayMas;
+    }
+
+    /**
+     * Construye la página a partir de una consulta que pidió limite + 1 filas
+     * @param filas resultado de la consulta (a lo sumo limite + 1 elementos)
+     * @param limite tamaño de página solicitado
+     * @param extractorId función que obtiene el ID usado como cursor
+     */
+    public static <T> PaginaCursor<T> desde(List<T> filas, int limite, Function<T, Long> extractorId) {
+        boolean hayMas = filas.size() > limite;
+        List<T> contenido = hayMas ? List.copyOf(filas.subList(0, limite)) : filas;
+        Long siguienteCursor = hayMas ? extractorId.apply(contenido.get(contenido.size() - 1)) : null;
+        return new PaginaCursor<>(contenido, siguienteCursor, limite, hayMas);
+    }
+
+    /**
+     * Normaliza el tamaño de página solicitado aplicando el valor por defecto y el máximo permitido
+     */
+    public static int normalizarLimite(Integer limite) {
+        if (limite == null || limite <= 0) {
+            return LIMITE_POR_DEFECTO;
+        }
+        return Math.min(limite, LIMITE_MAXIMO);
+    }
+
+    /**
+     * Normaliza el cursor recibido (null equivale al inicio)
+     */
+    public static long normalizarCursor(Long cursor) {
+        return cursor != null && cursor > 0 ? cursor : 0L;
+    }
+
+    // Getters y Setters
+    public List<T> getContenido() {
+        return contenido;
+    }
+
+    public void setContenido(List<T> contenido) {
+        this.contenido = contenido;
+    }
+
+    public Long getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public void setSiguienteCursor(Long siguienteCursor) {
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public void setLimite(int limite) {
+        this.limite = limite;
+    }
+
+    public boolean isHayMas() {
+        return hayMas;
+    }
+
+    public void setHayMas(boolean hayMas) {
+        this.hayMas = hayMas;
+    }
+}
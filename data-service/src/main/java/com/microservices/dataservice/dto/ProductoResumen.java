@@ -0,0 +1,112 @@
+package com.microservices.dataservice.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de solo lectura de un producto con su categoría e inventario
+ *
+ * Se construye directamente desde JPQL (SELECT new ...) en una única consulta,
+ * evitando cargar las asociaciones LAZY de la entidad fila por fila.
+ *
+ * @author Agustin Benavidez
+ */
+public class ProductoResumen {
+
+    private final Long id;
+    private final String nombre;
+    private final String descripcion;
+    private final BigDecimal precio;
+    private final Long categoriaId;
+    private final String categoriaNombre;
+    private final Integer stock;
+    private final Integer stockMinimo;
+    private final Boolean activo;
+    private final LocalDateTime fechaCreacion;
+    private final LocalDateTime fechaActualizacion;
+
+    public ProductoResumen(Long id, String nombre, String descripcion, BigDecimal precio,
+                           Long categoriaId, String categoriaNombre,
+                           Integer stock, Integer stockMinimo, Boolean activo,
+                           LocalDateTime fechaCreacion, LocalDateTime fechaActualizacion) {
+        this.id = id;
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+        this.precio = precio;
+        this.categoriaId = categoriaId;
+        this.categoriaNombre = categoriaNombre;
+        this.stock = stock != null ? stock : 0;
+        this.stockMinimo = stockMinimo;
+        this.activo = activo;
+        this.fechaCreacion = fechaCreacion;
+        this.fechaActualizacion = fechaActualizacion;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public BigDecimal getPrecio() {
+        return precio;
+    }
+
+    public Long getCategoriaId() {
+        return categoriaId;
+    }
+
+    public String getCategoriaNombre() {
+        return categoriaNombre;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public Integer getStockMinimo() {
+        return stockMinimo;
+    }
+
+    public Boolean getActivo() {
+        return activo;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public LocalDateTime getFechaActualizacion() {
+        return fechaActualizacion;
+    }
+
+    // Métodos de conveniencia (mismo criterio que la entidad Producto)
+    public boolean isStockBajo() {
+        if (stockMinimo == null) return true;
+        return stock <= stockMinimo;
+    }
+
+    public BigDecimal getValorInventario() {
+        if (stockMinimo == null) return BigDecimal.ZERO;
+        return precio.multiply(BigDecimal.valueOf(stock));
+    }
+
+    @Override
+    public String toString() {
+        return "ProductoResumen{" +
+                "id=" + id +
+                ", nombre='" + nombre + '\'' +
+                ", precio=" + precio +
+                ", categoria=" + categoriaNombre +
+                ", stock=" + stock +
+                ", activo=" + activo +
+                '}';
+    }
+}
@@ -0,0 +1,37 @@
+package com.microservices.dataservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request para reservar stock de varios productos en una sola operación
+ *
+ * @author Agustin Benavidez
+ */
+public class ReservaRequest {
+
+    @NotEmpty(message = "La reserva debe tener al menos un ítem")
+    @Valid
+    private List<ItemReserva> items = new ArrayList<>();
+
+    // Constructor por defecto
+    public ReservaRequest() {
+    }
+
+    // Constructor con parámetros
+    public ReservaRequest(List<ItemReserva> items) {
+        this.items = items;
+    }
+
+    // Getters y Setters
+    public List<ItemReserva> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ItemReserva> items) {
+        this.items = items;
+    }
+}
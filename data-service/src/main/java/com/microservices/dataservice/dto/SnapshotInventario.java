@@ -0,0 +1,150 @@
+package com.microservices.dataservice.dto;
+
+import com.microservices.dataservice.entity.Inventario.EstadoStock;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resumen compacto del inventario de productos activos
+ *
+ * Se arma a partir de una única consulta agrupada por estado de stock (a lo sumo una
+ * fila por estado): conteos, cantidades, porcentajes y valores se derivan de esas
+ * filas sin transferir los inventarios.
+ *
+ * @author Agustin Benavidez
+ */
+public class SnapshotInventario {
+
+    private final long totalProductos;
+    private final long cantidadTotalItems;
+    private final double cantidadPromedio;
+    private final long productosConStockBajo;
+    private final long productosConStockCritico;
+    private final long productosSinStock;
+    private final double porcentajeStockBajo;
+    private final double porcentajeStockCritico;
+    private final double porcentajeSinStock;
+    private final BigDecimal valorTotalInventario;
+    private final BigDecimal valorPromedioProducto;
+    private final Map<String, Long> productosPorEstado;
+    private final Map<String, BigDecimal> valorPorEstado;
+
+    private SnapshotInventario(Map<EstadoStock, Long> productos, Map<EstadoStock, Long> cantidades,
+                               Map<EstadoStock, BigDecimal> valores) {
+        this.totalProductos = sumar(productos, List.of(EstadoStock.values()));
+        this.cantidadTotalItems = sumar(cantidades, List.of(EstadoStock.values()));
+        this.cantidadPromedio = totalProductos > 0 ? (double) cantidadTotalItems / totalProductos : 0.0;
+        this.productosConStockBajo = sumar(productos, EstadoStock.BAJO_O_PEOR);
+        this.productosConStockCritico = sumar(productos, EstadoStock.CRITICO_O_PEOR);
+        this.productosSinStock = productos.get(EstadoStock.SIN_STOCK);
+        this.porcentajeStockBajo = porcentaje(productosConStockBajo, totalProductos);
+        this.porcentajeStockCritico = porcentaje(productosConStockCritico, totalProductos);
+        this.porcentajeSinStock = porcentaje(productosSinStock, totalProductos);
+        this.valorTotalInventario = valores.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        this.valorPromedioProducto = totalProductos > 0
+                ? valorTotalInventario.divide(BigDecimal.valueOf(totalProductos), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+        this.productosPorEstado = new LinkedHashMap<>();
+        this.valorPorEstado = new LinkedHashMap<>();
+        for (EstadoStock estado : EstadoStock.values()) {
+            productosPorEstado.put(estado.name(), productos.get(estado));
+            valorPorEstado.put(estado.name(), valores.get(estado));
+        }
+    }
+
+    /**
+     * Construye el resumen desde las filas [estado, productos, cantidad total, valor total]
+     */
+    public static SnapshotInventario desde(List<Object[]> filasPorEstado) {
+        Map<EstadoStock, Long> productos = new EnumMap<>(EstadoStock.class);
+        Map<EstadoStock, Long> cantidades = new EnumMap<>(EstadoStock.class);
+        Map<EstadoStock, BigDecimal> valores = new EnumMap<>(EstadoStock.class);
+        for (EstadoStock estado : EstadoStock.values()) {
+            productos.put(estado, 0L);
+            cantidades.put(estado, 0L);
+            valores.put(estado, BigDecimal.ZERO);
+        }
+        for (Object[] fila : filasPorEstado) {
+            EstadoStock estado = (EstadoStock) fila[0];
+            productos.put(estado, fila[1] != null ? ((Number) fila[1]).longValue() : 0L);
+            cantidades.put(estado, fila[2] != null ? ((Number) fila[2]).longValue() : 0L);
+            valores.put(estado, fila[3] != null ? (BigDecimal) fila[3] : BigDecimal.ZERO);
+        }
+        return new SnapshotInventario(productos, cantidades, valores);
+    }
+
+    private static long sumar(Map<EstadoStock, Long> valores, List<EstadoStock> estados) {
+        return estados.stream().mapToLong(valores::get).sum();
+    }
+
+    private static double porcentaje(long parte, long total) {
+        return total > 0 ? ((double) parte / total) * 100.0 : 0.0;
+    }
+
+    // Getters
+    public long getTotalProductos() {
+        return totalProductos;
+    }
+
+    public long getCantidadTotalItems() {
+        return cantidadTotalItems;
+    }
+
+    public double getCantidadPromedio() {
+        return cantidadPromedio;
+    }
+
+    public long getProductosConStockBajo() {
+        return productosConStockBajo;
+    }
+
+    public long getProductosConStockCritico() {
+        return productosConStockCritico;
+    }
+
+    public long getProductosSinStock() {
+        return productosSinStock;
+    }
+
+    public double getPorcentajeStockBajo() {
+        return porcentajeStockBajo;
+    }
+
+    public double getPorcentajeStockCritico() {
+        return porcentajeStockCritico;
+    }
+
+    public double getPorcentajeSinStock() {
+        return porcentajeSinStock;
+    }
+
+    public BigDecimal getValorTotalInventario() {
+        return valorTotalInventario;
+    }
+
+    public BigDecimal getValorPromedioProducto() {
+        return valorPromedioProducto;
+    }
+
+    public Map<String, Long> getProductosPorEstado() {
+        return productosPorEstado;
+    }
+
+    public Map<String, BigDecimal> getValorPorEstado() {
+        return valorPorEstado;
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotInventario{" +
+                "totalProductos=" + totalProductos +
+                ", productosPorEstado=" + productosPorEstado +
+                ", valorTotalInventario=" + valorTotalInventario +
+                '}';
+    }
+}
@@ -0,0 +1,133 @@
+package com.microservices.dataservice.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entrada del registro de cambios de productos e inventario
+ *
+ * El ID es creciente y sirve como cursor para que los consumidores obtengan
+ * solo los cambios posteriores a la última entrada que procesaron.
+ *
+ * @author Agustin Benavidez
+ */
+@Entity
+@Table(name = "cambios",
+       indexes = {
+           @Index(name = "idx_cambio_fecha", columnList = "fecha")
+       })
+public class Cambio {
+
+    /**
+     * Entidad afectada por el cambio
+     */
+    public enum Entidad {
+        PRODUCTO, INVENTARIO
+    }
+
+    /**
+     * Tipo de operación registrada
+     */
+    public enum Operacion {
+        CREACION, ACTUALIZACION, ELIMINACION
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cambios_seq")
+    @SequenceGenerator(name = "cambios_seq", sequenceName = "cambios_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Entidad entidad;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Operacion operacion;
+
+    @Column(name = "producto_id", nullable = false)
+    private Long productoId;
+
+    @Column(name = "cantidad")
+    private Integer cantidad;
+
+    @Column(name = "fecha", nullable = false, updatable = false)
+    private LocalDateTime fecha;
+
+    // Constructor por defecto
+    public Cambio() {
+    }
+
+    // Constructor con parámetros
+    public Cambio(Entidad entidad, Operacion operacion, Long productoId, Integer cantidad) {
+        this.entidad = entidad;
+        this.operacion = operacion;
+        this.productoId = productoId;
+        this.cantidad = cantidad;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        fecha = LocalDateTime.now();
+    }
+
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Entidad getEntidad() {
+        return entidad;
+    }
+
+    public void setEntidad(Entidad entidad) {
+        this.entidad = entidad;
+    }
+
+    public Operacion getOperacion() {
+        return operacion;
+    }
+
+    public void setOperacion(Operacion operacion) {
+        this.operacion = operacion;
+    }
+
+    public Long getProductoId() {
+        return productoId;
+    }
+
+    public void setProductoId(Long productoId) {
+        this.productoId = productoId;
+    }
+
+    public Integer getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(Integer cantidad) {
+        this.cantidad = cantidad;
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDateTime fecha) {
+        this.fecha = fecha;
+    }
+
+    @Override
+    public String toString() {
+        return "Cambio{" +
+                "id=" + id +
+                ", entidad=" + entidad +
+                ", operacion=" + operacion +
+                ", productoId=" + productoId +
+                ", cantidad=" + cantidad +
+                '}';
+    }
+}
@@ -3,9 +3,12 @@ package com.microservices.dataservice.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 
 /**
@@ -15,11 +18,20 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "categorias", 
-       uniqueConstraints = @UniqueConstraint(columnNames = "nombre"))
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = "nombre"),
+           @UniqueConstraint(name = "uk_categoria_nombre_normalizado", columnNames = "nombre_normalizado")
+       })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Categoria.REGION_CACHE)
 public class Categoria {
 
+    public static final String REGION_CACHE = "categorias";
+    public static final String REGION_CACHE_CONSULTAS = "categorias-consultas";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categorias_seq")
+    @SequenceGenerator(name = "categorias_seq", sequenceName = "categorias_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "El nombre de la categoría es obligatorio")
@@ -27,6 +39,13 @@ public class Categoria {
     @Column(nullable = false, length = 100)
     private String nombre;
 
+    /**
+     * Nombre en minúsculas para búsquedas y unicidad sin distinguir mayúsculas por índice.
+     * Admite nulos solo para filas previas a la columna, que se completan al iniciar.
+     */
+    @Column(name = "nombre_normalizado", length = 100)
+    private String nombreNormalizado;
+
     @Size(max = 500, message = "La descripción no puede exceder 500 caracteres")
     @Column(length = 500)
     private String descripcion;
@@ -46,12 +65,20 @@ public class Categoria {
 
     // Constructor con parámetros
     public Categoria(String nombre, String descripcion) {
-        this.nombre = nombre;
+        setNombre(nombre);
         this.descripcion = descripcion;
     }
 
+    /**
+     * Forma normalizada de un nombre de categoría (la que se guarda en nombre_normalizado)
+     */
+    public static String normalizarNombre(String nombre) {
+        return nombre != null ? nombre.toLowerCase(Locale.ROOT) : null;
+    }
+
     @PrePersist
     protected void onCreate() {
+        nombreNormalizado = normalizarNombre(nombre);
         fechaCreacion = LocalDateTime.now();
         fechaActualizacion = LocalDateTime.now();
     }
@@ -76,6 +103,11 @@ public class Categoria {
 
     public void setNombre(String nombre) {
         this.nombre = nombre;
+        this.nombreNormalizado = normalizarNombre(nombre);
+    }
+
+    public String getNombreNormalizado() {
+        return nombreNormalizado;
     }
 
     public String getDescripcion() {
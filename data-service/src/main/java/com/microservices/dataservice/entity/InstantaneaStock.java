@@ -0,0 +1,95 @@
+package com.microservices.dataservice.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Instantánea del stock de un producto en un corte del libro de movimientos
+ *
+ * Cada compactación fija un corte (el ID de un movimiento) y guarda, solo para los
+ * productos con movimientos desde el corte anterior, la cantidad resultante de su último
+ * movimiento hasta ese ID. La fecha del corte es la del movimiento más reciente que
+ * incluye, así que sirve para cualquier fecha igual o posterior. El stock de un producto
+ * en un corte es su última instantánea con corte menor o igual; para reconstruirlo en
+ * otro momento basta sumar los movimientos con ID mayor al corte.
+ *
+ * @author Agustin Benavidez
+ */
+@Entity
+@Immutable
+@Table(name = "instantaneas_stock",
+       indexes = {
+           @Index(name = "idx_instantanea_stock_producto", columnList = "producto_id, ultimo_movimiento_id"),
+           @Index(name = "idx_instantanea_stock_fecha", columnList = "fecha")
+       })
+public class InstantaneaStock {
+
+    /**
+     * Corte de las instantáneas iniciales (inventarios sin movimientos registrados)
+     */
+    public static final LocalDateTime CORTE_INICIAL = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "instantaneas_stock_seq")
+    @SequenceGenerator(name = "instantaneas_stock_seq", sequenceName = "instantaneas_stock_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "producto_id", nullable = false, updatable = false)
+    private Long productoId;
+
+    @Column(nullable = false, updatable = false)
+    private Integer cantidad;
+
+    /** Fecha del movimiento más reciente incluido en el corte */
+    @Column(name = "fecha", nullable = false, updatable = false)
+    private LocalDateTime fecha;
+
+    /** Corte: incluye los movimientos con ID menor o igual (0 en las instantáneas iniciales) */
+    @Column(name = "ultimo_movimiento_id", nullable = false, updatable = false)
+    private Long ultimoMovimientoId;
+
+    // Constructor por defecto
+    public InstantaneaStock() {
+    }
+
+    // Constructor con parámetros
+    public InstantaneaStock(Long productoId, Integer cantidad, LocalDateTime fecha, Long ultimoMovimientoId) {
+        this.productoId = productoId;
+        this.cantidad = cantidad;
+        this.fecha = fecha;
+        this.ultimoMovimientoId = ultimoMovimientoId;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductoId() {
+        return productoId;
+    }
+
+    public Integer getCantidad() {
+        return cantidad;
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+
+    public Long getUltimoMovimientoId() {
+        return ultimoMovimientoId;
+    }
+
+    @Override
+    public String toString() {
+        return "InstantaneaStock{" +
+                "productoId=" + productoId +
+                ", cantidad=" + cantidad +
+                ", fecha=" + fecha +
+                ", ultimoMovimientoId=" + ultimoMovimientoId +
+                '}';
+    }
+}
@@ -1,13 +1,23 @@
 package com.microservices.dataservice.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Objects;
 
 /**
  * Entidad que representa el inventario de un producto
+ *
+ * El estado de stock y el valor (precio unitario por cantidad) se persisten e indexan
+ * para que las alertas y el ranking por valor no evalúen una expresión fila por fila.
+ * Se recalculan en cada cambio de cantidad, stock mínimo o precio del producto (que
+ * se copia como precio unitario).
  * 
  * @author Agustin Benavidez
  */
@@ -16,14 +26,46 @@ import java.util.Objects;
        indexes = {
            @Index(name = "idx_inventario_producto", columnList = "producto_id"),
            @Index(name = "idx_inventario_cantidad", columnList = "cantidad"),
-           @Index(name = "idx_inventario_stock_minimo", columnList = "stock_minimo")
+           @Index(name = "idx_inventario_stock_minimo", columnList = "stock_minimo"),
+           @Index(name = "idx_inventario_estado_stock", columnList = "estado_stock, cantidad"),
+           @Index(name = "idx_inventario_valor", columnList = "valor_inventario DESC")
        })
 public class Inventario {
 
+    /**
+     * Estado del stock respecto del mínimo, de menor a mayor gravedad
+     * (BAJO: hasta el mínimo, CRITICO: hasta la mitad del mínimo, SIN_STOCK: cantidad cero)
+     */
+    public enum EstadoStock {
+        OK, BAJO, CRITICO, SIN_STOCK;
+
+        /** Estados incluidos en las alertas de stock bajo */
+        public static final List<EstadoStock> BAJO_O_PEOR = List.of(BAJO, CRITICO, SIN_STOCK);
+
+        /** Estados incluidos en las alertas de stock crítico */
+        public static final List<EstadoStock> CRITICO_O_PEOR = List.of(CRITICO, SIN_STOCK);
+
+        public static EstadoStock de(Integer cantidad, Integer stockMinimo) {
+            if (cantidad == null || stockMinimo == null) {
+                return OK;
+            }
+            if (cantidad == 0) {
+                return SIN_STOCK;
+            }
+            if (cantidad * 2 <= stockMinimo) {
+                return CRITICO;
+            }
+            return cantidad <= stockMinimo ? BAJO : OK;
+        }
+    }
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventario_seq")
+    @SequenceGenerator(name = "inventario_seq", sequenceName = "inventario_seq", allocationSize = 50)
     private Long id;
 
+    // En JSON solo van productoId y productoNombre: el producto completo es perezoso y cíclico
+    @JsonIgnore
     @NotNull(message = "El producto es obligatorio")
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "producto_id", nullable = false, unique = true)
@@ -39,6 +81,17 @@ public class Inventario {
     @Column(name = "stock_minimo", nullable = false)
     private Integer stockMinimo;
 
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'OK'")
+    @Column(name = "estado_stock", nullable = false, length = 16)
+    private EstadoStock estadoStock = EstadoStock.OK;
+
+    @Column(name = "precio_unitario", precision = 12, scale = 2)
+    private BigDecimal precioUnitario;
+
+    @Column(name = "valor_inventario", precision = 19, scale = 2)
+    private BigDecimal valorInventario;
+
     @Column(name = "fecha_ultima_actualizacion", nullable = false)
     private LocalDateTime fechaUltimaActualizacion;
 
@@ -55,19 +108,23 @@ public class Inventario {
     // Constructor con parámetros
     public Inventario(Producto producto, Integer cantidad, Integer stockMinimo) {
         this.producto = producto;
+        this.precioUnitario = producto != null ? producto.getPrecio() : null;
         this.cantidad = cantidad;
         this.stockMinimo = stockMinimo;
+        actualizarDerivados();
     }
 
     @PrePersist
     protected void onCreate() {
         fechaCreacion = LocalDateTime.now();
         fechaUltimaActualizacion = LocalDateTime.now();
+        actualizarDerivados();
     }
 
     @PreUpdate
     protected void onUpdate() {
         fechaUltimaActualizacion = LocalDateTime.now();
+        actualizarDerivados();
     }
 
     // Getters y Setters
@@ -85,6 +142,9 @@ public class Inventario {
 
     public void setProducto(Producto producto) {
         this.producto = producto;
+        if (producto != null) {
+            actualizarPrecioUnitario(producto.getPrecio());
+        }
     }
 
     public Integer getCantidad() {
@@ -93,6 +153,7 @@ public class Inventario {
 
     public void setCantidad(Integer cantidad) {
         this.cantidad = cantidad;
+        actualizarDerivados();
     }
 
     public Integer getStockMinimo() {
@@ -101,6 +162,19 @@ public class Inventario {
 
     public void setStockMinimo(Integer stockMinimo) {
         this.stockMinimo = stockMinimo;
+        actualizarDerivados();
+    }
+
+    public EstadoStock getEstadoStock() {
+        return estadoStock;
+    }
+
+    public BigDecimal getPrecioUnitario() {
+        return precioUnitario;
+    }
+
+    public BigDecimal getValorInventario() {
+        return valorInventario;
     }
 
     public LocalDateTime getFechaUltimaActualizacion() {
@@ -159,6 +233,7 @@ public class Inventario {
         }
         this.cantidad = nuevaCantidad;
         this.fechaUltimaActualizacion = LocalDateTime.now();
+        actualizarDerivados();
         return true;
     }
 
@@ -173,6 +248,7 @@ public class Inventario {
         }
         this.cantidad += incremento;
         this.fechaUltimaActualizacion = LocalDateTime.now();
+        actualizarDerivados();
         return true;
     }
 
@@ -187,9 +263,44 @@ public class Inventario {
         }
         this.cantidad -= decremento;
         this.fechaUltimaActualizacion = LocalDateTime.now();
+        actualizarDerivados();
         return true;
     }
 
+    /**
+     * Copia desacoplada del inventario con la cantidad indicada (y sus derivados recalculados)
+     * @param cantidad cantidad de la copia
+     * @return la copia, que no está asociada a ningún contexto de persistencia
+     */
+    public Inventario copiaConCantidad(Integer cantidad) {
+        Inventario copia = new Inventario();
+        copia.id = id;
+        copia.producto = producto;
+        copia.cantidad = cantidad;
+        copia.stockMinimo = stockMinimo;
+        copia.precioUnitario = precioUnitario;
+        copia.fechaUltimaActualizacion = fechaUltimaActualizacion;
+        copia.fechaCreacion = fechaCreacion;
+        copia.version = version;
+        copia.actualizarDerivados();
+        return copia;
+    }
+
+    /**
+     * Copia el precio del producto y recalcula el valor del inventario
+     */
+    void actualizarPrecioUnitario(BigDecimal precio) {
+        this.precioUnitario = precio;
+        actualizarDerivados();
+    }
+
+    private void actualizarDerivados() {
+        estadoStock = EstadoStock.de(cantidad, stockMinimo);
+        valorInventario = precioUnitario != null && cantidad != null
+                ? precioUnitario.multiply(BigDecimal.valueOf(cantidad))
+                : null;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -211,7 +322,7 @@ public class Inventario {
                 ", producto=" + getProductoNombre() +
                 ", cantidad=" + cantidad +
                 ", stockMinimo=" + stockMinimo +
-                ", stockBajo=" + isStockBajo() +
+                ", estadoStock=" + estadoStock +
                 ", fechaUltimaActualizacion=" + fechaUltimaActualizacion +
                 '}';
     }
@@ -0,0 +1,106 @@
+package com.microservices.dataservice.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento del libro de stock (solo inserción)
+ *
+ * Cada cambio de cantidad de un inventario agrega un movimiento con su diferencia
+ * (positiva o negativa) y la cantidad resultante. La suma de las diferencias de un
+ * producto, a partir de su última instantánea, reconstruye su stock en cualquier momento.
+ *
+ * @author Agustin Benavidez
+ */
+@Entity
+@Immutable
+@Table(name = "movimientos_stock",
+       indexes = {
+           @Index(name = "idx_movimiento_stock_producto", columnList = "producto_id, id"),
+           @Index(name = "idx_movimiento_stock_fecha", columnList = "fecha")
+       })
+public class MovimientoStock {
+
+    /**
+     * Origen del movimiento
+     */
+    public enum Tipo {
+        CREACION, AJUSTE, INCREMENTO, DECREMENTO, RESERVA, ELIMINACION
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimientos_stock_seq")
+    @SequenceGenerator(name = "movimientos_stock_seq", sequenceName = "movimientos_stock_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "producto_id", nullable = false, updatable = false)
+    private Long productoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 20)
+    private Tipo tipo;
+
+    @Column(nullable = false, updatable = false)
+    private Integer delta;
+
+    @Column(name = "cantidad_resultante", nullable = false, updatable = false)
+    private Integer cantidadResultante;
+
+    @Column(name = "fecha", nullable = false, updatable = false)
+    private LocalDateTime fecha;
+
+    // Constructor por defecto
+    public MovimientoStock() {
+    }
+
+    // Constructor con parámetros
+    public MovimientoStock(Long productoId, Tipo tipo, Integer delta, Integer cantidadResultante) {
+        this.productoId = productoId;
+        this.tipo = tipo;
+        this.delta = delta;
+        this.cantidadResultante = cantidadResultante;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        fecha = LocalDateTime.now();
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductoId() {
+        return productoId;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public Integer getCantidadResultante() {
+        return cantidadResultante;
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+
+    @Override
+    public String toString() {
+        return "MovimientoStock{" +
+                "id=" + id +
+                ", productoId=" + productoId +
+                ", tipo=" + tipo +
+                ", delta=" + delta +
+                ", cantidadResultante=" + cantidadResultante +
+                '}';
+    }
+}
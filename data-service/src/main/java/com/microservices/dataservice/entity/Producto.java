@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.Objects;
 
 /**
@@ -17,11 +18,14 @@ import java.util.Objects;
            @Index(name = "idx_producto_nombre", columnList = "nombre"),
            @Index(name = "idx_producto_categoria", columnList = "categoria_id"),
            @Index(name = "idx_producto_precio", columnList = "precio")
-       })
+       },
+       uniqueConstraints = @UniqueConstraint(name = "uk_producto_nombre_normalizado",
+                                             columnNames = "nombre_normalizado"))
 public class Producto {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "productos_seq")
+    @SequenceGenerator(name = "productos_seq", sequenceName = "productos_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "El nombre del producto es obligatorio")
@@ -29,6 +33,13 @@ public class Producto {
     @Column(nullable = false, length = 100)
     private String nombre;
 
+    /**
+     * Nombre en minúsculas: la unicidad sin distinguir mayúsculas se resuelve con su índice único.
+     * Admite nulos solo para filas previas a la columna, que se completan al iniciar.
+     */
+    @Column(name = "nombre_normalizado", length = 100)
+    private String nombreNormalizado;
+
     @Size(max = 500, message = "La descripción no puede exceder 500 caracteres")
     @Column(length = 500)
     private String descripcion;
@@ -62,15 +73,23 @@ public class Producto {
 
     // Constructor con parámetros
     public Producto(String nombre, String descripcion, BigDecimal precio, Categoria categoria) {
-        this.nombre = nombre;
+        setNombre(nombre);
         this.descripcion = descripcion;
         this.precio = precio;
         this.categoria = categoria;
         this.activo = true;
     }
 
+    /**
+     * Forma normalizada de un nombre de producto (la que se guarda en nombre_normalizado)
+     */
+    public static String normalizarNombre(String nombre) {
+        return nombre != null ? nombre.toLowerCase(Locale.ROOT) : null;
+    }
+
     @PrePersist
     protected void onCreate() {
+        nombreNormalizado = normalizarNombre(nombre);
         fechaCreacion = LocalDateTime.now();
         fechaActualizacion = LocalDateTime.now();
     }
@@ -95,6 +114,11 @@ public class Producto {
 
     public void setNombre(String nombre) {
         this.nombre = nombre;
+        this.nombreNormalizado = normalizarNombre(nombre);
+    }
+
+    public String getNombreNormalizado() {
+        return nombreNormalizado;
     }
 
     public String getDescripcion() {
@@ -111,6 +135,9 @@ public class Producto {
 
     public void setPrecio(BigDecimal precio) {
         this.precio = precio;
+        if (inventario != null) {
+            inventario.actualizarPrecioUnitario(precio);
+        }
     }
 
     public Categoria getCategoria() {
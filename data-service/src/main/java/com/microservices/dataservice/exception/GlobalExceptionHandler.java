@@ -87,6 +87,8 @@ public class GlobalExceptionHandler {
         response.put("timestamp", LocalDateTime.now());
         response.put("status", HttpStatus.BAD_REQUEST.value());
         response.put("error", "Stock insuficiente");
+        // Código estable para que los clientes lo distingan de otros 400
+        response.put("errorCode", "STOCK_INSUFICIENTE");
         response.put("message", ex.getMessage());
         response.put("path", request.getDescription(false).replace("uri=", ""));
         
@@ -0,0 +1,248 @@
+package com.microservices.dataservice.lectura;
+
+import com.microservices.dataservice.dto.ProductoResumen;
+import com.microservices.dataservice.entity.Inventario.EstadoStock;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Instantánea inmutable del catálogo de productos activos
+ *
+ * Mantiene cada consulta ya resuelta como una {@link ListaSegmentada} ordenada. Aplicar
+ * cambios no modifica la instantánea: devuelve una nueva en la que cada lista afectada
+ * copia solo el segmento donde cae el producto y su arreglo de segmentos, con costo
+ * O(N / TAMANIO_SEGMENTO + TAMANIO_SEGMENTO) por lista en lugar de O(N). El mapa de
+ * categorías se copia una vez por lote si el lote toca alguna categoría.
+ *
+ * @author Agustin Benavidez
+ */
+final class InstantaneaCatalogo {
+
+    private static final Comparator<ProductoResumen> POR_ID = Comparator.comparing(ProductoResumen::getId);
+
+    private static final Comparator<ProductoResumen> POR_PRECIO =
+            Comparator.comparing(ProductoResumen::getPrecio).thenComparing(ProductoResumen::getId);
+
+    private static final Comparator<ProductoResumen> POR_STOCK =
+            Comparator.comparing(ProductoResumen::getStock).thenComparing(ProductoResumen::getId);
+
+    private final ListaSegmentada<ProductoResumen> activos;
+    private final ListaSegmentada<ProductoResumen> porPrecio;
+    private final ListaSegmentada<ProductoResumen> stockBajo;
+    private final ListaSegmentada<ProductoResumen> sinStock;
+    private final Map<String, ListaSegmentada<ProductoResumen>> porCategoria;
+
+    private InstantaneaCatalogo(ListaSegmentada<ProductoResumen> activos,
+                                ListaSegmentada<ProductoResumen> porPrecio,
+                                ListaSegmentada<ProductoResumen> stockBajo,
+                                ListaSegmentada<ProductoResumen> sinStock,
+                                Map<String, ListaSegmentada<ProductoResumen>> porCategoria) {
+        this.activos = activos;
+        this.porPrecio = porPrecio;
+        this.stockBajo = stockBajo;
+        this.sinStock = sinStock;
+        this.porCategoria = porCategoria;
+    }
+
+    /**
+     * Construye la instantánea completa a partir de los productos activos
+     */
+    static InstantaneaCatalogo construir(Collection<ProductoResumen> productos) {
+        Map<String, List<ProductoResumen>> agrupados = new HashMap<>();
+        for (ProductoResumen producto : productos) {
+            agrupados.computeIfAbsent(clave(producto.getCategoriaNombre()), c -> new ArrayList<>()).add(producto);
+        }
+        Map<String, ListaSegmentada<ProductoResumen>> porCategoria = new HashMap<>();
+        agrupados.forEach((categoria, lista) -> porCategoria.put(categoria, ordenada(lista, POR_ID)));
+
+        return new InstantaneaCatalogo(
+                ordenada(productos, POR_ID),
+                ordenada(productos, POR_PRECIO),
+                ordenada(productos.stream().filter(InstantaneaCatalogo::conStockBajo).toList(), POR_STOCK),
+                ordenada(productos.stream().filter(InstantaneaCatalogo::sinStock).toList(), POR_ID),
+                Collections.unmodifiableMap(porCategoria));
+    }
+
+    /**
+     * Devuelve una nueva instantánea con los cambios aplicados
+     * @param cambios estado actual de cada producto modificado (null si ya no está activo)
+     */
+    InstantaneaCatalogo aplicar(Map<Long, ProductoResumen> cambios) {
+        ListaSegmentada<ProductoResumen> nuevosActivos = activos;
+        ListaSegmentada<ProductoResumen> nuevoPorPrecio = porPrecio;
+        ListaSegmentada<ProductoResumen> nuevoStockBajo = stockBajo;
+        ListaSegmentada<ProductoResumen> nuevoSinStock = sinStock;
+        Map<String, ListaSegmentada<ProductoResumen>> nuevoPorCategoria = null;
+
+        for (Map.Entry<Long, ProductoResumen> cambio : cambios.entrySet()) {
+            ProductoResumen anterior = buscar(nuevosActivos, cambio.getKey());
+            ProductoResumen nuevo = cambio.getValue();
+            if (anterior == null && nuevo == null) {
+                continue;
+            }
+
+            nuevosActivos = reemplazar(nuevosActivos, POR_ID, anterior, nuevo, p -> true);
+            nuevoPorPrecio = reemplazar(nuevoPorPrecio, POR_PRECIO, anterior, nuevo, p -> true);
+            nuevoStockBajo = reemplazar(nuevoStockBajo, POR_STOCK, anterior, nuevo, InstantaneaCatalogo::conStockBajo);
+            nuevoSinStock = reemplazar(nuevoSinStock, POR_ID, anterior, nuevo, InstantaneaCatalogo::sinStock);
+
+            if (nuevoPorCategoria == null) {
+                nuevoPorCategoria = new HashMap<>(porCategoria);
+            }
+            if (anterior != null) {
+                String clave = clave(anterior.getCategoriaNombre());
+                ListaSegmentada<ProductoResumen> lista = nuevoPorCategoria.get(clave);
+                if (lista != null) {
+                    lista = lista.sin(anterior, POR_ID);
+                    if (lista.isEmpty()) {
+                        nuevoPorCategoria.remove(clave);
+                    } else {
+                        nuevoPorCategoria.put(clave, lista);
+                    }
+                }
+            }
+            if (nuevo != null) {
+                nuevoPorCategoria.merge(clave(nuevo.getCategoriaNombre()), ordenada(List.of(nuevo), POR_ID),
+                        (lista, unico) -> lista.con(nuevo, POR_ID));
+            }
+        }
+
+        return new InstantaneaCatalogo(
+                nuevosActivos,
+                nuevoPorPrecio,
+                nuevoStockBajo,
+                nuevoSinStock,
+                nuevoPorCategoria != null ? Collections.unmodifiableMap(nuevoPorCategoria) : porCategoria);
+    }
+
+    // ========== CONSULTAS ==========
+
+    int tamanio() {
+        return activos.size();
+    }
+
+    List<Long> idsDeCategoria(Long categoriaId) {
+        return activos.stream()
+                .filter(producto -> categoriaId.equals(producto.getCategoriaId()))
+                .map(ProductoResumen::getId)
+                .toList();
+    }
+
+    /** Productos activos ordenados por ID */
+    List<ProductoResumen> activos() {
+        return activos;
+    }
+
+    /** Productos activos de una categoría (nombre sin distinguir mayúsculas), ordenados por ID */
+    List<ProductoResumen> porCategoria(String categoriaNombre) {
+        List<ProductoResumen> lista = porCategoria.get(clave(categoriaNombre));
+        return lista != null ? lista : List.of();
+    }
+
+    /** Productos con precio entre los límites (inclusive), ordenados por precio */
+    List<ProductoResumen> porRangoPrecio(BigDecimal precioMin, BigDecimal precioMax) {
+        if (precioMin.compareTo(precioMax) > 0) {
+            return List.of();
+        }
+        int desde = primerPrecio(precioMin, false);
+        int hasta = primerPrecio(precioMax, true);
+        return porPrecio.subList(desde, hasta);
+    }
+
+    /** Productos con stock bajo, crítico o agotado, ordenados por cantidad */
+    List<ProductoResumen> stockBajo() {
+        return stockBajo;
+    }
+
+    /** Productos con inventario en cero, ordenados por ID */
+    List<ProductoResumen> sinStock() {
+        return sinStock;
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    /**
+     * Primera posición con precio mayor o igual (o estrictamente mayor) al indicado
+     */
+    private int primerPrecio(BigDecimal precio, boolean estricto) {
+        int bajo = 0;
+        int alto = porPrecio.size();
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            int comparacion = porPrecio.get(medio).getPrecio().compareTo(precio);
+            if (comparacion < 0 || (estricto && comparacion == 0)) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    /**
+     * Producto activo con el ID indicado (búsqueda binaria sobre la lista ordenada por ID)
+     */
+    private static ProductoResumen buscar(List<ProductoResumen> activos, Long id) {
+        int bajo = 0;
+        int alto = activos.size() - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            ProductoResumen producto = activos.get(medio);
+            int comparacion = producto.getId().compareTo(id);
+            if (comparacion == 0) {
+                return producto;
+            }
+            if (comparacion < 0) {
+                bajo = medio + 1;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Quita el valor anterior y agrega el nuevo (si pertenece a la lista) manteniendo el orden
+     */
+    private static ListaSegmentada<ProductoResumen> reemplazar(ListaSegmentada<ProductoResumen> lista,
+                                                               Comparator<ProductoResumen> orden,
+                                                               ProductoResumen anterior, ProductoResumen nuevo,
+                                                               Predicate<ProductoResumen> pertenece) {
+        if (anterior != null && pertenece.test(anterior)) {
+            lista = lista.sin(anterior, orden);
+        }
+        if (nuevo != null && pertenece.test(nuevo)) {
+            lista = lista.con(nuevo, orden);
+        }
+        return lista;
+    }
+
+    private static ListaSegmentada<ProductoResumen> ordenada(Collection<ProductoResumen> productos,
+                                                             Comparator<ProductoResumen> orden) {
+        List<ProductoResumen> lista = new ArrayList<>(productos);
+        lista.sort(orden);
+        return ListaSegmentada.desde(lista);
+    }
+
+    private static boolean conStockBajo(ProductoResumen producto) {
+        return producto.getStockMinimo() != null
+                && EstadoStock.BAJO_O_PEOR.contains(EstadoStock.de(producto.getStock(), producto.getStockMinimo()));
+    }
+
+    private static boolean sinStock(ProductoResumen producto) {
+        return producto.getStockMinimo() != null && producto.getStock() == 0;
+    }
+
+    private static String clave(String categoriaNombre) {
+        return categoriaNombre != null ? categoriaNombre.toLowerCase(Locale.ROOT) : "";
+    }
+}
@@ -0,0 +1,141 @@
+package com.microservices.dataservice.lectura;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Lista ordenada inmutable dividida en segmentos
+ *
+ * Agregar o quitar un elemento devuelve una lista nueva que copia solo el segmento
+ * afectado (hasta 2 * TAMANIO_SEGMENTO elementos) y el arreglo de segmentos
+ * (N / TAMANIO_SEGMENTO referencias); el resto de los segmentos se comparte. El acceso
+ * por posición es una búsqueda binaria sobre el inicio de cada segmento.
+ *
+ * @author Agustin Benavidez
+ */
+final class ListaSegmentada<T> extends AbstractList<T> implements RandomAccess {
+
+    static final int TAMANIO_SEGMENTO = 512;
+
+    private final Object[][] segmentos;
+    // Posición global del primer elemento de cada segmento
+    private final int[] inicios;
+    private final int tamanio;
+
+    private ListaSegmentada(Object[][] segmentos, int tamanio) {
+        this.segmentos = segmentos;
+        this.inicios = new int[segmentos.length];
+        for (int s = 1; s < segmentos.length; s++) {
+            inicios[s] = inicios[s - 1] + segmentos[s - 1].length;
+        }
+        this.tamanio = tamanio;
+    }
+
+    /**
+     * Crea la lista a partir de elementos ya ordenados
+     */
+    static <T> ListaSegmentada<T> desde(List<T> ordenada) {
+        int cantidad = (ordenada.size() + TAMANIO_SEGMENTO - 1) / TAMANIO_SEGMENTO;
+        Object[][] segmentos = new Object[cantidad][];
+        for (int s = 0; s < cantidad; s++) {
+            int desde = s * TAMANIO_SEGMENTO;
+            segmentos[s] = ordenada.subList(desde, Math.min(desde + TAMANIO_SEGMENTO, ordenada.size())).toArray();
+        }
+        return new ListaSegmentada<>(segmentos, ordenada.size());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int indice) {
+        Objects.checkIndex(indice, tamanio);
+        int s = segmentoDe(indice);
+        return (T) segmentos[s][indice - inicios[s]];
+    }
+
+    @Override
+    public int size() {
+        return tamanio;
+    }
+
+    /**
+     * Devuelve la lista sin el elemento (la misma lista si no está)
+     */
+    ListaSegmentada<T> sin(T elemento, Comparator<? super T> orden) {
+        int posicion = Collections.binarySearch(this, elemento, orden);
+        if (posicion < 0) {
+            return this;
+        }
+        int s = segmentoDe(posicion);
+        Object[] segmento = segmentos[s];
+        if (segmento.length == 1) {
+            Object[][] nuevos = new Object[segmentos.length - 1][];
+            System.arraycopy(segmentos, 0, nuevos, 0, s);
+            System.arraycopy(segmentos, s + 1, nuevos, s, segmentos.length - s - 1);
+            return new ListaSegmentada<>(nuevos, tamanio - 1);
+        }
+        int local = posicion - inicios[s];
+        Object[] nuevo = new Object[segmento.length - 1];
+        System.arraycopy(segmento, 0, nuevo, 0, local);
+        System.arraycopy(segmento, local + 1, nuevo, local, segmento.length - local - 1);
+        Object[][] nuevos = segmentos.clone();
+        nuevos[s] = nuevo;
+        return new ListaSegmentada<>(nuevos, tamanio - 1);
+    }
+
+    /**
+     * Devuelve la lista con el elemento insertado en su posición según el orden
+     */
+    ListaSegmentada<T> con(T elemento, Comparator<? super T> orden) {
+        if (segmentos.length == 0) {
+            return new ListaSegmentada<>(new Object[][]{{elemento}}, 1);
+        }
+        int posicion = Collections.binarySearch(this, elemento, orden);
+        if (posicion < 0) {
+            posicion = -posicion - 1;
+        }
+        // Una posición al final va al último segmento
+        int s = posicion == tamanio ? segmentos.length - 1 : segmentoDe(posicion);
+        Object[] segmento = segmentos[s];
+        int local = posicion - inicios[s];
+        Object[] nuevo = new Object[segmento.length + 1];
+        System.arraycopy(segmento, 0, nuevo, 0, local);
+        nuevo[local] = elemento;
+        System.arraycopy(segmento, local, nuevo, local + 1, segmento.length - local);
+
+        Object[][] nuevos;
+        if (nuevo.length > 2 * TAMANIO_SEGMENTO) {
+            int mitad = nuevo.length / 2;
+            nuevos = new Object[segmentos.length + 1][];
+            System.arraycopy(segmentos, 0, nuevos, 0, s);
+            nuevos[s] = Arrays.copyOfRange(nuevo, 0, mitad);
+            nuevos[s + 1] = Arrays.copyOfRange(nuevo, mitad, nuevo.length);
+            System.arraycopy(segmentos, s + 1, nuevos, s + 2, segmentos.length - s - 1);
+        } else {
+            nuevos = segmentos.clone();
+            nuevos[s] = nuevo;
+        }
+        return new ListaSegmentada<>(nuevos, tamanio + 1);
+    }
+
+    /**
+     * Último segmento cuyo inicio es menor o igual a la posición
+     */
+    private int segmentoDe(int indice) {
+        int bajo = 0;
+        int alto = inicios.length - 1;
+        while (bajo < alto) {
+            int medio = (bajo + alto + 1) >>> 1;
+            if (inicios[medio] <= indice) {
+                bajo = medio;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return bajo;
+    }
+}
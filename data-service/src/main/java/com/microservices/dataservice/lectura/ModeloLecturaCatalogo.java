@@ -0,0 +1,378 @@
+package com.microservices.dataservice.lectura;
+
+import com.microservices.dataservice.dto.ProductoResumen;
+import com.microservices.dataservice.repository.ProductoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Modelo de lectura en memoria del catálogo (lado de consultas de CQRS)
+ *
+ * Las consultas de listado, categoría, rango de precio y alertas de stock se responden
+ * desde una instantánea inmutable sin ir a la base de datos. Las escrituras anotan los
+ * productos que modifican; al confirmar solo se encolan sus IDs, y un único hilo en segundo
+ * plano junta los pendientes, los relee de la primaria y publica una nueva instantánea
+ * (copy-on-write) con un reemplazo atómico. La transacción que escribe no espera el
+ * refresco, y varias escrituras seguidas cuestan una sola copia de la instantánea.
+ *
+ * Una reconstrucción completa periódica acota el atraso ante cambios que no pasen por
+ * los servicios: si la última reconstrucción tiene más de data.modelo-lectura.maximo-atraso-ms
+ * (o un refresco falló) las consultas vuelven a la base de datos hasta la siguiente.
+ *
+ * @author Agustin Benavidez
+ */
+@Component
+public class ModeloLecturaCatalogo {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModeloLecturaCatalogo.class);
+
+    private static final int TAMANIO_LOTE = 1000;
+
+    private final ProductoRepository productoRepository;
+    private final TransactionTemplate lecturaPrimaria;
+    private final boolean habilitado;
+    private final long maximoAtrasoMs;
+    private final Counter consultasEnMemoria;
+    private final Counter consultasEnBase;
+
+    private volatile InstantaneaCatalogo instantanea;
+    /** Momento en que empezó a leerse la última reconstrucción completa */
+    private volatile long construidaEnMs;
+    private volatile boolean desactualizada;
+
+    /** Productos refrescados mientras corre una reconstrucción (protegido por el monitor) */
+    private Set<Long> tocadosDuranteReconstruccion;
+
+    /** Productos confirmados que falta refrescar (protegido por su propio monitor) */
+    private final Set<Long> pendientes = new HashSet<>();
+    private volatile boolean activo;
+    private Thread refrescador;
+
+    @Autowired
+    public ModeloLecturaCatalogo(ProductoRepository productoRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${data.modelo-lectura.habilitado:false}") boolean habilitado,
+                                 @Value("${data.modelo-lectura.maximo-atraso-ms:120000}") long maximoAtrasoMs) {
+        this.productoRepository = productoRepository;
+        this.habilitado = habilitado;
+        this.maximoAtrasoMs = maximoAtrasoMs;
+
+        // Refrescos y reconstrucción leen lo recién confirmado: transacción nueva y no de solo
+        // lectura (primaria). Una réplica atrasada haría que construidaEnMs subestime la edad real
+        this.lecturaPrimaria = new TransactionTemplate(transactionManager);
+        this.lecturaPrimaria.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Gauge.builder("data.modelo.lectura.edad", this, modelo -> modelo.edadMs() / 1000.0)
+                .description("Antigüedad de la última reconstrucción completa del modelo de lectura")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("data.modelo.lectura.pendientes", this, ModeloLecturaCatalogo::cantidadPendientes)
+                .description("Productos confirmados que todavía no se aplicaron al modelo de lectura")
+                .register(meterRegistry);
+        Gauge.builder("data.modelo.lectura.productos", this,
+                        modelo -> modelo.instantanea != null ? modelo.instantanea.tamanio() : 0)
+                .description("Productos activos en el modelo de lectura")
+                .register(meterRegistry);
+        this.consultasEnMemoria = Counter.builder("data.modelo.lectura.consultas")
+                .description("Consultas de catálogo según dónde se resolvieron")
+                .tag("origen", "memoria")
+                .register(meterRegistry);
+        this.consultasEnBase = Counter.builder("data.modelo.lectura.consultas")
+                .description("Consultas de catálogo según dónde se resolvieron")
+                .tag("origen", "base")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        activo = true;
+        refrescador = new Thread(this::procesarPendientes, "modelo-lectura-refresco");
+        refrescador.setDaemon(true);
+        refrescador.start();
+    }
+
+    @PreDestroy
+    void detener() {
+        activo = false;
+        if (refrescador != null) {
+            refrescador.interrupt();
+            try {
+                refrescador.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // ========== CONSULTAS (vacías si el modelo no está vigente) ==========
+
+    public Optional<List<ProductoResumen>> activos() {
+        return consultar(InstantaneaCatalogo::activos);
+    }
+
+    public Optional<List<ProductoResumen>> porCategoria(String categoriaNombre) {
+        return consultar(i -> i.porCategoria(categoriaNombre));
+    }
+
+    public Optional<List<ProductoResumen>> porRangoPrecio(BigDecimal precioMin, BigDecimal precioMax) {
+        return consultar(i -> i.porRangoPrecio(precioMin, precioMax));
+    }
+
+    public Optional<List<ProductoResumen>> stockBajo() {
+        return consultar(InstantaneaCatalogo::stockBajo);
+    }
+
+    public Optional<List<ProductoResumen>> sinStock() {
+        return consultar(InstantaneaCatalogo::sinStock);
+    }
+
+    /**
+     * Indica si las consultas se están resolviendo en memoria
+     */
+    public boolean isVigente() {
+        return habilitado && instantanea != null && !desactualizada && edadMs() <= maximoAtrasoMs;
+    }
+
+    public long edadMs() {
+        return instantanea != null ? System.currentTimeMillis() - construidaEnMs : 0L;
+    }
+
+    // ========== REGISTRO DE ESCRITURAS (SE APLICAN AL CONFIRMAR) ==========
+
+    /**
+     * Anota un producto modificado; se encola una sola vez al confirmar la transacción
+     */
+    public void registrarProducto(Long productoId) {
+        if (!habilitado || productoId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            encolar(Set.of(productoId));
+            return;
+        }
+        pendientesDeLaTransaccion().add(productoId);
+    }
+
+    /**
+     * Anota los productos de una categoría renombrada
+     */
+    public void registrarCategoria(Long categoriaId) {
+        InstantaneaCatalogo actual = instantanea;
+        if (habilitado && actual != null && categoriaId != null) {
+            actual.idsDeCategoria(categoriaId).forEach(this::registrarProducto);
+        }
+    }
+
+    // ========== CONSTRUCCIÓN ==========
+
+    /**
+     * Construye el modelo desde la base de datos al iniciar
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        reconstruir();
+    }
+
+    /**
+     * Reconstruye la instantánea completa, lo que renueva el límite de atraso
+     */
+    @Scheduled(initialDelayString = "${data.modelo-lectura.reconstruccion-ms:60000}",
+               fixedDelayString = "${data.modelo-lectura.reconstruccion-ms:60000}")
+    public void reconstruir() {
+        if (!habilitado) {
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        synchronized (this) {
+            tocadosDuranteReconstruccion = new HashSet<>();
+        }
+
+        List<ProductoResumen> productos = new ArrayList<>();
+        try {
+            lecturaPrimaria.executeWithoutResult(estado -> {
+                long cursor = 0L;
+                List<ProductoResumen> lote;
+                do {
+                    lote = productoRepository.findActivosPaginado(cursor, Limit.of(TAMANIO_LOTE));
+                    productos.addAll(lote);
+                    cursor = lote.isEmpty() ? cursor : lote.get(lote.size() - 1).getId();
+                } while (lote.size() == TAMANIO_LOTE);
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                tocadosDuranteReconstruccion = null;
+            }
+            logger.error("No se pudo reconstruir el modelo de lectura: {}", e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            InstantaneaCatalogo nueva = InstantaneaCatalogo.construir(productos);
+            Set<Long> tocados = tocadosDuranteReconstruccion;
+            tocadosDuranteReconstruccion = null;
+            // Los refrescos concurrentes pudieron leer datos más nuevos que la carga completa
+            if (!tocados.isEmpty()) {
+                nueva = nueva.aplicar(leer(tocados));
+            }
+            instantanea = nueva;
+            construidaEnMs = inicio;
+            desactualizada = false;
+        }
+        logger.info("Modelo de lectura construido con {} productos en {} ms",
+                productos.size(), System.currentTimeMillis() - inicio);
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private <T> Optional<T> consultar(Function<InstantaneaCatalogo, T> consulta) {
+        InstantaneaCatalogo actual = instantanea;
+        if (!isVigente()) {
+            if (habilitado) {
+                consultasEnBase.increment();
+            }
+            return Optional.empty();
+        }
+        consultasEnMemoria.increment();
+        return Optional.of(consulta.apply(actual));
+    }
+
+    /**
+     * Deja los productos para el hilo de refresco (se ejecuta en el hilo que confirmó)
+     */
+    private void encolar(Collection<Long> productoIds) {
+        synchronized (pendientes) {
+            pendientes.addAll(productoIds);
+            pendientes.notifyAll();
+        }
+    }
+
+    private int cantidadPendientes() {
+        synchronized (pendientes) {
+            return pendientes.size();
+        }
+    }
+
+    /**
+     * Hilo de refresco: toma todos los pendientes de una vez y los aplica en una sola instantánea
+     */
+    private void procesarPendientes() {
+        while (activo) {
+            Set<Long> lote;
+            try {
+                synchronized (pendientes) {
+                    while (pendientes.isEmpty()) {
+                        pendientes.wait();
+                    }
+                    lote = new HashSet<>(pendientes);
+                    pendientes.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                refrescar(lote);
+            } catch (Throwable e) {
+                // El hilo sigue atendiendo; hasta la próxima reconstrucción se consulta la base
+                desactualizada = true;
+                logger.error("Error inesperado al refrescar {} productos del modelo de lectura", lote.size(), e);
+            }
+        }
+    }
+
+    /**
+     * Relee los productos y publica una nueva instantánea
+     *
+     * Solo la llama el hilo de refresco y se serializa con la reconstrucción por el monitor:
+     * un refresco posterior siempre lee un estado igual o más nuevo que el anterior, por lo
+     * que nunca se publica un dato viejo encima de uno nuevo.
+     */
+    private synchronized void refrescar(Collection<Long> productoIds) {
+        // También durante la primera construcción: se releen antes de publicarla
+        if (tocadosDuranteReconstruccion != null) {
+            tocadosDuranteReconstruccion.addAll(productoIds);
+        }
+        if (instantanea == null) {
+            return;
+        }
+        try {
+            instantanea = instantanea.aplicar(leer(productoIds));
+        } catch (RuntimeException e) {
+            desactualizada = true;
+            logger.error("No se pudo refrescar el modelo de lectura; se consultará la base hasta la próxima " +
+                    "reconstrucción: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Estado actual de cada producto (null si ya no está activo)
+     */
+    private Map<Long, ProductoResumen> leer(Collection<Long> productoIds) {
+        Map<Long, ProductoResumen> cambios = new HashMap<>();
+        List<Long> ids = new ArrayList<>(productoIds);
+        lecturaPrimaria.executeWithoutResult(estado -> {
+            for (int desde = 0; desde < ids.size(); desde += TAMANIO_LOTE) {
+                List<Long> tramo = ids.subList(desde, Math.min(desde + TAMANIO_LOTE, ids.size()));
+                tramo.forEach(id -> cambios.put(id, null));
+                productoRepository.findResumenByIdIn(tramo).forEach(resumen -> cambios.put(resumen.getId(), resumen));
+            }
+        });
+        return cambios;
+    }
+
+    private Set<Long> pendientesDeLaTransaccion() {
+        for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+            if (sincronizacion instanceof RefrescoTrasCommit refresco && refresco.modelo() == this) {
+                return refresco.productoIds();
+            }
+        }
+        RefrescoTrasCommit refresco = new RefrescoTrasCommit(this, new HashSet<>());
+        TransactionSynchronizationManager.registerSynchronization(refresco);
+        return refresco.productoIds();
+    }
+
+    /**
+     * Productos modificados por una transacción, encolados para el refresco al confirmar
+     */
+    private record RefrescoTrasCommit(ModeloLecturaCatalogo modelo, Set<Long> productoIds)
+            implements TransactionSynchronization {
+
+        @Override
+        public void afterCommit() {
+            modelo.encolar(productoIds);
+        }
+    }
+}
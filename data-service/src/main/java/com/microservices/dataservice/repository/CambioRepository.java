@@ -0,0 +1,34 @@
+package com.microservices.dataservice.repository;
+
+import com.microservices.dataservice.entity.Cambio;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository para el registro de cambios
+ *
+ * @author Agustin Benavidez
+ */
+@Repository
+public interface CambioRepository extends JpaRepository<Cambio, Long> {
+
+    /**
+     * Obtiene los cambios con ID en el rango (desde, hasta) en orden de ID
+     */
+    @Query("SELECT c FROM Cambio c WHERE c.id > :desde AND c.id < :hasta ORDER BY c.id")
+    List<Cambio> findEntre(@Param("desde") Long desde, @Param("hasta") Long hasta, Limit limit);
+
+    /**
+     * Elimina los cambios anteriores a la fecha indicada
+     */
+    @Modifying
+    @Query("DELETE FROM Cambio c WHERE c.fecha < :fecha")
+    int eliminarAnterioresA(@Param("fecha") LocalDateTime fecha);
+}
@@ -1,8 +1,13 @@
 package com.microservices.dataservice.repository;
 
 import com.microservices.dataservice.entity.Categoria;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -18,14 +23,40 @@ import java.util.Optional;
 public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
 
     /**
-     * Busca una categoría por nombre (case insensitive)
+     * Obtiene todas las categorías (resultado en caché de consultas)
      */
-    Optional<Categoria> findByNombreIgnoreCase(String nombre);
+    @Override
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Categoria.REGION_CACHE_CONSULTAS)
+    })
+    List<Categoria> findAll();
 
     /**
-     * Verifica si existe una categoría con el nombre dado
+     * Busca una categoría por nombre (case insensitive por el índice único de nombre_normalizado,
+     * resultado en caché de consultas)
      */
-    boolean existsByNombreIgnoreCase(String nombre);
+    @Query("SELECT c FROM Categoria c WHERE c.nombreNormalizado = LOWER(:nombre)")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Categoria.REGION_CACHE_CONSULTAS)
+    })
+    Optional<Categoria> findByNombreIgnoreCase(@Param("nombre") String nombre);
+
+    /**
+     * Verifica si existe una categoría con el nombre dado (case insensitive, por índice)
+     */
+    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM Categoria c " +
+           "WHERE c.nombreNormalizado = LOWER(:nombre)")
+    boolean existsByNombreIgnoreCase(@Param("nombre") String nombre);
+
+    /**
+     * Completa el nombre normalizado de las filas que no lo tienen
+     * (necesario al incorporar la columna en una base existente)
+     */
+    @Modifying
+    @Query("UPDATE Categoria c SET c.nombreNormalizado = LOWER(c.nombre) WHERE c.nombreNormalizado IS NULL")
+    int completarNombresNormalizados();
 
     /**
      * Busca categorías que contengan el texto en el nombre o descripción
@@ -79,4 +110,29 @@ public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
            "GROUP BY c " +
            "ORDER BY COUNT(p) DESC")
     List<Categoria> findCategoriasOrdenadaPorCantidadProductos();
+
+    // ========== CONSULTAS PAGINADAS POR CURSOR (KEYSET SOBRE ID) ==========
+
+    /**
+     * Obtiene categorías a partir de un cursor
+     */
+    @Query("SELECT c FROM Categoria c WHERE c.id > :cursor ORDER BY c.id ASC")
+    List<Categoria> findAllPaginado(@Param("cursor") Long cursor, Limit limite);
+
+    /**
+     * Busca categorías que contengan el texto en el nombre o descripción a partir de un cursor
+     */
+    @Query("SELECT c FROM Categoria c WHERE " +
+           "(LOWER(c.nombre) LIKE LOWER(CONCAT('%', :texto, '%')) OR " +
+           "LOWER(c.descripcion) LIKE LOWER(CONCAT('%', :texto, '%'))) " +
+           "AND c.id > :cursor ORDER BY c.id ASC")
+    List<Categoria> buscarPorTextoPaginado(@Param("texto") String texto, @Param("cursor") Long cursor, Limit limite);
+
+    /**
+     * Obtiene categorías con productos activos a partir de un cursor
+     */
+    @Query("SELECT c FROM Categoria c WHERE c.id > :cursor AND EXISTS " +
+           "(SELECT 1 FROM Producto p WHERE p.categoria = c AND p.activo = true) " +
+           "ORDER BY c.id ASC")
+    List<Categoria> findCategoriasConProductosActivosPaginado(@Param("cursor") Long cursor, Limit limite);
 }
@@ -0,0 +1,61 @@
+package com.microservices.dataservice.repository;
+
+import com.microservices.dataservice.entity.InstantaneaStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository para las instantáneas del libro de stock
+ *
+ * @author Agustin Benavidez
+ */
+@Repository
+public interface InstantaneaStockRepository extends JpaRepository<InstantaneaStock, Long> {
+
+    /**
+     * Obtiene el último corte compactado (ID del último movimiento incluido)
+     */
+    @Query("SELECT MAX(s.ultimoMovimientoId) FROM InstantaneaStock s")
+    Long findUltimoCorte();
+
+    /**
+     * Obtiene la fecha del último corte compactado
+     */
+    @Query("SELECT MAX(s.fecha) FROM InstantaneaStock s")
+    LocalDateTime findFechaUltimoCorte();
+
+    /**
+     * Obtiene el último corte cuyos movimientos no superan la fecha indicada
+     */
+    @Query("SELECT MAX(s.ultimoMovimientoId) FROM InstantaneaStock s WHERE s.fecha <= :fecha")
+    Long findCorteHasta(@Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Obtiene la instantánea vigente de un producto en el corte indicado
+     */
+    Optional<InstantaneaStock> findFirstByProductoIdAndUltimoMovimientoIdLessThanEqualOrderByUltimoMovimientoIdDesc(
+            Long productoId, Long corte);
+
+    /**
+     * Obtiene la instantánea vigente de cada producto en el corte indicado
+     */
+    @Query("SELECT s FROM InstantaneaStock s WHERE s.ultimoMovimientoId = " +
+           "(SELECT MAX(s2.ultimoMovimientoId) FROM InstantaneaStock s2 " +
+           " WHERE s2.productoId = s.productoId AND s2.ultimoMovimientoId <= :corte)")
+    List<InstantaneaStock> findVigentesEnCorte(@Param("corte") Long corte);
+
+    /**
+     * Obtiene producto y cantidad de los inventarios sin instantáneas ni movimientos
+     * (creados fuera del servicio o antes de existir el libro)
+     */
+    @Query("SELECT i.producto.id, i.cantidad FROM Inventario i " +
+           "WHERE NOT EXISTS (SELECT s.id FROM InstantaneaStock s WHERE s.productoId = i.producto.id) " +
+           "AND NOT EXISTS (SELECT m.id FROM MovimientoStock m WHERE m.productoId = i.producto.id)")
+    List<Object[]> findInventariosSinHistorial();
+}
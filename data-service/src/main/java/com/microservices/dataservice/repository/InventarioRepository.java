@@ -1,15 +1,23 @@
 package com.microservices.dataservice.repository;
 
 import com.microservices.dataservice.entity.Inventario;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository para la entidad Inventario
@@ -19,17 +27,65 @@ import java.util.Optional;
 @Repository
 public interface InventarioRepository extends JpaRepository<Inventario, Long> {
 
+    /** Prefijo de los literales de Inventario.EstadoStock en JPQL */
+    String ESTADO = "com.microservices.dataservice.entity.Inventario.EstadoStock.";
+
+    /** Estados que cuentan como stock bajo (incluye crítico y sin stock) */
+    String ESTADOS_BAJO = "(" + ESTADO + "BAJO, " + ESTADO + "CRITICO, " + ESTADO + "SIN_STOCK)";
+
+    /** Estados que cuentan como stock crítico (incluye sin stock) */
+    String ESTADOS_CRITICO = "(" + ESTADO + "CRITICO, " + ESTADO + "SIN_STOCK)";
+
+    /**
+     * Estado de stock calculado en la base (misma regla que Inventario.EstadoStock.de).
+     * En los UPDATE se asigna (junto con el valor) antes que la cantidad y a partir de la cantidad resultante,
+     * porque MySQL evalúa las asignaciones en orden con los valores ya modificados.
+     */
+    String ESTADO_CALCULADO = "CASE WHEN i.cantidad = 0 THEN " + ESTADO + "SIN_STOCK " +
+            "WHEN i.cantidad * 2 <= i.stockMinimo THEN " + ESTADO + "CRITICO " +
+            "WHEN i.cantidad <= i.stockMinimo THEN " + ESTADO + "BAJO " +
+            "ELSE " + ESTADO + "OK END";
+
+    /** Precio actual del producto de un inventario (subconsulta para los UPDATE) */
+    String PRECIO_PRODUCTO = "(SELECT p.precio FROM Producto p WHERE p.id = i.producto.id)";
+
+    // Variantes con la cantidad resultante de cada UPDATE
+    String ESTADO_TRAS_ASIGNAR = "CASE WHEN :cantidad = 0 THEN " + ESTADO + "SIN_STOCK " +
+            "WHEN :cantidad * 2 <= i.stockMinimo THEN " + ESTADO + "CRITICO " +
+            "WHEN :cantidad <= i.stockMinimo THEN " + ESTADO + "BAJO " +
+            "ELSE " + ESTADO + "OK END";
+
+    String ESTADO_TRAS_INCREMENTO = "CASE WHEN (i.cantidad + :incremento) = 0 THEN " + ESTADO + "SIN_STOCK " +
+            "WHEN (i.cantidad + :incremento) * 2 <= i.stockMinimo THEN " + ESTADO + "CRITICO " +
+            "WHEN (i.cantidad + :incremento) <= i.stockMinimo THEN " + ESTADO + "BAJO " +
+            "ELSE " + ESTADO + "OK END";
+
+    String ESTADO_TRAS_DECREMENTO = "CASE WHEN (i.cantidad - :decremento) = 0 THEN " + ESTADO + "SIN_STOCK " +
+            "WHEN (i.cantidad - :decremento) * 2 <= i.stockMinimo THEN " + ESTADO + "CRITICO " +
+            "WHEN (i.cantidad - :decremento) <= i.stockMinimo THEN " + ESTADO + "BAJO " +
+            "ELSE " + ESTADO + "OK END";
+
     /**
      * Busca inventario por producto ID
      */
-    Optional<Inventario> findByProductoId(Long productoId);
+    @Query("SELECT i FROM Inventario i JOIN FETCH i.producto WHERE i.producto.id = :productoId")
+    Optional<Inventario> findByProductoId(@Param("productoId") Long productoId);
+
+    /**
+     * Bloquea para escritura los inventarios de los productos indicados, en orden de producto ID
+     *
+     * Tomar los bloqueos siempre en el mismo orden evita deadlocks entre reservas concurrentes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventario i JOIN FETCH i.producto p WHERE p.id IN :productoIds ORDER BY p.id ASC")
+    List<Inventario> findByProductoIdInParaActualizar(@Param("productoIds") Collection<Long> productoIds);
 
     /**
      * Busca inventarios con stock bajo
      */
     @Query("SELECT i FROM Inventario i " +
            "INNER JOIN i.producto p " +
-           "WHERE i.cantidad <= i.stockMinimo AND p.activo = true " +
+           "WHERE i.estadoStock IN " + ESTADOS_BAJO + " AND p.activo = true " +
            "ORDER BY i.cantidad ASC")
     List<Inventario> findInventariosConStockBajo();
 
@@ -38,7 +94,7 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
      */
     @Query("SELECT i FROM Inventario i " +
            "INNER JOIN i.producto p " +
-           "WHERE i.cantidad <= (i.stockMinimo * 0.5) AND p.activo = true " +
+           "WHERE i.estadoStock IN " + ESTADOS_CRITICO + " AND p.activo = true " +
            "ORDER BY i.cantidad ASC")
     List<Inventario> findInventariosConStockCritico();
 
@@ -47,7 +103,7 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
      */
     @Query("SELECT i FROM Inventario i " +
            "INNER JOIN i.producto p " +
-           "WHERE i.cantidad = 0 AND p.activo = true")
+           "WHERE i.estadoStock = " + ESTADO + "SIN_STOCK AND p.activo = true")
     List<Inventario> findInventariosSinStock();
 
     /**
@@ -71,7 +127,9 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
      * Actualiza la cantidad de un inventario
      */
     @Modifying
-    @Query("UPDATE Inventario i SET i.cantidad = :cantidad, i.fechaUltimaActualizacion = :fecha " +
+    @Query("UPDATE Inventario i SET i.estadoStock = " + ESTADO_TRAS_ASIGNAR + ", " +
+           "i.valorInventario = i.precioUnitario * :cantidad, " +
+           "i.cantidad = :cantidad, i.fechaUltimaActualizacion = :fecha " +
            "WHERE i.producto.id = :productoId")
     int actualizarCantidadPorProductoId(@Param("productoId") Long productoId, 
                                        @Param("cantidad") Integer cantidad,
@@ -81,20 +139,53 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
      * Incrementa el stock de un producto
      */
     @Modifying
-    @Query("UPDATE Inventario i SET i.cantidad = i.cantidad + :incremento, " +
+    @Query("UPDATE Inventario i SET i.estadoStock = " + ESTADO_TRAS_INCREMENTO + ", " +
+           "i.valorInventario = i.precioUnitario * (i.cantidad + :incremento), " +
+           "i.cantidad = i.cantidad + :incremento, " +
            "i.fechaUltimaActualizacion = CURRENT_TIMESTAMP " +
            "WHERE i.producto.id = :productoId")
     int incrementarStock(@Param("productoId") Long productoId, @Param("incremento") Integer incremento);
 
     /**
      * Decrementa el stock de un producto (solo si hay suficiente stock)
+     *
+     * Incrementa la versión para que las escrituras optimistas concurrentes detecten
+     * el cambio. No limpia el contexto de persistencia: quien lo llama refresca solo
+     * el inventario afectado.
      */
-    @Modifying
-    @Query("UPDATE Inventario i SET i.cantidad = i.cantidad - :decremento, " +
-           "i.fechaUltimaActualizacion = CURRENT_TIMESTAMP " +
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventario i SET i.estadoStock = " + ESTADO_TRAS_DECREMENTO + ", " +
+           "i.valorInventario = i.precioUnitario * (i.cantidad - :decremento), " +
+           "i.cantidad = i.cantidad - :decremento, " +
+           "i.fechaUltimaActualizacion = CURRENT_TIMESTAMP, i.version = i.version + 1 " +
            "WHERE i.producto.id = :productoId AND i.cantidad >= :decremento")
     int decrementarStock(@Param("productoId") Long productoId, @Param("decremento") Integer decremento);
 
+    /**
+     * Recalcula el estado de stock de las filas que no coinciden con su cantidad y mínimo
+     * (necesario al incorporar la columna en una base existente)
+     */
+    @Modifying
+    @Query("UPDATE Inventario i SET i.estadoStock = " + ESTADO_CALCULADO + " " +
+           "WHERE i.estadoStock <> " + ESTADO_CALCULADO)
+    int recalcularEstadosStock();
+
+    /**
+     * Copia el precio vigente de cada producto en su inventario cuando no coincide
+     */
+    @Modifying
+    @Query("UPDATE Inventario i SET i.precioUnitario = " + PRECIO_PRODUCTO + " " +
+           "WHERE i.precioUnitario IS NULL OR i.precioUnitario <> " + PRECIO_PRODUCTO)
+    int recalcularPreciosUnitarios();
+
+    /**
+     * Recalcula el valor (precio unitario por cantidad) de las filas que no coinciden
+     */
+    @Modifying
+    @Query("UPDATE Inventario i SET i.valorInventario = i.precioUnitario * i.cantidad " +
+           "WHERE i.valorInventario IS NULL OR i.valorInventario <> i.precioUnitario * i.cantidad")
+    int recalcularValoresInventario();
+
     /**
      * Obtiene estadísticas de inventario
      */
@@ -110,6 +201,14 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
            "INNER JOIN i.producto p WHERE p.activo = true")
     Object obtenerValorTotalInventario();
 
+    /**
+     * Resume el inventario por estado de stock: productos, cantidad total y valor total
+     */
+    @Query("SELECT i.estadoStock, COUNT(i), SUM(i.cantidad), SUM(p.precio * i.cantidad) " +
+           "FROM Inventario i INNER JOIN i.producto p WHERE p.activo = true " +
+           "GROUP BY i.estadoStock")
+    List<Object[]> resumirPorEstado();
+
     /**
      * Busca inventarios actualizados recientemente
      */
@@ -124,7 +223,7 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
      */
     @Query("SELECT p.categoria.nombre, COUNT(i) FROM Inventario i " +
            "INNER JOIN i.producto p " +
-           "WHERE i.cantidad <= i.stockMinimo AND p.activo = true " +
+           "WHERE i.estadoStock IN " + ESTADOS_BAJO + " AND p.activo = true " +
            "GROUP BY p.categoria.nombre " +
            "ORDER BY COUNT(i) DESC")
     List<Object[]> contarStockBajoPorCategoria();
@@ -145,4 +244,83 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
     @Query("SELECT CASE WHEN i.cantidad >= :cantidadRequerida THEN true ELSE false END " +
            "FROM Inventario i WHERE i.producto.id = :productoId")
     boolean tieneSuficienteStock(@Param("productoId") Long productoId, @Param("cantidadRequerida") Integer cantidadRequerida);
+
+    /**
+     * Recorre todo el inventario con un cursor del lado de la base de datos
+     * (debe consumirse dentro de una transacción y cerrarse al terminar)
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Inventario i " +
+           "INNER JOIN FETCH i.producto p " +
+           "INNER JOIN FETCH p.categoria " +
+           "ORDER BY i.id ASC")
+    Stream<Inventario> streamTodosConProducto();
+
+    // ========== CONSULTAS PAGINADAS POR CURSOR (KEYSET SOBRE ID) ==========
+
+    /**
+     * Obtiene inventarios a partir de un cursor
+     */
+    @Query("SELECT i FROM Inventario i WHERE i.id > :cursor ORDER BY i.id ASC")
+    List<Inventario> findAllPaginado(@Param("cursor") Long cursor, Limit limite);
+
+    /**
+     * Busca inventarios con stock bajo a partir de un cursor
+     */
+    @Query("SELECT i FROM Inventario i " +
+           "INNER JOIN i.producto p " +
+           "WHERE i.estadoStock IN " + ESTADOS_BAJO + " AND p.activo = true AND i.id > :cursor " +
+           "ORDER BY i.id ASC")
+    List<Inventario> findInventariosConStockBajoPaginado(@Param("cursor") Long cursor, Limit limite);
+
+    /**
+     * Busca inventarios con stock crítico a partir de un cursor
+     */
+    @Query("SELECT i FROM Inventario i " +
+           "INNER JOIN i.producto p " +
+           "WHERE i.estadoStock IN " + ESTADOS_CRITICO + " AND p.activo = true AND i.id > :cursor " +
+           "ORDER BY i.id ASC")
+    List<Inventario> findInventariosConStockCriticoPaginado(@Param("cursor") Long cursor, Limit limite);
+
+    /**
+     * Busca inventarios sin stock a partir de un cursor
+     */
+    @Query("SELECT i FROM Inventario i " +
+           "INNER JOIN i.producto p " +
+           "WHERE i.estadoStock = " + ESTADO + "SIN_STOCK AND p.activo = true AND i.id > :cursor " +
+           "ORDER BY i.id ASC")
+    List<Inventario> findInventariosSinStockPaginado(@Param("cursor") Long cursor, Limit limite);
+
+    /**
+     * Busca inventarios por categoría a partir de un cursor
+     */
+    @Query("SELECT i FROM Inventario i " +
+           "INNER JOIN i.producto p " +
+           "WHERE p.categoria.nombre = :categoriaNombre AND p.activo = true AND i.id > :cursor " +
+           "ORDER BY i.id ASC")
+    List<Inventario> findByCategoriaPaginado(@Param("categoriaNombre") String categoriaNombre,
+                                             @Param("cursor") Long cursor, Limit limite);
+
+    /**
+     * Busca inventarios que necesitan reabastecimiento urgente a partir de un cursor
+     */
+    @Query("SELECT i FROM Inventario i " +
+           "INNER JOIN i.producto p " +
+           "WHERE (i.cantidad = 0 OR i.cantidad <= (i.stockMinimo * 0.2)) " +
+           "AND p.activo = true AND i.id > :cursor " +
+           "ORDER BY i.id ASC")
+    List<Inventario> findInventariosParaReabastecimientoPaginado(@Param("cursor") Long cursor, Limit limite);
+
+    /**
+     * Busca inventarios actualizados desde una fecha a partir de un cursor
+     */
+    @Query("SELECT i FROM Inventario i " +
+           "INNER JOIN i.producto p " +
+           "WHERE i.fechaUltimaActualizacion >= :fecha AND p.activo = true AND i.id > :cursor " +
+           "ORDER BY i.id ASC")
+    List<Inventario> findInventariosActualizadosDesdePaginado(@Param("fecha") LocalDateTime fecha,
+                                                              @Param("cursor") Long cursor, Limit limite);
 }
@@ -0,0 +1,64 @@
+package com.microservices.dataservice.repository;
+
+import com.microservices.dataservice.entity.MovimientoStock;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository para el libro de movimientos de stock
+ *
+ * @author Agustin Benavidez
+ */
+@Repository
+public interface MovimientoStockRepository extends JpaRepository<MovimientoStock, Long> {
+
+    /**
+     * Obtiene los movimientos de un producto posteriores al cursor en orden de ID
+     */
+    @Query("SELECT m FROM MovimientoStock m WHERE m.productoId = :productoId AND m.id > :cursor ORDER BY m.id")
+    List<MovimientoStock> findByProductoIdPaginado(@Param("productoId") Long productoId,
+                                                   @Param("cursor") Long cursor, Limit limit);
+
+    /**
+     * Obtiene el mayor ID de los movimientos con fecha anterior a la indicada
+     */
+    @Query("SELECT MAX(m.id) FROM MovimientoStock m WHERE m.fecha < :fecha")
+    Long findUltimoIdAnteriorA(@Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Obtiene la fecha más reciente de los movimientos con ID en (desde, hasta]
+     */
+    @Query("SELECT MAX(m.fecha) FROM MovimientoStock m WHERE m.id > :desde AND m.id <= :hasta")
+    LocalDateTime findUltimaFechaEntre(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    /**
+     * Obtiene producto y cantidad resultante del último movimiento de cada producto con ID en (desde, hasta]
+     */
+    @Query("SELECT m.productoId, m.cantidadResultante FROM MovimientoStock m WHERE m.id IN " +
+           "(SELECT MAX(m2.id) FROM MovimientoStock m2 WHERE m2.id > :desde AND m2.id <= :hasta " +
+           " GROUP BY m2.productoId)")
+    List<Object[]> findCantidadesAlCorte(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    /**
+     * Suma los movimientos de un producto posteriores al corte y hasta la fecha (null si no hay)
+     */
+    @Query("SELECT SUM(m.delta) FROM MovimientoStock m " +
+           "WHERE m.productoId = :productoId AND m.id > :corte AND m.fecha <= :fecha")
+    Long sumarDesdeCorte(@Param("productoId") Long productoId, @Param("corte") Long corte,
+                         @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Obtiene ID, producto y diferencia de los movimientos posteriores al cursor y hasta la
+     * fecha (reconstrucción del stock de todos los productos; el cursor empieza en el corte)
+     */
+    @Query("SELECT m.id, m.productoId, m.delta FROM MovimientoStock m " +
+           "WHERE m.id > :cursor AND m.fecha <= :fecha ORDER BY m.id")
+    List<Object[]> findDeltasDesdeCorte(@Param("cursor") Long cursor, @Param("fecha") LocalDateTime fecha,
+                                        Limit limit);
+}
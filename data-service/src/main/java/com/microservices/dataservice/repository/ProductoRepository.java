@@ -1,12 +1,16 @@
 package com.microservices.dataservice.repository;
 
+import com.microservices.dataservice.dto.ProductoResumen;
 import com.microservices.dataservice.entity.Producto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +22,16 @@ import java.util.Optional;
 @Repository
 public interface ProductoRepository extends JpaRepository<Producto, Long> {
 
+    /**
+     * Proyección de producto con categoría e inventario resuelta en una sola consulta
+     */
+    String SELECT_RESUMEN = "SELECT new com.microservices.dataservice.dto.ProductoResumen(" +
+           "p.id, p.nombre, p.descripcion, p.precio, c.id, c.nombre, " +
+           "i.cantidad, i.stockMinimo, p.activo, p.fechaCreacion, p.fechaActualizacion) " +
+           "FROM Producto p " +
+           "INNER JOIN p.categoria c " +
+           "LEFT JOIN p.inventario i ";
+
     /**
      * Busca productos por nombre de categoría
      */
@@ -25,9 +39,9 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
     List<Producto> findByCategoriaNombre(@Param("categoriaNombre") String categoriaNombre);
 
     /**
-     * Busca productos por nombre de categoría (case insensitive)
+     * Busca productos por nombre de categoría (case insensitive, por el nombre normalizado)
      */
-    @Query("SELECT p FROM Producto p WHERE LOWER(p.categoria.nombre) = LOWER(:categoriaNombre) AND p.activo = true")
+    @Query("SELECT p FROM Producto p WHERE p.categoria.nombreNormalizado = LOWER(:categoriaNombre) AND p.activo = true")
     List<Producto> findByCategoriaNombreIgnoreCase(@Param("categoriaNombre") String categoriaNombre);
 
     /**
@@ -35,12 +49,6 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
      */
     List<Producto> findByActivoTrue();
 
-    /**
-     * Busca productos por rango de precios
-     */
-    @Query("SELECT p FROM Producto p WHERE p.precio BETWEEN :precioMin AND :precioMax AND p.activo = true ORDER BY p.precio")
-    List<Producto> findByPrecioBetween(@Param("precioMin") BigDecimal precioMin, @Param("precioMax") BigDecimal precioMax);
-
     /**
      * Busca productos que contengan el texto en nombre o descripción
      */
@@ -55,7 +63,7 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
      */
     @Query("SELECT p FROM Producto p " +
            "INNER JOIN p.inventario i " +
-           "WHERE i.cantidad <= i.stockMinimo AND p.activo = true " +
+           "WHERE i.estadoStock IN " + InventarioRepository.ESTADOS_BAJO + " AND p.activo = true " +
            "ORDER BY i.cantidad ASC")
     List<Producto> findProductosConStockBajo();
 
@@ -64,21 +72,9 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
      */
     @Query("SELECT p FROM Producto p " +
            "INNER JOIN p.inventario i " +
-           "WHERE i.cantidad = 0 AND p.activo = true")
+           "WHERE i.estadoStock = " + InventarioRepository.ESTADO + "SIN_STOCK AND p.activo = true")
     List<Producto> findProductosSinStock();
 
-    /**
-     * Busca productos más caros
-     */
-    @Query("SELECT p FROM Producto p WHERE p.activo = true ORDER BY p.precio DESC")
-    List<Producto> findProductosOrdenadosPorPrecioDesc();
-
-    /**
-     * Busca productos más baratos
-     */
-    @Query("SELECT p FROM Producto p WHERE p.activo = true ORDER BY p.precio ASC")
-    List<Producto> findProductosOrdenadosPorPrecioAsc();
-
     /**
      * Busca productos por categoría ID
      */
@@ -92,42 +88,47 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
     long countByCategoriaId(@Param("categoriaId") Long categoriaId);
 
     /**
-     * Obtiene el valor total del inventario por producto
+     * Obtiene el valor del inventario por producto, de mayor a menor
+     * (recorre el índice sobre el valor persistido; con un límite lee solo las primeras filas)
      */
-    @Query("SELECT p.id, p.nombre, p.precio, i.cantidad, (p.precio * i.cantidad) as valorTotal " +
+    @Query("SELECT p.id, p.nombre, p.precio, i.cantidad, i.valorInventario " +
            "FROM Producto p " +
            "INNER JOIN p.inventario i " +
            "WHERE p.activo = true " +
-           "ORDER BY valorTotal DESC")
-    List<Object[]> obtenerValorInventarioPorProducto();
+           "ORDER BY i.valorInventario DESC, i.id ASC")
+    List<Object[]> obtenerValorInventarioPorProducto(Limit limite);
 
     /**
      * Busca productos con inventario crítico (menos del 50% del stock mínimo)
      */
     @Query("SELECT p FROM Producto p " +
            "INNER JOIN p.inventario i " +
-           "WHERE i.cantidad <= (i.stockMinimo * 0.5) AND p.activo = true " +
+           "WHERE i.estadoStock IN " + InventarioRepository.ESTADOS_CRITICO + " AND p.activo = true " +
            "ORDER BY i.cantidad ASC")
     List<Producto> findProductosConStockCritico();
 
     /**
-     * Busca productos por precio mayor a
+     * Verifica si existe un producto con el nombre dado (excluyendo el ID actual)
+     * (búsqueda sobre el índice único de nombre_normalizado: la minúscula se aplica al parámetro)
      */
-    @Query("SELECT p FROM Producto p WHERE p.precio > :precio AND p.activo = true ORDER BY p.precio ASC")
-    List<Producto> findByPrecioGreaterThan(@Param("precio") BigDecimal precio);
+    @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END FROM Producto p " +
+           "WHERE p.nombreNormalizado = LOWER(:nombre) AND (:id IS NULL OR p.id != :id)")
+    boolean existsByNombreIgnoreCaseAndIdNot(@Param("nombre") String nombre, @Param("id") Long id);
 
     /**
-     * Busca productos por precio menor a
+     * Obtiene, normalizados, cuáles de los nombres dados ya están en uso
+     * @param nombres nombres normalizados (ver {@link Producto#normalizarNombre})
      */
-    @Query("SELECT p FROM Producto p WHERE p.precio < :precio AND p.activo = true ORDER BY p.precio DESC")
-    List<Producto> findByPrecioLessThan(@Param("precio") BigDecimal precio);
+    @Query("SELECT p.nombreNormalizado FROM Producto p WHERE p.nombreNormalizado IN :nombres")
+    List<String> findNombresExistentes(@Param("nombres") Collection<String> nombres);
 
     /**
-     * Verifica si existe un producto con el nombre dado (excluyendo el ID actual)
+     * Completa el nombre normalizado de las filas que no lo tienen
+     * (necesario al incorporar la columna en una base existente)
      */
-    @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END FROM Producto p " +
-           "WHERE LOWER(p.nombre) = LOWER(:nombre) AND (:id IS NULL OR p.id != :id)")
-    boolean existsByNombreIgnoreCaseAndIdNot(@Param("nombre") String nombre, @Param("id") Long id);
+    @Modifying
+    @Query("UPDATE Producto p SET p.nombreNormalizado = LOWER(p.nombre) WHERE p.nombreNormalizado IS NULL")
+    int completarNombresNormalizados();
 
     /**
      * Busca productos creados recientemente (últimos N días)
@@ -137,4 +138,159 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
            "AND p.activo = true " +
            "ORDER BY p.fechaCreacion DESC")
     List<Producto> findProductosRecientes(@Param("dias") int dias);
+
+    /**
+     * Cuenta productos activos
+     */
+    long countByActivoTrue();
+
+    // ========== PROYECCIONES DE LECTURA (SIN N+1) ==========
+
+    /**
+     * Obtiene el resumen de los productos activos
+     */
+    @Query(SELECT_RESUMEN + "WHERE p.activo = true ORDER BY p.id ASC")
+    List<ProductoResumen> findResumenActivos();
+
+    /**
+     * Obtiene el resumen de productos por nombre de categoría (case insensitive)
+     */
+    @Query(SELECT_RESUMEN + "WHERE c.nombreNormalizado = LOWER(:categoriaNombre) AND p.activo = true")
+    List<ProductoResumen> findResumenByCategoriaNombreIgnoreCase(@Param("categoriaNombre") String categoriaNombre);
+
+    /**
+     * Obtiene el resumen de los productos activos con los IDs indicados (orden no garantizado)
+     */
+    @Query(SELECT_RESUMEN + "WHERE p.id IN :ids AND p.activo = true")
+    List<ProductoResumen> findResumenByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Obtiene el resumen de los productos con los IDs indicados, activos o no (orden no garantizado)
+     */
+    @Query(SELECT_RESUMEN + "WHERE p.id IN :ids")
+    List<ProductoResumen> findResumenPorIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Obtiene el resumen de productos por rango de precios
+     */
+    @Query(SELECT_RESUMEN + "WHERE p.precio BETWEEN :precioMin AND :precioMax AND p.activo = true ORDER BY p.precio")
+    List<ProductoResumen> findResumenByPrecioBetween(@Param("precioMin") BigDecimal precioMin,
+                                                     @Param("precioMax") BigDecimal precioMax);
+
+    /**
+     * Obtiene el resumen de productos con stock bajo
+     */
+    @Query(SELECT_RESUMEN + "WHERE i.estadoStock IN " + InventarioRepository.ESTADOS_BAJO +
+           " AND p.activo = true ORDER BY i.cantidad ASC")
+    List<ProductoResumen> findResumenConStockBajo();
+
+    /**
+     * Obtiene el resumen de productos sin stock
+     */
+    @Query(SELECT_RESUMEN + "WHERE i.estadoStock = " + InventarioRepository.ESTADO + "SIN_STOCK AND p.activo = true")
+    List<ProductoResumen> findResumenSinStock();
+
+    // ========== CONSULTAS PAGINADAS POR CURSOR (KEYSET SOBRE ID) ==========
+
+    /**
+     * Busca productos activos a partir de un cursor
+     */
+    @Query(SELECT_RESUMEN + "WHERE p.activo = true AND p.id > :cursor ORDER BY p.id ASC")
+    List<ProductoResumen> findActivosPaginado(@Param("cursor") Long cursor, Limit limite);
+
+    /**
+     * Busca productos por nombre de categoría (case insensitive) a partir de un cursor
+     */
+    @Query(SELECT_RESUMEN + "WHERE c.nombreNormalizado = LOWER(:categoriaNombre) " +
+           "AND p.activo = true AND p.id > :cursor ORDER BY p.id ASC")
+    List<ProductoResumen> findByCategoriaNombreIgnoreCasePaginado(@Param("categoriaNombre") String categoriaNombre,
+                                                                  @Param("cursor") Long cursor, Limit limite);
+
+    /**
+     * Obtiene ID, nombre y descripción de productos activos a partir de un cursor (carga del índice de búsqueda)
+     */
+    @Query("SELECT p.id, p.nombre, p.descripcion FROM Producto p WHERE p.activo = true AND p.id > :cursor " +
+           "ORDER BY p.id ASC")
+    List<Object[]> findTextoIndexablePaginado(@Param("cursor") Long cursor, Limit limite);
+
+    /**
+     * Obtiene ID, precio y categoría de productos activos a partir de un cursor (carga del índice de precios)
+     */
+    @Query("SELECT p.id, p.precio, p.categoria.id FROM Producto p WHERE p.activo = true AND p.id > :cursor " +
+           "ORDER BY p.id ASC")
+    List<Object[]> findPrecioIndexablePaginado(@Param("cursor") Long cursor, Limit limite);
+
+    /**
+     * Obtiene ID y nombre normalizado de todos los productos a partir de un cursor (carga del filtro de nombres)
+     */
+    @Query("SELECT p.id, COALESCE(p.nombreNormalizado, LOWER(p.nombre)) FROM Producto p WHERE p.id > :cursor " +
+           "ORDER BY p.id ASC")
+    List<Object[]> findNombresNormalizadosPaginado(@Param("cursor") Long cursor, Limit limite);
+
+    /**
+     * Obtiene el aporte de cada producto a los agregados de inventario a partir de un cursor
+     */
+    @Query("SELECT p.id, p.precio, p.activo, c.id, c.nombre, i.cantidad, i.stockMinimo, i.version " +
+           "FROM Producto p INNER JOIN p.categoria c LEFT JOIN p.inventario i " +
+           "WHERE p.id > :cursor ORDER BY p.id ASC")
+    List<Object[]> findAporteAgregadosPaginado(@Param("cursor") Long cursor, Limit limite);
+
+    /**
+     * Obtiene el aporte a los agregados de inventario de los productos indicados
+     */
+    @Query("SELECT p.id, p.precio, p.activo, c.id, c.nombre, i.cantidad, i.stockMinimo, i.version " +
+           "FROM Producto p INNER JOIN p.categoria c LEFT JOIN p.inventario i " +
+           "WHERE p.id IN :productoIds")
+    List<Object[]> findAporteAgregadosPorIds(@Param("productoIds") Collection<Long> productoIds);
+
+    /**
+     * Busca productos por rango de precios a partir de un cursor
+     */
+    @Query(SELECT_RESUMEN + "WHERE p.precio BETWEEN :precioMin AND :precioMax " +
+           "AND p.activo = true AND p.id > :cursor ORDER BY p.id ASC")
+    List<ProductoResumen> findByPrecioBetweenPaginado(@Param("precioMin") BigDecimal precioMin,
+                                                      @Param("precioMax") BigDecimal precioMax,
+                                                      @Param("cursor") Long cursor, Limit limite);
+
+    /**
+     * Busca productos por rango de precios (límites opcionales) en orden de precio ascendente a partir de una posición
+     */
+    @Query(SELECT_RESUMEN + "WHERE p.activo = true " +
+           "AND (:precioMin IS NULL OR p.precio >= :precioMin) AND (:precioMax IS NULL OR p.precio <= :precioMax) " +
+           "ORDER BY p.precio ASC, p.id ASC LIMIT :limite OFFSET :desde")
+    List<ProductoResumen> findByPrecioOrdenadoAsc(@Param("precioMin") BigDecimal precioMin,
+                                                  @Param("precioMax") BigDecimal precioMax,
+                                                  @Param("desde") int desde, @Param("limite") int limite);
+
+    /**
+     * Busca productos por rango de precios (límites opcionales) en orden de precio descendente a partir de una posición
+     */
+    @Query(SELECT_RESUMEN + "WHERE p.activo = true " +
+           "AND (:precioMin IS NULL OR p.precio >= :precioMin) AND (:precioMax IS NULL OR p.precio <= :precioMax) " +
+           "ORDER BY p.precio DESC, p.id DESC LIMIT :limite OFFSET :desde")
+    List<ProductoResumen> findByPrecioOrdenadoDesc(@Param("precioMin") BigDecimal precioMin,
+                                                   @Param("precioMax") BigDecimal precioMax,
+                                                   @Param("desde") int desde, @Param("limite") int limite);
+
+    /**
+     * Obtiene los productos activos más baratos de una categoría
+     */
+    @Query(SELECT_RESUMEN + "WHERE c.id = :categoriaId AND p.activo = true ORDER BY p.precio ASC, p.id ASC")
+    List<ProductoResumen> findMasBaratosDeCategoria(@Param("categoriaId") Long categoriaId, Limit limite);
+
+    /**
+     * Busca productos con stock bajo a partir de un cursor
+     */
+    @Query(SELECT_RESUMEN + "WHERE i.estadoStock IN " + InventarioRepository.ESTADOS_BAJO +
+           " AND p.activo = true AND p.id > :cursor " +
+           "ORDER BY p.id ASC")
+    List<ProductoResumen> findProductosConStockBajoPaginado(@Param("cursor") Long cursor, Limit limite);
+
+    /**
+     * Busca productos sin stock a partir de un cursor
+     */
+    @Query(SELECT_RESUMEN + "WHERE i.estadoStock = " + InventarioRepository.ESTADO +
+           "SIN_STOCK AND p.activo = true AND p.id > :cursor " +
+           "ORDER BY p.id ASC")
+    List<ProductoResumen> findProductosSinStockPaginado(@Param("cursor") Long cursor, Limit limite);
 }
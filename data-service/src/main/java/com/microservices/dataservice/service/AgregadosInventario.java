@@ -0,0 +1,433 @@
+package com.microservices.dataservice.service;
+
+import com.microservices.dataservice.entity.Categoria;
+import com.microservices.dataservice.entity.Inventario;
+import com.microservices.dataservice.entity.Producto;
+import com.microservices.dataservice.repository.ProductoRepository;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Agregados de inventario mantenidos de forma incremental
+ *
+ * Guarda el aporte de cada producto (cantidad, stock mínimo, precio, categoría,
+ * activo) y ajusta los totales por diferencia cuando ese aporte cambia, de modo
+ * que estadísticas, valor total y stock bajo por categoría se leen en O(1).
+ * Los cambios se aplican al confirmar la transacción que los produjo; un job
+ * periódico compara el aporte de cada producto con la primaria y corrige los que
+ * difieren, omitiendo los que cambian durante la comparación. Los productos que cambian
+ * mientras se reconstruye se vuelven a leer antes de publicar los agregados nuevos.
+ *
+ * @author Agustin Benavidez
+ */
+@Component
+public class AgregadosInventario {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgregadosInventario.class);
+
+    private static final int TAMANIO_LOTE = 1000;
+
+    private final ProductoRepository productoRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Estado por producto y nombres de categoría
+    private Map<Long, Aporte> aportes = new HashMap<>();
+    private Map<Long, String> nombresCategoria = new HashMap<>();
+
+    // Totales sobre productos activos con inventario
+    private long totalProductos;
+    private long cantidadTotal;
+    private long productosConStockBajo;
+    private BigDecimal valorTotal = BigDecimal.ZERO;
+    private Map<Long, Long> stockBajoPorCategoria = new HashMap<>();
+
+    // Productos cambiados durante una reconstrucción o reconciliación en curso (null si no hay ninguna)
+    private Set<Long> tocadosDuranteRecorrido;
+
+    // Una sola reconstrucción o reconciliación a la vez (no bloquea a los escritores)
+    private final Object recorrido = new Object();
+
+    private volatile boolean disponible;
+    private volatile LocalDateTime ultimaReconciliacion;
+
+    /**
+     * Aporte de un producto a los agregados
+     */
+    private record Aporte(Integer cantidad, Integer stockMinimo, Long version,
+                          BigDecimal precio, Long categoriaId, Boolean activo) {
+
+        boolean cuenta() {
+            return cantidad != null && precio != null && Boolean.TRUE.equals(activo);
+        }
+
+        boolean stockBajo() {
+            return stockMinimo != null && cantidad <= stockMinimo;
+        }
+    }
+
+    @Autowired
+    public AgregadosInventario(ProductoRepository productoRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.productoRepository = productoRepository;
+        // Se lee de la primaria: una réplica atrasada pisaría los agregados en memoria con datos viejos
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isDisponible() {
+        return disponible;
+    }
+
+    public LocalDateTime getUltimaReconciliacion() {
+        return ultimaReconciliacion;
+    }
+
+    // ========== REGISTRO DE CAMBIOS (SE APLICAN AL CONFIRMAR) ==========
+
+    /**
+     * Registra el estado de un inventario; los valores se leen tras el commit
+     */
+    public void registrarInventario(Inventario inventario) {
+        Long productoId = inventario.getProductoId();
+        trasCommit(() -> aplicarInventario(productoId, inventario.getCantidad(),
+                inventario.getStockMinimo(), inventario.getVersion()));
+    }
+
+    /**
+     * Registra la eliminación del inventario de un producto
+     */
+    public void registrarInventarioEliminado(Long productoId) {
+        trasCommit(() -> aplicarInventario(productoId, null, null, null));
+    }
+
+    /**
+     * Registra precio, categoría y estado de un producto; los valores se leen tras el commit
+     */
+    public void registrarProducto(Producto producto) {
+        Long productoId = producto.getId();
+        trasCommit(() -> {
+            Categoria categoria = producto.getCategoria();
+            if (categoria != null && Hibernate.isInitialized(categoria)) {
+                registrarNombreCategoria(categoria.getId(), categoria.getNombre());
+            }
+            aplicarProducto(productoId, producto.getPrecio(),
+                    categoria != null ? categoria.getId() : null, producto.getActivo());
+        });
+    }
+
+    /**
+     * Registra la eliminación física de un producto
+     */
+    public void registrarProductoEliminado(Long productoId) {
+        trasCommit(() -> aplicarEliminacion(productoId));
+    }
+
+    /**
+     * Registra el nombre (posiblemente nuevo) de una categoría
+     */
+    public void registrarCategoria(Categoria categoria) {
+        Long categoriaId = categoria.getId();
+        String nombre = categoria.getNombre();
+        trasCommit(() -> registrarNombreCategoria(categoriaId, nombre));
+    }
+
+    // ========== LECTURAS O(1) ==========
+
+    public synchronized Map<String, Object> obtenerEstadisticas() {
+        Map<String, Object> estadisticas = new HashMap<>();
+        estadisticas.put("totalProductos", totalProductos);
+        estadisticas.put("cantidadTotalItems", cantidadTotal);
+        estadisticas.put("cantidadPromedio", totalProductos > 0 ? (double) cantidadTotal / totalProductos : 0.0);
+        estadisticas.put("productosConStockBajo", productosConStockBajo);
+        return estadisticas;
+    }
+
+    public synchronized BigDecimal obtenerValorTotal() {
+        return valorTotal;
+    }
+
+    public synchronized Map<String, Long> obtenerStockBajoPorCategoria() {
+        Map<String, Long> resultado = new LinkedHashMap<>();
+        stockBajoPorCategoria.entrySet().stream()
+                .filter(entrada -> entrada.getValue() > 0)
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .forEach(entrada -> resultado.put(
+                        nombresCategoria.getOrDefault(entrada.getKey(), String.valueOf(entrada.getKey())),
+                        entrada.getValue()));
+        return resultado;
+    }
+
+    // ========== CARGA Y RECONCILIACIÓN ==========
+
+    /**
+     * Construye los agregados desde la base de datos al iniciar
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        reconstruir();
+    }
+
+    /**
+     * Compara el aporte de cada producto con la base y corrige los que difieren
+     *
+     * Los productos que cambian mientras se recorre la base se omiten: su fila leída
+     * puede ser anterior o posterior al cambio que ya se aplicó en memoria.
+     * @return true si los agregados estaban alineados
+     */
+    @Scheduled(initialDelayString = "${data.inventario.agregados.reconciliacion-ms:300000}",
+               fixedDelayString = "${data.inventario.agregados.reconciliacion-ms:300000}")
+    public boolean reconciliar() {
+        synchronized (recorrido) {
+            Map<Long, Aporte> reales = new HashMap<>();
+            Map<Long, String> nombres = new HashMap<>();
+            if (!leerTodos(reales, nombres, "reconciliar")) {
+                return false;
+            }
+
+            int diferencias = 0;
+            synchronized (this) {
+                Set<Long> tocados = tocadosDuranteRecorrido;
+                tocadosDuranteRecorrido = null;
+                Set<Long> productos = new HashSet<>(reales.keySet());
+                productos.addAll(aportes.keySet());
+                productos.removeAll(tocados);
+                for (Long productoId : productos) {
+                    Aporte real = reales.get(productoId);
+                    if (!mismoAporte(real, aportes.get(productoId))) {
+                        diferencias++;
+                        aplicar(productoId, real);
+                    }
+                }
+                nombres.forEach(this::registrarNombreCategoria);
+            }
+
+            ultimaReconciliacion = LocalDateTime.now();
+            if (diferencias == 0) {
+                logger.debug("Agregados de inventario reconciliados sin diferencias");
+                return true;
+            }
+            logger.warn("Agregados de inventario desalineados en {} productos; corregidos desde la base",
+                    diferencias);
+            return false;
+        }
+    }
+
+    /**
+     * Recalcula todos los aportes recorriendo los productos por lotes
+     *
+     * Las lecturas se hacen fuera del lock de los agregados. Los productos que cambian
+     * durante la carga se vuelven a leer, también fuera del lock; los que cambian
+     * durante esa relectura conservan el aporte en memoria, que ya incluye su último
+     * cambio confirmado.
+     */
+    public void reconstruir() {
+        synchronized (recorrido) {
+            long inicio = System.currentTimeMillis();
+            Map<Long, Aporte> nuevosAportes = new HashMap<>();
+            Map<Long, String> nuevosNombres = new HashMap<>();
+            if (!leerTodos(nuevosAportes, nuevosNombres, "reconstruir")) {
+                return;
+            }
+
+            Set<Long> tocados;
+            synchronized (this) {
+                tocados = tocadosDuranteRecorrido;
+                tocadosDuranteRecorrido = new HashSet<>();
+            }
+            if (!tocados.isEmpty()) {
+                try {
+                    tocados.forEach(nuevosAportes::remove);
+                    transactionTemplate.executeWithoutResult(estado -> {
+                        for (Object[] fila : productoRepository.findAporteAgregadosPorIds(tocados)) {
+                            nuevosAportes.put((Long) fila[0], aporte(fila));
+                            nuevosNombres.put((Long) fila[3], (String) fila[4]);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    synchronized (this) {
+                        tocadosDuranteRecorrido = null;
+                    }
+                    logger.error("No se pudieron reconstruir los agregados de inventario: {}", e.getMessage());
+                    return;
+                }
+            }
+
+            synchronized (this) {
+                for (Long productoId : tocadosDuranteRecorrido) {
+                    Aporte actual = aportes.get(productoId);
+                    if (actual != null) {
+                        nuevosAportes.put(productoId, actual);
+                    } else {
+                        nuevosAportes.remove(productoId);
+                    }
+                }
+                tocadosDuranteRecorrido = null;
+                aportes = new HashMap<>();
+                nombresCategoria = nuevosNombres;
+                totalProductos = 0;
+                cantidadTotal = 0;
+                productosConStockBajo = 0;
+                valorTotal = BigDecimal.ZERO;
+                stockBajoPorCategoria = new HashMap<>();
+                nuevosAportes.forEach(this::aplicar);
+            }
+            disponible = true;
+            ultimaReconciliacion = LocalDateTime.now();
+            logger.info("Agregados de inventario construidos con {} productos en {} ms",
+                    nuevosAportes.size(), System.currentTimeMillis() - inicio);
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private synchronized void aplicarInventario(Long productoId, Integer cantidad, Integer stockMinimo, Long version) {
+        marcarTocado(productoId);
+        Aporte anterior = aportes.get(productoId);
+        // Un callback atrasado no debe pisar una versión más nueva del inventario
+        if (cantidad != null && anterior != null && anterior.version() != null && version != null
+                && version < anterior.version()) {
+            return;
+        }
+        aplicar(productoId, new Aporte(cantidad, stockMinimo, version,
+                anterior != null ? anterior.precio() : null,
+                anterior != null ? anterior.categoriaId() : null,
+                anterior != null ? anterior.activo() : null));
+    }
+
+    private synchronized void aplicarProducto(Long productoId, BigDecimal precio, Long categoriaId, Boolean activo) {
+        marcarTocado(productoId);
+        Aporte anterior = aportes.get(productoId);
+        aplicar(productoId, new Aporte(
+                anterior != null ? anterior.cantidad() : null,
+                anterior != null ? anterior.stockMinimo() : null,
+                anterior != null ? anterior.version() : null,
+                precio, categoriaId, activo));
+    }
+
+    private synchronized void aplicarEliminacion(Long productoId) {
+        marcarTocado(productoId);
+        aplicar(productoId, null);
+    }
+
+    private void marcarTocado(Long productoId) {
+        if (tocadosDuranteRecorrido != null) {
+            tocadosDuranteRecorrido.add(productoId);
+        }
+    }
+
+    /**
+     * Lee el aporte de todos los productos, anotando desde antes los que cambien mientras tanto
+     * @return false si la lectura falló (el recorrido se descarta)
+     */
+    private boolean leerTodos(Map<Long, Aporte> destino, Map<Long, String> nombres, String operacion) {
+        synchronized (this) {
+            tocadosDuranteRecorrido = new HashSet<>();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(estado -> {
+                long cursor = 0L;
+                List<Object[]> lote;
+                do {
+                    lote = productoRepository.findAporteAgregadosPaginado(cursor, Limit.of(TAMANIO_LOTE));
+                    for (Object[] fila : lote) {
+                        destino.put((Long) fila[0], aporte(fila));
+                        nombres.put((Long) fila[3], (String) fila[4]);
+                        cursor = (Long) fila[0];
+                    }
+                } while (lote.size() == TAMANIO_LOTE);
+            });
+            return true;
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                tocadosDuranteRecorrido = null;
+            }
+            logger.error("No se pudo {} los agregados de inventario: {}", operacion, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Compara solo lo que interviene en los agregados (el precio sin importar la escala)
+     */
+    private static boolean mismoAporte(Aporte real, Aporte enMemoria) {
+        if (real == null || enMemoria == null) {
+            return real == enMemoria;
+        }
+        return Objects.equals(real.cantidad(), enMemoria.cantidad())
+                && Objects.equals(real.stockMinimo(), enMemoria.stockMinimo())
+                && Objects.equals(real.categoriaId(), enMemoria.categoriaId())
+                && Objects.equals(real.activo(), enMemoria.activo())
+                && (real.precio() == null ? enMemoria.precio() == null
+                    : enMemoria.precio() != null && real.precio().compareTo(enMemoria.precio()) == 0);
+    }
+
+    private static Aporte aporte(Object[] fila) {
+        return new Aporte((Integer) fila[5], (Integer) fila[6], (Long) fila[7],
+                (BigDecimal) fila[1], (Long) fila[3], (Boolean) fila[2]);
+    }
+
+    private synchronized void registrarNombreCategoria(Long categoriaId, String nombre) {
+        if (categoriaId != null && nombre != null) {
+            nombresCategoria.put(categoriaId, nombre);
+        }
+    }
+
+    /**
+     * Reemplaza el aporte de un producto ajustando los totales por diferencia
+     */
+    private synchronized void aplicar(Long productoId, Aporte nuevo) {
+        Aporte anterior = nuevo != null ? aportes.put(productoId, nuevo) : aportes.remove(productoId);
+        if (anterior != null && anterior.cuenta()) {
+            sumar(anterior, -1);
+        }
+        if (nuevo != null && nuevo.cuenta()) {
+            sumar(nuevo, 1);
+        }
+    }
+
+    private void sumar(Aporte aporte, int signo) {
+        totalProductos += signo;
+        cantidadTotal += (long) signo * aporte.cantidad();
+        valorTotal = valorTotal.add(aporte.precio().multiply(BigDecimal.valueOf((long) signo * aporte.cantidad())));
+        if (aporte.stockBajo()) {
+            productosConStockBajo += signo;
+            stockBajoPorCategoria.merge(aporte.categoriaId(), (long) signo, Long::sum);
+        }
+    }
+
+    /**
+     * Ejecuta la acción tras el commit, o de inmediato si no hay transacción activa
+     */
+    private void trasCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.microservices.dataservice.service;
+
+import com.microservices.dataservice.entity.Cambio;
+import com.microservices.dataservice.entity.Inventario;
+import com.microservices.dataservice.entity.MovimientoStock;
+import com.microservices.dataservice.exception.InsufficientStockException;
+import com.microservices.dataservice.exception.ResourceNotFoundException;
+import com.microservices.dataservice.repository.InventarioRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Agrupa movimientos de stock concurrentes en lotes (group commit)
+ *
+ * Los movimientos se encolan y un único hilo los drena cada pocos milisegundos:
+ * agrupa por producto, bloquea las filas en orden de producto ID, aplica cada
+ * movimiento en orden de llegada y confirma todo el lote en una sola transacción.
+ * Cada llamador recibe su resultado individual (el inventario con la cantidad que dejó
+ * su movimiento, o la excepción) recién después del commit.
+ *
+ * @author Agustin Benavidez
+ */
+@Component
+public class AgrupadorMovimientosStock {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgrupadorMovimientosStock.class);
+
+    private final InventarioRepository inventarioRepository;
+    private final AgregadosInventario agregadosInventario;
+    private final RegistroCambios registroCambios;
+    private final LibroStock libroStock;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final long ventanaMs;
+    private final int maximoPorLote;
+
+    private final BlockingQueue<Movimiento> cola = new LinkedBlockingQueue<>();
+    private final AtomicLong lotesProcesados = new AtomicLong();
+    private final AtomicLong movimientosProcesados = new AtomicLong();
+    private volatile boolean activo;
+    private Thread trabajador;
+
+    private record Movimiento(Long productoId, int delta, CompletableFuture<Inventario> resultado) {
+    }
+
+    @Autowired
+    public AgrupadorMovimientosStock(InventarioRepository inventarioRepository,
+                                     AgregadosInventario agregadosInventario,
+                                     RegistroCambios registroCambios,
+                                     LibroStock libroStock,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${data.inventario.agrupacion.habilitada:false}") boolean habilitado,
+                                     @Value("${data.inventario.agrupacion.ventana-ms:5}") long ventanaMs,
+                                     @Value("${data.inventario.agrupacion.maximo-por-lote:200}") int maximoPorLote) {
+        this.inventarioRepository = inventarioRepository;
+        this.agregadosInventario = agregadosInventario;
+        this.registroCambios = registroCambios;
+        this.libroStock = libroStock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.ventanaMs = ventanaMs;
+        this.maximoPorLote = maximoPorLote;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        activo = true;
+        trabajador = new Thread(this::procesarCola, "agrupador-stock");
+        trabajador.setDaemon(true);
+        trabajador.start();
+        logger.info("Agrupación de movimientos de stock habilitada (ventana: {} ms, máximo por lote: {})",
+                ventanaMs, maximoPorLote);
+    }
+
+    @PreDestroy
+    void detener() {
+        activo = false;
+        if (trabajador != null) {
+            trabajador.interrupt();
+            try {
+                trabajador.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        rechazarPendientes();
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Encola un incremento de stock
+     */
+    public CompletableFuture<Inventario> incrementar(Long productoId, Integer incremento) {
+        if (incremento == null || incremento <= 0) {
+            throw new IllegalArgumentException("El incremento debe ser mayor a cero");
+        }
+        return encolar(productoId, incremento);
+    }
+
+    /**
+     * Encola un decremento de stock (falla individualmente si no alcanza el stock)
+     */
+    public CompletableFuture<Inventario> decrementar(Long productoId, Integer decremento) {
+        if (decremento == null || decremento <= 0) {
+            throw new IllegalArgumentException("El decremento debe ser mayor a cero");
+        }
+        return encolar(productoId, -decremento);
+    }
+
+    public long getLotesProcesados() {
+        return lotesProcesados.get();
+    }
+
+    public long getMovimientosProcesados() {
+        return movimientosProcesados.get();
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private CompletableFuture<Inventario> encolar(Long productoId, int delta) {
+        if (!activo) {
+            throw new IllegalStateException("La agrupación de movimientos de stock no está habilitada");
+        }
+        Movimiento movimiento = new Movimiento(productoId, delta, new CompletableFuture<>());
+        cola.add(movimiento);
+        if (!activo) {
+            // Se detuvo mientras se encolaba: nadie más va a drenar la cola
+            rechazarPendientes();
+        }
+        return movimiento.resultado();
+    }
+
+    /**
+     * Falla los movimientos que quedaron en la cola al detener el agrupador
+     */
+    private void rechazarPendientes() {
+        List<Movimiento> pendientes = new ArrayList<>();
+        cola.drainTo(pendientes);
+        if (!pendientes.isEmpty()) {
+            logger.warn("Agrupador de stock detenido con {} movimientos sin procesar", pendientes.size());
+            pendientes.forEach(m -> m.resultado().completeExceptionally(
+                    new IllegalStateException("Agrupador de stock detenido")));
+        }
+    }
+
+    private void procesarCola() {
+        while (activo) {
+            List<Movimiento> lote = new ArrayList<>();
+            try {
+                lote.add(cola.take());
+                long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ventanaMs);
+                while (lote.size() < maximoPorLote) {
+                    Movimiento siguiente = cola.poll(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (siguiente == null) {
+                        break;
+                    }
+                    lote.add(siguiente);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lote.forEach(m -> m.resultado().completeExceptionally(
+                        new IllegalStateException("Agrupador de stock detenido")));
+                return;
+            }
+            try {
+                procesarLote(lote);
+            } catch (Throwable e) {
+                // Cualquier error (incluso un Error) falla solo este lote: el hilo sigue atendiendo la cola
+                logger.error("Error inesperado al procesar lote de {} movimientos de stock", lote.size(), e);
+                lote.forEach(m -> m.resultado().completeExceptionally(e));
+            }
+        }
+    }
+
+    private void procesarLote(List<Movimiento> lote) {
+        // Agrupar por producto (ordenado) conservando el orden de llegada
+        Map<Long, List<Movimiento>> porProducto = new TreeMap<>();
+        for (Movimiento movimiento : lote) {
+            porProducto.computeIfAbsent(movimiento.productoId(), id -> new ArrayList<>()).add(movimiento);
+        }
+
+        Map<Movimiento, Object> resultados = new LinkedHashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(estado -> {
+                Map<Long, Inventario> inventarios = new HashMap<>();
+                for (Inventario inventario : inventarioRepository.findByProductoIdInParaActualizar(porProducto.keySet())) {
+                    inventarios.put(inventario.getProductoId(), inventario);
+                }
+
+                Map<Movimiento, Object> cantidades = new LinkedHashMap<>();
+                porProducto.forEach((productoId, movimientos) -> {
+                    Inventario inventario = inventarios.get(productoId);
+                    boolean modificado = false;
+                    for (Movimiento movimiento : movimientos) {
+                        Object resultado = aplicar(inventario, movimiento);
+                        modificado |= !(resultado instanceof RuntimeException);
+                        cantidades.put(movimiento, resultado);
+                    }
+                    if (modificado) {
+                        agregadosInventario.registrarInventario(inventario);
+                        registroCambios.registrarInventario(inventario, Cambio.Operacion.ACTUALIZACION);
+                    }
+                });
+                // Las filas modificadas se escriben en un batch JDBC; tras el flush ya tienen su versión nueva
+                inventarioRepository.flush();
+                cantidades.forEach((movimiento, resultado) -> resultados.put(movimiento,
+                        resultado instanceof Integer cantidad
+                                ? inventarios.get(movimiento.productoId()).copiaConCantidad(cantidad)
+                                : resultado));
+            });
+        } catch (RuntimeException e) {
+            logger.error("Error al confirmar lote de {} movimientos de stock: {}", lote.size(), e.getMessage());
+            lote.forEach(m -> m.resultado().completeExceptionally(e));
+            return;
+        }
+
+        lotesProcesados.incrementAndGet();
+        movimientosProcesados.addAndGet(lote.size());
+        logger.debug("Lote de stock confirmado: {} movimientos sobre {} productos", lote.size(), porProducto.size());
+
+        resultados.forEach((movimiento, resultado) -> {
+            if (resultado instanceof RuntimeException error) {
+                movimiento.resultado().completeExceptionally(error);
+            } else {
+                movimiento.resultado().complete((Inventario) resultado);
+            }
+        });
+    }
+
+    private Object aplicar(Inventario inventario, Movimiento movimiento) {
+        if (inventario == null) {
+            return new ResourceNotFoundException("Inventario", "productoId", movimiento.productoId());
+        }
+        if (movimiento.delta() > 0) {
+            inventario.incrementarStock(movimiento.delta());
+            libroStock.registrar(inventario, MovimientoStock.Tipo.INCREMENTO, movimiento.delta());
+        } else if (inventario.decrementarStock(-movimiento.delta())) {
+            libroStock.registrar(inventario, MovimientoStock.Tipo.DECREMENTO, movimiento.delta());
+        } else {
+            return new InsufficientStockException(movimiento.productoId(), inventario.getCantidad(), -movimiento.delta());
+        }
+        return inventario.getCantidad();
+    }
+}
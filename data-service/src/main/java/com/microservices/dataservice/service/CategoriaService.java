@@ -1,17 +1,28 @@
 package com.microservices.dataservice.service;
 
+import com.microservices.dataservice.dto.PaginaCursor;
 import com.microservices.dataservice.entity.Categoria;
 import com.microservices.dataservice.exception.DuplicateResourceException;
 import com.microservices.dataservice.exception.ResourceNotFoundException;
+import com.microservices.dataservice.lectura.ModeloLecturaCatalogo;
 import com.microservices.dataservice.repository.CategoriaRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -26,10 +37,19 @@ public class CategoriaService {
     private static final Logger logger = LoggerFactory.getLogger(CategoriaService.class);
 
     private final CategoriaRepository categoriaRepository;
+    private final AgregadosInventario agregadosInventario;
+    private final ModeloLecturaCatalogo modeloLectura;
+    private final Cache cacheSegundoNivel;
 
     @Autowired
-    public CategoriaService(CategoriaRepository categoriaRepository) {
+    public CategoriaService(CategoriaRepository categoriaRepository,
+                            AgregadosInventario agregadosInventario,
+                            ModeloLecturaCatalogo modeloLectura,
+                            EntityManagerFactory entityManagerFactory) {
         this.categoriaRepository = categoriaRepository;
+        this.agregadosInventario = agregadosInventario;
+        this.modeloLectura = modeloLectura;
+        this.cacheSegundoNivel = entityManagerFactory.unwrap(SessionFactory.class).getCache();
     }
 
     /**
@@ -73,6 +93,7 @@ public class CategoriaService {
         }
 
         Categoria categoriaNueva = categoriaRepository.save(categoria);
+        invalidarCacheTrasCommit(null);
         logger.info("Categoría creada exitosamente con ID: {}", categoriaNueva.getId());
         return categoriaNueva;
     }
@@ -96,6 +117,9 @@ public class CategoriaService {
         categoriaExistente.setDescripcion(categoriaActualizada.getDescripcion());
 
         Categoria categoriaGuardada = categoriaRepository.save(categoriaExistente);
+        agregadosInventario.registrarCategoria(categoriaGuardada);
+        modeloLectura.registrarCategoria(id);
+        invalidarCacheTrasCommit(id);
         logger.info("Categoría actualizada exitosamente: {}", categoriaGuardada.getNombre());
         return categoriaGuardada;
     }
@@ -115,6 +139,7 @@ public class CategoriaService {
         }
 
         categoriaRepository.delete(categoria);
+        invalidarCacheTrasCommit(id);
         logger.info("Categoría eliminada exitosamente: {}", categoria.getNombre());
     }
 
@@ -196,6 +221,17 @@ public class CategoriaService {
         return categoriaRepository.existsByNombreIgnoreCase(nombre);
     }
 
+    /**
+     * Completa al iniciar el nombre normalizado de las categorías creadas antes de la columna
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void completarNombresNormalizados() {
+        int completadas = categoriaRepository.completarNombresNormalizados();
+        if (completadas > 0) {
+            logger.info("Nombre normalizado completado en {} categorías", completadas);
+        }
+    }
+
     /**
      * Obtiene el total de categorías
      */
@@ -203,4 +239,77 @@ public class CategoriaService {
     public long contarTotal() {
         return categoriaRepository.count();
     }
+
+    // ========== CONSULTAS PAGINADAS POR CURSOR ==========
+
+    /**
+     * Obtiene categorías paginadas por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<Categoria> obtenerTodasPaginado(Long cursor, Integer limite) {
+        logger.debug("Obteniendo categorías desde cursor: {}", cursor);
+        return paginar(cursor, limite, (desde, tope) -> categoriaRepository.findAllPaginado(desde, tope));
+    }
+
+    /**
+     * Busca categorías por texto paginadas por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<Categoria> buscarPorTextoPaginado(String texto, Long cursor, Integer limite) {
+        logger.debug("Buscando categorías que contengan: {} desde cursor: {}", texto, cursor);
+        return paginar(cursor, limite, (desde, tope) ->
+                categoriaRepository.buscarPorTextoPaginado(texto, desde, tope));
+    }
+
+    /**
+     * Obtiene categorías con productos activos paginadas por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<Categoria> obtenerCategoriasConProductosPaginado(Long cursor, Integer limite) {
+        logger.debug("Obteniendo categorías con productos activos desde cursor: {}", cursor);
+        return paginar(cursor, limite, (desde, tope) ->
+                categoriaRepository.findCategoriasConProductosActivosPaginado(desde, tope));
+    }
+
+    /**
+     * Ejecuta una consulta keyset pidiendo una fila extra para saber si hay más páginas
+     */
+    private PaginaCursor<Categoria> paginar(Long cursor, Integer limite,
+                                          BiFunction<Long, Limit, List<Categoria>> consulta) {
+        int tamanio = PaginaCursor.normalizarLimite(limite);
+        List<Categoria> filas = consulta.apply(PaginaCursor.normalizarCursor(cursor), Limit.of(tamanio + 1));
+        return PaginaCursor.desde(filas, tamanio, Categoria::getId);
+    }
+
+    // ========== CACHÉ DE SEGUNDO NIVEL ==========
+
+    /**
+     * Invalida la caché de categorías una vez confirmada la transacción
+     *
+     * Hibernate ya mantiene la región de entidades en las escrituras hechas por la sesión;
+     * la invalidación explícita cubre además las modificaciones por JPQL/SQL masivo y
+     * descarta los resultados de consultas (findAll, búsqueda por nombre) cacheados.
+     *
+     * @param id categoría modificada, o null si solo deben descartarse las consultas
+     */
+    private void invalidarCacheTrasCommit(Long id) {
+        Runnable invalidacion = () -> {
+            if (id != null) {
+                cacheSegundoNivel.evictEntityData(Categoria.class, id);
+            }
+            cacheSegundoNivel.evictQueryRegion(Categoria.REGION_CACHE_CONSULTAS);
+            logger.debug("Caché de categorías invalidada (ID: {})", id);
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidacion.run();
+                }
+            });
+        } else {
+            invalidacion.run();
+        }
+    }
 }
@@ -0,0 +1,100 @@
+package com.microservices.dataservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.dataservice.entity.Inventario;
+import com.microservices.dataservice.repository.InventarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Servicio para la exportación masiva del inventario en formato NDJSON
+ *
+ * Las filas se leen con un cursor de la base de datos y se escriben una por línea,
+ * limpiando el contexto de persistencia por lotes para mantener el uso de memoria
+ * constante sin importar el tamaño de la tabla.
+ *
+ * @author Agustin Benavidez
+ */
+@Service
+public class ExportacionInventarioService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportacionInventarioService.class);
+
+    static final int TAMANIO_LOTE = 500;
+    private static final byte SALTO_LINEA = '\n';
+
+    private final InventarioRepository inventarioRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public ExportacionInventarioService(InventarioRepository inventarioRepository,
+                                        ObjectMapper objectMapper) {
+        this.inventarioRepository = inventarioRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Escribe todo el inventario en la salida, una fila JSON por línea
+     * @param salida stream de destino (no se cierra)
+     * @return cantidad de filas exportadas
+     */
+    @Transactional(readOnly = true)
+    public long exportarInventario(OutputStream salida) {
+        logger.info("Iniciando exportación NDJSON del inventario");
+        long exportadas = 0;
+
+        try (Stream<Inventario> inventarios = inventarioRepository.streamTodosConProducto()) {
+            Iterator<Inventario> iterador = inventarios.iterator();
+            while (iterador.hasNext()) {
+                Inventario inventario = iterador.next();
+                salida.write(objectMapper.writeValueAsBytes(convertirAFila(inventario)));
+                salida.write(SALTO_LINEA);
+                exportadas++;
+
+                // Liberar las entidades ya escritas para no acumularlas en memoria
+                if (exportadas % TAMANIO_LOTE == 0) {
+                    entityManager.clear();
+                    salida.flush();
+                }
+            }
+            salida.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al escribir la exportación del inventario", e);
+        }
+
+        logger.info("Exportación NDJSON finalizada: {} filas", exportadas);
+        return exportadas;
+    }
+
+    private Map<String, Object> convertirAFila(Inventario inventario) {
+        Map<String, Object> fila = new LinkedHashMap<>();
+        fila.put("id", inventario.getId());
+        fila.put("productoId", inventario.getProductoId());
+        fila.put("productoNombre", inventario.getProductoNombre());
+        fila.put("categoriaNombre", inventario.getProducto().getCategoriaNombre());
+        fila.put("precio", inventario.getProducto().getPrecio());
+        fila.put("activo", inventario.getProducto().getActivo());
+        fila.put("cantidad", inventario.getCantidad());
+        fila.put("stockMinimo", inventario.getStockMinimo());
+        fila.put("stockBajo", inventario.isStockBajo());
+        fila.put("fechaUltimaActualizacion", inventario.getFechaUltimaActualizacion());
+        fila.put("version", inventario.getVersion());
+        return fila;
+    }
+}
@@ -0,0 +1,209 @@
+package com.microservices.dataservice.service;
+
+import com.microservices.dataservice.busqueda.FiltroNombresProductos;
+import com.microservices.dataservice.busqueda.IndiceBusquedaProductos;
+import com.microservices.dataservice.busqueda.IndicePreciosProductos;
+import com.microservices.dataservice.dto.ProductoImportacion;
+import com.microservices.dataservice.entity.Cambio;
+import com.microservices.dataservice.entity.Categoria;
+import com.microservices.dataservice.entity.Inventario;
+import com.microservices.dataservice.entity.MovimientoStock;
+import com.microservices.dataservice.entity.Producto;
+import com.microservices.dataservice.exception.DuplicateResourceException;
+import com.microservices.dataservice.exception.ResourceNotFoundException;
+import com.microservices.dataservice.repository.CategoriaRepository;
+import com.microservices.dataservice.repository.ProductoRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio para la importación masiva de productos con su inventario inicial
+ *
+ * Valida todo el lote de antemano (nombres repetidos, categorías inexistentes) y
+ * luego inserta por tramos: cada tramo se confirma en su propia transacción y sus
+ * INSERT de productos e inventarios se envían en batches JDBC (los IDs provienen de
+ * secuencias con asignación agrupada, por lo que Hibernate no necesita ejecutar
+ * cada INSERT para conocer el ID). Si un tramo falla, los anteriores quedan confirmados.
+ *
+ * @author Agustin Benavidez
+ */
+@Service
+public class ImportacionProductosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacionProductosService.class);
+
+    private static final int TAMANIO_CONSULTA_NOMBRES = 1000;
+
+    private final ProductoRepository productoRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final IndiceBusquedaProductos indiceBusqueda;
+    private final IndicePreciosProductos indicePrecios;
+    private final FiltroNombresProductos filtroNombres;
+    private final AgregadosInventario agregadosInventario;
+    private final RegistroCambios registroCambios;
+    private final LibroStock libroStock;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanioTramo;
+
+    @Autowired
+    public ImportacionProductosService(ProductoRepository productoRepository,
+                                       CategoriaRepository categoriaRepository,
+                                       IndiceBusquedaProductos indiceBusqueda,
+                                       IndicePreciosProductos indicePrecios,
+                                       FiltroNombresProductos filtroNombres,
+                                       AgregadosInventario agregadosInventario,
+                                       RegistroCambios registroCambios,
+                                       LibroStock libroStock,
+                                       EntityManager entityManager,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${data.importacion.tamanio-tramo:500}") int tamanioTramo) {
+        this.productoRepository = productoRepository;
+        this.categoriaRepository = categoriaRepository;
+        this.indiceBusqueda = indiceBusqueda;
+        this.indicePrecios = indicePrecios;
+        this.filtroNombres = filtroNombres;
+        this.agregadosInventario = agregadosInventario;
+        this.registroCambios = registroCambios;
+        this.libroStock = libroStock;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanioTramo = tamanioTramo;
+    }
+
+    /**
+     * Crea los productos y sus inventarios en tramos confirmados por separado
+     * @return resumen con la cantidad creada, los tramos confirmados y los IDs generados
+     */
+    public Map<String, Object> importar(List<ProductoImportacion> productos) {
+        logger.info("Importando {} productos en tramos de {}", productos.size(), tamanioTramo);
+        long inicio = System.nanoTime();
+
+        validarNombres(productos);
+        Map<Long, Categoria> categorias = cargarCategorias(productos);
+
+        List<Long> ids = new ArrayList<>(productos.size());
+        int tramos = 0;
+        for (int desde = 0; desde < productos.size(); desde += tamanioTramo) {
+            List<ProductoImportacion> tramo = productos.subList(desde, Math.min(desde + tamanioTramo, productos.size()));
+            ids.addAll(transactionTemplate.execute(estado -> insertarTramo(tramo, categorias)));
+            tramos++;
+        }
+
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        logger.info("Importación finalizada: {} productos en {} tramos ({} ms)", ids.size(), tramos, duracionMs);
+
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("productosCreados", ids.size());
+        resumen.put("tramos", tramos);
+        resumen.put("duracionMs", duracionMs);
+        resumen.put("ids", ids);
+        return resumen;
+    }
+
+    /**
+     * Inserta un tramo dentro de la transacción actual y vacía el contexto de persistencia
+     */
+    private List<Long> insertarTramo(List<ProductoImportacion> tramo, Map<Long, Categoria> categorias) {
+        List<Producto> creados = new ArrayList<>(tramo.size());
+        for (ProductoImportacion item : tramo) {
+            Producto producto = new Producto(item.getNombre(), item.getDescripcion(), item.getPrecio(),
+                    categorias.get(item.getCategoriaId()));
+            entityManager.persist(producto);
+            filtroNombres.agregar(producto.getNombre());
+            agregadosInventario.registrarProducto(producto);
+            registroCambios.registrarProducto(producto, Cambio.Operacion.CREACION);
+
+            if (item.getCantidadInicial() != null) {
+                Inventario inventario = new Inventario(producto, item.getCantidadInicial(),
+                        item.getStockMinimo() != null ? item.getStockMinimo() : 0);
+                entityManager.persist(inventario);
+                agregadosInventario.registrarInventario(inventario);
+                registroCambios.registrarInventario(inventario, Cambio.Operacion.CREACION);
+                libroStock.registrar(inventario, MovimientoStock.Tipo.CREACION, inventario.getCantidad());
+            }
+            creados.add(producto);
+        }
+
+        // Un solo flush por tramo: los INSERT se agrupan según hibernate.jdbc.batch_size
+        entityManager.flush();
+        entityManager.clear();
+
+        indexarTrasCommit(creados);
+        return creados.stream().map(Producto::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * Rechaza la importación si hay nombres repetidos en el lote o ya existentes
+     *
+     * Solo se consultan en la base los nombres que el filtro de nombres no descarta.
+     */
+    private void validarNombres(List<ProductoImportacion> productos) {
+        Set<String> nombres = new HashSet<>();
+        for (ProductoImportacion item : productos) {
+            if (!nombres.add(Producto.normalizarNombre(item.getNombre()))) {
+                throw new DuplicateResourceException("Producto", "nombre", item.getNombre());
+            }
+        }
+
+        List<String> pendientes = nombres.stream().filter(filtroNombres::puedeExistir).toList();
+        for (int desde = 0; desde < pendientes.size(); desde += TAMANIO_CONSULTA_NOMBRES) {
+            List<String> tramo = pendientes.subList(desde, Math.min(desde + TAMANIO_CONSULTA_NOMBRES, pendientes.size()));
+            List<String> existentes = productoRepository.findNombresExistentes(tramo);
+            if (!existentes.isEmpty()) {
+                throw new DuplicateResourceException("Producto", "nombre", existentes.get(0));
+            }
+            filtroNombres.registrarFalsosPositivos(tramo.size());
+        }
+    }
+
+    /**
+     * Carga de una vez todas las categorías referenciadas por el lote
+     */
+    private Map<Long, Categoria> cargarCategorias(List<ProductoImportacion> productos) {
+        Set<Long> categoriaIds = productos.stream()
+                .map(ProductoImportacion::getCategoriaId)
+                .collect(Collectors.toSet());
+        Map<Long, Categoria> categorias = categoriaRepository.findAllById(categoriaIds).stream()
+                .collect(Collectors.toMap(Categoria::getId, Function.identity()));
+
+        for (Long categoriaId : categoriaIds) {
+            if (!categorias.containsKey(categoriaId)) {
+                throw new ResourceNotFoundException("Categoria", "id", categoriaId);
+            }
+        }
+        return categorias;
+    }
+
+    /**
+     * Indexa los productos del tramo para búsqueda y por precio cuando la transacción confirma
+     */
+    private void indexarTrasCommit(List<Producto> productos) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (Producto producto : productos) {
+                    indiceBusqueda.indexar(producto.getId(), producto.getNombre(), producto.getDescripcion());
+                    indicePrecios.indexar(producto.getId(), producto.getPrecio(), producto.getCategoria().getId());
+                }
+            }
+        });
+    }
+}
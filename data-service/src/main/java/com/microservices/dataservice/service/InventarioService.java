@@ -1,20 +1,35 @@
 package com.microservices.dataservice.service;
 
+import com.microservices.dataservice.dto.ItemReserva;
+import com.microservices.dataservice.dto.PaginaCursor;
+import com.microservices.dataservice.dto.SnapshotInventario;
+import com.microservices.dataservice.entity.Cambio;
 import com.microservices.dataservice.entity.Inventario;
+import com.microservices.dataservice.entity.MovimientoStock;
 import com.microservices.dataservice.entity.Producto;
 import com.microservices.dataservice.exception.InsufficientStockException;
 import com.microservices.dataservice.exception.ResourceNotFoundException;
 import com.microservices.dataservice.repository.InventarioRepository;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -29,10 +44,25 @@ public class InventarioService {
     private static final Logger logger = LoggerFactory.getLogger(InventarioService.class);
 
     private final InventarioRepository inventarioRepository;
+    private final AgregadosInventario agregadosInventario;
+    private final RegistroCambios registroCambios;
+    private final LibroStock libroStock;
+    private final EntityManager entityManager;
+    private final boolean decrementoAtomico;
 
     @Autowired
-    public InventarioService(InventarioRepository inventarioRepository) {
+    public InventarioService(InventarioRepository inventarioRepository,
+                             AgregadosInventario agregadosInventario,
+                             RegistroCambios registroCambios,
+                             LibroStock libroStock,
+                             EntityManager entityManager,
+                             @Value("${data.inventario.decremento-atomico:true}") boolean decrementoAtomico) {
         this.inventarioRepository = inventarioRepository;
+        this.agregadosInventario = agregadosInventario;
+        this.registroCambios = registroCambios;
+        this.libroStock = libroStock;
+        this.entityManager = entityManager;
+        this.decrementoAtomico = decrementoAtomico;
     }
 
     /**
@@ -82,6 +112,9 @@ public class InventarioService {
         }
 
         Inventario inventarioGuardado = inventarioRepository.save(inventario);
+        agregadosInventario.registrarInventario(inventarioGuardado);
+        registroCambios.registrarInventario(inventarioGuardado, Cambio.Operacion.CREACION);
+        libroStock.registrar(inventarioGuardado, MovimientoStock.Tipo.CREACION, inventarioGuardado.getCantidad());
         logger.info("Inventario creado exitosamente con ID: {}", inventarioGuardado.getId());
         return inventarioGuardado;
     }
@@ -93,12 +126,16 @@ public class InventarioService {
         logger.info("Actualizando inventario con ID: {}", id);
         
         Inventario inventarioExistente = buscarPorId(id);
+        int cantidadAnterior = inventarioExistente.getCantidad();
 
         // Actualizar campos
         inventarioExistente.setCantidad(inventarioActualizado.getCantidad());
         inventarioExistente.setStockMinimo(inventarioActualizado.getStockMinimo());
 
         Inventario inventarioGuardado = inventarioRepository.save(inventarioExistente);
+        agregadosInventario.registrarInventario(inventarioGuardado);
+        registroCambios.registrarInventario(inventarioGuardado, Cambio.Operacion.ACTUALIZACION);
+        registrarAjuste(inventarioGuardado, cantidadAnterior);
         logger.info("Inventario actualizado exitosamente para producto: {}", 
                    inventarioGuardado.getProductoNombre());
         return inventarioGuardado;
@@ -115,9 +152,13 @@ public class InventarioService {
         }
 
         Inventario inventario = buscarPorProductoId(productoId);
+        int cantidadAnterior = inventario.getCantidad();
         inventario.setCantidad(nuevaCantidad);
         
         Inventario inventarioActualizado = inventarioRepository.save(inventario);
+        agregadosInventario.registrarInventario(inventarioActualizado);
+        registroCambios.registrarInventario(inventarioActualizado, Cambio.Operacion.ACTUALIZACION);
+        registrarAjuste(inventarioActualizado, cantidadAnterior);
         logger.info("Stock actualizado exitosamente para producto: {} - Nueva cantidad: {}", 
                    inventarioActualizado.getProductoNombre(), nuevaCantidad);
         return inventarioActualizado;
@@ -137,18 +178,67 @@ public class InventarioService {
         inventario.incrementarStock(incremento);
         
         Inventario inventarioActualizado = inventarioRepository.save(inventario);
+        agregadosInventario.registrarInventario(inventarioActualizado);
+        registroCambios.registrarInventario(inventarioActualizado, Cambio.Operacion.ACTUALIZACION);
+        libroStock.registrar(inventarioActualizado, MovimientoStock.Tipo.INCREMENTO, incremento);
         logger.info("Stock incrementado exitosamente para producto: {} - Nueva cantidad: {}", 
                    inventarioActualizado.getProductoNombre(), inventarioActualizado.getCantidad());
         return inventarioActualizado;
     }
 
     /**
-     * Decrementa el stock de un producto
+     * Decrementa el stock de un producto usando el modo configurado
+     * (data.inventario.decremento-atomico, activo por defecto)
      */
     public Inventario decrementarStock(Long productoId, Integer decremento) {
+        return decrementoAtomico
+                ? decrementarStockAtomico(productoId, decremento)
+                : decrementarStockOptimista(productoId, decremento);
+    }
+
+    /**
+     * Decrementa el stock con un único UPDATE condicionado (cantidad >= decremento)
+     *
+     * La base de datos serializa las escrituras sobre la fila, por lo que no hay
+     * conflictos de versión ni reintentos y nunca se vende más de lo disponible.
+     */
+    public Inventario decrementarStockAtomico(Long productoId, Integer decremento) {
+        logger.info("Decrementando stock (atómico) del producto ID: {} en: {}", productoId, decremento);
+
+        if (decremento == null || decremento <= 0) {
+            throw new IllegalArgumentException("El decremento debe ser mayor a cero");
+        }
+
+        int filasActualizadas = inventarioRepository.decrementarStock(productoId, decremento);
+        Inventario inventarioActualizado = buscarPorProductoId(productoId);
+        // El UPDATE no pasa por el contexto de persistencia: se relee solo esta fila, que pudo estar ya cargada
+        entityManager.refresh(inventarioActualizado);
+
+        if (filasActualizadas == 0) {
+            throw new InsufficientStockException(productoId, inventarioActualizado.getCantidad(), decremento);
+        }
+        agregadosInventario.registrarInventario(inventarioActualizado);
+        registroCambios.registrarInventario(inventarioActualizado, Cambio.Operacion.ACTUALIZACION);
+        libroStock.registrar(inventarioActualizado, MovimientoStock.Tipo.DECREMENTO, -decremento);
+
+        logger.info("Stock decrementado exitosamente para producto ID: {} - Nueva cantidad: {}",
+                   productoId, inventarioActualizado.getCantidad());
+
+        if (inventarioActualizado.isStockBajo()) {
+            logger.warn("ALERTA: El producto ID {} tiene stock bajo. Cantidad actual: {}, Stock mínimo: {}",
+                       productoId, inventarioActualizado.getCantidad(), inventarioActualizado.getStockMinimo());
+        }
+
+        return inventarioActualizado;
+    }
+
+    /**
+     * Decrementa el stock leyendo, validando y guardando la entidad (control optimista por @Version)
+     */
+    public Inventario decrementarStockOptimista(Long productoId, Integer decremento) {
         logger.info("Decrementando stock del producto ID: {} en: {}", productoId, decremento);
         
-        if (decremento <= 0) {
+        if (decremento == null || decremento <= 0) {
             throw new IllegalArgumentException("El decremento debe ser mayor a cero");
         }
 
@@ -161,6 +251,9 @@ public class InventarioService {
         inventario.decrementarStock(decremento);
         
         Inventario inventarioActualizado = inventarioRepository.save(inventario);
+        agregadosInventario.registrarInventario(inventarioActualizado);
+        registroCambios.registrarInventario(inventarioActualizado, Cambio.Operacion.ACTUALIZACION);
+        libroStock.registrar(inventarioActualizado, MovimientoStock.Tipo.DECREMENTO, -decremento);
         logger.info("Stock decrementado exitosamente para producto: {} - Nueva cantidad: {}", 
                    inventarioActualizado.getProductoNombre(), inventarioActualizado.getCantidad());
         
@@ -175,6 +268,64 @@ public class InventarioService {
         return inventarioActualizado;
     }
 
+    /**
+     * Reserva stock de varios productos en una única transacción
+     *
+     * Las filas se bloquean en orden de producto ID; si algún ítem no tiene stock
+     * suficiente se lanza InsufficientStockException y no se descuenta ninguno.
+     */
+    public List<Map<String, Object>> reservarStock(List<ItemReserva> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("La reserva debe tener al menos un ítem");
+        }
+
+        // Agrupar por producto (ordenado) sumando cantidades repetidas
+        Map<Long, Integer> cantidadesPorProducto = new TreeMap<>();
+        for (ItemReserva item : items) {
+            if (item.getProductoId() == null || item.getCantidad() == null || item.getCantidad() <= 0) {
+                throw new IllegalArgumentException("Cada ítem debe indicar producto y una cantidad mayor a cero");
+            }
+            cantidadesPorProducto.merge(item.getProductoId(), item.getCantidad(), Integer::sum);
+        }
+        logger.info("Reservando stock para {} productos", cantidadesPorProducto.size());
+
+        List<Inventario> inventarios = inventarioRepository.findByProductoIdInParaActualizar(cantidadesPorProducto.keySet());
+        Map<Long, Inventario> inventariosPorProducto = new HashMap<>();
+        for (Inventario inventario : inventarios) {
+            inventariosPorProducto.put(inventario.getProductoId(), inventario);
+        }
+
+        // Validar todos los ítems antes de modificar ninguno
+        for (Map.Entry<Long, Integer> entrada : cantidadesPorProducto.entrySet()) {
+            Inventario inventario = inventariosPorProducto.get(entrada.getKey());
+            if (inventario == null) {
+                throw new ResourceNotFoundException("Inventario", "productoId", entrada.getKey());
+            }
+            if (inventario.getCantidad() < entrada.getValue()) {
+                throw new InsufficientStockException(entrada.getKey(), inventario.getCantidad(), entrada.getValue());
+            }
+        }
+
+        List<Map<String, Object>> reservados = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entrada : cantidadesPorProducto.entrySet()) {
+            Inventario inventario = inventariosPorProducto.get(entrada.getKey());
+            inventario.decrementarStock(entrada.getValue());
+            agregadosInventario.registrarInventario(inventario);
+            registroCambios.registrarInventario(inventario, Cambio.Operacion.ACTUALIZACION);
+            libroStock.registrar(inventario, MovimientoStock.Tipo.RESERVA, -entrada.getValue());
+
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("productoId", entrada.getKey());
+            item.put("cantidadReservada", entrada.getValue());
+            item.put("stockRestante", inventario.getCantidad());
+            item.put("stockBajo", inventario.isStockBajo());
+            reservados.add(item);
+        }
+
+        logger.info("Reserva confirmada para productos: {}", cantidadesPorProducto.keySet());
+        return reservados;
+    }
+
     /**
      * Obtiene inventarios con stock bajo
      */
@@ -226,14 +377,22 @@ public class InventarioService {
     @Transactional(readOnly = true)
     public Map<String, Object> obtenerEstadisticasInventario() {
         logger.debug("Obteniendo estadísticas generales del inventario");
+        if (agregadosInventario.isDisponible()) {
+            return agregadosInventario.obtenerEstadisticas();
+        }
         Object[] resultado = inventarioRepository.obtenerEstadisticasInventario();
         
-        return Map.of(
-            "totalProductos", resultado[0],
-            "cantidadTotalItems", resultado[1],
-            "cantidadPromedio", resultado[2],
-            "productosConStockBajo", resultado[3]
-        );
+        // Spring Data envuelve la fila agregada en un arreglo adicional
+        if (resultado.length == 1 && resultado[0] instanceof Object[] fila) {
+            resultado = fila;
+        }
+        
+        Map<String, Object> estadisticas = new HashMap<>();
+        estadisticas.put("totalProductos", resultado[0] != null ? resultado[0] : 0L);
+        estadisticas.put("cantidadTotalItems", resultado[1] != null ? resultado[1] : 0L);
+        estadisticas.put("cantidadPromedio", resultado[2] != null ? resultado[2] : 0.0);
+        estadisticas.put("productosConStockBajo", resultado[3] != null ? resultado[3] : 0L);
+        return estadisticas;
     }
 
     /**
@@ -242,10 +401,22 @@ public class InventarioService {
     @Transactional(readOnly = true)
     public BigDecimal obtenerValorTotalInventario() {
         logger.debug("Calculando valor total del inventario");
+        if (agregadosInventario.isDisponible()) {
+            return agregadosInventario.obtenerValorTotal();
+        }
         Object resultado = inventarioRepository.obtenerValorTotalInventario();
         return resultado != null ? (BigDecimal) resultado : BigDecimal.ZERO;
     }
 
+    /**
+     * Obtiene en una única consulta el resumen del inventario para reportes
+     */
+    @Transactional(readOnly = true)
+    public SnapshotInventario obtenerSnapshotInventario() {
+        logger.debug("Obteniendo snapshot del inventario");
+        return SnapshotInventario.desde(inventarioRepository.resumirPorEstado());
+    }
+
     /**
      * Obtiene inventarios actualizados recientemente
      */
@@ -261,6 +432,9 @@ public class InventarioService {
     @Transactional(readOnly = true)
     public Map<String, Long> contarStockBajoPorCategoria() {
         logger.debug("Contando inventarios con stock bajo por categoría");
+        if (agregadosInventario.isDisponible()) {
+            return agregadosInventario.obtenerStockBajoPorCategoria();
+        }
         List<Object[]> resultados = inventarioRepository.contarStockBajoPorCategoria();
         
         return resultados.stream()
@@ -304,6 +478,8 @@ public class InventarioService {
         inventario.setStockMinimo(nuevoStockMinimo);
         
         Inventario inventarioActualizado = inventarioRepository.save(inventario);
+        agregadosInventario.registrarInventario(inventarioActualizado);
+        registroCambios.registrarInventario(inventarioActualizado, Cambio.Operacion.ACTUALIZACION);
         logger.info("Stock mínimo actualizado exitosamente para producto: {} - Nuevo stock mínimo: {}", 
                    inventarioActualizado.getProductoNombre(), nuevoStockMinimo);
         return inventarioActualizado;
@@ -317,8 +493,118 @@ public class InventarioService {
         
         Inventario inventario = buscarPorId(id);
         inventarioRepository.delete(inventario);
+        agregadosInventario.registrarInventarioEliminado(inventario.getProductoId());
+        registroCambios.registrarInventarioEliminado(inventario.getProductoId());
+        libroStock.registrar(inventario.getProductoId(), MovimientoStock.Tipo.ELIMINACION, -inventario.getCantidad(), 0);
         
         logger.info("Inventario eliminado exitosamente para producto: {}", 
                    inventario.getProductoNombre());
     }
+
+    /**
+     * Registra en el libro de stock el cambio de cantidad de un ajuste (si lo hubo)
+     */
+    private void registrarAjuste(Inventario inventario, int cantidadAnterior) {
+        int delta = inventario.getCantidad() - cantidadAnterior;
+        if (delta != 0) {
+            libroStock.registrar(inventario, MovimientoStock.Tipo.AJUSTE, delta);
+        }
+    }
+
+    /**
+     * Recalcula al arrancar las columnas derivadas que no coinciden con sus datos de origen
+     * (filas anteriores a esas columnas o modificadas fuera del servicio)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recalcularColumnasDerivadas() {
+        int precios = inventarioRepository.recalcularPreciosUnitarios();
+        int valores = inventarioRepository.recalcularValoresInventario();
+        int estados = inventarioRepository.recalcularEstadosStock();
+        if (precios + valores + estados > 0) {
+            logger.info("Inventarios recalculados: {} precios unitarios, {} valores, {} estados de stock",
+                    precios, valores, estados);
+        }
+    }
+
+    // ========== CONSULTAS PAGINADAS POR CURSOR ==========
+
+    /**
+     * Obtiene inventarios paginados por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<Inventario> obtenerTodosPaginado(Long cursor, Integer limite) {
+        logger.debug("Obteniendo inventarios desde cursor: {}", cursor);
+        return paginar(cursor, limite, (desde, tope) -> inventarioRepository.findAllPaginado(desde, tope));
+    }
+
+    /**
+     * Obtiene inventarios con stock bajo paginados por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<Inventario> obtenerInventariosConStockBajoPaginado(Long cursor, Integer limite) {
+        logger.debug("Obteniendo inventarios con stock bajo desde cursor: {}", cursor);
+        return paginar(cursor, limite, (desde, tope) ->
+                inventarioRepository.findInventariosConStockBajoPaginado(desde, tope));
+    }
+
+    /**
+     * Obtiene inventarios con stock crítico paginados por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<Inventario> obtenerInventariosConStockCriticoPaginado(Long cursor, Integer limite) {
+        logger.debug("Obteniendo inventarios con stock crítico desde cursor: {}", cursor);
+        return paginar(cursor, limite, (desde, tope) ->
+                inventarioRepository.findInventariosConStockCriticoPaginado(desde, tope));
+    }
+
+    /**
+     * Obtiene inventarios sin stock paginados por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<Inventario> obtenerInventariosSinStockPaginado(Long cursor, Integer limite) {
+        logger.debug("Obteniendo inventarios sin stock desde cursor: {}", cursor);
+        return paginar(cursor, limite, (desde, tope) ->
+                inventarioRepository.findInventariosSinStockPaginado(desde, tope));
+    }
+
+    /**
+     * Busca inventarios por categoría paginados por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<Inventario> buscarPorCategoriaPaginado(String categoriaNombre, Long cursor, Integer limite) {
+        logger.debug("Buscando inventarios de la categoría: {} desde cursor: {}", categoriaNombre, cursor);
+        return paginar(cursor, limite, (desde, tope) ->
+                inventarioRepository.findByCategoriaPaginado(categoriaNombre, desde, tope));
+    }
+
+    /**
+     * Obtiene inventarios que necesitan reabastecimiento paginados por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<Inventario> obtenerInventariosParaReabastecimientoPaginado(Long cursor, Integer limite) {
+        logger.debug("Obteniendo inventarios para reabastecimiento desde cursor: {}", cursor);
+        return paginar(cursor, limite, (desde, tope) ->
+                inventarioRepository.findInventariosParaReabastecimientoPaginado(desde, tope));
+    }
+
+    /**
+     * Obtiene inventarios actualizados recientemente paginados por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<Inventario> obtenerInventariosActualizadosDesdePaginado(LocalDateTime fecha,
+                                                                                Long cursor, Integer limite) {
+        logger.debug("Obteniendo inventarios actualizados desde: {} desde cursor: {}", fecha, cursor);
+        return paginar(cursor, limite, (desde, tope) ->
+                inventarioRepository.findInventariosActualizadosDesdePaginado(fecha, desde, tope));
+    }
+
+    /**
+     * Ejecuta una consulta keyset pidiendo una fila extra para saber si hay más páginas
+     */
+    private PaginaCursor<Inventario> paginar(Long cursor, Integer limite,
+                                          BiFunction<Long, Limit, List<Inventario>> consulta) {
+        int tamanio = PaginaCursor.normalizarLimite(limite);
+        List<Inventario> filas = consulta.apply(PaginaCursor.normalizarCursor(cursor), Limit.of(tamanio + 1));
+        return PaginaCursor.desde(filas, tamanio, Inventario::getId);
+    }
 }
@@ -0,0 +1,295 @@
+package com.microservices.dataservice.service;
+
+import com.microservices.dataservice.dto.PaginaCursor;
+import com.microservices.dataservice.entity.InstantaneaStock;
+import com.microservices.dataservice.entity.Inventario;
+import com.microservices.dataservice.entity.MovimientoStock;
+import com.microservices.dataservice.exception.ResourceNotFoundException;
+import com.microservices.dataservice.repository.InstantaneaStockRepository;
+import com.microservices.dataservice.repository.MovimientoStockRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Libro de movimientos de stock con instantáneas periódicas
+ *
+ * Cada cambio de cantidad agrega, en la misma transacción, un movimiento inmutable
+ * (solo INSERT) con su diferencia y la cantidad resultante: queda una auditoría completa
+ * y el stock de cualquier producto en cualquier momento se reconstruye sumando las
+ * diferencias desde la última instantánea anterior.
+ *
+ * La compactación periódica fija un corte por ID de movimiento y guarda, para los productos
+ * con movimientos desde el corte anterior, la cantidad resultante de su último movimiento
+ * hasta el corte, acotando lo que hay que sumar. Los movimientos no se eliminan.
+ *
+ * Los IDs se asignan antes del commit, así que una transacción lenta puede confirmar un
+ * ID menor que otro ya visible. Como en el registro de cambios, el corte queda antes del
+ * menor ID todavía en curso en esta instancia. La asignación del ID (que puede ir a la
+ * secuencia) no toma el monitor: antes se anota una reserva con el último ID asignado, y el
+ * corte tampoco pasa de ese valor mientras la reserva siga abierta. Para los IDs de otras
+ * instancias se deja además afuera lo registrado en el último margen
+ * (data.inventario.libro.margen-compactacion-ms).
+ * Las escrituras de un mismo producto se serializan por su fila de inventario, así que el
+ * último movimiento de un producto hasta el corte refleja todos los anteriores.
+ *
+ * El libro no reemplaza a inventario.cantidad: la fila se sigue actualizando en la misma
+ * transacción (el decremento condicionado y las reservas dependen de ella) y el movimiento
+ * se agrega como un INSERT más. La contención sobre filas muy disputadas la reduce
+ * AgrupadorMovimientosStock, que confirma un lote con un solo UPDATE por producto.
+ *
+ * @author Agustin Benavidez
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class LibroStock {
+
+    private static final Logger logger = LoggerFactory.getLogger(LibroStock.class);
+
+    private static final int TAMANIO_LOTE = 1000;
+
+    private final MovimientoStockRepository movimientoRepository;
+    private final InstantaneaStockRepository instantaneaRepository;
+    private final EntityManager entityManager;
+    private final long margenCompactacionMs;
+
+    /** IDs asignados cuya transacción todavía no terminó (protegido por su propio monitor) */
+    private final NavigableSet<Long> enCurso = new TreeSet<>();
+    /** Mayor ID asignado por esta instancia (protegido por el monitor de enCurso) */
+    private long ultimoAsignado;
+    /**
+     * Movimientos que están obteniendo su ID, contados por el último ID asignado al reservar
+     * (protegido por el monitor de enCurso)
+     */
+    private final TreeMap<Long, Integer> reservas = new TreeMap<>();
+
+    @Autowired
+    public LibroStock(MovimientoStockRepository movimientoRepository,
+                      InstantaneaStockRepository instantaneaRepository,
+                      EntityManager entityManager,
+                      @Value("${data.inventario.libro.margen-compactacion-ms:60000}") long margenCompactacionMs) {
+        this.movimientoRepository = movimientoRepository;
+        this.instantaneaRepository = instantaneaRepository;
+        this.entityManager = entityManager;
+        this.margenCompactacionMs = margenCompactacionMs;
+    }
+
+    // ========== ESCRITURA (dentro de la transacción de la mutación) ==========
+
+    /**
+     * Registra un movimiento con la cantidad que dejó en el inventario
+     */
+    public void registrar(Inventario inventario, MovimientoStock.Tipo tipo, int delta) {
+        registrar(inventario.getProductoId(), tipo, delta, inventario.getCantidad());
+    }
+
+    /**
+     * Registra un movimiento de stock
+     */
+    public void registrar(Long productoId, MovimientoStock.Tipo tipo, int delta, int cantidadResultante) {
+        MovimientoStock movimiento = new MovimientoStock(productoId, tipo, delta, cantidadResultante);
+        // El ID que se asigne después de reservar es mayor al último asignado hasta ahora
+        long piso;
+        synchronized (enCurso) {
+            piso = ultimoAsignado;
+            reservas.merge(piso, 1, Integer::sum);
+        }
+        // La asignación (un viaje a la secuencia cada allocationSize movimientos) queda fuera del monitor
+        try {
+            entityManager.persist(movimiento);
+        } catch (RuntimeException e) {
+            synchronized (enCurso) {
+                liberarReserva(piso);
+            }
+            throw e;
+        }
+
+        Long id = movimiento.getId();
+        synchronized (enCurso) {
+            liberarReserva(piso);
+            enCurso.add(id);
+            ultimoAsignado = Math.max(ultimoAsignado, id);
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (enCurso) {
+                    enCurso.remove(id);
+                }
+            }
+        });
+    }
+
+    private void liberarReserva(long piso) {
+        reservas.computeIfPresent(piso, (clave, cantidad) -> cantidad > 1 ? cantidad - 1 : null);
+    }
+
+    // ========== LECTURA ==========
+
+    /**
+     * Obtiene los movimientos de un producto paginados por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<MovimientoStock> obtenerMovimientos(Long productoId, Long cursor, Integer limite) {
+        logger.debug("Obteniendo movimientos de stock del producto ID: {} desde cursor: {}", productoId, cursor);
+        int tamanio = PaginaCursor.normalizarLimite(limite);
+        List<MovimientoStock> filas = movimientoRepository.findByProductoIdPaginado(productoId,
+                PaginaCursor.normalizarCursor(cursor), Limit.of(tamanio + 1));
+        return PaginaCursor.desde(filas, tamanio, MovimientoStock::getId);
+    }
+
+    /**
+     * Reconstruye el stock de un producto en la fecha indicada
+     */
+    @Transactional(readOnly = true)
+    public int reconstruirStock(Long productoId, LocalDateTime fecha) {
+        logger.debug("Reconstruyendo stock del producto ID: {} a la fecha: {}", productoId, fecha);
+        long corte = corteHasta(fecha);
+        Integer base = instantaneaRepository
+                .findFirstByProductoIdAndUltimoMovimientoIdLessThanEqualOrderByUltimoMovimientoIdDesc(productoId, corte)
+                .map(InstantaneaStock::getCantidad)
+                .orElse(null);
+        Long suma = movimientoRepository.sumarDesdeCorte(productoId, corte, fecha);
+        if (base == null && suma == null) {
+            throw new ResourceNotFoundException("Historial de stock", "productoId", productoId);
+        }
+        return (base != null ? base : 0) + (suma != null ? suma.intValue() : 0);
+    }
+
+    /**
+     * Reconstruye el stock de todos los productos en la fecha indicada
+     *
+     * Parte de las instantáneas vigentes en el último corte anterior a la fecha y suma los
+     * movimientos posteriores por lotes; cada lote se pliega en paralelo por producto.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> reconstruirStock(LocalDateTime fecha) {
+        logger.debug("Reconstruyendo stock de todos los productos a la fecha: {}", fecha);
+        long corte = corteHasta(fecha);
+
+        Map<Long, Long> acumulado = new ConcurrentHashMap<>();
+        for (InstantaneaStock instantanea : instantaneaRepository.findVigentesEnCorte(corte)) {
+            acumulado.putIfAbsent(instantanea.getProductoId(), instantanea.getCantidad().longValue());
+        }
+
+        long cursor = corte;
+        List<Object[]> lote;
+        do {
+            lote = movimientoRepository.findDeltasDesdeCorte(cursor, fecha, Limit.of(TAMANIO_LOTE));
+            lote.parallelStream().forEach(fila ->
+                    acumulado.merge((Long) fila[1], ((Number) fila[2]).longValue(), Long::sum));
+            if (!lote.isEmpty()) {
+                cursor = (Long) lote.get(lote.size() - 1)[0];
+            }
+        } while (lote.size() == TAMANIO_LOTE);
+
+        Map<Long, Integer> stock = new TreeMap<>();
+        acumulado.forEach((productoId, cantidad) -> stock.put(productoId, cantidad.intValue()));
+        return stock;
+    }
+
+    private long corteHasta(LocalDateTime fecha) {
+        Long corte = instantaneaRepository.findCorteHasta(fecha);
+        return corte != null ? corte : 0L;
+    }
+
+    // ========== COMPACTACIÓN ==========
+
+    /**
+     * Guarda instantáneas en un nuevo corte para los productos con movimientos desde el anterior
+     *
+     * La cantidad de cada instantánea es la resultante del último movimiento del producto
+     * hasta el corte (y no una suma sobre la instantánea anterior), así que dos compactaciones
+     * simultáneas solo generan instantáneas redundantes, no cantidades sumadas dos veces.
+     *
+     * @return cantidad de instantáneas guardadas
+     */
+    @Scheduled(initialDelayString = "${data.inventario.libro.compactacion-ms:300000}",
+               fixedDelayString = "${data.inventario.libro.compactacion-ms:300000}")
+    @Transactional
+    public int compactar() {
+        // Antes de cualquier lectura: con REPEATABLE READ lo confirmado después no se vería.
+        // Lo que esta instancia registre después tiene fecha posterior al límite y un ID mayor
+        // al último asignado (o de un bloque nuevo de la secuencia, mayor a todo lo visible).
+        LocalDateTime limiteFecha = LocalDateTime.now().minusNanos(margenCompactacionMs * 1_000_000);
+        long limiteEnCurso;
+        synchronized (enCurso) {
+            if (!enCurso.isEmpty()) {
+                limiteEnCurso = enCurso.first() - 1;
+            } else {
+                limiteEnCurso = ultimoAsignado > 0 ? ultimoAsignado : Long.MAX_VALUE;
+            }
+            // Un ID que se está obteniendo puede ser menor que otros ya en curso
+            if (!reservas.isEmpty()) {
+                limiteEnCurso = Math.min(limiteEnCurso, reservas.firstKey());
+            }
+        }
+
+        Long ultimo = instantaneaRepository.findUltimoCorte();
+        long desde = ultimo != null ? ultimo : 0L;
+        Long visible = movimientoRepository.findUltimoIdAnteriorA(limiteFecha);
+        if (visible == null) {
+            return 0;
+        }
+        long hasta = Math.min(visible, limiteEnCurso);
+        if (hasta <= desde) {
+            return 0;
+        }
+
+        List<Object[]> cantidades = movimientoRepository.findCantidadesAlCorte(desde, hasta);
+        if (cantidades.isEmpty()) {
+            return 0;
+        }
+        // La fecha del corte nunca retrocede: el corte siguiente incluye al anterior
+        LocalDateTime fecha = movimientoRepository.findUltimaFechaEntre(desde, hasta);
+        LocalDateTime fechaAnterior = instantaneaRepository.findFechaUltimoCorte();
+        if (fechaAnterior != null && fechaAnterior.isAfter(fecha)) {
+            fecha = fechaAnterior;
+        }
+
+        for (Object[] fila : cantidades) {
+            entityManager.persist(new InstantaneaStock((Long) fila[0], (Integer) fila[1], fecha, hasta));
+        }
+        logger.info("Libro de stock compactado hasta el movimiento {} ({}): {} instantáneas",
+                hasta, fecha, cantidades.size());
+        return cantidades.size();
+    }
+
+    /**
+     * Guarda al arrancar la instantánea inicial de los inventarios sin historial
+     * (cargados fuera del servicio o anteriores al libro de stock)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void registrarInventariosSinHistorial() {
+        List<Object[]> inventarios = instantaneaRepository.findInventariosSinHistorial();
+        for (Object[] fila : inventarios) {
+            entityManager.persist(new InstantaneaStock((Long) fila[0], (Integer) fila[1],
+                    InstantaneaStock.CORTE_INICIAL, 0L));
+        }
+        if (!inventarios.isEmpty()) {
+            logger.info("Libro de stock: {} inventarios sin historial registrados con su stock actual",
+                    inventarios.size());
+        }
+    }
+}
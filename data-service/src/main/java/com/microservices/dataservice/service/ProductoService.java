@@ -1,7 +1,14 @@
 package com.microservices.dataservice.service;
 
+import com.microservices.dataservice.busqueda.FiltroNombresProductos;
+import com.microservices.dataservice.busqueda.IndiceBusquedaProductos;
+import com.microservices.dataservice.busqueda.IndicePreciosProductos;
+import com.microservices.dataservice.dto.PaginaCursor;
+import com.microservices.dataservice.dto.ProductoResumen;
+import com.microservices.dataservice.entity.Cambio;
 import com.microservices.dataservice.entity.Categoria;
 import com.microservices.dataservice.entity.Inventario;
+import com.microservices.dataservice.entity.MovimientoStock;
 import com.microservices.dataservice.entity.Producto;
 import com.microservices.dataservice.exception.DuplicateResourceException;
 import com.microservices.dataservice.exception.ResourceNotFoundException;
@@ -9,12 +16,21 @@ import com.microservices.dataservice.repository.ProductoRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -31,14 +47,32 @@ public class ProductoService {
     private final ProductoRepository productoRepository;
     private final CategoriaService categoriaService;
     private final InventarioService inventarioService;
+    private final IndiceBusquedaProductos indiceBusqueda;
+    private final IndicePreciosProductos indicePrecios;
+    private final FiltroNombresProductos filtroNombres;
+    private final AgregadosInventario agregadosInventario;
+    private final RegistroCambios registroCambios;
+    private final LibroStock libroStock;
 
     @Autowired
     public ProductoService(ProductoRepository productoRepository,
                           CategoriaService categoriaService,
-                          InventarioService inventarioService) {
+                          InventarioService inventarioService,
+                          IndiceBusquedaProductos indiceBusqueda,
+                          IndicePreciosProductos indicePrecios,
+                          FiltroNombresProductos filtroNombres,
+                          AgregadosInventario agregadosInventario,
+                          RegistroCambios registroCambios,
+                          LibroStock libroStock) {
         this.productoRepository = productoRepository;
         this.categoriaService = categoriaService;
         this.inventarioService = inventarioService;
+        this.indiceBusqueda = indiceBusqueda;
+        this.indicePrecios = indicePrecios;
+        this.filtroNombres = filtroNombres;
+        this.agregadosInventario = agregadosInventario;
+        this.registroCambios = registroCambios;
+        this.libroStock = libroStock;
     }
 
     /**
@@ -84,8 +118,9 @@ public class ProductoService {
     public Producto crear(Producto producto, Integer cantidadInicial, Integer stockMinimo) {
         logger.info("Creando nuevo producto: {}", producto.getNombre());
         
-        // Validar que no exista un producto con el mismo nombre
-        if (productoRepository.existsByNombreIgnoreCaseAndIdNot(producto.getNombre(), null)) {
+        // Validar que no exista un producto con el mismo nombre (el filtro evita la consulta si es nuevo)
+        if (filtroNombres.existe(producto.getNombre(),
+                () -> productoRepository.existsByNombreIgnoreCaseAndIdNot(producto.getNombre(), null))) {
             throw new DuplicateResourceException("Producto", "nombre", producto.getNombre());
         }
 
@@ -99,6 +134,9 @@ public class ProductoService {
 
         // Guardar producto
         Producto productoGuardado = productoRepository.save(producto);
+        filtroNombres.agregar(productoGuardado.getNombre());
+        agregadosInventario.registrarProducto(productoGuardado);
+        registroCambios.registrarProducto(productoGuardado, Cambio.Operacion.CREACION);
         logger.info("Producto creado exitosamente con ID: {}", productoGuardado.getId());
 
         // Crear inventario inicial si se especificó
@@ -109,6 +147,7 @@ public class ProductoService {
                        productoGuardado.getId(), cantidadInicial);
         }
 
+        indexarTrasCommit(productoGuardado);
         return productoGuardado;
     }
 
@@ -121,8 +160,9 @@ public class ProductoService {
         Producto productoExistente = buscarPorId(id);
 
         // Validar que no exista otro producto con el mismo nombre
-        if (!productoExistente.getNombre().equalsIgnoreCase(productoActualizado.getNombre()) &&
-            productoRepository.existsByNombreIgnoreCaseAndIdNot(productoActualizado.getNombre(), id)) {
+        boolean renombrado = !productoExistente.getNombre().equalsIgnoreCase(productoActualizado.getNombre());
+        if (renombrado && filtroNombres.existe(productoActualizado.getNombre(),
+                () -> productoRepository.existsByNombreIgnoreCaseAndIdNot(productoActualizado.getNombre(), id))) {
             throw new DuplicateResourceException("Producto", "nombre", productoActualizado.getNombre());
         }
 
@@ -141,6 +181,14 @@ public class ProductoService {
         }
 
         Producto productoGuardado = productoRepository.save(productoExistente);
+        if (renombrado) {
+            filtroNombres.agregar(productoGuardado.getNombre());
+        }
+        agregadosInventario.registrarProducto(productoGuardado);
+        registroCambios.registrarProducto(productoGuardado, Cambio.Operacion.ACTUALIZACION);
+        if (Boolean.TRUE.equals(productoGuardado.getActivo())) {
+            indexarTrasCommit(productoGuardado);
+        }
         logger.info("Producto actualizado exitosamente: {}", productoGuardado.getNombre());
         return productoGuardado;
     }
@@ -155,6 +203,9 @@ public class ProductoService {
         producto.setActivo(false);
         
         productoRepository.save(producto);
+        agregadosInventario.registrarProducto(producto);
+        registroCambios.registrarProductoEliminado(id);
+        trasCommit(() -> desindexar(id));
         logger.info("Producto desactivado exitosamente: {}", producto.getNombre());
     }
 
@@ -165,7 +216,15 @@ public class ProductoService {
         logger.warn("Eliminando permanentemente producto con ID: {}", id);
         
         Producto producto = buscarPorId(id);
+        Inventario inventario = producto.getInventario();
         productoRepository.delete(producto);
+        agregadosInventario.registrarProductoEliminado(id);
+        registroCambios.registrarProductoEliminado(id);
+        if (inventario != null) {
+            // El inventario se elimina en cascada con el producto
+            libroStock.registrar(id, MovimientoStock.Tipo.ELIMINACION, -inventario.getCantidad(), 0);
+        }
+        trasCommit(() -> desindexar(id));
         logger.warn("Producto eliminado permanentemente: {}", producto.getNombre());
     }
 
@@ -178,15 +237,6 @@ public class ProductoService {
         return productoRepository.buscarPorTexto(texto);
     }
 
-    /**
-     * Busca productos por rango de precios
-     */
-    @Transactional(readOnly = true)
-    public List<Producto> buscarPorRangoPrecios(BigDecimal precioMin, BigDecimal precioMax) {
-        logger.debug("Buscando productos con precio entre {} y {}", precioMin, precioMax);
-        return productoRepository.findByPrecioBetween(precioMin, precioMax);
-    }
-
     /**
      * Obtiene productos con stock bajo
      */
@@ -215,31 +265,27 @@ public class ProductoService {
     }
 
     /**
-     * Obtiene productos ordenados por precio (mayor a menor)
+     * Obtiene el valor total del inventario por producto
      */
     @Transactional(readOnly = true)
-    public List<Producto> obtenerProductosPorPrecioDesc() {
-        logger.debug("Obteniendo productos ordenados por precio descendente");
-        return productoRepository.findProductosOrdenadosPorPrecioDesc();
+    public List<Map<String, Object>> obtenerValorInventarioPorProducto() {
+        logger.debug("Obteniendo valor de inventario por producto");
+        return mapearValorInventario(productoRepository.obtenerValorInventarioPorProducto(Limit.unlimited()));
     }
 
     /**
-     * Obtiene productos ordenados por precio (menor a mayor)
+     * Obtiene los N productos de mayor valor de inventario
      */
     @Transactional(readOnly = true)
-    public List<Producto> obtenerProductosPorPrecioAsc() {
-        logger.debug("Obteniendo productos ordenados por precio ascendente");
-        return productoRepository.findProductosOrdenadosPorPrecioAsc();
+    public List<Map<String, Object>> obtenerValorInventarioPorProducto(int top) {
+        logger.debug("Obteniendo los {} productos de mayor valor de inventario", top);
+        if (top <= 0 || top > PaginaCursor.LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("top debe estar entre 1 y " + PaginaCursor.LIMITE_MAXIMO);
+        }
+        return mapearValorInventario(productoRepository.obtenerValorInventarioPorProducto(Limit.of(top)));
     }
 
-    /**
-     * Obtiene el valor total del inventario por producto
-     */
-    @Transactional(readOnly = true)
-    public List<Map<String, Object>> obtenerValorInventarioPorProducto() {
-        logger.debug("Obteniendo valor de inventario por producto");
-        List<Object[]> resultados = productoRepository.obtenerValorInventarioPorProducto();
-        
+    private List<Map<String, Object>> mapearValorInventario(List<Object[]> resultados) {
         return resultados.stream()
                 .map(result -> Map.of(
                     "productoId", result[0],
@@ -251,24 +297,6 @@ public class ProductoService {
                 .collect(Collectors.toList());
     }
 
-    /**
-     * Busca productos más caros que un precio dado
-     */
-    @Transactional(readOnly = true)
-    public List<Producto> buscarPorPrecioMayorA(BigDecimal precio) {
-        logger.debug("Buscando productos con precio mayor a: {}", precio);
-        return productoRepository.findByPrecioGreaterThan(precio);
-    }
-
-    /**
-     * Busca productos más baratos que un precio dado
-     */
-    @Transactional(readOnly = true)
-    public List<Producto> buscarPorPrecioMenorA(BigDecimal precio) {
-        logger.debug("Buscando productos con precio menor a: {}", precio);
-        return productoRepository.findByPrecioLessThan(precio);
-    }
-
     /**
      * Busca productos creados recientemente
      */
@@ -291,7 +319,7 @@ public class ProductoService {
      */
     @Transactional(readOnly = true)
     public long contarProductosActivos() {
-        return productoRepository.findByActivoTrue().size();
+        return productoRepository.countByActivoTrue();
     }
 
     /**
@@ -305,8 +333,311 @@ public class ProductoService {
         
         producto.setActivo(true);
         Producto productoReactivado = productoRepository.save(producto);
+        agregadosInventario.registrarProducto(productoReactivado);
+        registroCambios.registrarProducto(productoReactivado, Cambio.Operacion.ACTUALIZACION);
+        indexarTrasCommit(productoReactivado);
         
         logger.info("Producto reactivado exitosamente: {}", productoReactivado.getNombre());
         return productoReactivado;
     }
+
+    /**
+     * Completa al iniciar el nombre normalizado de los productos creados antes de la columna
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void completarNombresNormalizados() {
+        int completados = productoRepository.completarNombresNormalizados();
+        if (completados > 0) {
+            logger.info("Nombre normalizado completado en {} productos", completados);
+        }
+    }
+
+    // ========== PROYECCIONES DE LECTURA ==========
+
+    /**
+     * Obtiene el resumen de todos los productos activos en una sola consulta
+     */
+    @Transactional(readOnly = true)
+    public List<ProductoResumen> obtenerResumenTodos() {
+        logger.debug("Obteniendo resumen de productos activos");
+        return productoRepository.findResumenActivos();
+    }
+
+    /**
+     * Obtiene el resumen de varios productos por ID en una sola consulta
+     *
+     * Devuelve los productos en el orden pedido, sin repetidos; los IDs inexistentes se omiten.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductoResumen> buscarResumenPorIds(List<Long> ids) {
+        List<Long> distintos = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distintos.size() > PaginaCursor.LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("Se pueden pedir hasta " + PaginaCursor.LIMITE_MAXIMO
+                    + " productos por consulta (pedidos: " + distintos.size() + ")");
+        }
+        logger.debug("Buscando {} productos por ID", distintos.size());
+        if (distintos.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductoResumen> porId = productoRepository.findResumenPorIds(distintos).stream()
+                .collect(Collectors.toMap(ProductoResumen::getId, resumen -> resumen));
+        return distintos.stream().map(porId::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Obtiene el resumen de productos por categoría
+     */
+    @Transactional(readOnly = true)
+    public List<ProductoResumen> buscarResumenPorCategoria(String categoriaNombre) {
+        logger.debug("Obteniendo resumen de productos de la categoría: {}", categoriaNombre);
+        return productoRepository.findResumenByCategoriaNombreIgnoreCase(categoriaNombre);
+    }
+
+    /**
+     * Obtiene el resumen de productos por texto en nombre o descripción, ordenados por relevancia
+     */
+    @Transactional(readOnly = true)
+    public List<ProductoResumen> buscarResumenPorTexto(String texto) {
+        logger.debug("Obteniendo resumen de productos que contengan: {}", texto);
+        return cargarResumenEnOrden(idsPorTexto(texto, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Obtiene el resumen de productos por rango de precios
+     */
+    @Transactional(readOnly = true)
+    public List<ProductoResumen> buscarResumenPorRangoPrecios(BigDecimal precioMin, BigDecimal precioMax) {
+        logger.debug("Obteniendo resumen de productos con precio entre {} y {}", precioMin, precioMax);
+        if (!indicePrecios.isCargado()) {
+            return productoRepository.findResumenByPrecioBetween(precioMin, precioMax);
+        }
+        return cargarResumenEnOrden(
+                indicePrecios.buscarPorRango(precioMin, precioMax, false, 0, Integer.MAX_VALUE).productoIds());
+    }
+
+    /**
+     * Obtiene el resumen de productos con stock bajo
+     */
+    @Transactional(readOnly = true)
+    public List<ProductoResumen> obtenerResumenConStockBajo() {
+        logger.debug("Obteniendo resumen de productos con stock bajo");
+        return productoRepository.findResumenConStockBajo();
+    }
+
+    /**
+     * Obtiene el resumen de productos sin stock
+     */
+    @Transactional(readOnly = true)
+    public List<ProductoResumen> obtenerResumenSinStock() {
+        logger.debug("Obteniendo resumen de productos sin stock");
+        return productoRepository.findResumenSinStock();
+    }
+
+    // ========== CONSULTAS PAGINADAS POR CURSOR ==========
+
+    /**
+     * Obtiene productos activos paginados por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<ProductoResumen> obtenerTodosPaginado(Long cursor, Integer limite) {
+        logger.debug("Obteniendo productos activos desde cursor: {}", cursor);
+        return paginar(cursor, limite, (desde, tope) -> productoRepository.findActivosPaginado(desde, tope));
+    }
+
+    /**
+     * Busca productos por categoría paginados por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<ProductoResumen> buscarPorCategoriaPaginado(String categoriaNombre, Long cursor, Integer limite) {
+        logger.debug("Buscando productos de la categoría: {} desde cursor: {}", categoriaNombre, cursor);
+        return paginar(cursor, limite, (desde, tope) ->
+                productoRepository.findByCategoriaNombreIgnoreCasePaginado(categoriaNombre, desde, tope));
+    }
+
+    /**
+     * Busca productos por texto paginados, ordenados por relevancia
+     *
+     * A diferencia del resto de listados, el cursor es la posición dentro del
+     * ranking y no un ID, ya que el orden no sigue la clave primaria.
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<ProductoResumen> buscarPorTextoPaginado(String texto, Long cursor, Integer limite) {
+        logger.debug("Buscando productos que contengan: {} desde posición: {}", texto, cursor);
+        int tamanio = PaginaCursor.normalizarLimite(limite);
+        int desde = (int) Math.min(PaginaCursor.normalizarCursor(cursor), Integer.MAX_VALUE - tamanio - 1);
+        // Un resultado más que la página para saber si hay siguiente
+        List<Long> productoIds = idsPorTexto(texto, desde + tamanio + 1);
+
+        desde = Math.min(desde, productoIds.size());
+        int hasta = Math.min(desde + tamanio, productoIds.size());
+        boolean hayMas = hasta < productoIds.size();
+        List<ProductoResumen> contenido = cargarResumenEnOrden(productoIds.subList(desde, hasta));
+        return new PaginaCursor<>(contenido, hayMas ? (long) hasta : null, tamanio, hayMas);
+    }
+
+    /**
+     * Busca productos por rango de precios paginados por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<ProductoResumen> buscarPorRangoPreciosPaginado(BigDecimal precioMin, BigDecimal precioMax,
+                                                                 Long cursor, Integer limite) {
+        logger.debug("Buscando productos con precio entre {} y {} desde cursor: {}", precioMin, precioMax, cursor);
+        return paginar(cursor, limite, (desde, tope) ->
+                productoRepository.findByPrecioBetweenPaginado(precioMin, precioMax, desde, tope));
+    }
+
+    /**
+     * Busca productos por rango de precios (límites opcionales) paginados en orden de precio
+     *
+     * Se resuelve sobre el índice de precios en memoria; como en la búsqueda por texto,
+     * el cursor es la posición dentro del orden y no un ID. Hasta que el índice termina
+     * su primera carga se consulta la base con el mismo orden (precio, ID).
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<ProductoResumen> buscarPorPrecioOrdenado(BigDecimal precioMin, BigDecimal precioMax,
+                                                               boolean descendente, Long cursor, Integer limite) {
+        logger.debug("Buscando productos con precio entre {} y {} ({}) desde posición: {}",
+                precioMin, precioMax, descendente ? "desc" : "asc", cursor);
+        int tamanio = PaginaCursor.normalizarLimite(limite);
+        int desde = (int) Math.min(PaginaCursor.normalizarCursor(cursor), Integer.MAX_VALUE);
+        if (!indicePrecios.isCargado()) {
+            // Se pide uno más para saber si hay otra página
+            List<ProductoResumen> filas = descendente
+                    ? productoRepository.findByPrecioOrdenadoDesc(precioMin, precioMax, desde, tamanio + 1)
+                    : productoRepository.findByPrecioOrdenadoAsc(precioMin, precioMax, desde, tamanio + 1);
+            boolean hayMas = filas.size() > tamanio;
+            List<ProductoResumen> contenido = hayMas ? filas.subList(0, tamanio) : filas;
+            return new PaginaCursor<>(contenido, hayMas ? (long) desde + tamanio : null, tamanio, hayMas);
+        }
+        IndicePreciosProductos.Pagina pagina =
+                indicePrecios.buscarPorRango(precioMin, precioMax, descendente, desde, tamanio);
+
+        List<ProductoResumen> contenido = cargarResumenEnOrden(pagina.productoIds());
+        Long siguienteCursor = pagina.hayMas() ? (long) desde + pagina.productoIds().size() : null;
+        return new PaginaCursor<>(contenido, siguienteCursor, tamanio, pagina.hayMas());
+    }
+
+    /**
+     * Obtiene los k productos más baratos de una categoría
+     */
+    @Transactional(readOnly = true)
+    public List<ProductoResumen> obtenerMasBaratosDeCategoria(Long categoriaId, int k) {
+        logger.debug("Obteniendo los {} productos más baratos de la categoría ID: {}", k, categoriaId);
+        if (k <= 0 || k > PaginaCursor.LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("k debe estar entre 1 y " + PaginaCursor.LIMITE_MAXIMO);
+        }
+        categoriaService.buscarPorId(categoriaId);
+        if (!indicePrecios.isCargado()) {
+            return productoRepository.findMasBaratosDeCategoria(categoriaId, Limit.of(k));
+        }
+        return cargarResumenEnOrden(indicePrecios.buscarMasBaratos(categoriaId, k));
+    }
+
+    /**
+     * Obtiene productos con stock bajo paginados por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<ProductoResumen> obtenerProductosConStockBajoPaginado(Long cursor, Integer limite) {
+        logger.debug("Obteniendo productos con stock bajo desde cursor: {}", cursor);
+        return paginar(cursor, limite, (desde, tope) ->
+                productoRepository.findProductosConStockBajoPaginado(desde, tope));
+    }
+
+    /**
+     * Obtiene productos sin stock paginados por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<ProductoResumen> obtenerProductosSinStockPaginado(Long cursor, Integer limite) {
+        logger.debug("Obteniendo productos sin stock desde cursor: {}", cursor);
+        return paginar(cursor, limite, (desde, tope) ->
+                productoRepository.findProductosSinStockPaginado(desde, tope));
+    }
+
+    /**
+     * Carga los resúmenes de los productos respetando el orden de los IDs (ranking o precio)
+     */
+    private List<ProductoResumen> cargarResumenEnOrden(List<Long> productoIds) {
+        List<ProductoResumen> productos = new ArrayList<>(productoIds.size());
+        for (int i = 0; i < productoIds.size(); i += PaginaCursor.LIMITE_MAXIMO) {
+            List<Long> lote = productoIds.subList(i, Math.min(i + PaginaCursor.LIMITE_MAXIMO, productoIds.size()));
+            Map<Long, ProductoResumen> porId = new HashMap<>();
+            for (ProductoResumen resumen : productoRepository.findResumenByIdIn(lote)) {
+                porId.put(resumen.getId(), resumen);
+            }
+            for (Long productoId : lote) {
+                ProductoResumen resumen = porId.get(productoId);
+                if (resumen != null) {
+                    productos.add(resumen);
+                }
+            }
+        }
+        return productos;
+    }
+
+    /**
+     * IDs de los primeros productos que coinciden con el texto, por relevancia
+     *
+     * Hasta la primera carga completa del índice se busca con LIKE en la base (subcadena del
+     * texto entero, ordenado por ID).
+     */
+    private List<Long> idsPorTexto(String texto, int limite) {
+        if (!indiceBusqueda.isCargado()) {
+            if (texto == null || texto.isBlank()) {
+                return List.of();
+            }
+            return buscarPorTexto(texto.trim()).stream().map(Producto::getId).sorted().limit(limite).toList();
+        }
+        return indiceBusqueda.buscar(texto, limite).stream()
+                .map(IndiceBusquedaProductos.Resultado::productoId)
+                .toList();
+    }
+
+    /**
+     * Indexa el producto para búsqueda y por precio cuando la transacción confirma
+     */
+    private void indexarTrasCommit(Producto producto) {
+        Long id = producto.getId();
+        String nombre = producto.getNombre();
+        String descripcion = producto.getDescripcion();
+        BigDecimal precio = producto.getPrecio();
+        Long categoriaId = producto.getCategoria().getId();
+        trasCommit(() -> {
+            indiceBusqueda.indexar(id, nombre, descripcion);
+            indicePrecios.indexar(id, precio, categoriaId);
+        });
+    }
+
+    /**
+     * Quita el producto de los índices en memoria
+     */
+    private void desindexar(Long id) {
+        indiceBusqueda.eliminar(id);
+        indicePrecios.eliminar(id);
+    }
+
+    /**
+     * Ejecuta la acción tras el commit, o de inmediato si no hay transacción activa
+     */
+    private void trasCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    /**
+     * Ejecuta una consulta keyset pidiendo una fila extra para saber si hay más páginas
+     */
+    private PaginaCursor<ProductoResumen> paginar(Long cursor, Integer limite,
+                                          BiFunction<Long, Limit, List<ProductoResumen>> consulta) {
+        int tamanio = PaginaCursor.normalizarLimite(limite);
+        List<ProductoResumen> filas = consulta.apply(PaginaCursor.normalizarCursor(cursor), Limit.of(tamanio + 1));
+        return PaginaCursor.desde(filas, tamanio, ProductoResumen::getId);
+    }
 }
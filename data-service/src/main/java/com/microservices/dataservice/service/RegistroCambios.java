@@ -0,0 +1,161 @@
+package com.microservices.dataservice.service;
+
+import com.microservices.dataservice.dto.PaginaCursor;
+import com.microservices.dataservice.entity.Cambio;
+import com.microservices.dataservice.entity.Inventario;
+import com.microservices.dataservice.entity.Producto;
+import com.microservices.dataservice.lectura.ModeloLecturaCatalogo;
+import com.microservices.dataservice.repository.CambioRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Registro de cambios (change feed) de productos e inventario
+ *
+ * Cada mutación agrega una entrada en la misma transacción que la modifica, de modo
+ * que el registro y los datos se confirman juntos. Los consumidores leen con un
+ * cursor (último ID procesado) y reciben solo las entradas posteriores.
+ *
+ * Los IDs se asignan antes del commit, así que una transacción lenta puede confirmar
+ * un ID menor que otro ya visible. Para no saltearlo, la lectura se corta antes del
+ * menor ID todavía en curso en esta instancia.
+ *
+ * Como toda mutación pasa por aquí, también se anota el producto en el modelo de
+ * lectura del catálogo para que lo refresque al confirmar.
+ *
+ * @author Agustin Benavidez
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class RegistroCambios {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistroCambios.class);
+
+    private final CambioRepository cambioRepository;
+    private final EntityManager entityManager;
+    private final ModeloLecturaCatalogo modeloLectura;
+    private final int retencionDias;
+
+    /** IDs asignados cuya transacción todavía no terminó (protegido por su propio monitor) */
+    private final NavigableSet<Long> enCurso = new TreeSet<>();
+
+    @Autowired
+    public RegistroCambios(CambioRepository cambioRepository,
+                           EntityManager entityManager,
+                           ModeloLecturaCatalogo modeloLectura,
+                           @Value("${data.cambios.retencion-dias:7}") int retencionDias) {
+        this.cambioRepository = cambioRepository;
+        this.entityManager = entityManager;
+        this.modeloLectura = modeloLectura;
+        this.retencionDias = retencionDias;
+    }
+
+    // ========== ESCRITURA (dentro de la transacción de la mutación) ==========
+
+    /**
+     * Registra la creación o modificación de un producto
+     */
+    public void registrarProducto(Producto producto, Cambio.Operacion operacion) {
+        registrar(new Cambio(Cambio.Entidad.PRODUCTO, operacion, producto.getId(), null));
+    }
+
+    /**
+     * Registra la baja (lógica o física) de un producto
+     */
+    public void registrarProductoEliminado(Long productoId) {
+        registrar(new Cambio(Cambio.Entidad.PRODUCTO, Cambio.Operacion.ELIMINACION, productoId, null));
+    }
+
+    /**
+     * Registra la creación o modificación de un inventario con su cantidad resultante
+     */
+    public void registrarInventario(Inventario inventario, Cambio.Operacion operacion) {
+        registrar(new Cambio(Cambio.Entidad.INVENTARIO, operacion, inventario.getProductoId(), inventario.getCantidad()));
+    }
+
+    /**
+     * Registra la eliminación del inventario de un producto
+     */
+    public void registrarInventarioEliminado(Long productoId) {
+        registrar(new Cambio(Cambio.Entidad.INVENTARIO, Cambio.Operacion.ELIMINACION, productoId, null));
+    }
+
+    private void registrar(Cambio cambio) {
+        // Asignar el ID y marcarlo en curso de forma atómica respecto de la lectura
+        synchronized (enCurso) {
+            entityManager.persist(cambio);
+            enCurso.add(cambio.getId());
+        }
+
+        Long id = cambio.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (enCurso) {
+                    enCurso.remove(id);
+                }
+            }
+        });
+        modeloLectura.registrarProducto(cambio.getProductoId());
+    }
+
+    // ========== LECTURA ==========
+
+    /**
+     * Obtiene los cambios posteriores al cursor en orden de ID
+     *
+     * A diferencia de las demás páginas, el siguiente cursor siempre viene informado
+     * (el último ID entregado, o el mismo cursor si no hubo cambios) para que el
+     * consumidor lo guarde y vuelva a consultar más tarde. No se marca como de solo
+     * lectura para leer siempre de la primaria: el límite de IDs en curso no vale
+     * sobre una réplica atrasada.
+     */
+    @Transactional
+    public PaginaCursor<Cambio> obtenerCambios(Long desde, Integer limite) {
+        int tamanio = PaginaCursor.normalizarLimite(limite);
+        long cursor = PaginaCursor.normalizarCursor(desde);
+        long hasta;
+        synchronized (enCurso) {
+            hasta = enCurso.isEmpty() ? Long.MAX_VALUE : enCurso.first();
+        }
+        logger.debug("Obteniendo cambios desde cursor: {} (límite visible: {})", cursor, hasta);
+
+        List<Cambio> filas = cambioRepository.findEntre(cursor, hasta, Limit.of(tamanio + 1));
+        boolean hayMas = filas.size() > tamanio;
+        List<Cambio> contenido = hayMas ? List.copyOf(filas.subList(0, tamanio)) : filas;
+        Long siguienteCursor = contenido.isEmpty() ? cursor : contenido.get(contenido.size() - 1).getId();
+        return new PaginaCursor<>(contenido, siguienteCursor, tamanio, hayMas);
+    }
+
+    // ========== RETENCIÓN ==========
+
+    /**
+     * Elimina las entradas más antiguas que la retención configurada
+     * @return cantidad de entradas eliminadas
+     */
+    @Scheduled(initialDelayString = "${data.cambios.purga-ms:3600000}",
+               fixedDelayString = "${data.cambios.purga-ms:3600000}")
+    @Transactional
+    public int purgar() {
+        int eliminados = cambioRepository.eliminarAnterioresA(LocalDateTime.now().minusDays(retencionDias));
+        if (eliminados > 0) {
+            logger.info("Registro de cambios: {} entradas anteriores a {} días eliminadas", eliminados, retencionDias);
+        }
+        return eliminados;
+    }
+}
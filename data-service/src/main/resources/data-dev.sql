@@ -2,73 +2,78 @@
 -- Autor: Agustin Benavidez - Legajo: 62344
 
 -- Insertar categorías
-INSERT INTO categorias (nombre, descripcion, fecha_creacion, fecha_actualizacion) VALUES 
-('Electrónicos', 'Productos electrónicos y tecnológicos', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Ropa', 'Prendas de vestir y accesorios', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Hogar', 'Artículos para el hogar y decoración', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Deportes', 'Equipamiento y ropa deportiva', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Libros', 'Libros y material educativo', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+INSERT INTO categorias (id, nombre, nombre_normalizado, descripcion, fecha_creacion, fecha_actualizacion) VALUES 
+(1, 'Electrónicos', 'electrónicos', 'Productos electrónicos y tecnológicos', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(2, 'Ropa', 'ropa', 'Prendas de vestir y accesorios', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(3, 'Hogar', 'hogar', 'Artículos para el hogar y decoración', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(4, 'Deportes', 'deportes', 'Equipamiento y ropa deportiva', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(5, 'Libros', 'libros', 'Libros y material educativo', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
 -- Insertar productos
-INSERT INTO productos (nombre, descripcion, precio, categoria_id, activo, fecha_creacion, fecha_actualizacion) VALUES 
+INSERT INTO productos (id, nombre, nombre_normalizado, descripcion, precio, categoria_id, activo, fecha_creacion, fecha_actualizacion) VALUES 
 -- Electrónicos
-('Smartphone Samsung Galaxy', 'Teléfono inteligente con pantalla AMOLED', 299999.99, 1, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Laptop Dell Inspiron', 'Laptop para uso profesional y personal', 750000.00, 1, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Auriculares Bluetooth', 'Auriculares inalámbricos con cancelación de ruido', 85000.00, 1, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Tablet iPad', 'Tablet para trabajo y entretenimiento', 450000.00, 1, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(1, 'Smartphone Samsung Galaxy', 'smartphone samsung galaxy', 'Teléfono inteligente con pantalla AMOLED', 299999.99, 1, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(2, 'Laptop Dell Inspiron', 'laptop dell inspiron', 'Laptop para uso profesional y personal', 750000.00, 1, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(3, 'Auriculares Bluetooth', 'auriculares bluetooth', 'Auriculares inalámbricos con cancelación de ruido', 85000.00, 1, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(4, 'Tablet iPad', 'tablet ipad', 'Tablet para trabajo y entretenimiento', 450000.00, 1, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 
 -- Ropa
-('Remera Básica', 'Remera de algodón 100% de alta calidad', 12500.00, 2, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Jeans Clásicos', 'Pantalón de mezclilla azul clásico', 18750.00, 2, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Campera de Cuero', 'Campera de cuero genuino para hombre', 95000.00, 2, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Zapatillas Deportivas', 'Zapatillas para correr y ejercicio', 32500.00, 2, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(5, 'Remera Básica', 'remera básica', 'Remera de algodón 100% de alta calidad', 12500.00, 2, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(6, 'Jeans Clásicos', 'jeans clásicos', 'Pantalón de mezclilla azul clásico', 18750.00, 2, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(7, 'Campera de Cuero', 'campera de cuero', 'Campera de cuero genuino para hombre', 95000.00, 2, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(8, 'Zapatillas Deportivas', 'zapatillas deportivas', 'Zapatillas para correr y ejercicio', 32500.00, 2, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 
 -- Hogar
-('Silla de Oficina', 'Silla ergonómica para oficina', 125000.00, 3, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Mesa de Comedor', 'Mesa de madera para 6 personas', 225000.00, 3, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Lámpara LED', 'Lámpara de mesa con luz LED regulable', 35000.00, 3, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Almohada Memory Foam', 'Almohada ergonómica de memory foam', 18750.00, 3, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(9, 'Silla de Oficina', 'silla de oficina', 'Silla ergonómica para oficina', 125000.00, 3, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(10, 'Mesa de Comedor', 'mesa de comedor', 'Mesa de madera para 6 personas', 225000.00, 3, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(11, 'Lámpara LED', 'lámpara led', 'Lámpara de mesa con luz LED regulable', 35000.00, 3, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(12, 'Almohada Memory Foam', 'almohada memory foam', 'Almohada ergonómica de memory foam', 18750.00, 3, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 
 -- Deportes
-('Pelota de Fútbol', 'Pelota oficial FIFA para fútbol', 15625.00, 4, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Raqueta de Tenis', 'Raqueta profesional de tenis', 87500.00, 4, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Bicicleta Mountain Bike', 'Bicicleta para montaña con 21 velocidades', 380000.00, 4, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Pesas Ajustables', 'Set de pesas ajustables hasta 20kg', 65000.00, 4, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(13, 'Pelota de Fútbol', 'pelota de fútbol', 'Pelota oficial FIFA para fútbol', 15625.00, 4, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(14, 'Raqueta de Tenis', 'raqueta de tenis', 'Raqueta profesional de tenis', 87500.00, 4, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(15, 'Bicicleta Mountain Bike', 'bicicleta mountain bike', 'Bicicleta para montaña con 21 velocidades', 380000.00, 4, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(16, 'Pesas Ajustables', 'pesas ajustables', 'Set de pesas ajustables hasta 20kg', 65000.00, 4, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 
 -- Libros
-('El Quijote', 'Clásico de la literatura española', 8750.00, 5, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Programación en Java', 'Manual completo de programación Java', 25000.00, 5, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Historia Argentina', 'Libro de historia argentina contemporánea', 15625.00, 5, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Cien Años de Soledad', 'Obra maestra de Gabriel García Márquez', 12500.00, 5, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+(17, 'El Quijote', 'el quijote', 'Clásico de la literatura española', 8750.00, 5, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(18, 'Programación en Java', 'programación en java', 'Manual completo de programación Java', 25000.00, 5, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(19, 'Historia Argentina', 'historia argentina', 'Libro de historia argentina contemporánea', 15625.00, 5, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(20, 'Cien Años de Soledad', 'cien años de soledad', 'Obra maestra de Gabriel García Márquez', 12500.00, 5, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
 -- Insertar inventarios
-INSERT INTO inventario (producto_id, cantidad, stock_minimo, fecha_creacion, fecha_ultima_actualizacion, version) VALUES 
+INSERT INTO inventario (id, producto_id, cantidad, stock_minimo, estado_stock, precio_unitario, valor_inventario, fecha_creacion, fecha_ultima_actualizacion, version) VALUES 
 -- Electrónicos (stock variado)
-(1, 25, 5, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),   -- Smartphone
-(2, 15, 3, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),   -- Laptop
-(3, 50, 10, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),  -- Auriculares
-(4, 8, 2, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),    -- Tablet
+(1, 1, 25, 5, 'OK', 299999.99, 7499999.75, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),   -- Smartphone
+(2, 2, 15, 3, 'OK', 750000.00, 11250000.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),   -- Laptop
+(3, 3, 50, 10, 'OK', 85000.00, 4250000.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),  -- Auriculares
+(4, 4, 8, 2, 'OK', 450000.00, 3600000.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),    -- Tablet
 
 -- Ropa (stock alto)
-(5, 100, 20, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0), -- Remera
-(6, 75, 15, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),  -- Jeans
-(7, 30, 5, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),   -- Campera
-(8, 60, 12, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),  -- Zapatillas
+(5, 5, 100, 20, 'OK', 12500.00, 1250000.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0), -- Remera
+(6, 6, 75, 15, 'OK', 18750.00, 1406250.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),  -- Jeans
+(7, 7, 30, 5, 'OK', 95000.00, 2850000.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),   -- Campera
+(8, 8, 60, 12, 'OK', 32500.00, 1950000.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),  -- Zapatillas
 
 -- Hogar (stock medio)
-(9, 20, 5, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),   -- Silla
-(10, 12, 3, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),  -- Mesa
-(11, 35, 8, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),  -- Lámpara
-(12, 40, 10, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0), -- Almohada
+(9, 9, 20, 5, 'OK', 125000.00, 2500000.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),   -- Silla
+(10, 10, 12, 3, 'OK', 225000.00, 2700000.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),  -- Mesa
+(11, 11, 35, 8, 'OK', 35000.00, 1225000.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),  -- Lámpara
+(12, 12, 40, 10, 'OK', 18750.00, 750000.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0), -- Almohada
 
 -- Deportes (algunos con stock bajo)
-(13, 3, 5, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),   -- Pelota (stock bajo)
-(14, 18, 4, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),  -- Raqueta
-(15, 1, 2, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),   -- Bicicleta (stock crítico)
-(16, 25, 6, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),  -- Pesas
+(13, 13, 3, 5, 'BAJO', 15625.00, 46875.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),   -- Pelota (stock bajo)
+(14, 14, 18, 4, 'OK', 87500.00, 1575000.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),  -- Raqueta
+(15, 15, 1, 2, 'CRITICO', 380000.00, 380000.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),   -- Bicicleta (stock crítico)
+(16, 16, 25, 6, 'OK', 65000.00, 1625000.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),  -- Pesas
 
 -- Libros (stock variado)
-(17, 45, 10, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0), -- El Quijote
-(18, 22, 5, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),  -- Java
-(19, 4, 8, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),   -- Historia (stock bajo)
-(20, 0, 5, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0);   -- Cien Años (sin stock)
+(17, 17, 45, 10, 'OK', 8750.00, 393750.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0), -- El Quijote
+(18, 18, 22, 5, 'OK', 25000.00, 550000.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),  -- Java
+(19, 19, 4, 8, 'CRITICO', 15625.00, 62500.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),   -- Historia (stock bajo)
+(20, 20, 0, 5, 'SIN_STOCK', 12500.00, 0.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0);   -- Cien Años (sin stock)
+
+-- Los IDs se generan con secuencias (asignación de a 50); continuar después de los datos de prueba
+ALTER SEQUENCE categorias_seq RESTART WITH 101;
+ALTER SEQUENCE productos_seq RESTART WITH 101;
+ALTER SEQUENCE inventario_seq RESTART WITH 101;
@@ -0,0 +1,95 @@
+package com.microservices.dataservice.busqueda;
+
+import com.microservices.dataservice.repository.ProductoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitarios para FiltroNombresProductos
+ *
+ * @author Agustin Benavidez
+ */
+class FiltroNombresProductosTest {
+
+    private ProductoRepository productoRepository;
+    private MeterRegistry meterRegistry;
+    private FiltroNombresProductos filtro;
+
+    @BeforeEach
+    void setUp() {
+        productoRepository = mock(ProductoRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(productoRepository.count()).thenReturn(2L);
+        when(productoRepository.findNombresNormalizadosPaginado(anyLong(), any(Limit.class)))
+                .thenReturn(List.of(new Object[]{1L, "laptop gamer"}, new Object[]{2L, "mouse"}));
+
+        meterRegistry = new SimpleMeterRegistry();
+        filtro = new FiltroNombresProductos(productoRepository, transactionManager, meterRegistry, true, 1000, 0.01);
+    }
+
+    @Test
+    void cuandoNoEstaConstruido_entoncesSiempreConsultaLaBase() {
+        AtomicInteger consultas = new AtomicInteger();
+
+        assertFalse(filtro.existe("Nuevo", () -> consultas.incrementAndGet() < 0));
+        assertEquals(1, consultas.get());
+    }
+
+    @Test
+    void cuandoElNombreEsNuevo_entoncesNoConsultaLaBase() {
+        filtro.reconstruir();
+        AtomicInteger consultas = new AtomicInteger();
+
+        assertTrue(filtro.existe("LAPTOP Gamer", () -> consultas.incrementAndGet() > 0));
+        assertFalse(filtro.existe("Teclado", () -> consultas.incrementAndGet() < 0));
+        assertEquals(1, consultas.get());
+        assertEquals(1.0, meterRegistry.get("data.filtro.nombres.consultas").tag("resultado", "descartado")
+                .counter().count());
+    }
+
+    @Test
+    void cuandoSeAgregaUnNombre_entoncesDejaDeDescartarse() {
+        filtro.reconstruir();
+        assertFalse(filtro.puedeExistir("Monitor 27"));
+
+        filtro.agregar("Monitor 27");
+
+        assertTrue(filtro.puedeExistir("monitor 27"));
+        assertTrue(meterRegistry.get("data.filtro.nombres.memoria").gauge().value() > 0);
+    }
+
+    @Test
+    void cuandoSeLlenaHastaSuCapacidad_entoncesNoHayFalsosNegativosYLaTasaSeRespeta() {
+        FiltroNombresProductos.Filtro bloom = new FiltroNombresProductos.Filtro(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloom.agregar("producto " + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(bloom.contiene("producto " + i));
+        }
+        int falsosPositivos = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (bloom.contiene("otro " + i)) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < 200, "falsos positivos: " + falsosPositivos);
+        assertEquals(0.01, bloom.tasaEstimada(), 0.005);
+    }
+}
@@ -0,0 +1,188 @@
+package com.microservices.dataservice.busqueda;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para IndiceBusquedaProductos
+ *
+ * @author Agustin Benavidez
+ */
+class IndiceBusquedaProductosTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceBusquedaProductosTest.class);
+
+    private IndiceBusquedaProductos indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceBusquedaProductos();
+        indice.indexar(1L, "Laptop Gamer", "Portátil con gráfica dedicada");
+        indice.indexar(2L, "Mouse Inalámbrico", "Ideal para laptop y escritorio");
+        indice.indexar(3L, "Teclado Mecánico", "Switches azules");
+    }
+
+    private List<Long> ids(String texto) {
+        return indice.buscar(texto).stream().map(IndiceBusquedaProductos.Resultado::productoId).toList();
+    }
+
+    @Test
+    void cuandoBuscarSubcadena_entoncesEncuentraComoLike() {
+        assertEquals(List.of(1L, 2L), ids("apto"));
+        assertEquals(List.of(3L), ids("ec"));
+    }
+
+    @Test
+    void cuandoCoincideEnNombre_entoncesRankeaAntesQueDescripcion() {
+        // "laptop" es término exacto del nombre de 1 y solo aparece en la descripción de 2
+        assertEquals(List.of(1L, 2L), ids("LAPTOP"));
+    }
+
+    @Test
+    void cuandoBuscarVariosTerminos_entoncesExigeTodos() {
+        assertEquals(List.of(2L), ids("laptop escritorio"));
+        assertTrue(ids("laptop switches").isEmpty());
+    }
+
+    @Test
+    void cuandoBuscarSinAcentos_entoncesIgnoraDiacriticos() {
+        assertEquals(List.of(3L), ids("mecanico"));
+        assertEquals(List.of(2L), ids("inalámbrico"));
+    }
+
+    @Test
+    void cuandoReindexarOEliminar_entoncesActualizaResultados() {
+        indice.indexar(1L, "Monitor", "Pantalla 27 pulgadas");
+        assertEquals(List.of(2L), ids("laptop"));
+        assertEquals(List.of(1L), ids("monitor"));
+
+        indice.eliminar(1L);
+        assertTrue(ids("monitor").isEmpty());
+        assertEquals(2, indice.tamanio());
+    }
+
+    @Test
+    void cuandoTextoVacio_entoncesRetornaVacio() {
+        assertTrue(ids("  ").isEmpty());
+        assertTrue(ids("inexistente").isEmpty());
+    }
+
+    @Test
+    void cuandoTieneTodosLosTrigramasPeroNoLaSubcadena_entoncesNoCoincide() {
+        // "bcabc" contiene abc, bca y cab, pero no "abcab"
+        indice.indexar(4L, "bcabc", null);
+        indice.indexar(5L, "xabcabx", null);
+
+        assertEquals(List.of(5L), ids("abcab"));
+    }
+
+    @Test
+    void cuandoReemplazarConCarga_entoncesAplicaLosCambiosRecibidosDuranteLaCarga() {
+        indice.iniciarCarga();
+        IndiceBusquedaProductos.Carga carga = new IndiceBusquedaProductos.Carga();
+        carga.agregar(1L, "Laptop Gamer", "Portátil con gráfica dedicada");
+        carga.agregar(2L, "Mouse Inalámbrico", "Ideal para laptop y escritorio");
+        carga.agregar(4L, "Silla Ergonómica", "Respaldo regulable");
+
+        // Cambios confirmados después de leer la carga
+        indice.indexar(1L, "Monitor", "Pantalla 27 pulgadas");
+        indice.eliminar(2L);
+        // Mientras tanto las búsquedas siguen sobre el índice anterior
+        assertEquals(List.of(3L), ids("teclado"));
+
+        assertFalse(indice.isCargado());
+        indice.reemplazar(carga);
+
+        assertTrue(indice.isCargado());
+        assertEquals(List.of(1L), ids("monitor"));
+        assertTrue(ids("laptop").isEmpty());
+        assertTrue(ids("teclado").isEmpty());
+        assertEquals(List.of(4L), ids("silla"));
+        assertEquals(2, indice.tamanio());
+    }
+
+    @Test
+    void cuandoCancelarCarga_entoncesElIndiceQuedaComoEstaba() {
+        indice.iniciarCarga();
+        indice.eliminar(3L);
+        indice.cancelarCarga();
+
+        IndiceBusquedaProductos.Carga carga = new IndiceBusquedaProductos.Carga();
+        carga.agregar(3L, "Teclado Mecánico", "Switches azules");
+        indice.reemplazar(carga);
+
+        assertEquals(List.of(3L), ids("teclado"));
+        assertEquals(1, indice.tamanio());
+    }
+
+    @Test
+    void cuandoBuscarConLimite_entoncesDevuelveLosMejoresEnElMismoOrden() {
+        Random azar = new Random(3);
+        for (long id = 10; id < 2000; id++) {
+            indice.indexar(id, azar.nextBoolean() ? "Cable laptop" : "Cable", "Cable de " + id);
+        }
+        List<IndiceBusquedaProductos.Resultado> todos = indice.buscar("cable");
+
+        assertEquals(todos.subList(0, 25), indice.buscar("cable", 25));
+        assertEquals(todos, indice.buscar("cable", todos.size() + 10));
+        assertTrue(indice.buscar("cable", 0).isEmpty());
+    }
+
+    @Test
+    void medirLatenciaConCatalogoGrande() {
+        int productos = 200_000;
+        Random aleatorio = new Random(42);
+        String[] vocabulario = new String[50_000];
+        for (int i = 0; i < vocabulario.length; i++) {
+            vocabulario[i] = palabra(aleatorio);
+        }
+        IndiceBusquedaProductos.Carga carga = new IndiceBusquedaProductos.Carga();
+        for (long id = 1; id <= productos; id++) {
+            carga.agregar(id, vocabulario[aleatorio.nextInt(vocabulario.length)] + " "
+                            + vocabulario[aleatorio.nextInt(vocabulario.length)],
+                    vocabulario[aleatorio.nextInt(vocabulario.length)] + " "
+                            + vocabulario[aleatorio.nextInt(vocabulario.length)] + " "
+                            + vocabulario[aleatorio.nextInt(vocabulario.length)]);
+        }
+        indice.reemplazar(carga);
+
+        int consultas = 2_000;
+        // Calentamiento para que el JIT no domine la medición
+        for (int i = 0; i < consultas; i++) {
+            indice.buscar(vocabulario[aleatorio.nextInt(vocabulario.length)].substring(0, 4));
+        }
+        long[] nanos = new long[consultas];
+        long encontrados = 0;
+        for (int i = 0; i < consultas; i++) {
+            String termino = vocabulario[aleatorio.nextInt(vocabulario.length)];
+            String subcadena = termino.substring(0, 4);
+            long inicio = System.nanoTime();
+            encontrados += indice.buscar(subcadena).size();
+            nanos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(nanos);
+
+        assertEquals(productos, indice.tamanio());
+        assertTrue(encontrados >= consultas);
+        logger.info("Búsqueda sobre {} productos ({} consultas por subcadena de 4 letras): p50 {} µs, p99 {} µs, "
+                        + "{} resultados promedio",
+                productos, consultas, nanos[consultas / 2] / 1_000, nanos[consultas * 99 / 100] / 1_000,
+                encontrados / consultas);
+    }
+
+    private static String palabra(Random aleatorio) {
+        char[] letras = new char[5 + aleatorio.nextInt(6)];
+        for (int i = 0; i < letras.length; i++) {
+            letras[i] = (char) ('a' + aleatorio.nextInt(26));
+        }
+        return new String(letras);
+    }
+}
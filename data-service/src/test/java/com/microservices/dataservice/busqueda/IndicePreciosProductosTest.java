@@ -0,0 +1,123 @@
+package com.microservices.dataservice.busqueda;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para IndicePreciosProductos
+ *
+ * @author Agustin Benavidez
+ */
+class IndicePreciosProductosTest {
+
+    private IndicePreciosProductos indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndicePreciosProductos();
+        indice.indexar(1L, new BigDecimal("300.00"), 10L);
+        indice.indexar(2L, new BigDecimal("100.50"), 10L);
+        indice.indexar(3L, new BigDecimal("200.00"), 20L);
+        indice.indexar(4L, new BigDecimal("100.50"), 20L);
+        indice.indexar(5L, new BigDecimal("50.00"), 10L);
+    }
+
+    private List<Long> rango(String min, String max, boolean descendente) {
+        return indice.buscarPorRango(min != null ? new BigDecimal(min) : null, max != null ? new BigDecimal(max) : null,
+                descendente, 0, Integer.MAX_VALUE).productoIds();
+    }
+
+    @Test
+    void cuandoBuscarPorRango_entoncesDevuelveOrdenadoPorPrecioYLuegoId() {
+        assertEquals(List.of(2L, 4L, 3L), rango("100.50", "200", false));
+        assertEquals(List.of(3L, 4L, 2L), rango("100.50", "200", true));
+        assertEquals(List.of(5L, 2L, 4L, 3L, 1L), rango(null, null, false));
+        assertTrue(rango("100.51", "199.99", false).isEmpty());
+    }
+
+    @Test
+    void cuandoPaginar_entoncesIndicaSiHayMas() {
+        IndicePreciosProductos.Pagina primera = indice.buscarPorRango(null, null, false, 0, 2);
+        IndicePreciosProductos.Pagina ultima = indice.buscarPorRango(null, null, false, 4, 2);
+
+        assertEquals(List.of(5L, 2L), primera.productoIds());
+        assertTrue(primera.hayMas());
+        assertEquals(List.of(1L), ultima.productoIds());
+        assertFalse(ultima.hayMas());
+        assertTrue(indice.buscarPorRango(null, null, false, 9, 2).productoIds().isEmpty());
+    }
+
+    @Test
+    void cuandoBuscarMasBaratosDeCategoria_entoncesDevuelveLosKPrimeros() {
+        assertEquals(List.of(5L, 2L), indice.buscarMasBaratos(10L, 2));
+        assertEquals(List.of(4L, 3L), indice.buscarMasBaratos(20L, 5));
+        assertTrue(indice.buscarMasBaratos(99L, 5).isEmpty());
+    }
+
+    @Test
+    void cuandoReindexarOEliminar_entoncesActualizaPrecioYCategoria() {
+        indice.indexar(1L, new BigDecimal("10.00"), 20L);
+        indice.eliminar(5L);
+
+        assertEquals(List.of(1L, 2L, 4L, 3L), rango(null, null, false));
+        assertEquals(List.of(2L), indice.buscarMasBaratos(10L, 5));
+        assertEquals(List.of(1L, 4L, 3L), indice.buscarMasBaratos(20L, 5));
+        assertEquals(4, indice.tamanio());
+    }
+
+    @Test
+    void cuandoReemplazarConUnaCarga_entoncesQuedaOrdenadaYDescartaLoAnterior() {
+        IndicePreciosProductos.Carga carga = new IndicePreciosProductos.Carga();
+        carga.agregar(7L, new BigDecimal("80.00"), 10L);
+        carga.agregar(6L, new BigDecimal("20.00"), 20L);
+        carga.agregar(9L, new BigDecimal("80.00"), 20L);
+        carga.agregar(8L, new BigDecimal("5.25"), 10L);
+
+        assertFalse(indice.isCargado());
+        indice.iniciarCarga();
+        indice.reemplazar(carga);
+
+        assertTrue(indice.isCargado());
+        assertEquals(List.of(8L, 6L, 7L, 9L), rango(null, null, false));
+        assertEquals(List.of(8L, 7L), indice.buscarMasBaratos(10L, 5));
+        assertEquals(List.of(6L, 9L), indice.buscarMasBaratos(20L, 5));
+        assertEquals(4, indice.tamanio());
+    }
+
+    @Test
+    void cuandoHayCambiosDuranteLaCarga_entoncesSeAplicanSobreElIndiceNuevo() {
+        indice.iniciarCarga();
+        IndicePreciosProductos.Carga carga = new IndicePreciosProductos.Carga();
+        carga.agregar(1L, new BigDecimal("300.00"), 10L);
+        carga.agregar(2L, new BigDecimal("100.50"), 10L);
+        carga.agregar(3L, new BigDecimal("200.00"), 20L);
+
+        // Llegan mientras se lee la base: más nuevos que lo leído
+        indice.indexar(1L, new BigDecimal("1.00"), 20L);
+        indice.eliminar(2L);
+        indice.indexar(6L, new BigDecimal("150.00"), 10L);
+        assertEquals(List.of(1L, 5L, 4L, 6L, 3L), rango(null, null, false));
+
+        indice.reemplazar(carga);
+
+        assertEquals(List.of(1L, 6L, 3L), rango(null, null, false));
+        assertEquals(List.of(6L), indice.buscarMasBaratos(10L, 5));
+        assertEquals(List.of(1L, 3L), indice.buscarMasBaratos(20L, 5));
+    }
+
+    @Test
+    void cuandoSeCancelaLaCarga_entoncesDejaDeAnotarCambios() {
+        indice.iniciarCarga();
+        indice.cancelarCarga();
+        indice.indexar(6L, new BigDecimal("1.00"), 10L);
+
+        indice.reemplazar(new IndicePreciosProductos.Carga());
+
+        assertEquals(0, indice.tamanio());
+    }
+}
@@ -0,0 +1,82 @@
+package com.microservices.dataservice.config;
+
+import com.microservices.dataservice.entity.Categoria;
+import com.microservices.dataservice.service.CategoriaService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la alineación de secuencias sobre una base con filas creadas con IDENTITY
+ *
+ * Antes de levantar el contexto se crea la tabla categorias como estaba antes de las
+ * secuencias, con filas propias; el esquema se actualiza (ddl-auto: update) igual que en
+ * los perfiles mysql y postgres.
+ *
+ * @author Agustin Benavidez
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + AlineadorSecuenciasTest.URL,
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+@ActiveProfiles("test")
+class AlineadorSecuenciasTest {
+
+    static final String URL = "jdbc:h2:mem:secuenciaslegadodb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private static final long MAXIMO_ID_EXISTENTE = 120;
+
+    static {
+        try (Connection conexion = DriverManager.getConnection(URL, "sa", "");
+             Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("CREATE TABLE categorias (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "nombre VARCHAR(100) NOT NULL UNIQUE, descripcion VARCHAR(500), "
+                    + "fecha_creacion TIMESTAMP NOT NULL, fecha_actualizacion TIMESTAMP)");
+            sentencia.execute("INSERT INTO categorias (id, nombre, fecha_creacion) VALUES "
+                    + "(1, 'Legado Uno', CURRENT_TIMESTAMP), (2, 'Legado Dos', CURRENT_TIMESTAMP), "
+                    + "(" + MAXIMO_ID_EXISTENTE + ", 'Legado Ultima', CURRENT_TIMESTAMP)");
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo preparar la base con filas existentes", e);
+        }
+    }
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private AlineadorSecuencias alineadorSecuencias;
+
+    @Autowired
+    private HikariDataSource dataSourcePrimaria;
+
+    @Test
+    void cuandoLaBaseYaTieneFilas_entoncesLosNuevosIdsNoChocanConLosExistentes() {
+        Categoria primera = categoriaService.crear(new Categoria("Nueva Tras Migracion", "Test"));
+        Categoria segunda = categoriaService.crear(new Categoria("Otra Tras Migracion", "Test"));
+
+        assertTrue(primera.getId() > MAXIMO_ID_EXISTENTE);
+        assertTrue(segunda.getId() > MAXIMO_ID_EXISTENTE);
+        assertEquals(5, categoriaService.contarTotal());
+    }
+
+    @Test
+    void cuandoLaSecuenciaYaEstaAdelantada_entoncesNoSeRetrocede() {
+        JdbcTemplate primaria = new JdbcTemplate(dataSourcePrimaria);
+        primaria.execute("ALTER SEQUENCE categorias_seq RESTART WITH 100000");
+
+        alineadorSecuencias.alinear();
+
+        assertEquals(100000L, primaria.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'CATEGORIAS_SEQ'", Long.class));
+    }
+}
@@ -0,0 +1,151 @@
+package com.microservices.dataservice.config;
+
+import com.microservices.dataservice.entity.Categoria;
+import com.microservices.dataservice.entity.Producto;
+import com.microservices.dataservice.service.AgregadosInventario;
+import com.microservices.dataservice.service.CategoriaService;
+import com.microservices.dataservice.service.ProductoService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del enrutamiento de lecturas a réplicas con dos bases H2 locales
+ *
+ * La "replicación" se simula copiando la primaria a la réplica antes de cada test;
+ * a partir de ahí las bases divergen, lo que permite ver de cuál lee cada transacción.
+ *
+ * @author Agustin Benavidez
+ */
+@SpringBootTest(properties = {
+        "data.replicas.habilitado=true",
+        "data.replicas.lag-maximo-ms=2000",
+        "data.replicas.intervalo-verificacion-ms=3600000",
+        "data.replicas.fuentes[0].nombre=replica-test",
+        "data.replicas.fuentes[0].url=jdbc:h2:mem:replicatestdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "data.replicas.fuentes[0].username=sa",
+        "data.replicas.fuentes[0].password="
+})
+@ActiveProfiles("test")
+class EnrutamientoReplicasTest {
+
+    private static final String SOLO_EN_REPLICA = "Solo en replica";
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private EnrutadorReplicas enrutadorReplicas;
+
+    @Autowired
+    private MonitorReplicas monitorReplicas;
+
+    @Autowired
+    private HikariDataSource dataSourcePrimaria;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private AgregadosInventario agregadosInventario;
+
+    private JdbcTemplate primaria;
+    private JdbcTemplate replica;
+    private Categoria creada;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        primaria = new JdbcTemplate(dataSourcePrimaria);
+        replica = new JdbcTemplate(enrutadorReplicas.getReplicas().get(0).getDataSource());
+
+        // Copia completa de la primaria (incluido un latido reciente) a la réplica
+        monitorReplicas.publicarLatido();
+        Path copia = Files.createTempFile("replica", ".sql");
+        try {
+            primaria.execute("SCRIPT TO '" + copia + "'");
+            replica.execute("DROP ALL OBJECTS");
+            replica.execute("RUNSCRIPT FROM '" + copia + "'");
+        } finally {
+            Files.deleteIfExists(copia);
+        }
+        replica.update("INSERT INTO categorias (id, nombre, descripcion, fecha_creacion, fecha_actualizacion) " +
+                "VALUES (999999, ?, 'Test', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", SOLO_EN_REPLICA);
+        monitorReplicas.evaluarReplicas();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (creada != null) {
+            categoriaService.eliminar(creada.getId());
+        }
+    }
+
+    @Test
+    void cuandoTransaccionDeSoloLectura_entoncesLeeDeLaReplicaYEscribeEnLaPrimaria() {
+        assertTrue(enrutadorReplicas.getReplicas().get(0).isDisponible());
+        double antes = conexiones("replica-test");
+
+        assertEquals(1, categoriaService.buscarPorTexto(SOLO_EN_REPLICA).size());
+
+        creada = categoriaService.crear(new Categoria("Solo en primaria " + System.nanoTime(), "Test"));
+        assertEquals(1, primaria.queryForObject("SELECT COUNT(*) FROM categorias WHERE id = ?",
+                Integer.class, creada.getId()));
+        assertTrue(categoriaService.buscarPorTexto(creada.getNombre()).isEmpty());
+        assertTrue(conexiones("replica-test") > antes);
+    }
+
+    @Test
+    void cuandoLaReplicaSeAtrasa_entoncesLasLecturasVuelvenALaPrimaria() {
+        replica.update("UPDATE replicacion_latido SET marca = ? WHERE id = 1", System.currentTimeMillis() - 60_000);
+        monitorReplicas.evaluarReplicas();
+        double antes = conexiones(EnrutadorReplicas.RUTA_PRIMARIA);
+
+        assertFalse(enrutadorReplicas.getReplicas().get(0).isDisponible());
+        assertTrue(categoriaService.buscarPorTexto(SOLO_EN_REPLICA).isEmpty());
+        assertTrue(conexiones(EnrutadorReplicas.RUTA_PRIMARIA) > antes);
+        assertTrue(meterRegistry.get("data.replicas.lag").tag("replica", "replica-test").gauge().value() >= 60_000);
+    }
+
+    @Test
+    void cuandoSeConsultanMetricas_entoncesCadaPoolPublicaLasSuyas() {
+        categoriaService.buscarPorTexto(SOLO_EN_REPLICA);
+
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", "primaria").gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", "replica-test").gauge());
+    }
+
+    @Test
+    void cuandoSeReconstruyenLosAgregados_entoncesLeenDeLaPrimaria() {
+        // Creado después de copiar: la réplica no lo tiene
+        creada = categoriaService.crear(new Categoria("Agregados primaria " + System.nanoTime(), "Test"));
+        Producto producto = productoService.crear(new Producto("Solo en primaria " + System.nanoTime(), "Test",
+                new BigDecimal("10.00"), creada), 1, 5);
+        try {
+            agregadosInventario.reconstruir();
+
+            assertEquals(1L, agregadosInventario.obtenerStockBajoPorCategoria().get(creada.getNombre()));
+            assertTrue(agregadosInventario.reconciliar());
+        } finally {
+            productoService.eliminarPermanentemente(producto.getId());
+        }
+    }
+
+    private double conexiones(String ruta) {
+        return meterRegistry.get("data.datasource.conexiones").tag("ruta", ruta).counter().count();
+    }
+}
@@ -0,0 +1,118 @@
+package com.microservices.dataservice.config;
+
+import com.microservices.dataservice.repository.CategoriaRepository;
+import com.microservices.dataservice.repository.ProductoRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de las métricas por método de repository
+ *
+ * Habilita la exportación de métricas (desactivada por defecto en los tests) para
+ * consultar el endpoint de Prometheus.
+ *
+ * @author Agustin Benavidez
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureObservability(tracing = false)
+class MetricasRepositoriosTest {
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void cuandoSeInvocaUnRepository_entoncesRegistraLatenciaYFilasPorMetodo() {
+        int categorias = categoriaRepository.findAll().size();
+
+        DistributionSummary filas = meterRegistry.find("data.repositorio.filas")
+                .tag("repository", "CategoriaRepository").tag("method", "findAll").summary();
+        assertNotNull(filas);
+        assertEquals(categorias, filas.max(), 0.0);
+        assertNotNull(meterRegistry.find("spring.data.repository.invocations")
+                .tag("repository", "CategoriaRepository").tag("method", "findAll").timer());
+
+        // Los conteos no son filas devueltas
+        productoRepository.count();
+        assertNull(meterRegistry.find("data.repositorio.filas").tag("method", "count").summary());
+    }
+
+    @Test
+    void cuandoSeConsultaPrometheus_entoncesExponeHistogramasPorMetodo() {
+        categoriaRepository.findAll();
+
+        String metricas = restTemplate.getForObject("/actuator/prometheus", String.class);
+
+        assertTrue(metricas.contains("spring_data_repository_invocations_seconds_bucket{"));
+        assertTrue(metricas.contains("data_repositorio_filas_rows_bucket{"));
+        assertTrue(metricas.contains("method=\"findAll\""));
+    }
+
+    @Test
+    void cuandoLaConsultaSuperaElUmbral_entoncesCuentaLaConsultaLenta() {
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+        ProxyFactory proxyFactory = new ProxyFactory(new RepositorioFalso());
+        proxyFactory.addInterface(Repositorio.class);
+        proxyFactory.addAdvice(new MetricasRepositorioInterceptor("Repositorio", () -> registro, 0));
+        Repositorio repositorio = (Repositorio) proxyFactory.getProxy();
+
+        repositorio.listar("a");
+        repositorio.buscar(1L);
+        repositorio.paginar(Pageable.unpaged());
+
+        assertEquals(1.0, registro.get("data.repositorio.consultas.lentas").tag("method", "listar").counter().count());
+        assertEquals(3.0, registro.get("data.repositorio.filas").tag("method", "listar").summary().totalAmount());
+        assertEquals(0.0, registro.get("data.repositorio.filas").tag("method", "buscar").summary().totalAmount());
+        assertEquals(2.0, registro.get("data.repositorio.filas").tag("method", "paginar").summary().totalAmount());
+    }
+
+    interface Repositorio {
+        List<String> listar(String filtro);
+
+        Optional<String> buscar(Long id);
+
+        Page<String> paginar(Pageable pageable);
+    }
+
+    static class RepositorioFalso implements Repositorio {
+        @Override
+        public List<String> listar(String filtro) {
+            return List.of("a", "b", "c");
+        }
+
+        @Override
+        public Optional<String> buscar(Long id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Page<String> paginar(Pageable pageable) {
+            return new PageImpl<>(List.of("x", "y"));
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.microservices.dataservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.dataservice.dto.ItemReserva;
+import com.microservices.dataservice.dto.ReservaRequest;
 import com.microservices.dataservice.entity.Categoria;
 import com.microservices.dataservice.entity.Producto;
 import com.microservices.dataservice.service.CategoriaService;
+import com.microservices.dataservice.service.ExportacionInventarioService;
+import com.microservices.dataservice.service.InventarioService;
 import com.microservices.dataservice.service.ProductoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,12 +17,19 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.LongStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -42,6 +53,12 @@ class DataControllerIntegrationTest {
     @Autowired
     private ProductoService productoService;
 
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private ExportacionInventarioService exportacionInventarioService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -71,7 +88,7 @@ class DataControllerIntegrationTest {
         mockMvc.perform(get("/data/categorias"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpected(jsonPath("$").isArray());
+                .andExpect(jsonPath("$").isArray());
     }
 
     @Test
@@ -86,6 +103,37 @@ class DataControllerIntegrationTest {
                 .andExpect(jsonPath("$.descripcion").value("Categoría de ropa para testing"));
     }
 
+    @Test
+    void testObtenerTopValorInventario() throws Exception {
+        Producto mayor = productoService.crear(new Producto("Valor Mayor Test", "Test",
+                new BigDecimal("900000.00"), categoriaTest), 1000, 1);
+        Producto segundo = productoService.crear(new Producto("Valor Segundo Test", "Test",
+                new BigDecimal("900000.00"), categoriaTest), 999, 1);
+        productoService.crear(new Producto("Valor Menor Test", "Test",
+                new BigDecimal("1.00"), categoriaTest), 1, 1);
+
+        mockMvc.perform(get("/data/productos/valor-inventario").param("top", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].productoId").value(mayor.getId()))
+                .andExpect(jsonPath("$[1].productoId").value(segundo.getId()));
+
+        mockMvc.perform(get("/data/productos/valor-inventario").param("top", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testParametrosInvalidosDeConsultasPorPrecio() throws Exception {
+        mockMvc.perform(get("/data/productos/por-precio").param("orden", "precio"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/data/categorias/{id}/productos/mas-baratos", categoriaTest.getId()).param("k", "0"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/data/categorias/{id}/productos/mas-baratos", 999999L))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testCrearProducto() throws Exception {
         Producto producto = new Producto("Smartphone Test", "Teléfono para testing", 
@@ -112,6 +160,62 @@ class DataControllerIntegrationTest {
                 .andExpect(jsonPath("$").isArray());
     }
 
+    @Test
+    void testObtenerProductosPaginadosPorCursor() throws Exception {
+        Producto primero = productoService.crear(new Producto("Mouse Test", "Mouse para testing",
+                                                 new BigDecimal("5000.00"), categoriaTest), 10, 2);
+        Producto segundo = productoService.crear(new Producto("Teclado Test", "Teclado para testing",
+                                                 new BigDecimal("8000.00"), categoriaTest), 10, 2);
+        Long cursorInicial = primero.getId() - 1;
+
+        mockMvc.perform(get("/data/productos?cursor=" + cursorInicial + "&limite=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido.length()").value(1))
+                .andExpect(jsonPath("$.contenido[0].id").value(primero.getId()))
+                .andExpect(jsonPath("$.hayMas").value(true))
+                .andExpect(jsonPath("$.siguienteCursor").value(primero.getId()));
+
+        mockMvc.perform(get("/data/productos?cursor=" + primero.getId() + "&limite=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido[0].id").value(segundo.getId()))
+                .andExpect(jsonPath("$.hayMas").value(false));
+    }
+
+    @Test
+    void testObtenerProductosPorIds() throws Exception {
+        Producto primero = productoService.crear(new Producto("Monitor Test", "Monitor para testing",
+                                                 new BigDecimal("90000.00"), categoriaTest), 3, 1);
+        Producto segundo = productoService.crear(new Producto("Parlante Test", "Parlante para testing",
+                                                 new BigDecimal("15000.00"), categoriaTest), 7, 1);
+
+        // Orden pedido, sin repetidos y sin los IDs inexistentes
+        mockMvc.perform(get("/data/productos").param("ids",
+                        segundo.getId() + "," + primero.getId() + "," + segundo.getId() + ",999999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(segundo.getId()))
+                .andExpect(jsonPath("$[0].stock").value(7))
+                .andExpect(jsonPath("$[1].id").value(primero.getId()));
+
+        // Con ids la búsqueda por ID tiene prioridad sobre la paginación
+        mockMvc.perform(get("/data/productos").param("ids", String.valueOf(primero.getId())).param("limite", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(primero.getId()));
+
+        String demasiados = String.join(",", LongStream.rangeClosed(1, 501)
+                .mapToObj(String::valueOf).toList());
+        mockMvc.perform(get("/data/productos").param("ids", demasiados))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testLimiteDePaginaSeAcotaAlMaximo() throws Exception {
+        mockMvc.perform(get("/data/inventario?limite=100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.limite").value(500));
+    }
+
     @Test
     void testBuscarProductosInexistentes() throws Exception {
         mockMvc.perform(get("/data/productos/buscar?texto=ProductoInexistente"))
@@ -137,4 +241,93 @@ class DataControllerIntegrationTest {
                 .andExpect(jsonPath("$.totalProductos").exists())
                 .andExpect(jsonPath("$.cantidadTotalItems").exists());
     }
+
+    @Test
+    void testMovimientoDeStockDevuelveElInventario() throws Exception {
+        Producto producto = productoService.crear(new Producto("Auricular Test", "Auricular para testing",
+                                                  new BigDecimal("2000.00"), categoriaTest), 10, 3);
+
+        MvcResult resultado = mockMvc.perform(put("/data/inventario/producto/{id}/decrementar", producto.getId())
+                        .param("decremento", "4"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").isNumber())
+                .andExpect(jsonPath("$.productoId").value(producto.getId()))
+                .andExpect(jsonPath("$.productoNombre").value("Auricular Test"))
+                .andExpect(jsonPath("$.cantidad").value(6))
+                .andExpect(jsonPath("$.stockMinimo").value(3));
+    }
+
+    @Test
+    void testExportarInventarioComoNdjson() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/data/inventario/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+    }
+
+    @Test
+    void testExportarInventarioEscribeUnaLineaPorFila() throws Exception {
+        productoService.crear(new Producto("Monitor Test", "Monitor para testing",
+                              new BigDecimal("90000.00"), categoriaTest), 7, 3);
+        productoService.crear(new Producto("Parlante Test", "Parlante para testing",
+                              new BigDecimal("20000.00"), categoriaTest), 0, 1);
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        long exportadas = exportacionInventarioService.exportarInventario(salida);
+
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, exportadas);
+        assertEquals(2, lineas.length);
+        assertTrue(lineas[0].contains("\"productoNombre\":\"Monitor Test\""));
+        assertTrue(lineas[1].contains("\"cantidad\":0"));
+    }
+
+    @Test
+    void testReservarStockDeVariosProductos() throws Exception {
+        Producto auriculares = productoService.crear(new Producto("Auriculares Test", "Auriculares para testing",
+                                                     new BigDecimal("15000.00"), categoriaTest), 10, 2);
+        Producto cargador = productoService.crear(new Producto("Cargador Test", "Cargador para testing",
+                                                  new BigDecimal("6000.00"), categoriaTest), 5, 1);
+        ReservaRequest reserva = new ReservaRequest(List.of(
+                new ItemReserva(cargador.getId(), 2),
+                new ItemReserva(auriculares.getId(), 3),
+                new ItemReserva(cargador.getId(), 1)));
+
+        mockMvc.perform(post("/data/inventario/reservas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(reserva)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].productoId").value(auriculares.getId()))
+                .andExpect(jsonPath("$[0].stockRestante").value(7))
+                .andExpect(jsonPath("$[1].cantidadReservada").value(3))
+                .andExpect(jsonPath("$[1].stockRestante").value(2));
+    }
+
+    @Test
+    void testReservarStockInsuficienteNoDescuentaNinguno() throws Exception {
+        Producto webcam = productoService.crear(new Producto("Webcam Test", "Webcam para testing",
+                                                new BigDecimal("12000.00"), categoriaTest), 10, 2);
+        Producto microfono = productoService.crear(new Producto("Micrófono Test", "Micrófono para testing",
+                                                   new BigDecimal("9000.00"), categoriaTest), 1, 0);
+        ReservaRequest reserva = new ReservaRequest(List.of(
+                new ItemReserva(webcam.getId(), 4),
+                new ItemReserva(microfono.getId(), 2)));
+
+        mockMvc.perform(post("/data/inventario/reservas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(reserva)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("STOCK_INSUFICIENTE"))
+                .andExpect(jsonPath("$.productoId").value(microfono.getId()))
+                .andExpect(jsonPath("$.stockDisponible").value(1));
+
+        assertEquals(10, inventarioService.buscarPorProductoId(webcam.getId()).getCantidad());
+    }
 }
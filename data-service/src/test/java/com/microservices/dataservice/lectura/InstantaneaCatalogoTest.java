@@ -0,0 +1,111 @@
+package com.microservices.dataservice.lectura;
+
+import com.microservices.dataservice.dto.ProductoResumen;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para InstantaneaCatalogo y ListaSegmentada
+ *
+ * @author Agustin Benavidez
+ */
+class InstantaneaCatalogoTest {
+
+    private static final String[] CATEGORIAS = {"Electrónica", "Hogar", "Libros"};
+
+    private static ProductoResumen producto(long id, Random azar) {
+        return new ProductoResumen(id, "Producto " + id, null, BigDecimal.valueOf(azar.nextInt(500), 2),
+                (long) (id % CATEGORIAS.length), CATEGORIAS[(int) (id % CATEGORIAS.length)],
+                azar.nextInt(20), 5, true, null, null);
+    }
+
+    private static void assertMismoContenido(InstantaneaCatalogo esperada, InstantaneaCatalogo actual) {
+        assertEquals(esperada.tamanio(), actual.tamanio());
+        assertEquals(esperada.activos(), actual.activos());
+        assertEquals(esperada.porRangoPrecio(BigDecimal.ZERO, BigDecimal.TEN), actual.porRangoPrecio(BigDecimal.ZERO, BigDecimal.TEN));
+        assertEquals(esperada.stockBajo(), actual.stockBajo());
+        assertEquals(esperada.sinStock(), actual.sinStock());
+        for (String categoria : CATEGORIAS) {
+            assertEquals(esperada.porCategoria(categoria), actual.porCategoria(categoria));
+        }
+    }
+
+    @Test
+    void cuandoSeAplicanCambios_entoncesQuedaIgualQueReconstruirDeCero() {
+        Random azar = new Random(42);
+        Map<Long, ProductoResumen> catalogo = new HashMap<>();
+        for (long id = 1; id <= 3000; id++) {
+            catalogo.put(id, producto(id, azar));
+        }
+        InstantaneaCatalogo instantanea = InstantaneaCatalogo.construir(catalogo.values());
+
+        // Altas, bajas y modificaciones hasta forzar divisiones y segmentos vacíos
+        for (int ronda = 0; ronda < 200; ronda++) {
+            Map<Long, ProductoResumen> cambios = new LinkedHashMap<>();
+            for (int i = 0; i < 20; i++) {
+                long id = 1 + azar.nextInt(4000);
+                ProductoResumen nuevo = azar.nextInt(4) == 0 ? null : producto(id, azar);
+                cambios.put(id, nuevo);
+            }
+            cambios.forEach((id, nuevo) -> {
+                if (nuevo != null) {
+                    catalogo.put(id, nuevo);
+                } else {
+                    catalogo.remove(id);
+                }
+            });
+            instantanea = instantanea.aplicar(cambios);
+        }
+
+        assertMismoContenido(InstantaneaCatalogo.construir(catalogo.values()), instantanea);
+    }
+
+    @Test
+    void cuandoSeAplicanCambios_entoncesLaInstantaneaAnteriorNoSeModifica() {
+        Random azar = new Random(7);
+        List<ProductoResumen> productos = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            productos.add(producto(id, azar));
+        }
+        InstantaneaCatalogo anterior = InstantaneaCatalogo.construir(productos);
+        List<ProductoResumen> activosAntes = List.copyOf(anterior.activos());
+
+        Map<Long, ProductoResumen> cambios = new HashMap<>();
+        cambios.put(1L, null);
+        cambios.put(2000L, producto(2000L, azar));
+        InstantaneaCatalogo nueva = anterior.aplicar(cambios);
+
+        assertEquals(activosAntes, anterior.activos());
+        assertEquals(1000, nueva.tamanio());
+        assertEquals(2L, nueva.activos().get(0).getId());
+        assertEquals(2000L, nueva.activos().get(999).getId());
+    }
+
+    @Test
+    void cuandoSeInsertaEnUnSegmentoLleno_entoncesSeDivideSinPerderOrden() {
+        List<Integer> pares = new ArrayList<>();
+        for (int i = 0; i < 2 * ListaSegmentada.TAMANIO_SEGMENTO; i += 2) {
+            pares.add(i);
+        }
+        ListaSegmentada<Integer> lista = ListaSegmentada.desde(pares);
+        List<Integer> esperada = new ArrayList<>(pares);
+        for (int i = 1; i < 2 * ListaSegmentada.TAMANIO_SEGMENTO; i += 2) {
+            lista = lista.con(i, Integer::compare);
+            esperada.add(i);
+        }
+        esperada.sort(Integer::compare);
+
+        assertEquals(esperada, lista);
+        assertEquals(0, lista.sin(0, Integer::compare).get(0) - 1);
+        assertSame(lista, lista.sin(-1, Integer::compare));
+    }
+}
@@ -0,0 +1,160 @@
+package com.microservices.dataservice.lectura;
+
+import com.microservices.dataservice.controller.DataController;
+import com.microservices.dataservice.dto.ProductoResumen;
+import com.microservices.dataservice.entity.Categoria;
+import com.microservices.dataservice.entity.Producto;
+import com.microservices.dataservice.service.CategoriaService;
+import com.microservices.dataservice.service.InventarioService;
+import com.microservices.dataservice.service.ProductoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del modelo de lectura en memoria del catálogo
+ *
+ * No es transaccional: los cambios se aplican al modelo después de confirmar cada operación,
+ * en el hilo de refresco, así que las verificaciones esperan a que aparezcan.
+ *
+ * @author Agustin Benavidez
+ */
+@SpringBootTest(properties = "data.modelo-lectura.habilitado=true")
+@ActiveProfiles("test")
+class ModeloLecturaCatalogoTest {
+
+    @Autowired
+    private DataController dataController;
+
+    @Autowired
+    private ModeloLecturaCatalogo modeloLectura;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+    private Categoria categoria;
+    private final List<Long> productos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        categoria = categoriaService.crear(new Categoria("Lectura " + System.nanoTime(), "Test"));
+        modeloLectura.reconstruir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productos.forEach(productoService::eliminarPermanentemente);
+        categoriaService.eliminar(categoria.getId());
+    }
+
+    @Test
+    void cuandoElModeloEstaVigente_entoncesLasConsultasNoVanALaBase() throws InterruptedException {
+        Long productoId = crearProducto(new BigDecimal("987654.32"), 1, 5);
+        esperarHasta(() -> contiene(modeloLectura.activos().orElseThrow(), productoId));
+        assertTrue(modeloLectura.isVigente());
+        estadisticas.clear();
+
+        assertTrue(contiene(dataController.obtenerTodosLosProductos().getBody(), productoId));
+        assertTrue(contiene(dataController.obtenerProductosPorCategoria(categoria.getNombre().toUpperCase())
+                .getBody(), productoId));
+        assertTrue(contiene(dataController.buscarProductosPorPrecio(new BigDecimal("987654.32"),
+                new BigDecimal("987654.32")).getBody(), productoId));
+        assertTrue(contiene(dataController.obtenerProductosConStockBajo().getBody(), productoId));
+        assertFalse(contiene(dataController.obtenerProductosSinStock().getBody(), productoId));
+
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void cuandoSeConfirmanEscrituras_entoncesElModeloLasRefleja() throws InterruptedException {
+        Long productoId = crearProducto(new BigDecimal("10.00"), 10, 2);
+        esperarHasta(() -> contiene(modeloLectura.activos().orElseThrow(), productoId));
+        assertFalse(contiene(modeloLectura.stockBajo().orElseThrow(), productoId));
+
+        // Precio y stock
+        Producto cambios = new Producto("Producto lectura " + System.nanoTime(), "Test",
+                new BigDecimal("876543.21"), categoria);
+        productoService.actualizar(productoId, cambios);
+        inventarioService.decrementarStock(productoId, 10);
+        esperarHasta(() -> contiene(modeloLectura.sinStock().orElseThrow(), productoId));
+
+        assertTrue(contiene(modeloLectura.porRangoPrecio(new BigDecimal("876543.00"),
+                new BigDecimal("876544.00")).orElseThrow(), productoId));
+        assertTrue(modeloLectura.porRangoPrecio(new BigDecimal("9.00"), new BigDecimal("11.00")).orElseThrow()
+                .stream().noneMatch(p -> p.getId().equals(productoId)));
+        assertTrue(contiene(modeloLectura.sinStock().orElseThrow(), productoId));
+        assertTrue(contiene(modeloLectura.stockBajo().orElseThrow(), productoId));
+
+        // Renombre de la categoría
+        String nombreNuevo = "Lectura renombrada " + System.nanoTime();
+        categoriaService.actualizar(categoria.getId(), new Categoria(nombreNuevo, "Test"));
+        categoria.setNombre(nombreNuevo);
+        esperarHasta(() -> !modeloLectura.porCategoria(nombreNuevo).orElseThrow().isEmpty());
+        ProductoResumen resumen = modeloLectura.porCategoria(nombreNuevo).orElseThrow().get(0);
+        assertEquals(productoId, resumen.getId());
+        assertEquals(nombreNuevo, resumen.getCategoriaNombre());
+
+        // Baja lógica
+        productoService.eliminar(productoId);
+        esperarHasta(() -> !contiene(modeloLectura.activos().orElseThrow(), productoId));
+        assertFalse(contiene(modeloLectura.activos().orElseThrow(), productoId));
+        assertTrue(modeloLectura.porCategoria(nombreNuevo).orElseThrow().isEmpty());
+    }
+
+    private Long crearProducto(BigDecimal precio, int stock, int stockMinimo) {
+        Producto producto = productoService.crear(new Producto("Producto lectura " + System.nanoTime(), "Test",
+                precio, categoria), stock, stockMinimo);
+        productos.add(producto.getId());
+        return producto.getId();
+    }
+
+    @Test
+    void cuandoHayVariasEscriturasSeguidas_entoncesElHiloDeRefrescoLasAplicaTodas() throws InterruptedException {
+        List<Long> creados = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            creados.add(crearProducto(new BigDecimal("10.00"), 10 + i, 2));
+        }
+
+        esperarHasta(() -> modeloLectura.activos().orElseThrow().stream()
+                .map(ProductoResumen::getId).toList().containsAll(creados));
+        Long ultimo = creados.get(creados.size() - 1);
+        assertEquals(29, modeloLectura.activos().orElseThrow().stream()
+                .filter(p -> p.getId().equals(ultimo)).findFirst().orElseThrow().getStock());
+    }
+
+    private static void esperarHasta(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!condicion.getAsBoolean() && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertTrue(condicion.getAsBoolean(), "El modelo de lectura no reflejó el cambio a tiempo");
+    }
+
+    private static boolean contiene(List<ProductoResumen> productos, Long productoId) {
+        return productos.stream().anyMatch(p -> p.getId().equals(productoId));
+    }
+}
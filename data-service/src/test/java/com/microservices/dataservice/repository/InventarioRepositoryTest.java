@@ -0,0 +1,150 @@
+package com.microservices.dataservice.repository;
+
+import com.microservices.dataservice.dto.SnapshotInventario;
+import com.microservices.dataservice.entity.Categoria;
+import com.microservices.dataservice.entity.Inventario;
+import com.microservices.dataservice.entity.Inventario.EstadoStock;
+import com.microservices.dataservice.entity.Producto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de repositorio para el estado de stock persistido de InventarioRepository
+ *
+ * @author Agustin Benavidez
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class InventarioRepositoryTest {
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Categoria categoria;
+
+    @BeforeEach
+    void setUp() {
+        categoria = new Categoria("Estados de stock", "Categoría para testing");
+        entityManager.persist(categoria);
+    }
+
+    @Test
+    void cuandoSePersisteElInventario_entoncesLasAlertasFiltranPorEstado() {
+        Long sinStock = crear("Sin stock", 0, 4);
+        Long critico = crear("Crítico", 2, 4);
+        Long bajo = crear("Bajo", 4, 4);
+        Long ok = crear("Ok", 5, 4);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(EstadoStock.OK, inventarioRepository.findByProductoId(ok).orElseThrow().getEstadoStock());
+        assertEquals(List.of(sinStock, critico, bajo), productoIds(inventarioRepository.findInventariosConStockBajo()));
+        assertEquals(List.of(sinStock, critico), productoIds(inventarioRepository.findInventariosConStockCritico()));
+        assertEquals(List.of(sinStock), productoIds(inventarioRepository.findInventariosSinStock()));
+    }
+
+    @Test
+    void cuandoSeModificaLaCantidad_entoncesElEstadoAcompaniaAlCambio() {
+        Long productoId = crear("Decremento", 10, 4);
+        entityManager.flush();
+
+        // UPDATE atómico: el estado se calcula en la misma sentencia (el contexto no se limpia)
+        inventarioRepository.decrementarStock(productoId, 8);
+        Inventario inventario = inventarioRepository.findByProductoId(productoId).orElseThrow();
+        entityManager.refresh(inventario);
+        assertEquals(EstadoStock.CRITICO, inventario.getEstadoStock());
+
+        // Modificación de la entidad: se recalcula al cambiar cantidad o mínimo
+        inventario.incrementarStock(1);
+        assertEquals(EstadoStock.BAJO, inventario.getEstadoStock());
+        inventario.setStockMinimo(2);
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(EstadoStock.OK, inventarioRepository.findByProductoId(productoId).orElseThrow().getEstadoStock());
+    }
+
+    @Test
+    void cuandoCambiaLaCantidadOElPrecio_entoncesElValorSeMantiene() {
+        Long productoId = crear("Valor", 10, 4);
+        entityManager.flush();
+
+        inventarioRepository.decrementarStock(productoId, 3);
+        Inventario inventario = inventarioRepository.findByProductoId(productoId).orElseThrow();
+        entityManager.refresh(inventario);
+        assertEquals(0, new BigDecimal("70.00").compareTo(inventario.getValorInventario()));
+
+        // Contexto nuevo: el producto se relee con su inventario asociado
+        entityManager.clear();
+        entityManager.find(Producto.class, productoId).setPrecio(new BigDecimal("20.00"));
+        entityManager.flush();
+        entityManager.clear();
+        inventario = inventarioRepository.findByProductoId(productoId).orElseThrow();
+        assertEquals(0, new BigDecimal("20.00").compareTo(inventario.getPrecioUnitario()));
+        assertEquals(0, new BigDecimal("140.00").compareTo(inventario.getValorInventario()));
+    }
+
+    @Test
+    void cuandoElEstadoQuedoDesactualizado_entoncesSeRecalcula() {
+        Long productoId = crear("Desactualizado", 0, 4);
+        entityManager.flush();
+        entityManager.createNativeQuery("UPDATE inventario SET estado_stock = 'OK', " +
+                "precio_unitario = NULL, valor_inventario = NULL").executeUpdate();
+        entityManager.clear();
+
+        assertTrue(inventarioRepository.recalcularPreciosUnitarios() >= 1);
+        assertTrue(inventarioRepository.recalcularValoresInventario() >= 1);
+        assertTrue(inventarioRepository.recalcularEstadosStock() >= 1);
+        Inventario inventario = inventarioRepository.findByProductoId(productoId).orElseThrow();
+        assertEquals(EstadoStock.SIN_STOCK, inventario.getEstadoStock());
+        assertEquals(0, BigDecimal.ZERO.compareTo(inventario.getValorInventario()));
+    }
+
+    @Test
+    void cuandoSeResumePorEstado_entoncesElSnapshotCoincideConLosListados() {
+        SnapshotInventario antes = SnapshotInventario.desde(inventarioRepository.resumirPorEstado());
+        crear("Snapshot sin stock", 0, 4);
+        crear("Snapshot crítico", 2, 4);
+        crear("Snapshot bajo", 4, 4);
+        crear("Snapshot ok", 10, 4);
+        entityManager.flush();
+        entityManager.clear();
+
+        SnapshotInventario snapshot = SnapshotInventario.desde(inventarioRepository.resumirPorEstado());
+        assertEquals(4, snapshot.getTotalProductos() - antes.getTotalProductos());
+        assertEquals(16, snapshot.getCantidadTotalItems() - antes.getCantidadTotalItems());
+        assertEquals(3, snapshot.getProductosConStockBajo() - antes.getProductosConStockBajo());
+        assertEquals(2, snapshot.getProductosConStockCritico() - antes.getProductosConStockCritico());
+        assertEquals(1, snapshot.getProductosSinStock() - antes.getProductosSinStock());
+        assertEquals(0, new BigDecimal("160.00").compareTo(
+                snapshot.getValorTotalInventario().subtract(antes.getValorTotalInventario())));
+
+        // El snapshot coincide con los listados que reemplaza
+        assertEquals(inventarioRepository.findInventariosConStockBajo().size(), snapshot.getProductosConStockBajo());
+        assertEquals(inventarioRepository.findInventariosSinStock().size(), snapshot.getProductosSinStock());
+        assertEquals(snapshot.getTotalProductos(),
+                snapshot.getProductosPorEstado().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    private Long crear(String nombre, int cantidad, int stockMinimo) {
+        Producto producto = new Producto(nombre, "Test", new BigDecimal("10.00"), categoria);
+        entityManager.persist(producto);
+        entityManager.persist(new Inventario(producto, cantidad, stockMinimo));
+        return producto.getId();
+    }
+
+    private static List<Long> productoIds(List<Inventario> inventarios) {
+        return inventarios.stream().map(Inventario::getProductoId).toList();
+    }
+}
@@ -0,0 +1,132 @@
+package com.microservices.dataservice.repository;
+
+import com.microservices.dataservice.dto.ProductoResumen;
+import com.microservices.dataservice.entity.Categoria;
+import com.microservices.dataservice.entity.Inventario;
+import com.microservices.dataservice.entity.Producto;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de repositorio para ProductoRepository
+ * 
+ * @author Agustin Benavidez
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class ProductoRepositoryTest {
+
+    private static final int CANTIDAD_PRODUCTOS = 10;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        Categoria categoria = new Categoria("Periféricos", "Categoría para testing");
+        entityManager.persist(categoria);
+
+        for (int i = 0; i < CANTIDAD_PRODUCTOS; i++) {
+            Producto producto = new Producto("Producto " + i, "Descripción " + i,
+                                             new BigDecimal("100.00"), categoria);
+            entityManager.persist(producto);
+            entityManager.persist(new Inventario(producto, i, 5));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        estadisticas = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        estadisticas.clear();
+    }
+
+    @Test
+    void cuandoObtenerResumenActivos_entoncesEjecutaUnaSolaConsulta() {
+        List<ProductoResumen> resumen = productoRepository.findResumenActivos();
+
+        assertEquals(CANTIDAD_PRODUCTOS, resumen.size());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertEquals("Periféricos", resumen.get(0).getCategoriaNombre());
+        assertEquals(3, resumen.get(3).getStock());
+    }
+
+    @Test
+    void cuandoObtenerResumenConStockBajo_entoncesEjecutaUnaSolaConsulta() {
+        List<ProductoResumen> resumen = productoRepository.findResumenConStockBajo();
+
+        // Cantidades 0..5 quedan en o por debajo del stock mínimo (5)
+        assertEquals(6, resumen.size());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertTrue(resumen.stream().allMatch(ProductoResumen::isStockBajo));
+    }
+
+    @Test
+    void cuandoBuscarNombreSinDistinguirMayusculas_entoncesUsaElNombreNormalizado() {
+        Long id = productoRepository.findAll().get(0).getId();
+
+        assertTrue(productoRepository.existsByNombreIgnoreCaseAndIdNot("PRODUCTO 3", null));
+        assertFalse(productoRepository.existsByNombreIgnoreCaseAndIdNot("producto 0", id));
+        assertEquals(List.of("producto 1"), productoRepository.findNombresExistentes(List.of("producto 1", "otro")));
+        assertEquals(CANTIDAD_PRODUCTOS, productoRepository.findResumenByCategoriaNombreIgnoreCase("PERIFÉRICOS").size());
+    }
+
+    @Test
+    void cuandoGuardarNombreRepetidoConOtrasMayusculas_entoncesElIndiceUnicoLoRechaza() {
+        Producto existente = productoRepository.findAll().get(0);
+        Producto duplicado = new Producto(existente.getNombre().toUpperCase(), "Duplicado",
+                new BigDecimal("1.00"), existente.getCategoria());
+
+        assertThrows(DataIntegrityViolationException.class, () -> productoRepository.saveAndFlush(duplicado));
+    }
+
+    @Test
+    void cuandoHayFilasSinNombreNormalizado_entoncesSeCompletan() {
+        entityManager.createNativeQuery("UPDATE productos SET nombre_normalizado = NULL").executeUpdate();
+
+        assertEquals(CANTIDAD_PRODUCTOS, productoRepository.completarNombresNormalizados());
+        entityManager.clear();
+        assertTrue(productoRepository.findAll().stream()
+                .allMatch(p -> p.getNombre().toLowerCase().equals(p.getNombreNormalizado())));
+    }
+
+    @Test
+    void cuandoPaginarPorPrecioEnLaBase_entoncesRespetaElOrdenDelIndice() {
+        Categoria categoria = new Categoria("Monitores", "Categoría para testing");
+        entityManager.persist(categoria);
+        Producto barato = new Producto("Monitor Barato", "Test", new BigDecimal("20.00"), categoria);
+        Producto medio = new Producto("Monitor Medio", "Test", new BigDecimal("100.00"), categoria);
+        Producto caro = new Producto("Monitor Caro", "Test", new BigDecimal("500.00"), categoria);
+        List.of(barato, medio, caro).forEach(entityManager::persist);
+        entityManager.flush();
+
+        List<ProductoResumen> asc = productoRepository.findByPrecioOrdenadoAsc(new BigDecimal("50"), null, 9, 3);
+        List<ProductoResumen> desc = productoRepository.findByPrecioOrdenadoDesc(null, new BigDecimal("100"), 0, 2);
+
+        // A igual precio desempata el ID: el monitor de 100 va después de los productos de 100 del setUp
+        assertEquals(List.of("Producto 9", "Monitor Medio", "Monitor Caro"),
+                asc.stream().map(ProductoResumen::getNombre).toList());
+        assertEquals(medio.getId(), desc.get(0).getId());
+        assertEquals(List.of(barato.getId()), productoRepository.findMasBaratosDeCategoria(categoria.getId(), Limit.of(1))
+                .stream().map(ProductoResumen::getId).toList());
+    }
+}
@@ -0,0 +1,196 @@
+package com.microservices.dataservice.service;
+
+import com.microservices.dataservice.entity.Categoria;
+import com.microservices.dataservice.entity.Producto;
+import com.microservices.dataservice.repository.CategoriaRepository;
+import com.microservices.dataservice.repository.InventarioRepository;
+import com.microservices.dataservice.repository.ProductoRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests de los agregados de inventario mantenidos incrementalmente
+ *
+ * No es transaccional: los agregados se actualizan al confirmar cada operación.
+ *
+ * @author Agustin Benavidez
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AgregadosInventarioTest {
+
+    @Autowired
+    private AgregadosInventario agregadosInventario;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private HikariDataSource dataSourcePrimaria;
+
+    private Categoria categoria;
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        // Otros tests borran filas directamente; partir de agregados alineados
+        agregadosInventario.reconstruir();
+        categoria = categoriaRepository.save(new Categoria("Agregados " + System.nanoTime(), "Test"));
+        producto = productoService.crear(new Producto("Producto agregado " + System.nanoTime(), "Test",
+                new BigDecimal("10.00"), categoria), 10, 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productoService.eliminarPermanentemente(producto.getId());
+        categoriaRepository.deleteById(categoria.getId());
+    }
+
+    @Test
+    void cuandoCambiaStockPrecioOActivacion_entoncesAgregadosCoincidenConLaConsulta() {
+        Map<String, Object> antes = agregadosInventario.obtenerEstadisticas();
+        BigDecimal valorAntes = agregadosInventario.obtenerValorTotal();
+
+        inventarioService.decrementarStock(producto.getId(), 6);
+
+        Map<String, Object> despues = agregadosInventario.obtenerEstadisticas();
+        assertEquals((Long) antes.get("cantidadTotalItems") - 6, despues.get("cantidadTotalItems"));
+        assertEquals((Long) antes.get("productosConStockBajo") + 1, despues.get("productosConStockBajo"));
+        assertEquals(1L, agregadosInventario.obtenerStockBajoPorCategoria().get(categoria.getNombre()));
+        assertEquals(0, valorAntes.subtract(new BigDecimal("60.00")).compareTo(agregadosInventario.obtenerValorTotal()));
+
+        // 4 unidades pasan de 10.00 a 30.00
+        Producto cambioPrecio = new Producto(producto.getNombre(), "Test", new BigDecimal("30.00"), categoria);
+        productoService.actualizar(producto.getId(), cambioPrecio);
+        assertEquals(0, valorAntes.add(new BigDecimal("20.00")).compareTo(agregadosInventario.obtenerValorTotal()));
+
+        productoService.eliminar(producto.getId());
+        assertEquals((Long) antes.get("totalProductos") - 1, agregadosInventario.obtenerEstadisticas().get("totalProductos"));
+        assertNull(agregadosInventario.obtenerStockBajoPorCategoria().get(categoria.getNombre()));
+
+        productoService.reactivar(producto.getId());
+        assertTrue(agregadosInventario.reconciliar());
+    }
+
+    @Test
+    void cuandoLaBaseCambiaPorFueraDelServicio_entoncesLaReconciliacionCorrige() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado ->
+                inventarioRepository.actualizarCantidadPorProductoId(producto.getId(), 1, LocalDateTime.now()));
+
+        assertFalse(agregadosInventario.reconciliar());
+        assertTrue(agregadosInventario.reconciliar());
+        assertEquals(1L, agregadosInventario.obtenerStockBajoPorCategoria().get(categoria.getNombre()));
+    }
+
+    @Test
+    void cuandoUnaCategoriaCambiaPorFuera_entoncesLaReconciliacionLaDetectaAunqueLosTotalesCoincidan() {
+        inventarioService.decrementarStock(producto.getId(), 6);
+        Categoria otra = categoriaRepository.save(new Categoria("Agregados otra " + System.nanoTime(), "Test"));
+        JdbcTemplate primaria = new JdbcTemplate(dataSourcePrimaria);
+        try {
+            // Mismos totales globales; el stock bajo pasa a contar en otra categoría
+            primaria.update("UPDATE productos SET categoria_id = ? WHERE id = ?", otra.getId(), producto.getId());
+
+            assertFalse(agregadosInventario.reconciliar());
+            assertTrue(agregadosInventario.reconciliar());
+            assertEquals(1L, agregadosInventario.obtenerStockBajoPorCategoria().get(otra.getNombre()));
+            assertNull(agregadosInventario.obtenerStockBajoPorCategoria().get(categoria.getNombre()));
+        } finally {
+            primaria.update("UPDATE productos SET categoria_id = ? WHERE id = ?", categoria.getId(), producto.getId());
+            categoriaRepository.deleteById(otra.getId());
+        }
+    }
+
+    @Test
+    void cuandoElStockCambiaDuranteLaReconstruccion_entoncesElCambioNoSePierde() {
+        // Repositorio que confirma un cambio de stock después de leer el lote y antes de publicar
+        ProductoRepository repositorio = mock(ProductoRepository.class);
+        AgregadosInventario agregados = new AgregadosInventario(repositorio, transactionManager);
+        when(repositorio.findAporteAgregadosPorIds(anyCollection())).thenAnswer(invocacion ->
+                productoRepository.findAporteAgregadosPorIds(invocacion.<Collection<Long>>getArgument(0)));
+        AtomicBoolean cambiado = new AtomicBoolean();
+        when(repositorio.findAporteAgregadosPaginado(anyLong(), any(Limit.class))).thenAnswer(invocacion -> {
+            List<Object[]> lote = productoRepository.findAporteAgregadosPaginado(
+                    invocacion.getArgument(0), invocacion.getArgument(1));
+            if (lote.stream().anyMatch(fila -> producto.getId().equals(fila[0])) && cambiado.compareAndSet(false, true)) {
+                Thread concurrente = new Thread(() -> {
+                    inventarioService.decrementarStock(producto.getId(), 6);
+                    agregados.registrarInventario(inventarioRepository.findByProductoId(producto.getId()).orElseThrow());
+                });
+                concurrente.start();
+                concurrente.join();
+            }
+            return lote;
+        });
+
+        agregados.reconstruir();
+
+        assertEquals(1L, agregados.obtenerStockBajoPorCategoria().get(categoria.getNombre()));
+        assertTrue(agregados.reconciliar());
+        verify(repositorio).findAporteAgregadosPorIds(argThat(ids -> ids.contains(producto.getId())));
+    }
+
+    @Test
+    void cuandoElStockCambiaDuranteLaReconciliacion_entoncesNoLoCuentaComoDiferencia() {
+        ProductoRepository repositorio = mock(ProductoRepository.class);
+        AgregadosInventario agregados = new AgregadosInventario(repositorio, transactionManager);
+        when(repositorio.findAporteAgregadosPaginado(anyLong(), any(Limit.class))).thenAnswer(invocacion ->
+                productoRepository.findAporteAgregadosPaginado(invocacion.getArgument(0), invocacion.getArgument(1)));
+        agregados.reconstruir();
+
+        // Cambio confirmado y aplicado en memoria después de leer la fila del producto
+        AtomicBoolean cambiado = new AtomicBoolean();
+        when(repositorio.findAporteAgregadosPaginado(anyLong(), any(Limit.class))).thenAnswer(invocacion -> {
+            List<Object[]> lote = productoRepository.findAporteAgregadosPaginado(
+                    invocacion.getArgument(0), invocacion.getArgument(1));
+            if (lote.stream().anyMatch(fila -> producto.getId().equals(fila[0])) && cambiado.compareAndSet(false, true)) {
+                Thread concurrente = new Thread(() -> {
+                    inventarioService.decrementarStock(producto.getId(), 6);
+                    agregados.registrarInventario(inventarioRepository.findByProductoId(producto.getId()).orElseThrow());
+                });
+                concurrente.start();
+                concurrente.join();
+            }
+            return lote;
+        });
+
+        assertTrue(agregados.reconciliar());
+        assertEquals(1L, agregados.obtenerStockBajoPorCategoria().get(categoria.getNombre()));
+        assertTrue(agregados.reconciliar());
+    }
+}
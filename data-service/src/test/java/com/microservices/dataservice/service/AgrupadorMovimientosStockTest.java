@@ -0,0 +1,244 @@
+package com.microservices.dataservice.service;
+
+import com.microservices.dataservice.entity.Categoria;
+import com.microservices.dataservice.entity.Inventario;
+import com.microservices.dataservice.entity.Producto;
+import com.microservices.dataservice.exception.InsufficientStockException;
+import com.microservices.dataservice.exception.ResourceNotFoundException;
+import com.microservices.dataservice.repository.CategoriaRepository;
+import com.microservices.dataservice.repository.InventarioRepository;
+import com.microservices.dataservice.repository.ProductoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests del modo de agrupación (group commit) de movimientos de stock
+ *
+ * @author Agustin Benavidez
+ */
+@SpringBootTest(properties = "data.inventario.agrupacion.habilitada=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AgrupadorMovimientosStockTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgrupadorMovimientosStockTest.class);
+
+    @Autowired
+    private AgrupadorMovimientosStock agrupador;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    private Categoria categoria;
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        categoria = categoriaRepository.save(new Categoria("Agrupación " + System.nanoTime(), "Test"));
+        producto = productoService.crear(new Producto("SKU agrupado " + System.nanoTime(), "Producto muy demandado",
+                new BigDecimal("10.00"), categoria), 30, 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productoRepository.deleteById(producto.getId());
+        categoriaRepository.deleteById(categoria.getId());
+    }
+
+    @Test
+    void cuandoDecrementosConcurrentes_entoncesCadaLlamadorRecibeSuResultado() {
+        List<CompletableFuture<Inventario>> futuros = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futuros.add(agrupador.decrementar(producto.getId(), 1));
+        }
+
+        int exitos = 0;
+        int sinStock = 0;
+        for (CompletableFuture<Inventario> futuro : futuros) {
+            try {
+                futuro.join();
+                exitos++;
+            } catch (CompletionException e) {
+                assertInstanceOf(InsufficientStockException.class, e.getCause());
+                sinStock++;
+            }
+        }
+
+        assertEquals(30, exitos);
+        assertEquals(20, sinStock);
+        assertEquals(0, inventarioService.buscarPorProductoId(producto.getId()).getCantidad());
+    }
+
+    @Test
+    void cuandoProductoInexistenteEnElLote_entoncesSoloFallaEseMovimiento() {
+        long lotesPrevios = agrupador.getLotesProcesados();
+
+        CompletableFuture<Inventario> valido = agrupador.incrementar(producto.getId(), 5);
+        CompletableFuture<Inventario> inexistente = agrupador.decrementar(99999L, 1);
+        CompletableFuture<Inventario> otroValido = agrupador.decrementar(producto.getId(), 10);
+
+        assertEquals(35, valido.join().getCantidad());
+        assertEquals(25, otroValido.join().getCantidad());
+        assertEquals(5, otroValido.join().getStockMinimo());
+        assertEquals(producto.getNombre(), otroValido.join().getProductoNombre());
+        CompletionException error = assertThrows(CompletionException.class, inexistente::join);
+        assertInstanceOf(ResourceNotFoundException.class, error.getCause());
+        assertTrue(agrupador.getLotesProcesados() - lotesPrevios <= 3);
+    }
+
+    @Test
+    void cuandoMovimientoAgrupadoPorHttp_entoncesRespondeElInventarioComoSinAgrupar() throws Exception {
+        MvcResult resultado = mockMvc.perform(put("/data/inventario/producto/{id}/incrementar", producto.getId())
+                        .param("incremento", "2"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").isNumber())
+                .andExpect(jsonPath("$.productoId").value(producto.getId()))
+                .andExpect(jsonPath("$.productoNombre").value(producto.getNombre()))
+                .andExpect(jsonPath("$.cantidad").value(32))
+                .andExpect(jsonPath("$.stockMinimo").value(5))
+                .andExpect(jsonPath("$.version").isNumber());
+    }
+
+    @Test
+    void cuandoUnLoteLanzaUnError_entoncesElHiloSigueAtendiendoLaCola() {
+        InventarioRepository repositorio = mock(InventarioRepository.class);
+        when(repositorio.findByProductoIdInParaActualizar(anyCollection()))
+                .thenThrow(new StackOverflowError("lote roto"))
+                .thenReturn(List.of());
+        AgrupadorMovimientosStock aislado = agrupadorAislado(repositorio);
+        try {
+            ExecutionException error = assertThrows(ExecutionException.class,
+                    () -> aislado.incrementar(1L, 1).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, error.getCause());
+
+            // El siguiente lote se procesa: el producto no existe, pero la respuesta llega
+            error = assertThrows(ExecutionException.class, () -> aislado.incrementar(1L, 1).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ResourceNotFoundException.class, error.getCause());
+        } finally {
+            aislado.detener();
+        }
+    }
+
+    @Test
+    void cuandoSeDetieneConMovimientosEnCola_entoncesTodosTerminanConError() throws Exception {
+        CountDownLatch loteIniciado = new CountDownLatch(1);
+        InventarioRepository repositorio = mock(InventarioRepository.class);
+        when(repositorio.findByProductoIdInParaActualizar(anyCollection())).thenAnswer(invocacion -> {
+            loteIniciado.countDown();
+            new CountDownLatch(1).await();
+            return List.of();
+        });
+        AgrupadorMovimientosStock aislado = agrupadorAislado(repositorio);
+
+        List<CompletableFuture<Inventario>> futuros = new ArrayList<>();
+        futuros.add(aislado.decrementar(1L, 1));
+        assertTrue(loteIniciado.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            futuros.add(aislado.decrementar(2L, 1));
+        }
+
+        aislado.detener();
+
+        for (CompletableFuture<Inventario> futuro : futuros) {
+            assertThrows(ExecutionException.class, () -> futuro.get(5, TimeUnit.SECONDS));
+        }
+        assertThrows(IllegalStateException.class, () -> aislado.incrementar(1L, 1));
+    }
+
+    /**
+     * Agrupador fuera del contexto, con transacciones simuladas y el repository indicado
+     */
+    private AgrupadorMovimientosStock agrupadorAislado(InventarioRepository repositorio) {
+        AgrupadorMovimientosStock aislado = new AgrupadorMovimientosStock(repositorio, mock(AgregadosInventario.class),
+                mock(RegistroCambios.class), mock(LibroStock.class), mock(PlatformTransactionManager.class), true, 1, 200);
+        aislado.iniciar();
+        return aislado;
+    }
+
+    @Test
+    void compararThroughputAgrupadoVsAtomico() throws Exception {
+        int hilos = 16;
+        int pedidosPorHilo = 20;
+        inventarioService.actualizarStock(producto.getId(), hilos * pedidosPorHilo);
+        long lotesPrevios = agrupador.getLotesProcesados();
+
+        long agrupado = medir(hilos, pedidosPorHilo, () -> agrupador.decrementar(producto.getId(), 1).join());
+        long lotes = agrupador.getLotesProcesados() - lotesPrevios;
+        assertEquals(0, inventarioService.buscarPorProductoId(producto.getId()).getCantidad());
+        assertTrue(lotes < hilos * pedidosPorHilo);
+
+        inventarioService.actualizarStock(producto.getId(), hilos * pedidosPorHilo);
+        long atomico = medir(hilos, pedidosPorHilo, () -> inventarioService.decrementarStockAtomico(producto.getId(), 1));
+        assertEquals(0, inventarioService.buscarPorProductoId(producto.getId()).getCantidad());
+
+        logger.info("{} decrementos: agrupado {} ms en {} lotes | atómico {} ms en {} transacciones",
+                hilos * pedidosPorHilo, agrupado, lotes, atomico, hilos * pedidosPorHilo);
+    }
+
+    private long medir(int hilos, int pedidosPorHilo, Runnable pedido) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        try {
+            long inicio = System.nanoTime();
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                tareas.add(executor.submit(() -> {
+                    for (int i = 0; i < pedidosPorHilo; i++) {
+                        pedido.run();
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+            return (System.nanoTime() - inicio) / 1_000_000;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
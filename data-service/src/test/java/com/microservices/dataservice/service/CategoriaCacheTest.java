@@ -0,0 +1,99 @@
+package com.microservices.dataservice.service;
+
+import com.microservices.dataservice.entity.Categoria;
+import com.microservices.dataservice.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la caché de segundo nivel de categorías
+ *
+ * No es transaccional: la caché se puebla e invalida al confirmar cada operación.
+ *
+ * @author Agustin Benavidez
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CategoriaCacheTest {
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics estadisticas;
+    private Categoria categoria;
+
+    @BeforeEach
+    void setUp() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        categoria = categoriaService.crear(new Categoria("Cache " + System.nanoTime(), "Test"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        categoriaService.eliminar(categoria.getId());
+    }
+
+    @Test
+    void cuandoSeBuscaPorIdRepetidamente_entoncesSeSirveDesdeLaCacheSinConsultas() {
+        categoriaService.buscarPorId(categoria.getId());
+        estadisticas.clear();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(categoria.getNombre(), categoriaService.buscarPorId(categoria.getId()).getNombre());
+        }
+
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+        assertEquals(5, estadisticas.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void cuandoSeBuscaPorNombreRepetidamente_entoncesUsaLaCacheDeConsultas() {
+        categoriaService.buscarPorNombre(categoria.getNombre());
+        estadisticas.clear();
+
+        categoriaService.buscarPorNombre(categoria.getNombre());
+        categoriaService.buscarPorNombre(categoria.getNombre());
+
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+        assertEquals(2, estadisticas.getQueryCacheHitCount());
+    }
+
+    @Test
+    void cuandoSeActualizaLaCategoria_entoncesLaCacheSeInvalida() {
+        categoriaService.buscarPorNombre(categoria.getNombre());
+        String nombreNuevo = "Cache actualizada " + System.nanoTime();
+
+        categoriaService.actualizar(categoria.getId(), new Categoria(nombreNuevo, "Actualizada"));
+
+        assertEquals(nombreNuevo, categoriaService.buscarPorId(categoria.getId()).getNombre());
+        assertEquals(categoria.getId(), categoriaService.buscarPorNombre(nombreNuevo).getId());
+        assertThrows(ResourceNotFoundException.class, () -> categoriaService.buscarPorNombre(categoria.getNombre()));
+    }
+
+    @Test
+    void cuandoSeConsultaActuator_entoncesExistenMetricasDeAciertosYFallos() {
+        categoriaService.buscarPorId(categoria.getId());
+
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", Categoria.REGION_CACHE).tag("result", "hit").functionCounter());
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", Categoria.REGION_CACHE).tag("result", "miss").functionCounter());
+        assertNotNull(meterRegistry.find("hibernate.cache.query.requests").tag("result", "hit").functionCounter());
+    }
+}
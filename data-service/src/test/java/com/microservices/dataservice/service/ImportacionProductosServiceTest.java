@@ -0,0 +1,167 @@
+package com.microservices.dataservice.service;
+
+import com.microservices.dataservice.busqueda.IndiceBusquedaProductos;
+import com.microservices.dataservice.dto.ProductoImportacion;
+import com.microservices.dataservice.entity.Categoria;
+import com.microservices.dataservice.entity.Producto;
+import com.microservices.dataservice.exception.DuplicateResourceException;
+import com.microservices.dataservice.exception.ResourceNotFoundException;
+import com.microservices.dataservice.repository.CategoriaRepository;
+import com.microservices.dataservice.repository.InventarioRepository;
+import com.microservices.dataservice.repository.ProductoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la importación masiva de productos
+ *
+ * No es transaccional: cada tramo de la importación confirma por separado.
+ *
+ * @author Agustin Benavidez
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportacionProductosServiceTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacionProductosServiceTest.class);
+
+    private static final int PRODUCTOS_COMPARACION = 1000;
+
+    @Autowired
+    private ImportacionProductosService importacionProductosService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private IndiceBusquedaProductos indiceBusqueda;
+
+    @Autowired
+    private AgregadosInventario agregadosInventario;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Categoria categoria;
+    private String prefijo;
+
+    @BeforeEach
+    void setUp() {
+        prefijo = "Importado " + System.nanoTime() + " ";
+        categoria = categoriaRepository.save(new Categoria("Importacion " + System.nanoTime(), "Test"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        List<Long> ids = productoRepository.findAll().stream()
+                .filter(p -> p.getNombre().startsWith(prefijo))
+                .map(Producto::getId)
+                .toList();
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+            entityManager.createQuery("DELETE FROM Inventario i WHERE i.producto.id IN " +
+                    "(SELECT p.id FROM Producto p WHERE p.categoria.id = :categoriaId)")
+                    .setParameter("categoriaId", categoria.getId()).executeUpdate();
+            entityManager.createQuery("DELETE FROM Producto p WHERE p.categoria.id = :categoriaId")
+                    .setParameter("categoriaId", categoria.getId()).executeUpdate();
+        });
+        ids.forEach(indiceBusqueda::eliminar);
+        categoriaRepository.deleteById(categoria.getId());
+        agregadosInventario.reconstruir();
+    }
+
+    @Test
+    void cuandoSeImportaUnLote_entoncesCreaProductosEInventariosEnTramos() {
+        List<ProductoImportacion> productos = generar(7, "");
+
+        Map<String, Object> resumen = importacionProductosService.importar(productos);
+
+        @SuppressWarnings("unchecked")
+        List<Long> ids = (List<Long>) resumen.get("ids");
+        assertEquals(7, resumen.get("productosCreados"));
+        assertEquals(7, ids.size());
+        assertEquals(6, inventarioRepository.findByProductoId(ids.get(6)).orElseThrow().getCantidad());
+        assertEquals(7, indiceBusqueda.buscar(prefijo.trim()).size());
+    }
+
+    @Test
+    void cuandoHayNombreRepetidoOCategoriaInexistente_entoncesNoInsertaNada() {
+        List<ProductoImportacion> repetidos = generar(3, "");
+        repetidos.add(new ProductoImportacion(repetidos.get(0).getNombre().toUpperCase(), "Repetido",
+                new BigDecimal("5.00"), categoria.getId(), 1, 0));
+        List<ProductoImportacion> sinCategoria = generar(3, "otra ");
+        sinCategoria.get(1).setCategoriaId(Long.MAX_VALUE);
+
+        assertThrows(DuplicateResourceException.class, () -> importacionProductosService.importar(repetidos));
+        assertThrows(ResourceNotFoundException.class, () -> importacionProductosService.importar(sinCategoria));
+        assertTrue(productoRepository.findAll().stream().noneMatch(p -> p.getNombre().startsWith(prefijo)));
+    }
+
+    @Test
+    void compararThroughputImportacionVsCreacionIndividual() {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        estadisticas.clear();
+        long inicio = System.nanoTime();
+        for (ProductoImportacion item : generar(PRODUCTOS_COMPARACION, "individual ")) {
+            Producto producto = new Producto(item.getNombre(), item.getDescripcion(), item.getPrecio(), categoria);
+            productoService.crear(producto, item.getCantidadInicial(), item.getStockMinimo());
+        }
+        long individualMs = (System.nanoTime() - inicio) / 1_000_000;
+        long sentenciasIndividual = estadisticas.getPrepareStatementCount();
+
+        estadisticas.clear();
+        inicio = System.nanoTime();
+        importacionProductosService.importar(generar(PRODUCTOS_COMPARACION, "masivo "));
+        long masivoMs = (System.nanoTime() - inicio) / 1_000_000;
+        long sentenciasMasivo = estadisticas.getPrepareStatementCount();
+
+        // 2 * N inserts agrupados en batches de hibernate.jdbc.batch_size, más validaciones y secuencias
+        assertTrue(sentenciasMasivo < PRODUCTOS_COMPARACION / 4,
+                "La importación ejecutó " + sentenciasMasivo + " sentencias");
+        logger.info("Creación individual: {} productos en {} ms ({} sentencias) | masiva: {} ms ({} sentencias)",
+                PRODUCTOS_COMPARACION, individualMs, sentenciasIndividual, masivoMs, sentenciasMasivo);
+    }
+
+    private List<ProductoImportacion> generar(int cantidad, String variante) {
+        List<ProductoImportacion> productos = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            productos.add(new ProductoImportacion(prefijo + variante + i, "Producto importado",
+                    new BigDecimal("10.00"), categoria.getId(), i, 2));
+        }
+        return productos;
+    }
+}
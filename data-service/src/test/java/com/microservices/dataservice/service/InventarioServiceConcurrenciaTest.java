@@ -0,0 +1,143 @@
+package com.microservices.dataservice.service;
+
+import com.microservices.dataservice.entity.Categoria;
+import com.microservices.dataservice.entity.Producto;
+import com.microservices.dataservice.exception.InsufficientStockException;
+import com.microservices.dataservice.repository.CategoriaRepository;
+import com.microservices.dataservice.repository.ProductoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests de concurrencia sobre el decremento de stock
+ *
+ * No es transaccional: cada decremento debe confirmar por separado para
+ * competir realmente por la misma fila.
+ *
+ * @author Agustin Benavidez
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InventarioServiceConcurrenciaTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventarioServiceConcurrenciaTest.class);
+
+    private static final int STOCK_INICIAL = 100;
+    private static final int HILOS = 8;
+    private static final int PEDIDOS_POR_HILO = 25;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    private Categoria categoria;
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        categoria = categoriaRepository.save(new Categoria("Concurrencia " + System.nanoTime(), "Test"));
+        Producto nuevo = new Producto("SKU caliente " + System.nanoTime(), "Producto muy demandado",
+                new BigDecimal("10.00"), categoria);
+        producto = productoService.crear(nuevo, STOCK_INICIAL, 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productoRepository.deleteById(producto.getId());
+        categoriaRepository.deleteById(categoria.getId());
+    }
+
+    @Test
+    void cuandoDecrementoAtomicoConcurrente_entoncesNuncaVendeDeMasNiFalla() throws Exception {
+        Resultado resultado = ejecutarConcurrente(inventarioService::decrementarStockAtomico);
+
+        assertEquals(STOCK_INICIAL, resultado.exitos());
+        assertEquals(HILOS * PEDIDOS_POR_HILO - STOCK_INICIAL, resultado.sinStock());
+        assertEquals(0, resultado.conflictos());
+        assertEquals(0, inventarioService.buscarPorProductoId(producto.getId()).getCantidad());
+    }
+
+    @Test
+    void compararThroughputAtomicoVsOptimista() throws Exception {
+        Resultado optimista = ejecutarConcurrente(inventarioService::decrementarStockOptimista);
+        int restante = inventarioService.buscarPorProductoId(producto.getId()).getCantidad();
+
+        // El modo optimista tampoco vende de más, pero desperdicia intentos en conflictos de versión
+        assertEquals(STOCK_INICIAL - optimista.exitos(), restante);
+
+        inventarioService.actualizarStock(producto.getId(), STOCK_INICIAL);
+        Resultado atomico = ejecutarConcurrente(inventarioService::decrementarStockAtomico);
+
+        assertEquals(STOCK_INICIAL, atomico.exitos());
+        logger.info("Decremento optimista: {} ok, {} conflictos en {} ms | atómico: {} ok, {} conflictos en {} ms",
+                optimista.exitos(), optimista.conflictos(), optimista.milisegundos(),
+                atomico.exitos(), atomico.conflictos(), atomico.milisegundos());
+    }
+
+    private Resultado ejecutarConcurrente(BiConsumer<Long, Integer> decremento) throws Exception {
+        AtomicInteger exitos = new AtomicInteger();
+        AtomicInteger sinStock = new AtomicInteger();
+        AtomicInteger conflictos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < HILOS; h++) {
+                tareas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < PEDIDOS_POR_HILO; i++) {
+                        try {
+                            decremento.accept(producto.getId(), 1);
+                            exitos.incrementAndGet();
+                        } catch (InsufficientStockException e) {
+                            sinStock.incrementAndGet();
+                        } catch (OptimisticLockingFailureException e) {
+                            conflictos.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long inicio = System.nanoTime();
+            largada.countDown();
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+            long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+            return new Resultado(exitos.get(), sinStock.get(), conflictos.get(), milisegundos);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private record Resultado(int exitos, int sinStock, int conflictos, long milisegundos) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.microservices.dataservice.service;
+
+import com.microservices.dataservice.entity.Categoria;
+import com.microservices.dataservice.entity.Inventario;
+import com.microservices.dataservice.entity.Producto;
+import com.microservices.dataservice.repository.CategoriaRepository;
+import com.microservices.dataservice.repository.InventarioRepository;
+import com.microservices.dataservice.repository.ProductoRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del decremento atómico dentro de una transacción del llamador
+ *
+ * @author Agustin Benavidez
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InventarioServiceTest {
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Categoria categoria;
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        categoria = categoriaRepository.save(new Categoria("Inventario " + System.nanoTime(), "Test"));
+        producto = productoService.crear(new Producto("Producto inventario " + System.nanoTime(), "Test",
+                new BigDecimal("10.00"), categoria), 10, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productoService.eliminarPermanentemente(producto.getId());
+        categoriaRepository.deleteById(categoria.getId());
+    }
+
+    @Test
+    void cuandoDecrementoAtomicoConEntidadesCargadas_entoncesSoloRefrescaElInventario() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+            Producto gestionado = productoRepository.findById(producto.getId()).orElseThrow();
+            Inventario leido = inventarioRepository.findByProductoId(producto.getId()).orElseThrow();
+
+            Inventario actualizado = inventarioService.decrementarStockAtomico(producto.getId(), 3);
+
+            // La instancia ya cargada se relee y el resto del contexto sigue gestionado
+            assertSame(leido, actualizado);
+            assertEquals(7, actualizado.getCantidad());
+            assertTrue(entityManager.contains(gestionado));
+        });
+        assertEquals(7, inventarioService.buscarPorProductoId(producto.getId()).getCantidad());
+    }
+}
@@ -0,0 +1,215 @@
+package com.microservices.dataservice.service;
+
+import com.microservices.dataservice.dto.ItemReserva;
+import com.microservices.dataservice.dto.PaginaCursor;
+import com.microservices.dataservice.entity.Categoria;
+import com.microservices.dataservice.entity.MovimientoStock;
+import com.microservices.dataservice.entity.Producto;
+import com.microservices.dataservice.repository.CategoriaRepository;
+import com.microservices.dataservice.repository.InstantaneaStockRepository;
+import com.microservices.dataservice.repository.MovimientoStockRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests del libro de movimientos de stock
+ *
+ * @author Agustin Benavidez
+ */
+@SpringBootTest(properties = "data.inventario.libro.margen-compactacion-ms=0")
+@ActiveProfiles("test")
+class LibroStockTest {
+
+    @Autowired
+    private LibroStock libroStock;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Categoria categoria;
+    private final List<Long> productos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        categoria = categoriaRepository.save(new Categoria("Libro " + System.nanoTime(), "Test"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productos.forEach(productoService::eliminarPermanentemente);
+        categoriaRepository.deleteById(categoria.getId());
+    }
+
+    @Test
+    void cuandoHayMovimientos_entoncesQuedanRegistradosConSuCantidadResultante() {
+        Long productoId = crearProducto(10);
+
+        inventarioService.incrementarStock(productoId, 5);
+        inventarioService.decrementarStock(productoId, 3);
+        inventarioService.actualizarStock(productoId, 20);
+        inventarioService.reservarStock(List.of(new ItemReserva(productoId, 4)));
+
+        PaginaCursor<MovimientoStock> pagina = libroStock.obtenerMovimientos(productoId, null, 10);
+        List<String> movimientos = pagina.getContenido().stream()
+                .map(m -> m.getTipo() + ":" + m.getDelta() + ":" + m.getCantidadResultante())
+                .toList();
+        assertEquals(List.of("CREACION:10:10", "INCREMENTO:5:15", "DECREMENTO:-3:12",
+                "AJUSTE:8:20", "RESERVA:-4:16"), movimientos);
+        assertFalse(pagina.isHayMas());
+    }
+
+    @Test
+    void cuandoSeCompacta_entoncesLaReconstruccionCoincideConElStockEnCadaMomento() throws Exception {
+        Long primero = crearProducto(10);
+        Long segundo = crearProducto(50);
+        inventarioService.decrementarStock(primero, 4);
+
+        Thread.sleep(5);
+        LocalDateTime antesDeCompactar = LocalDateTime.now();
+        Thread.sleep(5);
+        assertTrue(libroStock.compactar() >= 2);
+
+        inventarioService.incrementarStock(primero, 7);
+        inventarioService.decrementarStock(segundo, 20);
+        LocalDateTime ahora = LocalDateTime.now();
+
+        assertEquals(6, libroStock.reconstruirStock(primero, antesDeCompactar));
+        assertEquals(13, libroStock.reconstruirStock(primero, ahora));
+        assertEquals(30, libroStock.reconstruirStock(segundo, ahora));
+
+        // La reconstrucción completa coincide con el stock actual de cada producto
+        Map<Long, Integer> stock = libroStock.reconstruirStock(ahora);
+        for (Long productoId : productos) {
+            assertEquals(inventarioService.buscarPorProductoId(productoId).getCantidad(), stock.get(productoId));
+        }
+        assertEquals(50, libroStock.reconstruirStock(antesDeCompactar).get(segundo));
+    }
+
+    @Test
+    void cuandoUnMovimientoConfirmaDespuesDeCompactar_entoncesNoSePierde() throws Exception {
+        Long lento = crearProducto(10);
+        Long rapido = crearProducto(10);
+        libroStock.compactar();
+
+        // Transacción que registra su movimiento (toma el ID) y confirma después de la compactación
+        CountDownLatch registrado = new CountDownLatch(1);
+        CountDownLatch confirmar = new CountDownLatch(1);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        CompletableFuture<Void> pendiente = CompletableFuture.runAsync(() -> transaccion.executeWithoutResult(estado -> {
+            inventarioService.incrementarStock(lento, 5);
+            registrado.countDown();
+            try {
+                confirmar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(registrado.await(10, TimeUnit.SECONDS));
+        inventarioService.incrementarStock(rapido, 1);
+
+        libroStock.compactar();
+        confirmar.countDown();
+        pendiente.get(10, TimeUnit.SECONDS);
+        libroStock.compactar();
+
+        LocalDateTime ahora = LocalDateTime.now();
+        assertEquals(15, libroStock.reconstruirStock(lento, ahora));
+        assertEquals(11, libroStock.reconstruirStock(rapido, ahora));
+        assertEquals(15, libroStock.reconstruirStock(ahora).get(lento));
+    }
+
+    @Test
+    void cuandoUnIdSeEstaAsignando_entoncesNoBloqueaOtrosRegistrosNiLoDejaDentroDelCorte() throws Exception {
+        EntityManager entityManager = mock(EntityManager.class);
+        MovimientoStockRepository movimientoRepository = mock(MovimientoStockRepository.class);
+        InstantaneaStockRepository instantaneaRepository = mock(InstantaneaStockRepository.class);
+        when(movimientoRepository.findUltimoIdAnteriorA(any())).thenReturn(200L);
+        when(movimientoRepository.findCantidadesAlCorte(anyLong(), anyLong())).thenReturn(List.of());
+        LibroStock libro = new LibroStock(movimientoRepository, instantaneaRepository, entityManager, 0);
+
+        // Los IDs salen en orden, pero el 101 tarda (viaje a la secuencia) y el 102 termina antes
+        CountDownLatch asignando = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+        AtomicLong siguienteId = new AtomicLong(100);
+        doAnswer(invocacion -> {
+            long id = siguienteId.getAndIncrement();
+            MovimientoStock movimiento = invocacion.getArgument(0);
+            ReflectionTestUtils.setField(movimiento, "id", id);
+            if (id == 101) {
+                asignando.countDown();
+                assertTrue(continuar.await(10, TimeUnit.SECONDS));
+            }
+            return null;
+        }).when(entityManager).persist(any(MovimientoStock.class));
+
+        registrarYConfirmar(libro);
+        CompletableFuture<Void> lento = CompletableFuture.runAsync(() -> registrarYConfirmar(libro));
+        assertTrue(asignando.await(10, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            libro.registrar(2L, MovimientoStock.Tipo.INCREMENTO, 1, 1);
+        }).get(10, TimeUnit.SECONDS);
+
+        libro.compactar();
+        continuar.countDown();
+        lento.get(10, TimeUnit.SECONDS);
+
+        // Con el 102 en curso el corte sería 101, pero el 101 todavía no se había anotado
+        verify(movimientoRepository).findCantidadesAlCorte(0L, 100L);
+    }
+
+    private static void registrarYConfirmar(LibroStock libro) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            libro.registrar(1L, MovimientoStock.Tipo.INCREMENTO, 1, 1);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacion -> sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private Long crearProducto(int stock) {
+        Producto producto = productoService.crear(new Producto("Producto libro " + System.nanoTime(), "Test",
+                new BigDecimal("10.00"), categoria), stock, 2);
+        productos.add(producto.getId());
+        return producto.getId();
+    }
+}
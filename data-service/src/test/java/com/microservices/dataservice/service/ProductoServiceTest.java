@@ -0,0 +1,119 @@
+package com.microservices.dataservice.service;
+
+import com.microservices.dataservice.busqueda.FiltroNombresProductos;
+import com.microservices.dataservice.busqueda.IndiceBusquedaProductos;
+import com.microservices.dataservice.busqueda.IndicePreciosProductos;
+import com.microservices.dataservice.dto.PaginaCursor;
+import com.microservices.dataservice.dto.ProductoResumen;
+import com.microservices.dataservice.entity.Producto;
+import com.microservices.dataservice.repository.ProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitarios de las consultas de ProductoService resueltas sobre los índices en memoria
+ *
+ * @author Agustin Benavidez
+ */
+class ProductoServiceTest {
+
+    private ProductoRepository productoRepository;
+    private IndiceBusquedaProductos indiceBusqueda;
+    private IndicePreciosProductos indicePrecios;
+    private ProductoService productoService;
+
+    @BeforeEach
+    void setUp() {
+        productoRepository = mock(ProductoRepository.class);
+        indiceBusqueda = new IndiceBusquedaProductos();
+        indicePrecios = new IndicePreciosProductos();
+        productoService = new ProductoService(productoRepository, mock(CategoriaService.class),
+                mock(InventarioService.class), indiceBusqueda, indicePrecios,
+                mock(FiltroNombresProductos.class), mock(AgregadosInventario.class),
+                mock(RegistroCambios.class), mock(LibroStock.class));
+
+        when(productoRepository.findResumenByIdIn(anyCollection())).thenAnswer(invocacion -> {
+            Collection<Long> ids = invocacion.getArgument(0);
+            return ids.stream().map(ProductoServiceTest::resumen).toList();
+        });
+    }
+
+    private static ProductoResumen resumen(Long id) {
+        return new ProductoResumen(id, "Producto " + id, null, BigDecimal.ONE, 1L, "Test",
+                10, 1, true, null, null);
+    }
+
+    private static List<Long> ids(List<ProductoResumen> productos) {
+        return productos.stream().map(ProductoResumen::getId).toList();
+    }
+
+    @Test
+    void cuandoElIndiceDePreciosEstaCargado_entoncesElRangoNoConsultaLaBase() {
+        IndicePreciosProductos.Carga carga = new IndicePreciosProductos.Carga();
+        carga.agregar(1L, new BigDecimal("300.00"), 1L);
+        carga.agregar(2L, new BigDecimal("100.00"), 1L);
+        carga.agregar(3L, new BigDecimal("200.00"), 2L);
+        carga.agregar(4L, new BigDecimal("100.00"), 2L);
+        indicePrecios.reemplazar(carga);
+
+        List<ProductoResumen> productos = productoService.buscarResumenPorRangoPrecios(
+                new BigDecimal("100"), new BigDecimal("200"));
+
+        assertEquals(List.of(2L, 4L, 3L), ids(productos));
+        verify(productoRepository, never()).findResumenByPrecioBetween(any(), any());
+    }
+
+    @Test
+    void cuandoElIndiceDePreciosNoEstaCargado_entoncesElRangoConsultaLaBase() {
+        when(productoRepository.findResumenByPrecioBetween(any(), any())).thenReturn(List.of(resumen(7L)));
+
+        List<ProductoResumen> productos = productoService.buscarResumenPorRangoPrecios(
+                new BigDecimal("100"), new BigDecimal("200"));
+
+        assertEquals(List.of(7L), ids(productos));
+    }
+
+    @Test
+    void cuandoElIndiceDeBusquedaNoEstaCargado_entoncesBuscaConLikeEnLaBase() {
+        Producto primero = new Producto();
+        primero.setId(9L);
+        Producto segundo = new Producto();
+        segundo.setId(4L);
+        when(productoRepository.buscarPorTexto("laptop")).thenReturn(List.of(primero, segundo));
+
+        assertEquals(List.of(4L, 9L), ids(productoService.buscarResumenPorTexto(" laptop ")));
+        assertTrue(productoService.buscarResumenPorTexto(" ").isEmpty());
+    }
+
+    @Test
+    void cuandoElIndiceDeBusquedaEstaCargado_entoncesPaginaSinConsultarLaBase() {
+        IndiceBusquedaProductos.Carga carga = new IndiceBusquedaProductos.Carga();
+        for (long id = 1; id <= 30; id++) {
+            carga.agregar(id, id % 2 == 0 ? "Cable laptop" : "Cable", null);
+        }
+        indiceBusqueda.reemplazar(carga);
+
+        PaginaCursor<ProductoResumen> primera = productoService.buscarPorTextoPaginado("cable", null, 10);
+        PaginaCursor<ProductoResumen> ultima = productoService.buscarPorTextoPaginado("cable", 20L, 10);
+
+        List<Long> esperados = indiceBusqueda.buscar("cable").stream()
+                .map(IndiceBusquedaProductos.Resultado::productoId).toList();
+        assertEquals(esperados.subList(0, 10), ids(primera.getContenido()));
+        assertTrue(primera.isHayMas());
+        assertEquals(esperados.subList(20, 30), ids(ultima.getContenido()));
+        assertFalse(ultima.isHayMas());
+        verify(productoRepository, never()).buscarPorTexto(any());
+    }
+}
@@ -0,0 +1,138 @@
+package com.microservices.dataservice.service;
+
+import com.microservices.dataservice.dto.PaginaCursor;
+import com.microservices.dataservice.entity.Cambio;
+import com.microservices.dataservice.entity.Categoria;
+import com.microservices.dataservice.entity.Producto;
+import com.microservices.dataservice.repository.CategoriaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del registro de cambios (change feed)
+ *
+ * No es transaccional: las entradas solo son visibles una vez confirmada cada mutación.
+ *
+ * @author Agustin Benavidez
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RegistroCambiosTest {
+
+    @Autowired
+    private RegistroCambios registroCambios;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Categoria categoria;
+    private final List<Long> productos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        categoria = categoriaRepository.save(new Categoria("Cambios " + System.nanoTime(), "Test"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productos.forEach(productoService::eliminarPermanentemente);
+        categoriaRepository.deleteById(categoria.getId());
+    }
+
+    @Test
+    void cuandoHayMutaciones_entoncesElFeedDevuelveSoloLosCambiosPosterioresAlCursor() {
+        long cursor = leerHastaElFinal(null).cursor();
+        Long productoId = crearProducto(10);
+
+        inventarioService.decrementarStock(productoId, 3);
+        productoService.eliminar(productoId);
+
+        Lectura lectura = leerHastaElFinal(cursor);
+        List<String> cambios = lectura.cambios().stream()
+                .filter(c -> c.getProductoId().equals(productoId))
+                .map(c -> c.getEntidad() + ":" + c.getOperacion() + ":" + c.getCantidad())
+                .toList();
+        assertEquals(List.of("PRODUCTO:CREACION:null", "INVENTARIO:CREACION:10",
+                "INVENTARIO:ACTUALIZACION:7", "PRODUCTO:ELIMINACION:null"), cambios);
+
+        // Sin nuevas mutaciones el cursor se conserva y no hay más entradas
+        PaginaCursor<Cambio> vacia = registroCambios.obtenerCambios(lectura.cursor(), 10);
+        assertTrue(vacia.getContenido().isEmpty());
+        assertEquals(lectura.cursor(), vacia.getSiguienteCursor());
+    }
+
+    @Test
+    void cuandoUnaTransaccionAnteriorSigueEnCurso_entoncesNoSeEntreganCambiosPosteriores() throws Exception {
+        Long productoLento = crearProducto(10);
+        Long productoRapido = crearProducto(10);
+        long cursor = leerHastaElFinal(null).cursor();
+
+        CountDownLatch registrado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<Void> lenta = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+                    inventarioService.incrementarStock(productoLento, 1);
+                    registrado.countDown();
+                    try {
+                        liberar.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertTrue(registrado.await(5, TimeUnit.SECONDS));
+
+        // Confirma con un ID mayor mientras la transacción lenta sigue abierta
+        inventarioService.incrementarStock(productoRapido, 1);
+        assertTrue(registroCambios.obtenerCambios(cursor, 10).getContenido().isEmpty());
+
+        liberar.countDown();
+        lenta.get(5, TimeUnit.SECONDS);
+        List<Long> orden = leerHastaElFinal(cursor).cambios().stream().map(Cambio::getProductoId).toList();
+        assertEquals(List.of(productoLento, productoRapido), orden);
+    }
+
+    private Long crearProducto(int stock) {
+        Producto producto = productoService.crear(new Producto("Producto cambios " + System.nanoTime(), "Test",
+                new BigDecimal("10.00"), categoria), stock, 2);
+        productos.add(producto.getId());
+        return producto.getId();
+    }
+
+    private Lectura leerHastaElFinal(Long desde) {
+        List<Cambio> cambios = new ArrayList<>();
+        PaginaCursor<Cambio> pagina;
+        do {
+            pagina = registroCambios.obtenerCambios(desde, 500);
+            cambios.addAll(pagina.getContenido());
+            desde = pagina.getSiguienteCursor();
+        } while (pagina.isHayMas());
+        return new Lectura(cambios, desde);
+    }
+
+    private record Lectura(List<Cambio> cambios, long cursor) {
+    }
+}